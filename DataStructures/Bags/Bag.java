@@ -1,12 +1,22 @@
 package DataStructures.Bags;
 
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
 
 /**
  * 只允许添加和遍历，而不允许删除的集合
  * <p>
  * 本质是一个只能在<b>头部<b/>添加的单链表
+ * <p>
+ * 也可以使用数组模式：元素存放在连续数组中，遍历和并行分割更快；
+ * 可选地再维护一个哈希索引（元素 -> 出现次数），使 contains 为 O(1)
  *
  * @param <Element> - the generic type of an element in this bag
  */
@@ -18,6 +28,12 @@ public class Bag<Element> implements Iterable<Element> {
     // 包中元素的数量
     private int size;
 
+    // 数组模式下存放元素的数组，链表模式下为null
+    private Object[] elements;
+
+    // 可选的哈希索引，记录每个元素出现的次数
+    private Map<Element, Integer> counts;
+
     /**
      * 节点类型
      * <p>
@@ -36,11 +52,26 @@ public class Bag<Element> implements Iterable<Element> {
         size = 0;
     }
 
+    /**
+     * 数组模式构造
+     *
+     * @param initialCapacity - the starting length of the backing array
+     * @param hashIndex       - whether to keep a hash index so that contains runs in O(1)
+     */
+    public Bag(int initialCapacity, boolean hashIndex) {
+        if (initialCapacity < 1) throw new IllegalArgumentException("capacity must be positive");
+        elements = new Object[initialCapacity];
+        size = 0;
+        if (hashIndex) {
+            counts = new HashMap<>();
+        }
+    }
+
     /**
      * @return true if this bag is empty, false otherwise
      */
     public boolean isEmpty() {
-        return firstElement == null;
+        return size == 0;
     }
 
     /**
@@ -58,6 +89,17 @@ public class Bag<Element> implements Iterable<Element> {
      * @param element - the element to add
      */
     public void add(Element element) {
+        if (elements != null) {
+            // 数组模式：满了就扩容为两倍
+            if (size == elements.length) {
+                elements = Arrays.copyOf(elements, size * 2);
+            }
+            elements[size++] = element;
+            if (counts != null) {
+                counts.merge(element, 1, Integer::sum);
+            }
+            return;
+        }
         Node<Element> oldfirst = firstElement;
         firstElement = new Node<>();
         firstElement.content = element;
@@ -72,6 +114,18 @@ public class Bag<Element> implements Iterable<Element> {
      * @return true if bag contains element, otherwise false
      */
     public boolean contains(Element element) {
+        // 有哈希索引时直接查找
+        if (counts != null) {
+            return counts.containsKey(element);
+        }
+        if (elements != null) {
+            for (int i = 0; i < size; i++) {
+                if (Objects.equals(elements[i], element)) {
+                    return true;
+                }
+            }
+            return false;
+        }
         Iterator<Element> iterator = this.iterator();
         //依次遍历，发现元素即停止
         while (iterator.hasNext()) {
@@ -90,9 +144,124 @@ public class Bag<Element> implements Iterable<Element> {
      * @return an iterator that iterates over the elements in this bag in arbitrary order
      */
     public Iterator<Element> iterator() {
+        if (elements != null) {
+            return new ArrayIterator();
+        }
         return new ListIterator<>(firstElement);
     }
 
+    /**
+     * 对每个元素执行操作，数组模式下直接遍历数组
+     *
+     * @param action - the action to perform on each element
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super Element> action) {
+        Objects.requireNonNull(action);
+        if (elements == null) {
+            for (Node<Element> node = firstElement; node != null; node = node.nextElement) {
+                action.accept(node.content);
+            }
+            return;
+        }
+        final Object[] elements = this.elements;
+        for (int i = size - 1; i >= 0; i--) {
+            action.accept((Element) elements[i]);
+        }
+    }
+
+    /**
+     * 返回分割迭代器
+     * <p>
+     * 数组模式下按下标区间对半分割，并准确报告大小；链表模式只能分批复制后分割
+     *
+     * @return a spliterator over the elements in this bag
+     */
+    @Override
+    public Spliterator<Element> spliterator() {
+        if (elements != null) {
+            return new ArraySpliterator(0, size);
+        }
+        return Spliterators.spliterator(iterator(), size, 0);
+    }
+
+    /**
+     * 数组模式的迭代器，和链表模式一样先返回最后添加的元素
+     */
+    private class ArrayIterator implements Iterator<Element> {
+        private int cursor = size;
+
+        public boolean hasNext() {
+            return cursor > 0;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        @SuppressWarnings("unchecked")
+        public Element next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return (Element) elements[--cursor];
+        }
+    }
+
+    /**
+     * 数组模式的分割迭代器，覆盖下标区间 [index, fence)
+     */
+    private class ArraySpliterator implements Spliterator<Element> {
+        private int index;
+        private final int fence;
+
+        ArraySpliterator(int origin, int fence) {
+            this.index = origin;
+            this.fence = fence;
+        }
+
+        @Override
+        public Spliterator<Element> trySplit() {
+            int lo = index;
+            int mid = (lo + fence) >>> 1;
+            if (lo >= mid) return null;
+            index = mid;
+            return new ArraySpliterator(lo, mid);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean tryAdvance(Consumer<? super Element> action) {
+            Objects.requireNonNull(action);
+            if (index >= fence) return false;
+            action.accept((Element) elements[index++]);
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void forEachRemaining(Consumer<? super Element> action) {
+            Objects.requireNonNull(action);
+            final Object[] elements = Bag.this.elements;
+            final int hi = fence;
+            int i = index;
+            index = hi;
+            for (; i < hi; i++) {
+                action.accept((Element) elements[i]);
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
+
     /**
      * 迭代器类型
      */
@@ -143,5 +312,16 @@ public class Bag<Element> implements Iterable<Element> {
         System.out.println(bag.contains(null));
         System.out.println(bag.contains("1"));
         System.out.println(bag.contains("3"));
+
+        Bag<Integer> indexed = new Bag<>(4, true);
+        for (int i = 0; i < 100_000; i++) {
+            indexed.add(i % 1000);
+        }
+        assert indexed.size() == 100_000;
+        assert indexed.contains(999);
+        assert !indexed.contains(1000);
+        long sum = java.util.stream.StreamSupport.stream(indexed.spliterator(), true)
+                .mapToLong(Integer::longValue).sum();
+        assert sum == 100L * 999 * 1000 / 2;
     }
 }
@@ -19,11 +19,12 @@ public class CircularBuffer {
   }
 
   private boolean IsPowerOfTwo(int i) {
-    return (i & (i - 1)) == 0;
+    return i > 0 && (i & (i - 1)) == 0;
   }
 
   private int getTrueIndex(int i) {
-    return i % _buffer_size;
+    // _buffer_size is a power of two, so masking keeps the index in range even after overflow
+    return i & (_buffer_size - 1);
   }
 
   public Character readOutChar() {
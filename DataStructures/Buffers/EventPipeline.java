@@ -0,0 +1,212 @@
+package DataStructures.Buffers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Wires {@link EventProcessor}s into dependent stages over one {@link EventRing}. Every handler of
+ * a stage sees every event, and a stage only sees an event once all handlers of the previous stage
+ * are done with it:
+ *
+ * <pre>
+ *   pipeline.handleEventsWith(journal, replicate).then(businessLogic);
+ *   pipeline.start();
+ *   pipeline.publish(event -&gt; event.value = 42);
+ * </pre>
+ *
+ * @param <E> the type of the preallocated events
+ */
+public class EventPipeline<E> {
+
+  /** Group of processors that run side by side and share the same dependencies. */
+  public class Stage {
+    private final Sequence[] sequences;
+
+    private Stage(Sequence[] sequences) {
+      this.sequences = sequences;
+    }
+
+    /** Adds a stage whose handlers only see events this stage has finished with. */
+    @SafeVarargs
+    public final Stage then(EventProcessor.Handler<? super E>... handlers) {
+      /* Copied element by element, since the varargs array must not escape a @SafeVarargs method */
+      List<EventProcessor.Handler<? super E>> stage = new ArrayList<>(handlers.length);
+      for (EventProcessor.Handler<? super E> handler : handlers) {
+        stage.add(handler);
+      }
+      return createStage(sequences, stage);
+    }
+  }
+
+  private final EventRing<E> ring;
+  private final List<EventProcessor<E>> processors = new ArrayList<>();
+  /** Sequences of the processors no other stage depends on, they gate the producer. */
+  private final List<Sequence> lastSequences = new ArrayList<>();
+  private final List<Thread> threads = new ArrayList<>();
+
+  public EventPipeline(Supplier<E> factory, int ringSize, WaitStrategy waitStrategy) {
+    this.ring = new EventRing<>(factory, ringSize, waitStrategy);
+  }
+
+  public EventRing<E> getRing() {
+    return ring;
+  }
+
+  /** Adds a first stage whose handlers see events as soon as they are published. */
+  @SafeVarargs
+  public final Stage handleEventsWith(EventProcessor.Handler<? super E>... handlers) {
+    return new Stage(new Sequence[0]).then(handlers);
+  }
+
+  private Stage createStage(
+      Sequence[] dependencies, List<EventProcessor.Handler<? super E>> handlers) {
+    if (!threads.isEmpty()) {
+      throw new IllegalStateException("pipeline already started");
+    }
+    lastSequences.removeAll(Arrays.asList(dependencies));
+    SequenceBarrier barrier = ring.newBarrier(dependencies);
+    Sequence[] sequences = new Sequence[handlers.size()];
+    for (int i = 0; i < sequences.length; i++) {
+      EventProcessor<E> processor = new EventProcessor<>(ring, barrier, handlers.get(i));
+      processors.add(processor);
+      sequences[i] = processor.getSequence();
+      lastSequences.add(sequences[i]);
+    }
+    return new Stage(sequences);
+  }
+
+  /** Starts one thread per processor. */
+  public void start() {
+    if (!threads.isEmpty()) {
+      throw new IllegalStateException("pipeline already started");
+    }
+    ring.addGatingSequences(lastSequences.toArray(new Sequence[0]));
+    for (EventProcessor<E> processor : processors) {
+      Thread thread = new Thread(processor, "event-processor-" + threads.size());
+      thread.setDaemon(true);
+      threads.add(thread);
+      thread.start();
+    }
+  }
+
+  /**
+   * Claims the next slot, lets {@code translator} fill in its event and publishes it. Producer
+   * thread only.
+   */
+  public void publish(Consumer<? super E> translator) {
+    long sequence = ring.next();
+    translator.accept(ring.get(sequence));
+    ring.publish(sequence);
+  }
+
+  /** Waits for every published event to be handled by all stages, then stops the processors. */
+  public void shutdown() throws InterruptedException {
+    long published = ring.cursor().get();
+    Sequence[] last = lastSequences.toArray(new Sequence[0]);
+    while (Sequence.minimum(last, published) < published) {
+      Thread.yield();
+    }
+    for (EventProcessor<E> processor : processors) {
+      processor.halt();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+  }
+
+  /** Event used by the driver code */
+  private static class ValueEvent {
+    long value;
+    long doubled;
+    long squared;
+  }
+
+  /* Driver Code */
+  public static void main(String[] args) throws InterruptedException {
+    /* Diamond: two independent handlers, then one that combines their results */
+    final long events = 100_000;
+    long[] checksum = {0};
+    EventPipeline<ValueEvent> diamond =
+        new EventPipeline<>(ValueEvent::new, 1024, WaitStrategy.blocking());
+    diamond
+        .handleEventsWith(
+            (e, seq, end) -> e.doubled = 2 * e.value,
+            (e, seq, end) -> e.squared = e.value * e.value)
+        .then(
+            (e, seq, end) -> {
+              assert e.doubled == 2 * e.value && e.squared == e.value * e.value;
+              checksum[0] += e.doubled + e.squared;
+            });
+    diamond.start();
+    for (long i = 0; i < events; i++) {
+      final long value = i;
+      diamond.publish(e -> e.value = value);
+    }
+    diamond.shutdown();
+    long expected = 0;
+    for (long i = 0; i < events; i++) {
+      expected += 2 * i + i * i;
+    }
+    assert checksum[0] == expected;
+
+    /* Shut down before the processor threads got to run */
+    for (int i = 0; i < 200; i++) {
+      EventPipeline<ValueEvent> idle =
+          new EventPipeline<>(ValueEvent::new, 8, WaitStrategy.blocking());
+      idle.handleEventsWith((e, seq, end) -> {}, (e, seq, end) -> {});
+      idle.start();
+      idle.shutdown();
+    }
+
+    /* Throughput: one producer and one consumer, against ArrayBlockingQueue */
+    final int iterations = 10_000_000;
+    WaitStrategy[] strategies = {
+      WaitStrategy.yielding(), WaitStrategy.parking(), WaitStrategy.blocking()
+    };
+    String[] names = {"yielding", "parking", "blocking"};
+    for (int s = 0; s < strategies.length; s++) {
+      long[] sum = {0};
+      EventPipeline<ValueEvent> pipeline =
+          new EventPipeline<>(ValueEvent::new, 1024, strategies[s]);
+      pipeline.handleEventsWith((e, seq, end) -> sum[0] += e.value);
+      pipeline.start();
+      long start = System.nanoTime();
+      for (int i = 0; i < iterations; i++) {
+        final long value = i;
+        pipeline.publish(e -> e.value = value);
+      }
+      pipeline.shutdown();
+      long elapsed = System.nanoTime() - start;
+      assert sum[0] == (long) iterations * (iterations - 1) / 2;
+      System.out.printf(
+          "EventPipeline (%s): %,d ops/s%n", names[s], iterations * 1_000_000_000L / elapsed);
+    }
+
+    ArrayBlockingQueue<Long> queue = new ArrayBlockingQueue<>(1024);
+    long[] sum = {0};
+    Thread consumer =
+        new Thread(
+            () -> {
+              try {
+                for (int i = 0; i < iterations; i++) {
+                  sum[0] += queue.take();
+                }
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+            });
+    long start = System.nanoTime();
+    consumer.start();
+    for (long i = 0; i < iterations; i++) {
+      queue.put(i);
+    }
+    consumer.join();
+    long elapsed = System.nanoTime() - start;
+    assert sum[0] == (long) iterations * (iterations - 1) / 2;
+    System.out.printf("ArrayBlockingQueue: %,d ops/s%n", iterations * 1_000_000_000L / elapsed);
+  }
+}
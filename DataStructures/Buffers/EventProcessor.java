@@ -0,0 +1,78 @@
+package DataStructures.Buffers;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Consumer loop of an {@link EventRing}: waits on its barrier, hands every available event to its
+ * handler in one batch, then advances its own sequence so that downstream stages and the producer
+ * can move on.
+ *
+ * @param <E> the type of the events
+ */
+public class EventProcessor<E> implements Runnable {
+
+  /** Callback receiving the events of a ring. */
+  public interface Handler<E> {
+    /**
+     * @param event the event, only valid until this method returns
+     * @param sequence the sequence of the event
+     * @param endOfBatch <tt>true</tt> for the last event currently available
+     */
+    void onEvent(E event, long sequence, boolean endOfBatch);
+  }
+
+  private final EventRing<E> ring;
+  private final SequenceBarrier barrier;
+  private final Handler<? super E> handler;
+  private final Sequence sequence = new Sequence();
+  private final AtomicBoolean running = new AtomicBoolean();
+  /** Set for good by {@link #halt()}, even before the processor runs */
+  private volatile boolean halted;
+
+  public EventProcessor(EventRing<E> ring, SequenceBarrier barrier, Handler<? super E> handler) {
+    this.ring = ring;
+    this.barrier = barrier;
+    this.handler = handler;
+  }
+
+  /** @return the sequence of the last event handled */
+  public Sequence getSequence() {
+    return sequence;
+  }
+
+  /**
+   * Stops the processor once it is waiting for events, or as soon as it starts if it has not yet.
+   * A halted processor does not run again.
+   */
+  public void halt() {
+    halted = true;
+    barrier.alert();
+  }
+
+  @Override
+  public void run() {
+    if (!running.compareAndSet(false, true)) {
+      throw new IllegalStateException("processor is already running");
+    }
+    /* The alert is never cleared here: the barrier is shared by the stage, and clearing it could
+    drop the halt of this processor or of another one that has not started yet */
+    long nextSequence = sequence.get() + 1;
+    while (true) {
+      try {
+        long available = barrier.waitFor(nextSequence);
+        while (nextSequence <= available) {
+          handler.onEvent(ring.get(nextSequence), nextSequence, nextSequence == available);
+          nextSequence++;
+        }
+        sequence.lazySet(available);
+      } catch (SequenceBarrier.AlertException e) {
+        if (halted) {
+          return;
+        }
+      } catch (InterruptedException e) {
+        running.set(false);
+        return;
+      }
+    }
+  }
+}
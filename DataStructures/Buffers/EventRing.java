@@ -0,0 +1,111 @@
+package DataStructures.Buffers;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Ring of preallocated event objects for a single producer, in the style of the LMAX Disruptor.
+ *
+ * <p>Instead of allocating and enqueuing a new object per message, the producer claims the next
+ * sequence with {@link #next()}, fills in the event already sitting in that slot with {@link
+ * #get(long)} and makes it visible with {@link #publish(long)}. Consumers read the slots in place
+ * through a {@link SequenceBarrier}. The producer never overwrites a slot that the gating
+ * sequences, usually those of the last consumer stage, have not processed yet.
+ *
+ * <p>https://lmax-exchange.github.io/disruptor/disruptor.html
+ *
+ * @param <E> the type of the preallocated events
+ */
+public class EventRing<E> {
+
+  private final Object[] entries;
+  private final int mask;
+  private final WaitStrategy waitStrategy;
+  private final Sequence cursor = new Sequence();
+  private volatile Sequence[] gatingSequences = new Sequence[0];
+
+  /* Producer-local state */
+  private long nextValue = -1;
+  private long cachedGatingSequence = -1;
+
+  /**
+   * @param factory creates the events stored in the ring, called once per slot
+   * @param size number of slots, must be a power of two
+   * @param waitStrategy how consumers wait for new events
+   */
+  public EventRing(Supplier<E> factory, int size, WaitStrategy waitStrategy) {
+    if (size < 1 || (size & (size - 1)) != 0) {
+      throw new IllegalArgumentException("size must be a power of two");
+    }
+    this.entries = new Object[size];
+    for (int i = 0; i < size; i++) {
+      entries[i] = factory.get();
+    }
+    this.mask = size - 1;
+    this.waitStrategy = waitStrategy;
+  }
+
+  public int size() {
+    return entries.length;
+  }
+
+  /** @return the sequence of the last published event */
+  public Sequence cursor() {
+    return cursor;
+  }
+
+  /** Registers sequences the producer must not lap, typically those of the last stage. */
+  public void addGatingSequences(Sequence... sequences) {
+    Sequence[] current = gatingSequences;
+    Sequence[] updated = java.util.Arrays.copyOf(current, current.length + sequences.length);
+    System.arraycopy(sequences, 0, updated, current.length, sequences.length);
+    gatingSequences = updated;
+  }
+
+  /**
+   * Creates a barrier for a processor that reads events after the given processors have handled
+   * them, or right after they are published if none are given.
+   */
+  public SequenceBarrier newBarrier(Sequence... dependents) {
+    return new SequenceBarrier(waitStrategy, cursor, dependents);
+  }
+
+  /** @return the event stored in the slot of {@code sequence} */
+  @SuppressWarnings("unchecked")
+  public E get(long sequence) {
+    return (E) entries[(int) sequence & mask];
+  }
+
+  /** Claims the next slot, waiting while the ring is full. Producer thread only. */
+  public long next() {
+    return next(1);
+  }
+
+  /**
+   * Claims the next {@code n} slots, waiting while the ring is full. Producer thread only.
+   *
+   * @return the highest claimed sequence
+   */
+  public long next(int n) {
+    if (n < 1 || n > entries.length) {
+      throw new IllegalArgumentException("n must be in [1, size]");
+    }
+    long nextSequence = nextValue + n;
+    long wrapPoint = nextSequence - entries.length;
+    if (wrapPoint > cachedGatingSequence) {
+      long minSequence;
+      while (wrapPoint > (minSequence = Sequence.minimum(gatingSequences, nextValue))) {
+        LockSupport.parkNanos(1);
+      }
+      cachedGatingSequence = minSequence;
+    }
+    nextValue = nextSequence;
+    return nextSequence;
+  }
+
+  /** Makes every claimed event up to {@code sequence} visible to consumers. */
+  public void publish(long sequence) {
+    cursor.set(sequence);
+    waitStrategy.signalAllWhenBlocking();
+  }
+}
@@ -0,0 +1,208 @@
+package DataStructures.Buffers;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free queue for any number of producer and consumer threads.
+ *
+ * <p>Every slot carries a sequence number telling whether it is ready to be written or read for a
+ * given lap around the ring. Producers claim a position by a CAS on the tail, write the element and
+ * then publish it by advancing the slot sequence; consumers do the same on the head. A thread
+ * therefore only contends on one counter and never waits for a lock.
+ *
+ * <p>http://www.1024cores.net/home/lock-free-algorithms/queues/bounded-mpmc-queue
+ *
+ * @param <E> the type of elements held in this buffer
+ */
+public class MpmcRingBuffer<E> {
+
+  private final Object[] buffer;
+  private final AtomicLongArray sequences;
+  private final int mask;
+  private final PaddedAtomicLong head = new PaddedAtomicLong(0);
+  private final PaddedAtomicLong tail = new PaddedAtomicLong(0);
+
+  /** @param capacity the buffer capacity, must be a power of two and at least 2 */
+  public MpmcRingBuffer(int capacity) {
+    if (capacity < 2 || (capacity & (capacity - 1)) != 0) {
+      throw new IllegalArgumentException("capacity must be a power of two");
+    }
+    buffer = new Object[capacity];
+    sequences = new AtomicLongArray(capacity);
+    for (int i = 0; i < capacity; i++) {
+      sequences.set(i, i);
+    }
+    mask = capacity - 1;
+  }
+
+  public int capacity() {
+    return buffer.length;
+  }
+
+  /** @return an estimate of the number of elements, exact when no thread is modifying the buffer */
+  public int size() {
+    long size = tail.get() - head.get();
+    return (int) Math.max(0, Math.min(size, buffer.length));
+  }
+
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  /**
+   * Adds an element.
+   *
+   * @return <tt>true</tt> if added, <tt>false</tt> if the buffer is full
+   */
+  public boolean offer(E e) {
+    if (e == null) {
+      throw new NullPointerException();
+    }
+    long t = tail.get();
+    while (true) {
+      int index = (int) t & mask;
+      long diff = sequences.get(index) - t;
+      if (diff == 0) {
+        if (tail.compareAndSet(t, t + 1)) {
+          buffer[index] = e;
+          sequences.lazySet(index, t + 1);
+          return true;
+        }
+        t = tail.get();
+      } else if (diff < 0) {
+        return false; // slot still holds an element from the previous lap
+      } else {
+        t = tail.get(); // another producer took this position
+      }
+    }
+  }
+
+  /**
+   * Removes the oldest element.
+   *
+   * @return the element, or <tt>null</tt> if the buffer is empty
+   */
+  @SuppressWarnings("unchecked")
+  public E poll() {
+    long h = head.get();
+    while (true) {
+      int index = (int) h & mask;
+      long diff = sequences.get(index) - (h + 1);
+      if (diff == 0) {
+        if (head.compareAndSet(h, h + 1)) {
+          E e = (E) buffer[index];
+          buffer[index] = null;
+          sequences.lazySet(index, h + buffer.length);
+          return e;
+        }
+        h = head.get();
+      } else if (diff < 0) {
+        return null; // slot not yet published for this lap
+      } else {
+        h = head.get(); // another consumer took this position
+      }
+    }
+  }
+
+  /**
+   * Adds elements of {@code src[offset..offset+length)} until the buffer is full.
+   *
+   * @return number of elements added
+   * @throws IndexOutOfBoundsException if the range is not within {@code src}
+   */
+  public int offerAll(E[] src, int offset, int length) {
+    Objects.checkFromIndexSize(offset, length, src.length);
+    int n = 0;
+    while (n < length && offer(src[offset + n])) {
+      n++;
+    }
+    return n;
+  }
+
+  /**
+   * Removes up to {@code limit} elements and passes them to {@code sink}.
+   *
+   * @return number of elements removed
+   */
+  public int drainTo(Consumer<? super E> sink, int limit) {
+    int n = 0;
+    E e;
+    while (n < limit && (e = poll()) != null) {
+      sink.accept(e);
+      n++;
+    }
+    return n;
+  }
+
+  /**
+   * Removes the available elements into {@code target}.
+   *
+   * @return number of elements removed
+   */
+  public int drainTo(Collection<? super E> target) {
+    return drainTo(target::add, Integer.MAX_VALUE);
+  }
+
+  /* Driver Code */
+  public static void main(String[] args) throws InterruptedException {
+    MpmcRingBuffer<Integer> ring = new MpmcRingBuffer<>(4);
+    assert ring.poll() == null;
+    assert ring.offerAll(new Integer[] {1, 2, 3, 4, 5}, 0, 5) == 4;
+    assert ring.poll() == 1;
+    assert ring.offer(5);
+    java.util.List<Integer> out = new java.util.ArrayList<>();
+    assert ring.drainTo(out) == 4;
+    assert out.equals(java.util.Arrays.asList(2, 3, 4, 5));
+
+    /* Four producers and four consumers: the sum of consumed values must match */
+    final int threads = 4;
+    final int perProducer = 1_000_000;
+    MpmcRingBuffer<Integer> shared = new MpmcRingBuffer<>(1024);
+    java.util.concurrent.atomic.AtomicLong sum = new java.util.concurrent.atomic.AtomicLong();
+    java.util.concurrent.atomic.AtomicInteger consumed =
+        new java.util.concurrent.atomic.AtomicInteger();
+    Thread[] workers = new Thread[threads * 2];
+    for (int p = 0; p < threads; p++) {
+      workers[p] =
+          new Thread(
+              () -> {
+                for (int i = 1; i <= perProducer; i++) {
+                  while (!shared.offer(i)) {
+                    Thread.yield();
+                  }
+                }
+              });
+    }
+    for (int c = 0; c < threads; c++) {
+      workers[threads + c] =
+          new Thread(
+              () -> {
+                long local = 0;
+                while (consumed.get() < threads * perProducer) {
+                  Integer e = shared.poll();
+                  if (e == null) {
+                    Thread.yield();
+                    continue;
+                  }
+                  local += e;
+                  consumed.incrementAndGet();
+                }
+                sum.addAndGet(local);
+              });
+    }
+    long start = System.nanoTime();
+    for (Thread worker : workers) {
+      worker.start();
+    }
+    for (Thread worker : workers) {
+      worker.join();
+    }
+    long elapsed = System.nanoTime() - start;
+    assert sum.get() == (long) threads * perProducer * (perProducer + 1) / 2;
+    System.out.println(
+        "transferred " + consumed.get() + " elements in " + elapsed / 1_000_000 + " ms");
+  }
+}
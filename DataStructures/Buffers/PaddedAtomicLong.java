@@ -0,0 +1,18 @@
+package DataStructures.Buffers;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An {@link AtomicLong} followed by enough unused fields to fill a cache line, so that two hot
+ * counters written by different threads (e.g. the head and tail of a ring buffer) do not end up on
+ * the same cache line and invalidate each other (false sharing).
+ */
+@SuppressWarnings("serial")
+class PaddedAtomicLong extends AtomicLong {
+  /* Padding, never read: neither javac nor the JIT removes unused fields */
+  long p1, p2, p3, p4, p5, p6, p7;
+
+  PaddedAtomicLong(long initialValue) {
+    super(initialValue);
+  }
+}
@@ -0,0 +1,28 @@
+package DataStructures.Buffers;
+
+/**
+ * Padded counter that tracks how far a producer or an event processor has progressed through an
+ * {@link EventRing}. A sequence starts at -1, meaning nothing has been published or processed yet.
+ */
+@SuppressWarnings("serial")
+public class Sequence extends PaddedAtomicLong {
+
+  public Sequence() {
+    this(-1);
+  }
+
+  public Sequence(long initialValue) {
+    super(initialValue);
+  }
+
+  /**
+   * @return the smallest value among the given sequences, or {@code defaultValue} if there are none
+   */
+  public static long minimum(Sequence[] sequences, long defaultValue) {
+    long min = defaultValue;
+    for (Sequence sequence : sequences) {
+      min = Math.min(min, sequence.get());
+    }
+    return min;
+  }
+}
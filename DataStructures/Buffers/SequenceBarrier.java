@@ -0,0 +1,59 @@
+package DataStructures.Buffers;
+
+/**
+ * Gate an event processor waits on before reading a slot of an {@link EventRing}: a slot can be
+ * read once the producer has published it and every processor of the previous stage has handled
+ * it. A barrier can be alerted to make waiting processors return, which is how they are stopped.
+ */
+public class SequenceBarrier {
+
+  /** Thrown out of {@link #waitFor(long)} when the barrier has been alerted. */
+  @SuppressWarnings("serial")
+  public static class AlertException extends Exception {
+    public AlertException() {
+      super("barrier alerted");
+    }
+  }
+
+  private final WaitStrategy waitStrategy;
+  private final Sequence cursor;
+  private final Sequence[] dependents;
+  private volatile boolean alerted;
+
+  SequenceBarrier(WaitStrategy waitStrategy, Sequence cursor, Sequence[] dependents) {
+    this.waitStrategy = waitStrategy;
+    this.cursor = cursor;
+    this.dependents = dependents.length == 0 ? new Sequence[] {cursor} : dependents.clone();
+  }
+
+  /**
+   * Waits until {@code sequence} can be read.
+   *
+   * @return the highest sequence that can be read, at least {@code sequence}
+   * @throws AlertException if the barrier was alerted while waiting
+   */
+  public long waitFor(long sequence) throws AlertException, InterruptedException {
+    checkAlert();
+    return waitStrategy.waitFor(sequence, cursor, dependents, this);
+  }
+
+  /** Makes the threads waiting on this barrier throw {@link AlertException}. */
+  public void alert() {
+    alerted = true;
+    waitStrategy.signalAllWhenBlocking();
+  }
+
+  public void clearAlert() {
+    alerted = false;
+  }
+
+  public boolean isAlerted() {
+    return alerted;
+  }
+
+  public void checkAlert() throws AlertException {
+    if (alerted) {
+      throw new AlertException();
+    }
+  }
+}
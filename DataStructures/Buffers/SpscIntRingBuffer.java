@@ -0,0 +1,188 @@
+package DataStructures.Buffers;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Primitive {@code int} version of {@link SpscRingBuffer}: a bounded lock-free queue for one
+ * producer thread and one consumer thread that never boxes its elements.
+ */
+public class SpscIntRingBuffer {
+
+  private final int[] buffer;
+  private final int mask;
+  /** Next slot to read, written by the consumer only. */
+  private final SpscRingBuffer.Cursor head = new SpscRingBuffer.Cursor();
+  /** Next slot to write, written by the producer only. */
+  private final SpscRingBuffer.Cursor tail = new SpscRingBuffer.Cursor();
+
+  /** @param capacity the buffer capacity, must be a power of two */
+  public SpscIntRingBuffer(int capacity) {
+    if (capacity < 1 || (capacity & (capacity - 1)) != 0) {
+      throw new IllegalArgumentException("capacity must be a power of two");
+    }
+    buffer = new int[capacity];
+    mask = capacity - 1;
+  }
+
+  public int capacity() {
+    return buffer.length;
+  }
+
+  /** @return an estimate of the number of elements, exact when no thread is modifying the buffer */
+  public int size() {
+    return (int) (tail.get() - head.get());
+  }
+
+  public boolean isEmpty() {
+    return tail.get() == head.get();
+  }
+
+  /**
+   * Adds an element, producer thread only.
+   *
+   * @return <tt>true</tt> if added, <tt>false</tt> if the buffer is full
+   */
+  public boolean offer(int value) {
+    long t = tail.get();
+    if (t - tail.cachedOther >= buffer.length) {
+      tail.cachedOther = head.get();
+      if (t - tail.cachedOther >= buffer.length) {
+        return false;
+      }
+    }
+    buffer[(int) t & mask] = value;
+    tail.lazySet(t + 1);
+    return true;
+  }
+
+  /**
+   * Adds as many values of {@code src[offset..offset+length)} as fit, producer thread only.
+   *
+   * @return number of values added
+   * @throws IndexOutOfBoundsException if the range is not within {@code src}
+   */
+  public int offerAll(int[] src, int offset, int length) {
+    Objects.checkFromIndexSize(offset, length, src.length);
+    long t = tail.get();
+    int free = buffer.length - (int) (t - tail.cachedOther);
+    if (free < length) {
+      tail.cachedOther = head.get();
+      free = buffer.length - (int) (t - tail.cachedOther);
+    }
+    int n = Math.min(free, length);
+    int start = (int) t & mask;
+    int firstPart = Math.min(n, buffer.length - start);
+    System.arraycopy(src, offset, buffer, start, firstPart);
+    System.arraycopy(src, offset + firstPart, buffer, 0, n - firstPart);
+    tail.lazySet(t + n);
+    return n;
+  }
+
+  /**
+   * Removes the oldest value, consumer thread only.
+   *
+   * @return the value
+   * @throws NoSuchElementException if the buffer is empty
+   */
+  public int poll() {
+    long h = head.get();
+    if (h >= head.cachedOther) {
+      head.cachedOther = tail.get();
+      if (h >= head.cachedOther) {
+        throw new NoSuchElementException("buffer is empty");
+      }
+    }
+    int value = buffer[(int) h & mask];
+    head.lazySet(h + 1);
+    return value;
+  }
+
+  /**
+   * Removes up to {@code length} values into {@code dst[offset..]}, consumer thread only.
+   *
+   * @return number of values removed
+   * @throws IndexOutOfBoundsException if the range is not within {@code dst}
+   */
+  public int drainTo(int[] dst, int offset, int length) {
+    Objects.checkFromIndexSize(offset, length, dst.length);
+    long h = head.get();
+    long available = head.cachedOther - h;
+    if (available < length) {
+      head.cachedOther = tail.get();
+      available = head.cachedOther - h;
+    }
+    int n = (int) Math.min(available, length);
+    int start = (int) h & mask;
+    int firstPart = Math.min(n, buffer.length - start);
+    System.arraycopy(buffer, start, dst, offset, firstPart);
+    System.arraycopy(buffer, 0, dst, offset + firstPart, n - firstPart);
+    head.lazySet(h + n);
+    return n;
+  }
+
+  /* Driver Code */
+  public static void main(String[] args) throws InterruptedException {
+    SpscIntRingBuffer ring = new SpscIntRingBuffer(4);
+    assert ring.offer(1);
+    assert ring.poll() == 1;
+    assert ring.offerAll(new int[] {2, 3, 4, 5, 6}, 0, 5) == 4; // wraps around the end
+    int[] out = new int[8];
+    assert ring.drainTo(out, 0, 8) == 4;
+    assert out[0] == 2 && out[3] == 5;
+    assert ring.isEmpty();
+    for (int[] range : new int[][] {{0, -1}, {-1, 1}, {8, 1}}) {
+      try {
+        ring.drainTo(out, range[0], range[1]);
+        assert false;
+      } catch (IndexOutOfBoundsException expected) {
+      }
+      try {
+        ring.offerAll(out, range[0], range[1]);
+        assert false;
+      } catch (IndexOutOfBoundsException expected) {
+      }
+    }
+    assert ring.offerAll(out, 8, 0) == 0 && ring.isEmpty();
+
+    final int count = 20_000_000;
+    SpscIntRingBuffer shared = new SpscIntRingBuffer(4096);
+    Thread producer =
+        new Thread(
+            () -> {
+              int[] batch = new int[64];
+              int next = 0;
+              while (next < count) {
+                int n = Math.min(batch.length, count - next);
+                for (int i = 0; i < n; i++) {
+                  batch[i] = next + i;
+                }
+                int added = 0;
+                while (added < n) {
+                  int k = shared.offerAll(batch, added, n - added);
+                  if (k == 0) {
+                    Thread.yield();
+                  }
+                  added += k;
+                }
+                next += n;
+              }
+            });
+    long start = System.nanoTime();
+    producer.start();
+    int[] batch = new int[256];
+    int expected = 0;
+    while (expected < count) {
+      int n = shared.drainTo(batch, 0, batch.length);
+      if (n == 0) {
+        Thread.yield();
+      }
+      for (int i = 0; i < n; i++) {
+        assert batch[i] == expected++;
+      }
+    }
+    producer.join();
+    long elapsed = System.nanoTime() - start;
+    System.out.println("transferred " + count + " ints in " + elapsed / 1_000_000 + " ms");
+  }
+}
@@ -0,0 +1,269 @@
+package DataStructures.Buffers;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free queue for exactly one producer thread and one consumer thread.
+ *
+ * <p>Compared to {@link CircularBuffer} it stores any element type, maps indices to slots with a
+ * mask instead of {@code %}, and publishes elements with release/acquire ordering so the consumer
+ * never reads a slot before the producer has finished writing it. The head and tail indices live in
+ * padded objects to avoid false sharing, and each side keeps a cached copy of the other side's
+ * index so it only reads the shared counter when the cached one says the buffer is full (or empty).
+ *
+ * @param <E> the type of elements held in this buffer
+ */
+public class SpscRingBuffer<E> {
+
+  /** An index together with the owner's last snapshot of the opposite index. */
+  @SuppressWarnings("serial")
+  static final class Cursor extends PaddedAtomicLong {
+    long cachedOther;
+
+    Cursor() {
+      super(0);
+    }
+  }
+
+  private final Object[] buffer;
+  private final int mask;
+  /** Next slot to read, written by the consumer only. */
+  private final Cursor head = new Cursor();
+  /** Next slot to write, written by the producer only. */
+  private final Cursor tail = new Cursor();
+
+  /** @param capacity the buffer capacity, must be a power of two */
+  public SpscRingBuffer(int capacity) {
+    if (capacity < 1 || (capacity & (capacity - 1)) != 0) {
+      throw new IllegalArgumentException("capacity must be a power of two");
+    }
+    buffer = new Object[capacity];
+    mask = capacity - 1;
+  }
+
+  public int capacity() {
+    return buffer.length;
+  }
+
+  /** @return an estimate of the number of elements, exact when no thread is modifying the buffer */
+  public int size() {
+    return (int) (tail.get() - head.get());
+  }
+
+  public boolean isEmpty() {
+    return tail.get() == head.get();
+  }
+
+  /**
+   * Adds an element, producer thread only.
+   *
+   * @return <tt>true</tt> if added, <tt>false</tt> if the buffer is full
+   */
+  public boolean offer(E e) {
+    if (e == null) {
+      throw new NullPointerException();
+    }
+    long t = tail.get();
+    if (t - tail.cachedOther >= buffer.length) {
+      tail.cachedOther = head.get();
+      if (t - tail.cachedOther >= buffer.length) {
+        return false;
+      }
+    }
+    buffer[(int) t & mask] = e;
+    tail.lazySet(t + 1);
+    return true;
+  }
+
+  /**
+   * Adds as many elements of {@code src[offset..offset+length)} as fit, publishing them at once,
+   * producer thread only.
+   *
+   * @return number of elements added
+   * @throws IndexOutOfBoundsException if the range is not within {@code src}
+   */
+  public int offerAll(E[] src, int offset, int length) {
+    Objects.checkFromIndexSize(offset, length, src.length);
+    long t = tail.get();
+    int free = buffer.length - (int) (t - tail.cachedOther);
+    if (free < length) {
+      tail.cachedOther = head.get();
+      free = buffer.length - (int) (t - tail.cachedOther);
+    }
+    int n = Math.min(free, length);
+    for (int i = 0; i < n; i++) {
+      E e = src[offset + i];
+      if (e == null) {
+        throw new NullPointerException();
+      }
+      buffer[(int) (t + i) & mask] = e;
+    }
+    tail.lazySet(t + n);
+    return n;
+  }
+
+  /**
+   * Removes the oldest element, consumer thread only.
+   *
+   * @return the element, or <tt>null</tt> if the buffer is empty
+   */
+  @SuppressWarnings("unchecked")
+  public E poll() {
+    long h = head.get();
+    if (h >= head.cachedOther) {
+      head.cachedOther = tail.get();
+      if (h >= head.cachedOther) {
+        return null;
+      }
+    }
+    int index = (int) h & mask;
+    E e = (E) buffer[index];
+    buffer[index] = null;
+    head.lazySet(h + 1);
+    return e;
+  }
+
+  /**
+   * Returns the oldest element without removing it, consumer thread only.
+   *
+   * @return the element, or <tt>null</tt> if the buffer is empty
+   */
+  @SuppressWarnings("unchecked")
+  public E peek() {
+    long h = head.get();
+    if (h >= head.cachedOther) {
+      head.cachedOther = tail.get();
+      if (h >= head.cachedOther) {
+        return null;
+      }
+    }
+    return (E) buffer[(int) h & mask];
+  }
+
+  /**
+   * Removes up to {@code limit} elements and passes them to {@code sink}, releasing the slots in a
+   * single store, consumer thread only.
+   *
+   * @return number of elements removed
+   */
+  @SuppressWarnings("unchecked")
+  public int drainTo(Consumer<? super E> sink, int limit) {
+    if (limit <= 0) {
+      return 0;
+    }
+    long h = head.get();
+    long available = head.cachedOther - h;
+    if (available < limit) {
+      head.cachedOther = tail.get();
+      available = head.cachedOther - h;
+    }
+    int n = (int) Math.min(available, limit);
+    int i = 0;
+    try {
+      for (; i < n; i++) {
+        int index = (int) (h + i) & mask;
+        /* Release the slot only once the sink took the element, so a refused one stays */
+        sink.accept((E) buffer[index]);
+        buffer[index] = null;
+      }
+    } finally {
+      if (i > 0) {
+        head.lazySet(h + i);
+      }
+    }
+    return n;
+  }
+
+  /**
+   * Removes all available elements into {@code target}, consumer thread only.
+   *
+   * @return number of elements removed
+   */
+  public int drainTo(Collection<? super E> target) {
+    return drainTo(target::add, Integer.MAX_VALUE);
+  }
+
+  /* Driver Code */
+  public static void main(String[] args) throws InterruptedException {
+    SpscRingBuffer<Integer> ring = new SpscRingBuffer<>(4);
+    assert ring.isEmpty();
+    assert ring.poll() == null;
+    assert ring.offerAll(new Integer[] {1, 2, 3, 4, 5}, 0, 5) == 4;
+    assert !ring.offer(6);
+    assert ring.peek() == 1;
+    assert ring.poll() == 1;
+    assert ring.offer(6);
+    java.util.List<Integer> out = new java.util.ArrayList<>();
+    assert ring.drainTo(out) == 4;
+    assert out.equals(java.util.Arrays.asList(2, 3, 4, 6));
+    ring.offer(7);
+    ring.offer(8);
+    for (int[] range : new int[][] {{0, -1}, {-1, 1}, {1, 1}}) {
+      try {
+        ring.offerAll(new Integer[] {9}, range[0], range[1]);
+        assert false;
+      } catch (IndexOutOfBoundsException expected) {
+      }
+    }
+    assert ring.offerAll(new Integer[] {9}, 1, 0) == 0 && ring.size() == 2;
+    assert ring.drainTo(x -> {}, -1) == 0 && ring.drainTo(x -> {}, 0) == 0 && ring.size() == 2;
+    try {
+      ring.drainTo(
+          x -> {
+            if (x == 8) {
+              throw new IllegalStateException();
+            }
+          },
+          2);
+      assert false;
+    } catch (IllegalStateException expected) {
+      assert ring.size() == 1 && ring.poll() == 8 && ring.isEmpty();
+    }
+
+    /* One producer, one consumer: every element must arrive once and in order */
+    final int count = 5_000_000;
+    SpscRingBuffer<Integer> shared = new SpscRingBuffer<>(1024);
+    Thread producer =
+        new Thread(
+            () -> {
+              Integer[] batch = new Integer[32];
+              int next = 0;
+              while (next < count) {
+                int n = Math.min(batch.length, count - next);
+                for (int i = 0; i < n; i++) {
+                  batch[i] = next + i;
+                }
+                int added = 0;
+                while (added < n) {
+                  int k = shared.offerAll(batch, added, n - added);
+                  if (k == 0) {
+                    Thread.yield();
+                  }
+                  added += k;
+                }
+                next += n;
+              }
+            });
+    long start = System.nanoTime();
+    producer.start();
+    int[] expected = {0};
+    while (expected[0] < count) {
+      int n =
+          shared.drainTo(
+              e -> {
+                assert e == expected[0] : "expected " + expected[0] + " but got " + e;
+                expected[0]++;
+              },
+              256);
+      if (n == 0) {
+        Thread.yield();
+      }
+    }
+    producer.join();
+    long elapsed = System.nanoTime() - start;
+    assert shared.isEmpty();
+    System.out.println("transferred " + count + " elements in " + elapsed / 1_000_000 + " ms");
+  }
+}
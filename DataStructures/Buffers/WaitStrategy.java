@@ -0,0 +1,142 @@
+package DataStructures.Buffers;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Decides how an event processor waits for a sequence to become available in an {@link EventRing}.
+ * The strategies trade latency against CPU usage:
+ *
+ * <ul>
+ *   <li>{@link #busySpin()} never gives up the core, lowest latency, needs a core per consumer
+ *   <li>{@link #yielding()} spins a little then yields to other threads
+ *   <li>{@link #parking()} spins, yields, then parks for a short time
+ *   <li>{@link #blocking()} sleeps on a lock until the producer signals, cheapest when idle
+ * </ul>
+ */
+public interface WaitStrategy {
+
+  /**
+   * Waits until {@code sequence} has been published and processed by all the {@code dependents}.
+   *
+   * @param sequence the sequence to wait for
+   * @param cursor the producer cursor of the ring
+   * @param dependents sequences that must have reached {@code sequence}, the cursor itself when the
+   *     waiting processor depends on no other processor
+   * @param barrier the barrier waiting, checked for alerts
+   * @return the highest available sequence, at least {@code sequence}
+   */
+  long waitFor(long sequence, Sequence cursor, Sequence[] dependents, SequenceBarrier barrier)
+      throws SequenceBarrier.AlertException, InterruptedException;
+
+  /** Wakes up the threads blocked in {@link #waitFor}, called by the producer on publish. */
+  void signalAllWhenBlocking();
+
+  static WaitStrategy busySpin() {
+    return new WaitStrategy() {
+      @Override
+      public long waitFor(long sequence, Sequence cursor, Sequence[] dependents, SequenceBarrier b)
+          throws SequenceBarrier.AlertException {
+        long available;
+        while ((available = Sequence.minimum(dependents, Long.MAX_VALUE)) < sequence) {
+          b.checkAlert();
+          Thread.onSpinWait();
+        }
+        return available;
+      }
+
+      @Override
+      public void signalAllWhenBlocking() {}
+    };
+  }
+
+  static WaitStrategy yielding() {
+    return new WaitStrategy() {
+      @Override
+      public long waitFor(long sequence, Sequence cursor, Sequence[] dependents, SequenceBarrier b)
+          throws SequenceBarrier.AlertException {
+        int spins = 100;
+        long available;
+        while ((available = Sequence.minimum(dependents, Long.MAX_VALUE)) < sequence) {
+          b.checkAlert();
+          if (spins > 0) {
+            spins--;
+          } else {
+            Thread.yield();
+          }
+        }
+        return available;
+      }
+
+      @Override
+      public void signalAllWhenBlocking() {}
+    };
+  }
+
+  static WaitStrategy parking() {
+    return new WaitStrategy() {
+      @Override
+      public long waitFor(long sequence, Sequence cursor, Sequence[] dependents, SequenceBarrier b)
+          throws SequenceBarrier.AlertException {
+        int tries = 200;
+        long available;
+        while ((available = Sequence.minimum(dependents, Long.MAX_VALUE)) < sequence) {
+          b.checkAlert();
+          if (tries > 100) {
+            tries--;
+          } else if (tries > 0) {
+            tries--;
+            Thread.yield();
+          } else {
+            LockSupport.parkNanos(1_000);
+          }
+        }
+        return available;
+      }
+
+      @Override
+      public void signalAllWhenBlocking() {}
+    };
+  }
+
+  static WaitStrategy blocking() {
+    return new WaitStrategy() {
+      private final ReentrantLock lock = new ReentrantLock();
+      private final Condition published = lock.newCondition();
+
+      @Override
+      public long waitFor(long sequence, Sequence cursor, Sequence[] dependents, SequenceBarrier b)
+          throws SequenceBarrier.AlertException, InterruptedException {
+        if (cursor.get() < sequence) {
+          lock.lock();
+          try {
+            while (cursor.get() < sequence) {
+              b.checkAlert();
+              published.await();
+            }
+          } finally {
+            lock.unlock();
+          }
+        }
+        // The producer is far enough, upstream processors are usually close behind
+        long available;
+        while ((available = Sequence.minimum(dependents, Long.MAX_VALUE)) < sequence) {
+          b.checkAlert();
+          Thread.yield();
+        }
+        return available;
+      }
+
+      @Override
+      public void signalAllWhenBlocking() {
+        lock.lock();
+        try {
+          published.signalAll();
+        } finally {
+          lock.unlock();
+        }
+      }
+    };
+  }
+}
@@ -18,6 +18,8 @@ public class DynamicArray<E> implements Iterable<E> {
     private int size;
     //数组类型
     private Object[] elements;
+    //结构修改次数，用于分割迭代器检测并发修改
+    private int modCount;
 
     /**
      * 有参构造，指定容量
@@ -64,6 +66,7 @@ public class DynamicArray<E> implements Iterable<E> {
 
         this.elements[this.size] = element;
         size++;
+        modCount++;
     }
 
     /**
@@ -123,6 +126,27 @@ public class DynamicArray<E> implements Iterable<E> {
         return StreamSupport.stream(spliterator(), false);
     }
 
+    /**
+     * 并行流，基于可按下标二分的分割迭代器
+     *
+     * @return a parallel Stream over the elements
+     */
+    public Stream<E> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * 返回基于数组下标区间的分割迭代器
+     * <p>
+     * 每次分割都把区间对半分，且能准确报告大小（SIZED/SUBSIZED），并行流可以均匀地分配任务
+     *
+     * @return a Spliterator over the elements
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        return new DynamicArraySpliterator(0, -1, 0);
+    }
+
     /**
      * 删除数组中指定位置的元素
      *
@@ -142,6 +166,7 @@ public class DynamicArray<E> implements Iterable<E> {
         }
 
         elements[this.size = newSize] = null;
+        modCount++;
     }
 
     //获取指定位置元素
@@ -204,12 +229,84 @@ public class DynamicArray<E> implements Iterable<E> {
         public void forEachRemaining(Consumer<? super E> action) {
             Objects.requireNonNull(action);
 
-            for (int i = 0; i < DynamicArray.this.size; i++) {
-                action.accept(DynamicArray.this.getElement(i));
+            //从当前游标开始遍历，结束后游标移到末尾
+            final int size = DynamicArray.this.size;
+            for (; this.cursor < size; this.cursor++) {
+                action.accept(DynamicArray.this.getElement(this.cursor));
             }
         }
     }
 
+    //按下标区间分割的迭代器，fence为-1时在第一次使用时绑定到当前大小
+    private class DynamicArraySpliterator implements Spliterator<E> {
+
+        private int index;
+        private int fence;
+        private int expectedModCount;
+
+        DynamicArraySpliterator(int origin, int fence, int expectedModCount) {
+            this.index = origin;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        private int getFence() {
+            if (this.fence < 0) {
+                this.expectedModCount = DynamicArray.this.modCount;
+                this.fence = DynamicArray.this.size;
+            }
+            return this.fence;
+        }
+
+        @Override
+        public Spliterator<E> trySplit() {
+            final int lo = this.index;
+            final int mid = (lo + getFence()) >>> 1;
+            if (lo >= mid) return null;
+
+            this.index = mid;
+            return new DynamicArraySpliterator(lo, mid, this.expectedModCount);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super E> action) {
+            Objects.requireNonNull(action);
+            if (this.index >= getFence()) return false;
+
+            action.accept(DynamicArray.this.getElement(this.index++));
+            if (DynamicArray.this.modCount != this.expectedModCount)
+                throw new ConcurrentModificationException();
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void forEachRemaining(Consumer<? super E> action) {
+            Objects.requireNonNull(action);
+
+            //先把字段读到局部变量，循环内只访问普通数组
+            final Object[] elements = DynamicArray.this.elements;
+            final int hi = getFence();
+            int i = this.index;
+            this.index = hi;
+            for (; i < hi; i++) {
+                action.accept((E) elements[i]);
+            }
+            if (DynamicArray.this.modCount != this.expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+
+        @Override
+        public long estimateSize() {
+            return getFence() - this.index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
+
     /**
      * This class is the driver for the DynamicArray<E> class it tests a variety of methods and prints
      * the output
@@ -234,5 +331,14 @@ public class DynamicArray<E> implements Iterable<E> {
         for (String name : names) {
             System.out.println(name);
         }
+
+        DynamicArray<Integer> numbers = new DynamicArray<>();
+        for (int i = 1; i <= 100_000; i++) {
+            numbers.add(i);
+        }
+        Spliterator<Integer> spliterator = numbers.spliterator();
+        Spliterator<Integer> prefix = spliterator.trySplit();
+        assert prefix.estimateSize() == 50_000 && spliterator.estimateSize() == 50_000;
+        assert numbers.parallelStream().mapToLong(Integer::longValue).sum() == 5_000_050_000L;
     }
 }
@@ -0,0 +1,46 @@
+package DataStructures.DynamicArray;
+
+/**
+ * Decides the new capacity of a growable array ({@link IntArray}, {@link LongArray}, {@link
+ * DoubleArray}) when it runs out of room.
+ */
+public interface GrowthPolicy {
+
+  /**
+   * @param currentCapacity the capacity of the full backing array
+   * @param minCapacity the capacity needed to hold the pending elements
+   * @return the new capacity, at least {@code minCapacity}
+   */
+  int grow(int currentCapacity, int minCapacity);
+
+  /** Doubles the capacity, like {@link DynamicArray#newCapacity()} */
+  static GrowthPolicy doubling() {
+    return factor(2.0);
+  }
+
+  /**
+   * Multiplies the capacity by {@code factor}, e.g. 1.5 to waste less memory than doubling at the
+   * cost of more copies.
+   */
+  static GrowthPolicy factor(double factor) {
+    if (!(factor > 1.0)) {
+      throw new IllegalArgumentException("factor must be greater than 1");
+    }
+    return (current, min) -> clamp(Math.max((long) (current * factor) + 1, min));
+  }
+
+  /** Adds a fixed number of slots, for arrays that grow slowly and must not overshoot */
+  static GrowthPolicy additive(int increment) {
+    if (increment < 1) {
+      throw new IllegalArgumentException("increment must be positive");
+    }
+    return (current, min) -> clamp(Math.max((long) current + increment, min));
+  }
+
+  private static int clamp(long capacity) {
+    if (capacity > Integer.MAX_VALUE - 8) {
+      return Integer.MAX_VALUE - 8; // some VMs reserve header words in arrays
+    }
+    return (int) capacity;
+  }
+}
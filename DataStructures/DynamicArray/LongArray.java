@@ -0,0 +1,369 @@
+package DataStructures.DynamicArray;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Growable array of primitive {@code long}s.
+ *
+ * <p>Unlike {@link DynamicArray} it stores values without boxing, grows according to a pluggable
+ * {@link GrowthPolicy}, can be shrunk with {@link #trimToSize()}, and hands out zero-copy {@link
+ * View}s of a range. Its {@link #spliterator()} splits the index range in halves and reports exact
+ * sizes, so {@code stream().parallel()} divides the work evenly between threads.
+ */
+public class LongArray {
+
+  private static final int DEFAULT_CAPACITY = 10;
+  private static final long[] EMPTY = new long[0];
+
+  private final GrowthPolicy growthPolicy;
+  private long[] elements;
+  private int size;
+  /** Incremented on every structural change, checked by spliterators */
+  private int modCount;
+
+  /** Init with a capacity of 10 and a doubling growth policy */
+  public LongArray() {
+    this(DEFAULT_CAPACITY, GrowthPolicy.doubling());
+  }
+
+  public LongArray(int initialCapacity) {
+    this(initialCapacity, GrowthPolicy.doubling());
+  }
+
+  /**
+   * @param initialCapacity the starting length of the backing array
+   * @param growthPolicy computes the new capacity when the array is full
+   */
+  public LongArray(int initialCapacity, GrowthPolicy growthPolicy) {
+    if (initialCapacity < 0) {
+      throw new IllegalArgumentException("capacity must not be negative");
+    }
+    this.growthPolicy = growthPolicy;
+    this.elements = initialCapacity == 0 ? EMPTY : new long[initialCapacity];
+  }
+
+  /** @return a new array holding a copy of {@code values} */
+  public static LongArray of(long... values) {
+    LongArray array = new LongArray(values.length);
+    array.addAll(values);
+    return array;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /** @return the length of the backing array */
+  public int capacity() {
+    return elements.length;
+  }
+
+  public long get(int index) {
+    checkIndex(index, size);
+    return elements[index];
+  }
+
+  /** @return the previous value at {@code index} */
+  public long set(int index, long value) {
+    checkIndex(index, size);
+    long old = elements[index];
+    elements[index] = value;
+    return old;
+  }
+
+  public void add(long value) {
+    if (size == elements.length) {
+      grow(size + 1);
+    }
+    elements[size++] = value;
+    modCount++;
+  }
+
+  /** Inserts {@code value} at {@code index}, shifting the following elements to the right */
+  public void add(int index, long value) {
+    checkIndex(index, size + 1);
+    if (size == elements.length) {
+      grow(size + 1);
+    }
+    System.arraycopy(elements, index, elements, index + 1, size - index);
+    elements[index] = value;
+    size++;
+    modCount++;
+  }
+
+  /** Appends all {@code values} with at most one reallocation */
+  public void addAll(long[] values) {
+    addAll(values, 0, values.length);
+  }
+
+  /** Appends {@code values[offset..offset+length)} with at most one reallocation */
+  public void addAll(long[] values, int offset, int length) {
+    if (offset < 0 || length < 0 || offset > values.length - length) {
+      throw new IndexOutOfBoundsException("offset " + offset + ", length " + length);
+    }
+    ensureCapacity(size + length);
+    System.arraycopy(values, offset, elements, size, length);
+    size += length;
+    modCount++;
+  }
+
+  /** @return the removed value */
+  public long remove(int index) {
+    checkIndex(index, size);
+    long old = elements[index];
+    System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+    size--;
+    modCount++;
+    return old;
+  }
+
+  /** Removes all elements, keeping the capacity */
+  public void clear() {
+    size = 0;
+    modCount++;
+  }
+
+  /** Grows the backing array, if needed, so it can hold {@code minCapacity} elements */
+  public void ensureCapacity(int minCapacity) {
+    if (minCapacity > elements.length) {
+      grow(minCapacity);
+    }
+  }
+
+  /** Shrinks the backing array to the current size */
+  public void trimToSize() {
+    if (size < elements.length) {
+      elements = size == 0 ? EMPTY : Arrays.copyOf(elements, size);
+      modCount++;
+    }
+  }
+
+  private void grow(int minCapacity) {
+    int newCapacity = Math.max(growthPolicy.grow(elements.length, minCapacity), minCapacity);
+    elements = Arrays.copyOf(elements, newCapacity);
+    modCount++;
+  }
+
+  /** @return a copy of the elements */
+  public long[] toArray() {
+    return Arrays.copyOf(elements, size);
+  }
+
+  public void forEach(LongConsumer action) {
+    int expectedModCount = modCount;
+    long[] a = elements;
+    int n = size;
+    for (int i = 0; i < n; i++) {
+      action.accept(a[i]);
+    }
+    if (modCount != expectedModCount) {
+      throw new ConcurrentModificationException();
+    }
+  }
+
+  /**
+   * Returns a window over {@code [from, to)} that reads and writes this array directly. The view
+   * stays valid while the elements it covers are not removed.
+   */
+  public View view(int from, int to) {
+    checkRange(from, to, size);
+    return new View(from, to);
+  }
+
+  public Spliterator.OfLong spliterator() {
+    return new ArraySpliterator(0, -1, 0);
+  }
+
+  public LongStream stream() {
+    return StreamSupport.longStream(spliterator(), false);
+  }
+
+  public LongStream parallelStream() {
+    return StreamSupport.longStream(spliterator(), true);
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(toArray());
+  }
+
+  private static void checkIndex(int index, int bound) {
+    if (index < 0 || index >= bound) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + bound);
+    }
+  }
+
+  private static void checkRange(int from, int to, int size) {
+    if (from < 0 || to > size || from > to) {
+      throw new IndexOutOfBoundsException("from " + from + ", to " + to + ", size " + size);
+    }
+  }
+
+  /** Zero-copy slice of an {@link LongArray}, see {@link #view(int, int)} */
+  public final class View {
+    private final int offset;
+    private final int length;
+
+    private View(int from, int to) {
+      this.offset = from;
+      this.length = to - from;
+    }
+
+    public int size() {
+      return length;
+    }
+
+    public long get(int index) {
+      checkIndex(index, length);
+      return elements[offset + index];
+    }
+
+    public long set(int index, long value) {
+      checkIndex(index, length);
+      long old = elements[offset + index];
+      elements[offset + index] = value;
+      return old;
+    }
+
+    /** @return a view of {@code [from, to)} relative to this view */
+    public View view(int from, int to) {
+      checkRange(from, to, length);
+      return new View(offset + from, offset + to);
+    }
+
+    public long[] toArray() {
+      return Arrays.copyOfRange(elements, offset, offset + length);
+    }
+
+    public Spliterator.OfLong spliterator() {
+      return new ArraySpliterator(offset, offset + length, modCount);
+    }
+
+    public LongStream stream() {
+      return StreamSupport.longStream(spliterator(), false);
+    }
+
+    @Override
+    public String toString() {
+      return Arrays.toString(toArray());
+    }
+  }
+
+  /**
+   * Index-range spliterator splitting in halves. A fence of -1 means the range is bound to the
+   * array size on first use, so a spliterator created before elements are added sees them.
+   */
+  private final class ArraySpliterator implements Spliterator.OfLong {
+    private int index;
+    private int fence;
+    private int expectedModCount;
+
+    ArraySpliterator(int origin, int fence, int expectedModCount) {
+      this.index = origin;
+      this.fence = fence;
+      this.expectedModCount = expectedModCount;
+    }
+
+    private int getFence() {
+      if (fence < 0) {
+        expectedModCount = modCount;
+        fence = size;
+      }
+      return fence;
+    }
+
+    @Override
+    public Spliterator.OfLong trySplit() {
+      int lo = index;
+      int mid = (lo + getFence()) >>> 1;
+      if (lo >= mid) {
+        return null;
+      }
+      index = mid;
+      return new ArraySpliterator(lo, mid, expectedModCount);
+    }
+
+    @Override
+    public boolean tryAdvance(LongConsumer action) {
+      int hi = getFence();
+      if (index >= hi) {
+        return false;
+      }
+      action.accept(elements[index++]);
+      if (modCount != expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+      return true;
+    }
+
+    @Override
+    public void forEachRemaining(LongConsumer action) {
+      // Hoist the fields into locals so the loop runs over a plain array
+      long[] a = elements;
+      int hi = getFence();
+      int i = index;
+      index = hi;
+      for (; i < hi; i++) {
+        action.accept(a[i]);
+      }
+      if (modCount != expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+    }
+
+    @Override
+    public long estimateSize() {
+      return getFence() - index;
+    }
+
+    @Override
+    public int characteristics() {
+      return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+    }
+  }
+
+  /* Driver Code */
+  public static void main(String[] args) {
+    LongArray array = new LongArray(2, GrowthPolicy.factor(1.5));
+    array.add(1L);
+    array.add(2L);
+    array.addAll(new long[] {3L, 4L, 5L});
+    assert array.size() == 5;
+    assert array.get(4) == 5L;
+    array.add(0, 0L);
+    assert array.remove(0) == 0L;
+    System.out.println(array); /* [1, 2, 3, 4, 5] */
+
+    View middle = array.view(1, 4);
+    assert middle.size() == 3;
+    middle.set(0, 0L);
+    assert array.get(1) == 0L;
+    assert middle.view(1, 3).get(1) == 4L;
+    array.set(1, 2L);
+
+    array.trimToSize();
+    assert array.capacity() == 5;
+    array.ensureCapacity(100);
+    assert array.capacity() >= 100;
+
+    LongArray big = new LongArray();
+    for (int i = 0; i < 1_000_000; i++) {
+      big.add(i);
+    }
+    Spliterator.OfLong spliterator = big.spliterator();
+    Spliterator.OfLong prefix = spliterator.trySplit();
+    assert prefix.estimateSize() == 500_000 && spliterator.estimateSize() == 500_000;
+    assert prefix.hasCharacteristics(Spliterator.SUBSIZED);
+    assert big.parallelStream().sum() == big.stream().sum();
+    assert big.view(10, 20).stream().count() == 10;
+  }
+}
@@ -2,187 +2,166 @@ package DataStructures.Lists;
 
 import java.util.Objects;
 
+/**
+ * Singly linked list whose nodes are slots of a {@link NodeArena} (the "cursor" implementation of
+ * linked lists): the links are {@code int} indices into parallel arrays rather than object
+ * references. The arena grows on demand, reuses freed slots in O(1) and can be shared with other
+ * structures, so the list itself allocates no node objects.
+ */
 public class CursorLinkedList<T> {
 
-  private static class Node<T> {
-
-    T element;
-    int next;
+  private final NodeArena<T> arena;
+  private int head = NodeArena.NIL;
+  private int tail = NodeArena.NIL;
+  private int count;
 
-    Node(T element, int next) {
-      this.element = element;
-      this.next = next;
-    }
+  public CursorLinkedList() {
+    this(new NodeArena<>());
   }
 
-  private final int os;
-  private int head;
-  private final Node<T>[] cursorSpace;
-  private int count;
-  private static final int CURSOR_SPACE_SIZE = 100;
+  /** @param arena the pool to allocate nodes from, may be shared with other structures */
+  public CursorLinkedList(NodeArena<T> arena) {
+    this.arena = arena;
+  }
 
-  {
-    // init at loading time
-    cursorSpace = new Node[CURSOR_SPACE_SIZE];
-    for (int i = 0; i < CURSOR_SPACE_SIZE; i++) {
-      cursorSpace[i] = new Node<>(null, i + 1);
-    }
-    cursorSpace[CURSOR_SPACE_SIZE - 1].next = 0;
+  public int size() {
+    return count;
   }
 
-  public CursorLinkedList() {
-    os = 0;
-    count = 0;
-    head = -1;
+  public boolean isEmpty() {
+    return count == 0;
   }
 
   public void printList() {
-
-    if (head != -1) {
-
-      int start = head;
-      while (start != -1) {
-
-        T element = cursorSpace[start].element;
-        System.out.println(element.toString());
-        start = cursorSpace[start].next;
-      }
+    for (int node = head; node != NodeArena.NIL; node = arena.next(node)) {
+      System.out.println(arena.value(node).toString());
     }
   }
 
   /**
    * @return the logical index of the element within the list , not the actual index of the
-   *     [cursorSpace] array
+   *     node in the arena, or -1 if absent
    */
   public int indexOf(T element) {
-
     Objects.requireNonNull(element);
-    Node<T> iterator = cursorSpace[head];
-    for (int i = 0; i < count; i++) {
-      if (iterator.element.equals(element)) {
+    int i = 0;
+    for (int node = head; node != NodeArena.NIL; node = arena.next(node)) {
+      if (arena.value(node).equals(element)) {
         return i;
       }
-      iterator = cursorSpace[iterator.next];
+      i++;
     }
-
     return -1;
   }
 
   /**
-   * @param position , the logical index of the element , not the actual one within the
-   *     [cursorSpace] array . this method should be used to get the index give by indexOf() method.
-   * @return
+   * @param position , the logical index of the element , not the actual one within the arena .
+   *     this method should be used to get the index give by indexOf() method.
+   * @return the element, or null if position is out of range
    */
   public T get(int position) {
-
-    if (position >= 0 && position < count) {
-
-      int start = head;
-      int counter = 0;
-      while (start != -1) {
-
-        T element = cursorSpace[start].element;
-        if (counter == position) {
-          return element;
-        }
-
-        start = cursorSpace[start].next;
-        counter++;
-      }
+    if (position < 0 || position >= count) {
+      return null;
     }
-
-    return null;
+    int node = head;
+    for (int i = 0; i < position; i++) {
+      node = arena.next(node);
+    }
+    return arena.value(node);
   }
 
   public void removeByIndex(int index) {
-
-    if (index >= 0 && index < count) {
-
-      T element = get(index);
-      remove(element);
+    if (index < 0 || index >= count) {
+      return;
+    }
+    int prev = NodeArena.NIL;
+    int node = head;
+    for (int i = 0; i < index; i++) {
+      prev = node;
+      node = arena.next(node);
     }
+    unlink(prev, node);
   }
 
+  /** Removes the first occurrence of element, if any */
   public void remove(T element) {
-
     Objects.requireNonNull(element);
-
-    // case element is in the head
-    T temp_element = cursorSpace[head].element;
-    int temp_next = cursorSpace[head].next;
-    if (temp_element.equals(element)) {
-      free(head);
-      head = temp_next;
-    } else { // otherwise cases
-
-      int prev_index = head;
-      int current_index = cursorSpace[prev_index].next;
-
-      while (current_index != -1) {
-
-        T current_element = cursorSpace[current_index].element;
-        if (current_element.equals(element)) {
-          cursorSpace[prev_index].next = cursorSpace[current_index].next;
-          free(current_index);
-          break;
-        }
-
-        prev_index = current_index;
-        current_index = cursorSpace[prev_index].next;
+    int prev = NodeArena.NIL;
+    for (int node = head; node != NodeArena.NIL; node = arena.next(node)) {
+      if (arena.value(node).equals(element)) {
+        unlink(prev, node);
+        return;
       }
+      prev = node;
     }
-
-    count--;
-  }
-
-  private void free(int index) {
-
-    Node os_node = cursorSpace[os];
-    int os_next = os_node.next;
-    cursorSpace[os].next = index;
-    cursorSpace[index].element = null;
-    cursorSpace[index].next = os_next;
   }
 
+  /** Appends element at the end of the list in O(1) */
   public void append(T element) {
-
     Objects.requireNonNull(element);
-    int availableIndex = alloc();
-    cursorSpace[availableIndex].element = element;
-
-    if (head == -1) {
-      head = availableIndex;
-    }
-
-    int iterator = head;
-    while (cursorSpace[iterator].next != -1) {
-      iterator = cursorSpace[iterator].next;
+    int node = arena.alloc(element);
+    if (head == NodeArena.NIL) {
+      head = node;
+    } else {
+      arena.setNext(tail, node);
     }
-
-    cursorSpace[iterator].next = availableIndex;
-    cursorSpace[availableIndex].next = -1;
-
+    tail = node;
     count++;
   }
 
-  /** @return the index of the next available node */
-  private int alloc() {
-
-    // 1- get the index at which the os is pointing
-    int availableNodeIndex = cursorSpace[os].next;
-
-    if (availableNodeIndex == 0) {
-      throw new OutOfMemoryError();
+  /** Returns every node of the list to the arena */
+  public void clear() {
+    int node = head;
+    while (node != NodeArena.NIL) {
+      int next = arena.next(node);
+      arena.free(node);
+      node = next;
     }
+    head = tail = NodeArena.NIL;
+    count = 0;
+  }
 
-    // 2- make the os point to the next of the  @var{availableNodeIndex}
-    int availableNext = cursorSpace[availableNodeIndex].next;
-    cursorSpace[os].next = availableNext;
-
-    // this to indicate an end of the list , helpful at testing since any err
-    // would throw an outOfBoundException
-    cursorSpace[availableNodeIndex].next = -1;
+  private void unlink(int prev, int node) {
+    int next = arena.next(node);
+    if (prev == NodeArena.NIL) {
+      head = next;
+    } else {
+      arena.setNext(prev, next);
+    }
+    if (node == tail) {
+      tail = prev;
+    }
+    arena.free(node);
+    count--;
+  }
 
-    return availableNodeIndex;
+  /* Driver Code */
+  public static void main(String[] args) {
+    NodeArena<String> shared = new NodeArena<>();
+    CursorLinkedList<String> first = new CursorLinkedList<>(shared);
+    CursorLinkedList<String> second = new CursorLinkedList<>(shared);
+    first.append("a");
+    first.append("b");
+    first.append("c");
+    second.append("x");
+    assert shared.size() == 4;
+    assert first.indexOf("c") == 2;
+    assert first.get(1).equals("b");
+    first.remove("b");
+    assert first.get(1).equals("c");
+    first.removeByIndex(1);
+    first.append("d"); /* tail must have moved back to "a" */
+    assert first.size() == 2 && first.get(1).equals("d");
+    first.remove("missing");
+    assert first.size() == 2;
+    first.clear();
+    assert shared.size() == 1 && second.get(0).equals("x");
+
+    /* Far more nodes than the old fixed cursor space of 100 */
+    CursorLinkedList<Integer> big = new CursorLinkedList<>();
+    for (int i = 0; i < 10_000; i++) {
+      big.append(i);
+    }
+    assert big.size() == 10_000 && big.get(9_999) == 9_999;
   }
 }
@@ -112,9 +112,10 @@ public class DoublyLinkedList {
                 newLink.next = previousLink.next;
                 newLink.previous = previousLink;
                 previousLink.next = newLink;
+                //insertHead和insertTail已经更新了size，只有这里需要加一
+                ++size;
             }
         }
-        ++size;
     }
 
     /**
@@ -0,0 +1,283 @@
+package DataStructures.Lists;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * Sorted set backed by a skip list whose links also record how many elements they jump over
+ * (their span), as in Redis sorted sets.
+ *
+ * <p>Insert, delete and search take O(log n) expected time, where {@link
+ * DoublyLinkedList#insertOrdered(int)} needs a linear scan. Summing spans while descending gives
+ * the position of an element, and following spans finds the element at a position, so {@link
+ * #get(int)} and {@link #rankOf(Comparable)} are O(log n) as well.
+ *
+ * <p>https://en.wikipedia.org/wiki/Skip_list
+ *
+ * @param <E> the type of elements, kept in natural order without duplicates
+ */
+public class IndexableSkipList<E extends Comparable<E>> implements Iterable<E> {
+
+  private static final int MAX_LEVEL = 32;
+
+  private static final class Node<E> {
+    final E value;
+    final Node<E>[] forward;
+    /** span[i]: number of level 0 steps that forward[i] jumps over */
+    final int[] span;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    Node(E value, int level) {
+      this.value = value;
+      this.forward = new Node[level];
+      this.span = new int[level];
+    }
+  }
+
+  private final Node<E> header = new Node<>(null, MAX_LEVEL);
+  private final Random random;
+  private int level = 1;
+  private int size;
+
+  public IndexableSkipList() {
+    this(new Random());
+  }
+
+  /** @param random source of the node levels, seed it for reproducible layouts */
+  public IndexableSkipList(Random random) {
+    this.random = random;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /** Level with probability 1/4 to go one level up, as in Redis */
+  private int randomLevel() {
+    int lvl = 1;
+    while (lvl < MAX_LEVEL && (random.nextInt() & 3) == 0) {
+      lvl++;
+    }
+    return lvl;
+  }
+
+  /**
+   * Inserts {@code value} in order
+   *
+   * @return <tt>true</tt> if inserted, <tt>false</tt> if it was already present
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public boolean add(E value) {
+    if (value == null) {
+      throw new NullPointerException();
+    }
+    Node<E>[] update = new Node[MAX_LEVEL];
+    int[] rank = new int[MAX_LEVEL];
+    Node<E> x = header;
+    for (int i = level - 1; i >= 0; i--) {
+      rank[i] = i == level - 1 ? 0 : rank[i + 1];
+      while (x.forward[i] != null && x.forward[i].value.compareTo(value) < 0) {
+        rank[i] += x.span[i];
+        x = x.forward[i];
+      }
+      update[i] = x;
+    }
+    if (x.forward[0] != null && x.forward[0].value.compareTo(value) == 0) {
+      return false;
+    }
+    int lvl = randomLevel();
+    if (lvl > level) {
+      for (int i = level; i < lvl; i++) {
+        rank[i] = 0;
+        update[i] = header;
+        header.span[i] = size;
+      }
+      level = lvl;
+    }
+    Node<E> node = new Node<>(value, lvl);
+    for (int i = 0; i < lvl; i++) {
+      node.forward[i] = update[i].forward[i];
+      update[i].forward[i] = node;
+      // rank[0] - rank[i] is the distance between update[i] and the new node's predecessor
+      node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+      update[i].span[i] = rank[0] - rank[i] + 1;
+    }
+    for (int i = lvl; i < level; i++) {
+      update[i].span[i]++;
+    }
+    size++;
+    return true;
+  }
+
+  /**
+   * Removes {@code value}
+   *
+   * @return <tt>true</tt> if it was present
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public boolean remove(E value) {
+    Node<E>[] update = new Node[MAX_LEVEL];
+    Node<E> x = header;
+    for (int i = level - 1; i >= 0; i--) {
+      while (x.forward[i] != null && x.forward[i].value.compareTo(value) < 0) {
+        x = x.forward[i];
+      }
+      update[i] = x;
+    }
+    Node<E> node = x.forward[0];
+    if (node == null || node.value.compareTo(value) != 0) {
+      return false;
+    }
+    for (int i = 0; i < level; i++) {
+      if (update[i].forward[i] == node) {
+        update[i].span[i] += node.span[i] - 1;
+        update[i].forward[i] = node.forward[i];
+      } else {
+        update[i].span[i]--;
+      }
+    }
+    while (level > 1 && header.forward[level - 1] == null) {
+      level--;
+    }
+    size--;
+    return true;
+  }
+
+  public boolean contains(E value) {
+    Node<E> x = header;
+    for (int i = level - 1; i >= 0; i--) {
+      while (x.forward[i] != null && x.forward[i].value.compareTo(value) < 0) {
+        x = x.forward[i];
+      }
+    }
+    x = x.forward[0];
+    return x != null && x.value.compareTo(value) == 0;
+  }
+
+  /**
+   * @param rank 0-based position in sorted order
+   * @return the element at that position
+   */
+  public E get(int rank) {
+    if (rank < 0 || rank >= size) {
+      throw new IndexOutOfBoundsException("Index: " + rank + ", Size: " + size);
+    }
+    int target = rank + 1; // header is at position 0
+    int traversed = 0;
+    Node<E> x = header;
+    for (int i = level - 1; i >= 0; i--) {
+      while (x.forward[i] != null && traversed + x.span[i] <= target) {
+        traversed += x.span[i];
+        x = x.forward[i];
+      }
+      if (traversed == target) {
+        return x.value;
+      }
+    }
+    throw new IllegalStateException("spans are inconsistent");
+  }
+
+  /**
+   * @return the 0-based position of {@code value} if present, otherwise {@code -(insertion point) -
+   *     1} like {@link java.util.Arrays#binarySearch(int[], int)}
+   */
+  public int rankOf(E value) {
+    int rank = 0;
+    Node<E> x = header;
+    for (int i = level - 1; i >= 0; i--) {
+      while (x.forward[i] != null && x.forward[i].value.compareTo(value) < 0) {
+        rank += x.span[i];
+        x = x.forward[i];
+      }
+    }
+    // rank now counts the elements smaller than value
+    Node<E> next = x.forward[0];
+    return next != null && next.value.compareTo(value) == 0 ? rank : -rank - 1;
+  }
+
+  public E first() {
+    if (size == 0) {
+      throw new NoSuchElementException("list is empty");
+    }
+    return header.forward[0].value;
+  }
+
+  public E last() {
+    return get(size - 1);
+  }
+
+  /** @return elements in ascending order */
+  @Override
+  public Iterator<E> iterator() {
+    return new Iterator<E>() {
+      private Node<E> next = header.forward[0];
+
+      @Override
+      public boolean hasNext() {
+        return next != null;
+      }
+
+      @Override
+      public E next() {
+        if (next == null) {
+          throw new NoSuchElementException();
+        }
+        E value = next.value;
+        next = next.forward[0];
+        return value;
+      }
+    };
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder("[");
+    for (E value : this) {
+      builder.append(value).append(", ");
+    }
+    if (size > 0) {
+      builder.setLength(builder.length() - 2);
+    }
+    return builder.append("]").toString();
+  }
+
+  /* Driver Code */
+  public static void main(String[] args) {
+    IndexableSkipList<Integer> list = new IndexableSkipList<>(new Random(3));
+    for (int value : new int[] {50, 10, 40, 20, 30}) {
+      assert list.add(value);
+    }
+    assert !list.add(30);
+    System.out.println(list); /* [10, 20, 30, 40, 50] */
+    assert list.get(0) == 10 && list.get(4) == 50;
+    assert list.rankOf(40) == 3;
+    assert list.rankOf(35) == -4;
+    assert list.remove(20) && !list.remove(20);
+    assert list.get(1) == 30 && list.rankOf(50) == 3;
+
+    /* Random operations against a sorted java.util.TreeSet */
+    Random random = new Random(11);
+    IndexableSkipList<Integer> tested = new IndexableSkipList<>(random);
+    java.util.TreeSet<Integer> reference = new java.util.TreeSet<>();
+    for (int i = 0; i < 200_000; i++) {
+      int value = random.nextInt(50_000);
+      if (random.nextBoolean()) {
+        assert tested.add(value) == reference.add(value);
+      } else {
+        assert tested.remove(value) == reference.remove(value);
+      }
+    }
+    assert tested.size() == reference.size();
+    int rank = 0;
+    for (int value : reference) {
+      assert tested.get(rank) == value;
+      assert tested.rankOf(value) == rank;
+      rank++;
+    }
+  }
+}
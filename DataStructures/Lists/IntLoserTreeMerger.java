@@ -0,0 +1,178 @@
+package DataStructures.Lists;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Primitive {@code int} version of {@link LoserTreeMerger}: lazily merges sorted {@link
+ * PrimitiveIterator.OfInt} cursors with a loser tree, without boxing or allocating per element.
+ */
+public class IntLoserTreeMerger implements PrimitiveIterator.OfInt {
+
+  private final PrimitiveIterator.OfInt[] sources;
+  private final boolean distinct;
+  private final int k;
+  private final int[] heads;
+  private final boolean[] exhausted;
+  /** tree[0] is the winner, tree[1..k-1] hold the losers of the internal matches */
+  private final int[] tree;
+
+  /**
+   * @param sources cursors returning values in ascending order
+   * @param distinct whether to drop values equal to the previously returned one
+   */
+  public IntLoserTreeMerger(PrimitiveIterator.OfInt[] sources, boolean distinct) {
+    this.k = sources.length;
+    this.sources = sources.clone();
+    this.distinct = distinct;
+    this.heads = new int[Math.max(k, 1)];
+    this.exhausted = new boolean[Math.max(k, 1)];
+    this.tree = new int[Math.max(k, 1)];
+    if (k == 0) {
+      exhausted[0] = true;
+      return;
+    }
+    for (int i = 0; i < k; i++) {
+      advance(i);
+    }
+    // Index k stands for a virtual source smaller than everything, so every leaf replays its path
+    java.util.Arrays.fill(tree, k);
+    for (int i = k - 1; i >= 0; i--) {
+      adjust(i);
+    }
+  }
+
+  /** Merges sorted arrays */
+  public static IntLoserTreeMerger of(int[]... arrays) {
+    PrimitiveIterator.OfInt[] cursors = new PrimitiveIterator.OfInt[arrays.length];
+    for (int i = 0; i < arrays.length; i++) {
+      cursors[i] = java.util.Arrays.stream(arrays[i]).iterator();
+    }
+    return new IntLoserTreeMerger(cursors, false);
+  }
+
+  @Override
+  public boolean hasNext() {
+    return !exhausted[tree[0]];
+  }
+
+  @Override
+  public int nextInt() {
+    int winner = tree[0];
+    if (exhausted[winner]) {
+      throw new NoSuchElementException();
+    }
+    int result = heads[winner];
+    advance(winner);
+    adjust(winner);
+    if (distinct) {
+      while (!exhausted[tree[0]] && heads[tree[0]] == result) {
+        int duplicate = tree[0];
+        advance(duplicate);
+        adjust(duplicate);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Copies up to {@code length} merged values into {@code dst[offset..]}
+   *
+   * @return number of values copied
+   */
+  public int drainTo(int[] dst, int offset, int length) {
+    int n = 0;
+    while (n < length && hasNext()) {
+      dst[offset + n++] = nextInt();
+    }
+    return n;
+  }
+
+  private void advance(int s) {
+    if (sources[s].hasNext()) {
+      heads[s] = sources[s].nextInt();
+    } else {
+      exhausted[s] = true;
+    }
+  }
+
+  private void adjust(int s) {
+    for (int t = (s + k) >> 1; t > 0; t >>= 1) {
+      if (beats(tree[t], s)) {
+        int loser = s;
+        s = tree[t];
+        tree[t] = loser;
+      }
+    }
+    tree[0] = s;
+  }
+
+  private boolean beats(int a, int b) {
+    if (a == k) {
+      return true;
+    }
+    if (b == k) {
+      return false;
+    }
+    if (exhausted[a]) {
+      return false;
+    }
+    if (exhausted[b]) {
+      return true;
+    }
+    return heads[a] < heads[b] || (heads[a] == heads[b] && a < b);
+  }
+
+  /* Driver Code */
+  public static void main(String[] args) {
+    IntLoserTreeMerger merger = IntLoserTreeMerger.of(new int[] {1, 4, 9}, new int[] {2, 3, 10});
+    int[] out = new int[10];
+    assert merger.drainTo(out, 0, 10) == 6;
+    assert java.util.Arrays.equals(
+        java.util.Arrays.copyOf(out, 6), new int[] {1, 2, 3, 4, 9, 10});
+
+    java.util.Random random = new java.util.Random(9);
+    int shards = 500;
+    int[][] arrays = new int[shards][];
+    int total = 0;
+    for (int s = 0; s < shards; s++) {
+      arrays[s] = random.ints(random.nextInt(2_000), 0, 1_000_000).sorted().toArray();
+      total += arrays[s].length;
+    }
+    int[] expected = new int[total];
+    int pos = 0;
+    for (int[] array : arrays) {
+      System.arraycopy(array, 0, expected, pos, array.length);
+      pos += array.length;
+    }
+    java.util.Arrays.sort(expected);
+
+    long start = System.nanoTime();
+    int[] merged = new int[total];
+    IntLoserTreeMerger.of(arrays).drainTo(merged, 0, total);
+    long loserTree = System.nanoTime() - start;
+    assert java.util.Arrays.equals(merged, expected);
+
+    /* Same merge through a PriorityQueue of {value, shard, index} entries */
+    start = System.nanoTime();
+    java.util.PriorityQueue<int[]> heap =
+        new java.util.PriorityQueue<>((a, b) -> Integer.compare(a[0], b[0]));
+    for (int s = 0; s < shards; s++) {
+      if (arrays[s].length > 0) {
+        heap.add(new int[] {arrays[s][0], s, 0});
+      }
+    }
+    pos = 0;
+    while (!heap.isEmpty()) {
+      int[] top = heap.poll();
+      merged[pos++] = top[0];
+      if (top[2] + 1 < arrays[top[1]].length) {
+        heap.add(new int[] {arrays[top[1]][top[2] + 1], top[1], top[2] + 1});
+      }
+    }
+    long priorityQueue = System.nanoTime() - start;
+    assert java.util.Arrays.equals(merged, expected);
+    System.out.println("loser tree:     " + loserTree / 1_000_000 + " ms");
+    System.out.println("priority queue: " + priorityQueue / 1_000_000 + " ms");
+  }
+}
@@ -0,0 +1,298 @@
+package DataStructures.Lists;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicMarkableReference;
+
+/**
+ * Lock-free sorted set for any number of concurrent readers and writers (Herlihy and Shavit, "The
+ * Art of Multiprocessor Programming", chapter 14).
+ *
+ * <p>Every link carries a mark bit. A removal first marks the links of the victim node from the top
+ * level down, which logically deletes it at level 0, then threads traversing the list physically
+ * unlink marked nodes with compare-and-set. {@link #contains(Comparable)} never writes and never
+ * retries. Unlike {@link IndexableSkipList} the nodes keep no spans, because rank counters cannot
+ * be maintained atomically together with the links.
+ *
+ * @param <E> the type of elements, kept in natural order without duplicates
+ */
+public class LockFreeSkipList<E extends Comparable<E>> {
+
+  private static final int MAX_LEVEL = 31;
+
+  private static final class Node<E extends Comparable<E>> {
+    final E value;
+    /** -1 for the head sentinel, 1 for the tail sentinel, 0 otherwise */
+    final int sentinel;
+
+    final AtomicMarkableReference<Node<E>>[] next;
+    final int topLevel;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    Node(E value, int sentinel, int topLevel) {
+      this.value = value;
+      this.sentinel = sentinel;
+      this.topLevel = topLevel;
+      this.next = new AtomicMarkableReference[topLevel + 1];
+      for (int i = 0; i <= topLevel; i++) {
+        next[i] = new AtomicMarkableReference<>(null, false);
+      }
+    }
+
+    int compareTo(E other) {
+      return sentinel != 0 ? sentinel : value.compareTo(other);
+    }
+  }
+
+  private final Node<E> head = new Node<>(null, -1, MAX_LEVEL);
+  private final Node<E> tail = new Node<>(null, 1, MAX_LEVEL);
+  private final AtomicInteger size = new AtomicInteger();
+
+  public LockFreeSkipList() {
+    for (int i = 0; i <= MAX_LEVEL; i++) {
+      head.next[i].set(tail, false);
+    }
+  }
+
+  /** @return number of elements, a snapshot under concurrent updates */
+  public int size() {
+    return size.get();
+  }
+
+  public boolean isEmpty() {
+    return first() == null;
+  }
+
+  private static int randomLevel() {
+    int level = 0;
+    while (level < MAX_LEVEL && ThreadLocalRandom.current().nextBoolean()) {
+      level++;
+    }
+    return level;
+  }
+
+  /**
+   * Inserts {@code value} in order
+   *
+   * @return <tt>true</tt> if inserted, <tt>false</tt> if it was already present
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public boolean add(E value) {
+    if (value == null) {
+      throw new NullPointerException();
+    }
+    int topLevel = randomLevel();
+    Node<E>[] preds = new Node[MAX_LEVEL + 1];
+    Node<E>[] succs = new Node[MAX_LEVEL + 1];
+    while (true) {
+      if (find(value, preds, succs)) {
+        return false;
+      }
+      Node<E> node = new Node<>(value, 0, topLevel);
+      for (int level = 0; level <= topLevel; level++) {
+        node.next[level].set(succs[level], false);
+      }
+      // Linking at level 0 is the linearization point of the insertion
+      if (!preds[0].next[0].compareAndSet(succs[0], node, false, false)) {
+        continue;
+      }
+      size.incrementAndGet();
+      boolean[] marked = {false};
+      for (int level = 1; level <= topLevel; level++) {
+        while (true) {
+          Node<E> pred = preds[level];
+          Node<E> succ = succs[level];
+          Node<E> current = node.next[level].get(marked);
+          if (marked[0]) {
+            return true; // already being removed, stop building its tower
+          }
+          if (current != succ && !node.next[level].compareAndSet(current, succ, false, false)) {
+            continue;
+          }
+          if (pred.next[level].compareAndSet(succ, node, false, false)) {
+            break;
+          }
+          find(value, preds, succs);
+        }
+      }
+      return true;
+    }
+  }
+
+  /**
+   * Removes {@code value}
+   *
+   * @return <tt>true</tt> if this call removed it
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public boolean remove(E value) {
+    Node<E>[] preds = new Node[MAX_LEVEL + 1];
+    Node<E>[] succs = new Node[MAX_LEVEL + 1];
+    if (!find(value, preds, succs)) {
+      return false;
+    }
+    Node<E> victim = succs[0];
+    boolean[] marked = {false};
+    for (int level = victim.topLevel; level >= 1; level--) {
+      Node<E> succ = victim.next[level].get(marked);
+      while (!marked[0]) {
+        victim.next[level].compareAndSet(succ, succ, false, true);
+        succ = victim.next[level].get(marked);
+      }
+    }
+    Node<E> succ = victim.next[0].get(marked);
+    while (true) {
+      // Marking level 0 is the linearization point of the removal
+      boolean markedByMe = victim.next[0].compareAndSet(succ, succ, false, true);
+      succ = victim.next[0].get(marked);
+      if (markedByMe) {
+        size.decrementAndGet();
+        find(value, preds, succs); // unlink it
+        return true;
+      } else if (marked[0]) {
+        return false; // another thread removed it first
+      }
+    }
+  }
+
+  /** Wait-free membership test, it skips marked nodes without unlinking them */
+  public boolean contains(E value) {
+    boolean[] marked = {false};
+    Node<E> pred = head;
+    Node<E> curr = null;
+    for (int level = MAX_LEVEL; level >= 0; level--) {
+      curr = pred.next[level].getReference();
+      while (true) {
+        Node<E> succ = curr.next[level].get(marked);
+        while (marked[0]) {
+          curr = succ;
+          succ = curr.next[level].get(marked);
+        }
+        if (curr.compareTo(value) < 0) {
+          pred = curr;
+          curr = succ;
+        } else {
+          break;
+        }
+      }
+    }
+    return curr.compareTo(value) == 0;
+  }
+
+  /** @return the smallest element, or <tt>null</tt> if the set is empty */
+  public E first() {
+    boolean[] marked = {false};
+    Node<E> curr = head.next[0].getReference();
+    while (curr != tail) {
+      Node<E> succ = curr.next[0].get(marked);
+      if (!marked[0]) {
+        return curr.value;
+      }
+      curr = succ;
+    }
+    return null;
+  }
+
+  /**
+   * Removes the smallest element, e.g. the best price level of an order book side
+   *
+   * @return the removed element
+   * @throws NoSuchElementException if the set is empty
+   */
+  public E pollFirst() {
+    while (true) {
+      E first = first();
+      if (first == null) {
+        throw new NoSuchElementException("set is empty");
+      }
+      if (remove(first)) {
+        return first;
+      }
+    }
+  }
+
+  /**
+   * Fills {@code preds} and {@code succs} with the nodes around {@code value} at every level,
+   * unlinking the marked nodes met on the way.
+   *
+   * @return whether {@code value} is present
+   */
+  private boolean find(E value, Node<E>[] preds, Node<E>[] succs) {
+    boolean[] marked = {false};
+    retry:
+    while (true) {
+      Node<E> pred = head;
+      Node<E> curr = null;
+      for (int level = MAX_LEVEL; level >= 0; level--) {
+        curr = pred.next[level].getReference();
+        while (true) {
+          Node<E> succ = curr.next[level].get(marked);
+          while (marked[0]) {
+            if (!pred.next[level].compareAndSet(curr, succ, false, false)) {
+              continue retry;
+            }
+            curr = pred.next[level].getReference();
+            succ = curr.next[level].get(marked);
+          }
+          if (curr.compareTo(value) < 0) {
+            pred = curr;
+            curr = succ;
+          } else {
+            break;
+          }
+        }
+        preds[level] = pred;
+        succs[level] = curr;
+      }
+      return curr.compareTo(value) == 0;
+    }
+  }
+
+  /* Driver Code */
+  public static void main(String[] args) throws InterruptedException {
+    LockFreeSkipList<Integer> set = new LockFreeSkipList<>();
+    assert set.isEmpty();
+    assert set.add(3) && set.add(1) && set.add(2);
+    assert !set.add(2);
+    assert set.contains(1) && !set.contains(4);
+    assert set.first() == 1;
+    assert set.pollFirst() == 1;
+    assert set.remove(3) && !set.remove(3);
+    assert set.size() == 1;
+
+    /* Writers insert disjoint ranges and remove the even values of their own range */
+    final int threads = 4;
+    final int perThread = 50_000;
+    LockFreeSkipList<Integer> shared = new LockFreeSkipList<>();
+    Thread[] writers = new Thread[threads];
+    for (int t = 0; t < threads; t++) {
+      final int base = t * perThread;
+      writers[t] =
+          new Thread(
+              () -> {
+                for (int i = 0; i < perThread; i++) {
+                  shared.add(base + i);
+                }
+                for (int i = 0; i < perThread; i += 2) {
+                  assert shared.remove(base + i);
+                }
+              });
+    }
+    for (Thread writer : writers) {
+      writer.start();
+    }
+    for (Thread writer : writers) {
+      writer.join();
+    }
+    assert shared.size() == threads * perThread / 2;
+    for (int i = 0; i < threads * perThread; i++) {
+      assert shared.contains(i) == (i % 2 == 1);
+    }
+    int expected = 1;
+    while (!shared.isEmpty()) {
+      assert shared.pollFirst() == expected;
+      expected += 2;
+    }
+  }
+}
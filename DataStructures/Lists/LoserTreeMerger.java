@@ -0,0 +1,187 @@
+package DataStructures.Lists;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazy k-way merge of sorted iterators with a loser tree (tournament tree).
+ *
+ * <p>{@link Merge_K_SortedLinkedlist} keeps the heads in a {@link java.util.PriorityQueue}, which
+ * needs about 2 log k comparisons per element (sift down compares both children) and boxes
+ * primitive keys. A loser tree stores, in each internal node, the source that lost the match
+ * played there, and the overall winner at the root. Replacing the winner by the next element of
+ * its source replays only the matches on the path from its leaf to the root, exactly ceil(log2 k)
+ * comparisons and no allocation. Elements are pulled from the sources only when {@link #next()}
+ * needs them, so unbounded or very large sources can be merged continuously. Equal elements come
+ * out in the order of their sources, and duplicates can optionally be dropped.
+ *
+ * <p>https://en.wikipedia.org/wiki/K-way_merge_algorithm#Tournament_Tree
+ *
+ * @param <E> the type of the merged elements
+ */
+public class LoserTreeMerger<E> implements Iterator<E> {
+
+  private final Iterator<? extends E>[] sources;
+  private final Comparator<? super E> comparator;
+  private final boolean distinct;
+  private final int k;
+  /** Current head of each source */
+  private final Object[] heads;
+
+  private final boolean[] exhausted;
+  /** tree[0] is the winner, tree[1..k-1] hold the losers of the internal matches */
+  private final int[] tree;
+
+  /**
+   * @param sources iterators returning elements in ascending order of {@code comparator}
+   * @param comparator the order of the sources
+   * @param distinct whether to drop elements equal to the previously returned one
+   */
+  @SuppressWarnings("unchecked")
+  public LoserTreeMerger(
+      List<? extends Iterator<? extends E>> sources,
+      Comparator<? super E> comparator,
+      boolean distinct) {
+    this.k = sources.size();
+    this.sources = (Iterator<? extends E>[]) sources.toArray(new Iterator<?>[0]);
+    this.comparator = comparator;
+    this.distinct = distinct;
+    this.heads = new Object[Math.max(k, 1)];
+    this.exhausted = new boolean[Math.max(k, 1)];
+    this.tree = new int[Math.max(k, 1)];
+    if (k == 0) {
+      exhausted[0] = true;
+      return;
+    }
+    for (int i = 0; i < k; i++) {
+      advance(i);
+    }
+    // Index k stands for a virtual source smaller than everything, so every leaf replays its path
+    java.util.Arrays.fill(tree, k);
+    for (int i = k - 1; i >= 0; i--) {
+      adjust(i);
+    }
+  }
+
+  /** Merges sorted iterables of comparable elements, keeping duplicates */
+  public static <T extends Comparable<? super T>> LoserTreeMerger<T> of(
+      List<? extends Iterable<? extends T>> sources) {
+    List<Iterator<? extends T>> iterators = new ArrayList<>(sources.size());
+    for (Iterable<? extends T> source : sources) {
+      iterators.add(source.iterator());
+    }
+    return new LoserTreeMerger<>(iterators, Comparator.naturalOrder(), false);
+  }
+
+  @Override
+  public boolean hasNext() {
+    return !exhausted[tree[0]];
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public E next() {
+    int winner = tree[0];
+    if (exhausted[winner]) {
+      throw new NoSuchElementException();
+    }
+    E result = (E) heads[winner];
+    advance(winner);
+    adjust(winner);
+    if (distinct) {
+      while (!exhausted[tree[0]] && comparator.compare((E) heads[tree[0]], result) == 0) {
+        int duplicate = tree[0];
+        advance(duplicate);
+        adjust(duplicate);
+      }
+    }
+    return result;
+  }
+
+  /** Loads the next head of source s, or marks it exhausted */
+  private void advance(int s) {
+    if (sources[s].hasNext()) {
+      heads[s] = sources[s].next();
+    } else {
+      heads[s] = null;
+      exhausted[s] = true;
+    }
+  }
+
+  /** Replays the matches from the leaf of source s up to the root */
+  private void adjust(int s) {
+    for (int t = (s + k) >> 1; t > 0; t >>= 1) {
+      if (beats(tree[t], s)) {
+        int loser = s;
+        s = tree[t];
+        tree[t] = loser;
+      }
+    }
+    tree[0] = s;
+  }
+
+  /** @return whether source a wins (is smaller than) source b */
+  @SuppressWarnings("unchecked")
+  private boolean beats(int a, int b) {
+    if (a == k) {
+      return true;
+    }
+    if (b == k) {
+      return false;
+    }
+    if (exhausted[a]) {
+      return false;
+    }
+    if (exhausted[b]) {
+      return true;
+    }
+    int cmp = comparator.compare((E) heads[a], (E) heads[b]);
+    return cmp < 0 || (cmp == 0 && a < b);
+  }
+
+  /* Driver Code */
+  public static void main(String[] args) {
+    List<List<Integer>> lists =
+        java.util.Arrays.asList(
+            java.util.Arrays.asList(1, 4, 7, 7),
+            java.util.Arrays.asList(2, 5, 8),
+            java.util.Collections.emptyList(),
+            java.util.Arrays.asList(3, 6, 7, 9));
+    List<Integer> merged = new ArrayList<>();
+    LoserTreeMerger.of(lists).forEachRemaining(merged::add);
+    System.out.println(merged); /* [1, 2, 3, 4, 5, 6, 7, 7, 7, 8, 9] */
+    assert merged.equals(java.util.Arrays.asList(1, 2, 3, 4, 5, 6, 7, 7, 7, 8, 9));
+
+    List<Iterator<Integer>> iterators = new ArrayList<>();
+    for (List<Integer> list : lists) {
+      iterators.add(list.iterator());
+    }
+    List<Integer> distinct = new ArrayList<>();
+    new LoserTreeMerger<Integer>(iterators, Comparator.naturalOrder(), true)
+        .forEachRemaining(distinct::add);
+    assert distinct.equals(java.util.Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9));
+
+    assert !LoserTreeMerger.<Integer>of(new ArrayList<List<Integer>>()).hasNext();
+
+    /* Many shards against sorting everything */
+    java.util.Random random = new java.util.Random(5);
+    List<List<Integer>> shards = new ArrayList<>();
+    List<Integer> all = new ArrayList<>();
+    for (int s = 0; s < 300; s++) {
+      List<Integer> shard = new ArrayList<>();
+      for (int i = random.nextInt(500); i > 0; i--) {
+        shard.add(random.nextInt(100_000));
+      }
+      java.util.Collections.sort(shard);
+      shards.add(shard);
+      all.addAll(shard);
+    }
+    java.util.Collections.sort(all);
+    List<Integer> result = new ArrayList<>();
+    LoserTreeMerger.of(shards).forEachRemaining(result::add);
+    assert result.equals(all);
+  }
+}
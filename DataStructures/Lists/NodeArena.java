@@ -0,0 +1,168 @@
+package DataStructures.Lists;
+
+import java.util.Arrays;
+
+/**
+ * Pool of linked-structure nodes stored as parallel arrays instead of objects.
+ *
+ * <p>A node is an {@code int} handle. Its value lives in {@code values[node]} and its links (one
+ * for a singly linked list, two for a doubly linked list or a binary tree, ...) in an {@code int[]}
+ * next to each other. Freed nodes are chained into a free list through their first link, so {@link
+ * #alloc(Object)} and {@link #free(int)} are O(1), and the arrays grow by whole chunks when the
+ * free list runs dry. Once the arena has reached its working size, building and tearing down
+ * structures in it allocates nothing, which keeps the garbage collector out of latency-critical
+ * paths. Several structures can share one arena.
+ *
+ * <p>This is the cursor implementation of linked lists, see {@link CursorLinkedList}.
+ *
+ * @param <T> the type of the node values
+ */
+public class NodeArena<T> {
+
+  /** Handle meaning "no node", the null pointer of the arena */
+  public static final int NIL = -1;
+
+  private static final int DEFAULT_CHUNK_SIZE = 64;
+  /** Marks free slots so a double free is detected */
+  private static final Object FREE = new Object();
+
+  private final int linksPerNode;
+  private final int chunkSize;
+  private Object[] values;
+  private int[] links;
+  private int freeHead = NIL;
+  private int live;
+
+  /** Init an arena of singly linked nodes growing by 64 nodes */
+  public NodeArena() {
+    this(1, DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * @param linksPerNode number of {@code int} links per node, at least 1
+   * @param chunkSize minimum number of nodes added when the arena grows
+   */
+  public NodeArena(int linksPerNode, int chunkSize) {
+    if (linksPerNode < 1 || chunkSize < 1) {
+      throw new IllegalArgumentException("links per node and chunk size must be positive");
+    }
+    this.linksPerNode = linksPerNode;
+    this.chunkSize = chunkSize;
+    this.values = new Object[0];
+    this.links = new int[0];
+  }
+
+  /**
+   * Takes a node from the free list, growing the arena if it is empty. All links of the new node
+   * are {@link #NIL}.
+   *
+   * @return handle of the new node
+   */
+  public int alloc(T value) {
+    if (freeHead == NIL) {
+      grow();
+    }
+    int node = freeHead;
+    freeHead = links[node * linksPerNode];
+    Arrays.fill(links, node * linksPerNode, (node + 1) * linksPerNode, NIL);
+    values[node] = value;
+    live++;
+    return node;
+  }
+
+  /** Returns a node to the free list, its handle must not be used afterwards */
+  public void free(int node) {
+    checkNode(node);
+    values[node] = FREE;
+    links[node * linksPerNode] = freeHead;
+    freeHead = node;
+    live--;
+  }
+
+  @SuppressWarnings("unchecked")
+  public T value(int node) {
+    return (T) values[node];
+  }
+
+  public void setValue(int node, T value) {
+    values[node] = value;
+  }
+
+  /** @return the first link of {@code node} */
+  public int next(int node) {
+    return links[node * linksPerNode];
+  }
+
+  public void setNext(int node, int next) {
+    links[node * linksPerNode] = next;
+  }
+
+  /** @return link number {@code k} of {@code node} */
+  public int link(int node, int k) {
+    return links[node * linksPerNode + k];
+  }
+
+  public void setLink(int node, int k, int target) {
+    links[node * linksPerNode + k] = target;
+  }
+
+  /** @return number of allocated nodes */
+  public int size() {
+    return live;
+  }
+
+  /** @return number of nodes the arena can hold without growing */
+  public int capacity() {
+    return values.length;
+  }
+
+  /** Grows by at least a chunk, and by half the capacity for large arenas so growth stays cheap */
+  private void grow() {
+    int oldCapacity = values.length;
+    int newCapacity = oldCapacity + Math.max(chunkSize, oldCapacity >> 1);
+    values = Arrays.copyOf(values, newCapacity);
+    links = Arrays.copyOf(links, newCapacity * linksPerNode);
+    // Chain the new slots into the free list, lowest index first
+    for (int node = newCapacity - 1; node >= oldCapacity; node--) {
+      values[node] = FREE;
+      links[node * linksPerNode] = freeHead;
+      freeHead = node;
+    }
+  }
+
+  private void checkNode(int node) {
+    if (node < 0 || node >= values.length) {
+      throw new IndexOutOfBoundsException("node " + node);
+    }
+    if (values[node] == FREE) {
+      throw new IllegalStateException("node " + node + " is already free");
+    }
+  }
+
+  /* Driver Code */
+  public static void main(String[] args) {
+    NodeArena<String> arena = new NodeArena<>(2, 4);
+    int root = arena.alloc("root");
+    int left = arena.alloc("left");
+    arena.setLink(root, 0, left);
+    arena.setLink(root, 1, NIL);
+    assert arena.value(arena.link(root, 0)).equals("left");
+    assert arena.size() == 2 && arena.capacity() == 4;
+
+    arena.free(left);
+    int reused = arena.alloc("reused");
+    assert reused == left; /* the freed slot is handed out again */
+    assert arena.link(reused, 0) == NIL && arena.link(reused, 1) == NIL;
+    try {
+      arena.free(root);
+      arena.free(root);
+      assert false;
+    } catch (IllegalStateException e) {
+      /* double free detected */
+    }
+    for (int i = 0; i < 100; i++) {
+      arena.alloc("node " + i);
+    }
+    assert arena.size() == 101;
+  }
+}
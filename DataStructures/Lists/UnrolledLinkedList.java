@@ -0,0 +1,369 @@
+package DataStructures.Lists;
+
+import java.util.StringJoiner;
+
+/**
+ * Unrolled linked list of primitive {@code int}s: a doubly linked list of blocks, each holding up
+ * to {@code blockCapacity} values in an array.
+ *
+ * <p>It offers the same operations as {@link SinglyLinkedList}, but positional operations only
+ * follow one pointer per block, so {@link #getNth(int)}, {@link #insertNth(int, int)} and {@link
+ * #deleteNth(int)} traverse O(n/B) nodes, and scans such as {@link #search(int)} walk contiguous
+ * arrays instead of chasing one pointer per value. A full block is split in two on insert, and a
+ * block falling under half full is merged with its successor when they fit in one block.
+ *
+ * <p>https://en.wikipedia.org/wiki/Unrolled_linked_list
+ */
+public class UnrolledLinkedList {
+
+  private static final int DEFAULT_BLOCK_CAPACITY = 64;
+
+  private static final class Block {
+    final int[] values;
+    int count;
+    Block prev;
+    Block next;
+
+    Block(int capacity) {
+      values = new int[capacity];
+    }
+  }
+
+  private final int blockCapacity;
+  private Block head;
+  private Block tail;
+  private int size;
+  private int blocks;
+
+  /** Init with blocks of 64 values */
+  public UnrolledLinkedList() {
+    this(DEFAULT_BLOCK_CAPACITY);
+  }
+
+  /** @param blockCapacity number of values per block, at least 4 */
+  public UnrolledLinkedList(int blockCapacity) {
+    if (blockCapacity < 4) {
+      throw new IllegalArgumentException("block capacity must be at least 4");
+    }
+    this.blockCapacity = blockCapacity;
+    head = tail = new Block(blockCapacity);
+    blocks = 1;
+  }
+
+  /**
+   * Inserts a value at the head of the list
+   *
+   * @param x element to be added
+   */
+  public void insertHead(int x) {
+    insertNth(x, 0);
+  }
+
+  /**
+   * Inserts a value at the tail of the list
+   *
+   * @param data element to be added
+   */
+  public void insert(int data) {
+    insertNth(data, size);
+  }
+
+  /**
+   * Inserts a value at the given position
+   *
+   * @param data data to be stored
+   * @param position position at which the value is inserted
+   */
+  public void insertNth(int data, int position) {
+    checkBounds(position, 0, size);
+    Block block;
+    int offset;
+    if (position == size) {
+      block = tail;
+      offset = tail.count;
+    } else {
+      block = head;
+      offset = position;
+      while (offset >= block.count) {
+        offset -= block.count;
+        block = block.next;
+      }
+    }
+    if (block.count == blockCapacity) {
+      Block second = split(block);
+      if (offset > block.count) {
+        offset -= block.count;
+        block = second;
+      }
+    }
+    System.arraycopy(block.values, offset, block.values, offset + 1, block.count - offset);
+    block.values[offset] = data;
+    block.count++;
+    size++;
+  }
+
+  /** Deletes the value at the head of the list */
+  public void deleteHead() {
+    deleteNth(0);
+  }
+
+  /** Deletes the value at the tail of the list */
+  public void delete() {
+    deleteNth(size - 1);
+  }
+
+  /**
+   * Deletes the value at the given position
+   *
+   * @return the deleted value
+   */
+  public int deleteNth(int position) {
+    checkBounds(position, 0, size - 1);
+    Block block = head;
+    int offset = position;
+    while (offset >= block.count) {
+      offset -= block.count;
+      block = block.next;
+    }
+    int value = block.values[offset];
+    System.arraycopy(block.values, offset + 1, block.values, offset, block.count - offset - 1);
+    block.count--;
+    size--;
+    rebalance(block);
+    return value;
+  }
+
+  /**
+   * Replaces the value at the given position
+   *
+   * @return the previous value
+   */
+  public int set(int index, int value) {
+    checkBounds(index, 0, size - 1);
+    Block block = head;
+    int offset = index;
+    while (offset >= block.count) {
+      offset -= block.count;
+      block = block.next;
+    }
+    int old = block.values[offset];
+    block.values[offset] = value;
+    return old;
+  }
+
+  /**
+   * @param position to check position
+   * @param low low index
+   * @param high high index
+   * @throws IndexOutOfBoundsException if {@code position} not in range {@code low} to {@code high}
+   */
+  public void checkBounds(int position, int low, int high) {
+    if (position > high || position < low) {
+      throw new IndexOutOfBoundsException(position + "");
+    }
+  }
+
+  /** Clears all values of the list */
+  public void clear() {
+    head = tail = new Block(blockCapacity);
+    size = 0;
+    blocks = 1;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /** @return number of blocks currently linked */
+  public int blockCount() {
+    return blocks;
+  }
+
+  /**
+   * Counts the values by walking the blocks
+   *
+   * @return count of the list
+   */
+  public int count() {
+    int count = 0;
+    for (Block block = head; block != null; block = block.next) {
+      count += block.count;
+    }
+    return count;
+  }
+
+  /**
+   * @param key the value to be searched
+   * @return {@code true} if key is present in the list, otherwise {@code false}
+   */
+  public boolean search(int key) {
+    for (Block block = head; block != null; block = block.next) {
+      int[] values = block.values;
+      for (int i = 0, n = block.count; i < n; i++) {
+        if (values[i] == key) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @param index given index of element
+   * @return element at the given index
+   */
+  public int getNth(int index) {
+    checkBounds(index, 0, size - 1);
+    Block block;
+    int offset;
+    if (index < size / 2) {
+      block = head;
+      offset = index;
+      while (offset >= block.count) {
+        offset -= block.count;
+        block = block.next;
+      }
+    } else {
+      // walk back from the tail, counting positions from the end
+      block = tail;
+      offset = size - 1 - index;
+      while (offset >= block.count) {
+        offset -= block.count;
+        block = block.prev;
+      }
+      offset = block.count - 1 - offset;
+    }
+    return block.values[offset];
+  }
+
+  /** Moves the upper half of a full block into a new block linked after it */
+  private Block split(Block block) {
+    Block second = new Block(blockCapacity);
+    int half = block.count / 2;
+    second.count = block.count - half;
+    System.arraycopy(block.values, half, second.values, 0, second.count);
+    block.count = half;
+    second.prev = block;
+    second.next = block.next;
+    if (block.next != null) {
+      block.next.prev = second;
+    } else {
+      tail = second;
+    }
+    block.next = second;
+    blocks++;
+    return second;
+  }
+
+  /** Merges an under-filled block with its successor, or unlinks it when it became empty */
+  private void rebalance(Block block) {
+    if (block.count >= blockCapacity / 2) {
+      return;
+    }
+    if (block.count == 0 && blocks > 1) {
+      unlink(block);
+      return;
+    }
+    Block next = block.next;
+    if (next != null && block.count + next.count <= blockCapacity) {
+      System.arraycopy(next.values, 0, block.values, block.count, next.count);
+      block.count += next.count;
+      unlink(next);
+    }
+  }
+
+  private void unlink(Block block) {
+    if (block.prev != null) {
+      block.prev.next = block.next;
+    } else {
+      head = block.next;
+    }
+    if (block.next != null) {
+      block.next.prev = block.prev;
+    } else {
+      tail = block.prev;
+    }
+    blocks--;
+  }
+
+  @Override
+  public String toString() {
+    StringJoiner joiner = new StringJoiner("->");
+    for (Block block = head; block != null; block = block.next) {
+      for (int i = 0; i < block.count; i++) {
+        joiner.add(block.values[i] + "");
+      }
+    }
+    return joiner.toString();
+  }
+
+  /* Driver Code */
+  public static void main(String[] args) {
+    UnrolledLinkedList list = new UnrolledLinkedList(4);
+    assert list.isEmpty();
+    assert list.toString().equals("");
+    for (int i = 1; i <= 10; i++) {
+      list.insert(i);
+    }
+    list.insertHead(0);
+    list.insertNth(100, 5);
+    assert list.toString().equals("0->1->2->3->4->100->5->6->7->8->9->10");
+    assert list.size() == 12 && list.count() == 12;
+    assert list.getNth(5) == 100 && list.getNth(11) == 10 && list.getNth(0) == 0;
+    assert list.search(7) && !list.search(42);
+    assert list.deleteNth(5) == 100;
+    list.deleteHead();
+    list.delete();
+    assert list.toString().equals("1->2->3->4->5->6->7->8->9");
+    while (!list.isEmpty()) {
+      list.deleteNth(list.size() / 2);
+    }
+    assert list.blockCount() == 1;
+
+    /* Middle inserts and positional reads against the node-per-int lists */
+    final int n = 20_000;
+    java.util.Random random = new java.util.Random(1);
+    int[] positions = new int[n];
+    for (int i = 0; i < n; i++) {
+      positions[i] = random.nextInt(i + 1);
+    }
+
+    long start = System.nanoTime();
+    SinglyLinkedList singly = new SinglyLinkedList();
+    for (int i = 0; i < n; i++) {
+      singly.insertNth(i, positions[i]);
+    }
+    long checksum = 0;
+    for (int i = 0; i < n; i += 10) {
+      checksum += singly.getNth(i);
+    }
+    long singlyTime = System.nanoTime() - start;
+
+    start = System.nanoTime();
+    DoublyLinkedList doubly = new DoublyLinkedList();
+    for (int i = 0; i < n; i++) {
+      doubly.insertElementByIndex(i, positions[i]);
+    }
+    long doublyTime = System.nanoTime() - start;
+
+    start = System.nanoTime();
+    UnrolledLinkedList unrolled = new UnrolledLinkedList();
+    for (int i = 0; i < n; i++) {
+      unrolled.insertNth(i, positions[i]);
+    }
+    long unrolledChecksum = 0;
+    for (int i = 0; i < n; i += 10) {
+      unrolledChecksum += unrolled.getNth(i);
+    }
+    long unrolledTime = System.nanoTime() - start;
+
+    assert checksum == unrolledChecksum;
+    System.out.println("SinglyLinkedList:   " + singlyTime / 1_000_000 + " ms");
+    System.out.println("DoublyLinkedList:   " + doublyTime / 1_000_000 + " ms (inserts only)");
+    System.out.println("UnrolledLinkedList: " + unrolledTime / 1_000_000 + " ms");
+  }
+}
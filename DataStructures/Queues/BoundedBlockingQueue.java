@@ -0,0 +1,351 @@
+package DataStructures.Queues;
+
+import java.util.Collection;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded blocking FIFO queue with separate locks for producers and consumers (the "two-lock
+ * queue" of Michael and Scott).
+ *
+ * <p>Producers only take the put lock and touch the tail, consumers only take the take lock and
+ * touch the head, so a put and a take never wait for each other. The element count is the only
+ * shared state and is kept in an atomic counter. {@link #drainTo(Collection, int)} removes a whole
+ * batch under a single acquisition of the take lock.
+ *
+ * @param <E> the type of elements held in this queue
+ */
+public class BoundedBlockingQueue<E> {
+
+  private static final class Node<E> {
+    E item;
+    Node<E> next;
+
+    Node(E item) {
+      this.item = item;
+    }
+  }
+
+  private final int capacity;
+  private final AtomicInteger count = new AtomicInteger();
+
+  /** Dummy node, its successor holds the front element. Guarded by takeLock */
+  private Node<E> head;
+  /** Last node. Guarded by putLock */
+  private Node<E> tail;
+
+  private final ReentrantLock takeLock = new ReentrantLock();
+  private final Condition notEmpty = takeLock.newCondition();
+  private final ReentrantLock putLock = new ReentrantLock();
+  private final Condition notFull = putLock.newCondition();
+
+  /** @param capacity maximum number of elements, at least 1 */
+  public BoundedBlockingQueue(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be positive");
+    }
+    this.capacity = capacity;
+    head = tail = new Node<>(null);
+  }
+
+  public int size() {
+    return count.get();
+  }
+
+  public boolean isEmpty() {
+    return count.get() == 0;
+  }
+
+  public int remainingCapacity() {
+    return capacity - count.get();
+  }
+
+  /** Add element to rear of queue, waiting while the queue is full */
+  public void put(E item) throws InterruptedException {
+    if (item == null) {
+      throw new NullPointerException();
+    }
+    int before;
+    putLock.lockInterruptibly();
+    try {
+      while (count.get() == capacity) {
+        notFull.await();
+      }
+      enqueue(item);
+      before = count.getAndIncrement();
+      if (before + 1 < capacity) {
+        notFull.signal(); // let the next producer in without waiting for a consumer
+      }
+    } finally {
+      putLock.unlock();
+    }
+    if (before == 0) {
+      signalNotEmpty();
+    }
+  }
+
+  /**
+   * Add element to rear of queue if there is room
+   *
+   * @return <tt>true</tt> if added, <tt>false</tt> if the queue is full
+   */
+  public boolean offer(E item) {
+    if (item == null) {
+      throw new NullPointerException();
+    }
+    if (count.get() == capacity) {
+      return false;
+    }
+    int before = -1;
+    putLock.lock();
+    try {
+      if (count.get() < capacity) {
+        enqueue(item);
+        before = count.getAndIncrement();
+        if (before + 1 < capacity) {
+          notFull.signal();
+        }
+      }
+    } finally {
+      putLock.unlock();
+    }
+    if (before == 0) {
+      signalNotEmpty();
+    }
+    return before >= 0;
+  }
+
+  /** Remove element at the front of queue, waiting while the queue is empty */
+  public E take() throws InterruptedException {
+    E item;
+    int before;
+    takeLock.lockInterruptibly();
+    try {
+      while (count.get() == 0) {
+        notEmpty.await();
+      }
+      item = dequeue();
+      before = count.getAndDecrement();
+      if (before > 1) {
+        notEmpty.signal();
+      }
+    } finally {
+      takeLock.unlock();
+    }
+    if (before == capacity) {
+      signalNotFull();
+    }
+    return item;
+  }
+
+  /**
+   * Remove element at the front of queue, waiting up to the given time while it is empty
+   *
+   * @return the element, or <tt>null</tt> if the time elapsed
+   */
+  public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+    long nanos = unit.toNanos(timeout);
+    E item;
+    int before;
+    takeLock.lockInterruptibly();
+    try {
+      while (count.get() == 0) {
+        if (nanos <= 0) {
+          return null;
+        }
+        nanos = notEmpty.awaitNanos(nanos);
+      }
+      item = dequeue();
+      before = count.getAndDecrement();
+      if (before > 1) {
+        notEmpty.signal();
+      }
+    } finally {
+      takeLock.unlock();
+    }
+    if (before == capacity) {
+      signalNotFull();
+    }
+    return item;
+  }
+
+  /**
+   * Remove element at the front of queue
+   *
+   * @return the element, or <tt>null</tt> if the queue is empty
+   */
+  public E poll() {
+    if (count.get() == 0) {
+      return null;
+    }
+    try {
+      return poll(0, TimeUnit.NANOSECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    }
+  }
+
+  /**
+   * Removes up to {@code maxElements} elements into {@code target} while holding the take lock
+   * once, instead of once per element.
+   *
+   * @return number of elements removed
+   */
+  public int drainTo(Collection<? super E> target, int maxElements) {
+    if (target == null) {
+      throw new NullPointerException();
+    }
+    if (maxElements <= 0) {
+      return 0;
+    }
+    int removed = 0;
+    boolean wasFull = false;
+    takeLock.lock();
+    try {
+      int n = Math.min(maxElements, count.get());
+      try {
+        while (removed < n) {
+          /* Unlink only once added, so an element refused by target stays in the queue */
+          target.add(head.next.item);
+          dequeue();
+          removed++;
+        }
+      } finally {
+        // Restore the invariant even if target.add threw
+        if (removed > 0) {
+          wasFull = count.getAndAdd(-removed) == capacity;
+        }
+      }
+    } finally {
+      takeLock.unlock();
+      if (wasFull) {
+        signalNotFull();
+      }
+    }
+    return removed;
+  }
+
+  /** Removes all available elements into {@code target}, see {@link #drainTo(Collection, int)} */
+  public int drainTo(Collection<? super E> target) {
+    return drainTo(target, Integer.MAX_VALUE);
+  }
+
+  /** @return element at the front of queue without removing it */
+  public E element() {
+    takeLock.lock();
+    try {
+      if (count.get() == 0) {
+        throw new NoSuchElementException("queue is empty");
+      }
+      return head.next.item;
+    } finally {
+      takeLock.unlock();
+    }
+  }
+
+  /** Must hold putLock */
+  private void enqueue(E item) {
+    tail = tail.next = new Node<>(item);
+  }
+
+  /** Must hold takeLock, and the queue must not be empty */
+  private E dequeue() {
+    Node<E> first = head.next;
+    head.next = null; // help GC
+    head = first;
+    E item = first.item;
+    first.item = null; // first becomes the dummy node
+    return item;
+  }
+
+  /** Wakes up a waiting consumer, called from put/offer when the queue was empty */
+  private void signalNotEmpty() {
+    takeLock.lock();
+    try {
+      notEmpty.signal();
+    } finally {
+      takeLock.unlock();
+    }
+  }
+
+  /** Wakes up a waiting producer, called from take/poll/drainTo when the queue was full */
+  private void signalNotFull() {
+    putLock.lock();
+    try {
+      notFull.signal();
+    } finally {
+      putLock.unlock();
+    }
+  }
+
+  /* Driver Code */
+  public static void main(String[] args) throws InterruptedException {
+    BoundedBlockingQueue<Integer> queue = new BoundedBlockingQueue<>(3);
+    assert queue.offer(1);
+    assert queue.offer(2);
+    assert queue.offer(3);
+    assert !queue.offer(4);
+    assert queue.remainingCapacity() == 0;
+    assert queue.element() == 1;
+    assert queue.take() == 1;
+    java.util.List<Integer> batch = new java.util.ArrayList<>();
+    assert queue.drainTo(batch) == 2;
+    assert batch.equals(java.util.Arrays.asList(2, 3));
+    assert queue.poll() == null;
+    assert queue.poll(1, TimeUnit.MILLISECONDS) == null;
+
+    /* A target failing halfway keeps the count and the remaining elements consistent */
+    queue.offer(1);
+    queue.offer(2);
+    java.util.List<Integer> one =
+        new java.util.ArrayList<Integer>() {
+          @Override
+          public boolean add(Integer e) {
+            if (!isEmpty()) {
+              throw new IllegalStateException("full");
+            }
+            return super.add(e);
+          }
+        };
+    try {
+      queue.drainTo(one);
+      assert false;
+    } catch (IllegalStateException expected) {
+      assert one.equals(java.util.Arrays.asList(1)) && queue.size() == 1 && queue.poll() == 2;
+    }
+    assert queue.drainTo(batch, -1) == 0 && queue.drainTo(batch, 0) == 0;
+
+    /* A producer blocked on a full queue is released by a consumer */
+    final int items = 100_000;
+    BoundedBlockingQueue<Integer> shared = new BoundedBlockingQueue<>(16);
+    Thread producer =
+        new Thread(
+            () -> {
+              try {
+                for (int i = 0; i < items; i++) {
+                  shared.put(i);
+                }
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+            });
+    producer.start();
+    int expected = 0;
+    java.util.List<Integer> sink = new java.util.ArrayList<>();
+    while (expected < items) {
+      Integer first = shared.take();
+      assert first == expected++;
+      sink.clear();
+      shared.drainTo(sink, 8);
+      for (int v : sink) {
+        assert v == expected++;
+      }
+    }
+    producer.join();
+    assert shared.isEmpty();
+  }
+}
@@ -0,0 +1,275 @@
+package DataStructures.Queues;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Unbounded double-ended queue stored in a linked list of fixed-size array chunks, the generic
+ * counterpart of {@link ChunkedIntDeque}. Emptied chunks are kept on a small free list and reused,
+ * so a deque that keeps roughly the same size no longer allocates.
+ *
+ * @param <E> the type of elements held in this deque
+ */
+public class ChunkedArrayDeque<E> implements Iterable<E> {
+
+  private static final int DEFAULT_CHUNK_SIZE = 256;
+  private static final int DEFAULT_MAX_SPARE_CHUNKS = 4;
+
+  private static final class Chunk {
+    final Object[] items;
+    Chunk prev;
+    Chunk next;
+
+    Chunk(int chunkSize) {
+      items = new Object[chunkSize];
+    }
+  }
+
+  private final int chunkSize;
+  private final int maxSpareChunks;
+
+  /** Chunk holding the first element, read from {@code headIndex} */
+  private Chunk head;
+  /** Chunk holding the last element, written up to {@code tailIndex} exclusive */
+  private Chunk tail;
+
+  private int headIndex;
+  private int tailIndex;
+  private int size;
+  private int modCount;
+
+  /** Free list of recycled chunks, linked through {@code next} */
+  private Chunk spare;
+
+  private int spareCount;
+
+  /** Init with chunks of 256 elements */
+  public ChunkedArrayDeque() {
+    this(DEFAULT_CHUNK_SIZE, DEFAULT_MAX_SPARE_CHUNKS);
+  }
+
+  /**
+   * @param chunkSize number of elements per chunk, at least 2
+   * @param maxSpareChunks how many emptied chunks to keep for reuse
+   */
+  public ChunkedArrayDeque(int chunkSize, int maxSpareChunks) {
+    if (chunkSize < 2) {
+      throw new IllegalArgumentException("chunk size must be at least 2");
+    }
+    if (maxSpareChunks < 0) {
+      throw new IllegalArgumentException("max spare chunks must not be negative");
+    }
+    this.chunkSize = chunkSize;
+    this.maxSpareChunks = maxSpareChunks;
+    head = tail = new Chunk(chunkSize);
+    headIndex = tailIndex = chunkSize / 2;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /** Add element to rear of deque */
+  public void addLast(E element) {
+    if (element == null) {
+      throw new NullPointerException();
+    }
+    if (tailIndex == chunkSize) {
+      Chunk chunk = obtainChunk();
+      chunk.prev = tail;
+      tail.next = chunk;
+      tail = chunk;
+      tailIndex = 0;
+    }
+    tail.items[tailIndex++] = element;
+    size++;
+    modCount++;
+  }
+
+  /** Add element to front of deque */
+  public void addFirst(E element) {
+    if (element == null) {
+      throw new NullPointerException();
+    }
+    if (headIndex == 0) {
+      Chunk chunk = obtainChunk();
+      chunk.next = head;
+      head.prev = chunk;
+      head = chunk;
+      headIndex = chunkSize;
+    }
+    head.items[--headIndex] = element;
+    size++;
+    modCount++;
+  }
+
+  /**
+   * Remove element at the front of deque
+   *
+   * @return element at the front of deque, or <tt>null</tt> if it is empty
+   */
+  @SuppressWarnings("unchecked")
+  public E pollFirst() {
+    if (size == 0) {
+      return null;
+    }
+    E element = (E) head.items[headIndex];
+    head.items[headIndex++] = null;
+    modCount++;
+    if (--size == 0) {
+      headIndex = tailIndex = chunkSize / 2;
+    } else if (headIndex == chunkSize) {
+      Chunk old = head;
+      head = head.next;
+      head.prev = null;
+      headIndex = 0;
+      recycle(old);
+    }
+    return element;
+  }
+
+  /**
+   * Remove element at the rear of deque
+   *
+   * @return element at the rear of deque, or <tt>null</tt> if it is empty
+   */
+  @SuppressWarnings("unchecked")
+  public E pollLast() {
+    if (size == 0) {
+      return null;
+    }
+    E element = (E) tail.items[--tailIndex];
+    tail.items[tailIndex] = null;
+    modCount++;
+    if (--size == 0) {
+      headIndex = tailIndex = chunkSize / 2;
+    } else if (tailIndex == 0) {
+      Chunk old = tail;
+      tail = tail.prev;
+      tail.next = null;
+      tailIndex = chunkSize;
+      recycle(old);
+    }
+    return element;
+  }
+
+  /** @return element at the front of deque, or <tt>null</tt> if it is empty */
+  @SuppressWarnings("unchecked")
+  public E peekFirst() {
+    return size == 0 ? null : (E) head.items[headIndex];
+  }
+
+  /** @return element at the rear of deque, or <tt>null</tt> if it is empty */
+  @SuppressWarnings("unchecked")
+  public E peekLast() {
+    return size == 0 ? null : (E) tail.items[tailIndex - 1];
+  }
+
+  /** Removes all elements, keeping up to the spare limit of chunks for reuse */
+  public void clear() {
+    while (pollFirst() != null) {
+      // pollFirst clears the slots and recycles emptied chunks
+    }
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    return new Iterator<E>() {
+      private Chunk chunk = head;
+      private int index = headIndex;
+      private int remaining = size;
+      private final int expectedModCount = modCount;
+
+      @Override
+      public boolean hasNext() {
+        return remaining > 0;
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      public E next() {
+        if (expectedModCount != modCount) {
+          throw new ConcurrentModificationException();
+        }
+        if (remaining == 0) {
+          throw new NoSuchElementException();
+        }
+        if (index == chunkSize) {
+          chunk = chunk.next;
+          index = 0;
+        }
+        remaining--;
+        return (E) chunk.items[index++];
+      }
+    };
+  }
+
+  private Chunk obtainChunk() {
+    Chunk chunk = spare;
+    if (chunk == null) {
+      return new Chunk(chunkSize);
+    }
+    spare = chunk.next;
+    spareCount--;
+    chunk.next = null;
+    return chunk;
+  }
+
+  private void recycle(Chunk chunk) {
+    chunk.prev = null;
+    if (spareCount < maxSpareChunks) {
+      chunk.next = spare;
+      spare = chunk;
+      spareCount++;
+    } else {
+      chunk.next = null;
+    }
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder("[");
+    for (E element : this) {
+      builder.append(element).append(", ");
+    }
+    if (size > 0) {
+      builder.setLength(builder.length() - 2);
+    }
+    return builder.append("]").toString();
+  }
+
+  /* Driver Code */
+  public static void main(String[] args) {
+    ChunkedArrayDeque<String> deque = new ChunkedArrayDeque<>(2, 1);
+    deque.addLast("b");
+    deque.addLast("c");
+    deque.addLast("d");
+    deque.addFirst("a");
+    System.out.println(deque); /* [a, b, c, d] */
+    assert deque.toString().equals("[a, b, c, d]");
+    assert deque.peekFirst().equals("a");
+    assert deque.peekLast().equals("d");
+    assert deque.pollLast().equals("d");
+    assert deque.pollFirst().equals("a");
+    assert deque.size() == 2;
+    deque.clear();
+    assert deque.pollFirst() == null;
+
+    /* Breadth-first traversal of an implicit binary tree, the frontier reuses its chunks */
+    ChunkedArrayDeque<Integer> frontier = new ChunkedArrayDeque<>();
+    frontier.addLast(1);
+    int visited = 0;
+    Integer node;
+    while ((node = frontier.pollFirst()) != null) {
+      visited++;
+      if (2 * node <= 100_000) frontier.addLast(2 * node);
+      if (2 * node + 1 <= 100_000) frontier.addLast(2 * node + 1);
+    }
+    assert visited == 100_000;
+  }
+}
@@ -0,0 +1,273 @@
+package DataStructures.Queues;
+
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+
+/**
+ * Unbounded double-ended queue of primitive {@code int}s stored in a linked list of fixed-size
+ * array chunks.
+ *
+ * <p>{@link LinkedQueue} allocates one node per element, and {@link Queue} rejects inserts once its
+ * array is full. Here the deque grows one chunk at a time and a chunk emptied at either end is kept
+ * on a small free list and reused by the next growth, so a queue whose size oscillates (a BFS
+ * frontier, a work queue) stops allocating once it has reached its working size. Every operation at
+ * either end is O(1).
+ */
+public class ChunkedIntDeque {
+
+  private static final int DEFAULT_CHUNK_SIZE = 256;
+  private static final int DEFAULT_MAX_SPARE_CHUNKS = 4;
+
+  private static final class Chunk {
+    final int[] items;
+    Chunk prev;
+    Chunk next;
+
+    Chunk(int chunkSize) {
+      items = new int[chunkSize];
+    }
+  }
+
+  private final int chunkSize;
+  private final int maxSpareChunks;
+
+  /** Chunk holding the first element, read from {@code headIndex} */
+  private Chunk head;
+  /** Chunk holding the last element, written up to {@code tailIndex} exclusive */
+  private Chunk tail;
+
+  private int headIndex;
+  private int tailIndex;
+  private int size;
+
+  /** Free list of recycled chunks, linked through {@code next} */
+  private Chunk spare;
+
+  private int spareCount;
+
+  /** Init with chunks of 256 elements */
+  public ChunkedIntDeque() {
+    this(DEFAULT_CHUNK_SIZE, DEFAULT_MAX_SPARE_CHUNKS);
+  }
+
+  /**
+   * @param chunkSize number of elements per chunk, at least 2
+   * @param maxSpareChunks how many emptied chunks to keep for reuse
+   */
+  public ChunkedIntDeque(int chunkSize, int maxSpareChunks) {
+    if (chunkSize < 2) {
+      throw new IllegalArgumentException("chunk size must be at least 2");
+    }
+    if (maxSpareChunks < 0) {
+      throw new IllegalArgumentException("max spare chunks must not be negative");
+    }
+    this.chunkSize = chunkSize;
+    this.maxSpareChunks = maxSpareChunks;
+    head = tail = new Chunk(chunkSize);
+    headIndex = tailIndex = chunkSize / 2;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /** Add element to rear of deque */
+  public void addLast(int value) {
+    if (tailIndex == chunkSize) {
+      Chunk chunk = obtainChunk();
+      chunk.prev = tail;
+      tail.next = chunk;
+      tail = chunk;
+      tailIndex = 0;
+    }
+    tail.items[tailIndex++] = value;
+    size++;
+  }
+
+  /** Add element to front of deque */
+  public void addFirst(int value) {
+    if (headIndex == 0) {
+      Chunk chunk = obtainChunk();
+      chunk.next = head;
+      head.prev = chunk;
+      head = chunk;
+      headIndex = chunkSize;
+    }
+    head.items[--headIndex] = value;
+    size++;
+  }
+
+  /** Same as {@link #addLast(int)}, for queue usage */
+  public void enqueue(int value) {
+    addLast(value);
+  }
+
+  /** Same as {@link #pollFirst()}, for queue usage */
+  public int dequeue() {
+    return pollFirst();
+  }
+
+  /**
+   * Remove element at the front of deque
+   *
+   * @return element at the front of deque
+   */
+  public int pollFirst() {
+    if (size == 0) {
+      throw new NoSuchElementException("deque is empty");
+    }
+    int value = head.items[headIndex++];
+    if (--size == 0) {
+      headIndex = tailIndex = chunkSize / 2;
+    } else if (headIndex == chunkSize) {
+      Chunk old = head;
+      head = head.next;
+      head.prev = null;
+      headIndex = 0;
+      recycle(old);
+    }
+    return value;
+  }
+
+  /**
+   * Remove element at the rear of deque
+   *
+   * @return element at the rear of deque
+   */
+  public int pollLast() {
+    if (size == 0) {
+      throw new NoSuchElementException("deque is empty");
+    }
+    int value = tail.items[--tailIndex];
+    if (--size == 0) {
+      headIndex = tailIndex = chunkSize / 2;
+    } else if (tailIndex == 0) {
+      Chunk old = tail;
+      tail = tail.prev;
+      tail.next = null;
+      tailIndex = chunkSize;
+      recycle(old);
+    }
+    return value;
+  }
+
+  public int peekFirst() {
+    if (size == 0) {
+      throw new NoSuchElementException("deque is empty");
+    }
+    return head.items[headIndex];
+  }
+
+  public int peekLast() {
+    if (size == 0) {
+      throw new NoSuchElementException("deque is empty");
+    }
+    return tail.items[tailIndex - 1];
+  }
+
+  /** Passes every element from front to rear to {@code action} */
+  public void forEach(IntConsumer action) {
+    Chunk chunk = head;
+    int from = headIndex;
+    int remaining = size;
+    while (remaining > 0) {
+      int to = Math.min(chunkSize, from + remaining);
+      for (int i = from; i < to; i++) {
+        action.accept(chunk.items[i]);
+      }
+      remaining -= to - from;
+      chunk = chunk.next;
+      from = 0;
+    }
+  }
+
+  /** Removes all elements, keeping up to the spare limit of chunks for reuse */
+  public void clear() {
+    while (head != tail) {
+      Chunk old = head;
+      head = head.next;
+      recycle(old);
+    }
+    head.prev = null;
+    size = 0;
+    headIndex = tailIndex = chunkSize / 2;
+  }
+
+  private Chunk obtainChunk() {
+    Chunk chunk = spare;
+    if (chunk == null) {
+      return new Chunk(chunkSize);
+    }
+    spare = chunk.next;
+    spareCount--;
+    chunk.next = null;
+    return chunk;
+  }
+
+  private void recycle(Chunk chunk) {
+    chunk.prev = null;
+    if (spareCount < maxSpareChunks) {
+      chunk.next = spare;
+      spare = chunk;
+      spareCount++;
+    } else {
+      chunk.next = null;
+    }
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder("[");
+    forEach(value -> builder.append(value).append(", "));
+    if (size > 0) {
+      builder.setLength(builder.length() - 2);
+    }
+    return builder.append("]").toString();
+  }
+
+  /* Driver Code */
+  public static void main(String[] args) {
+    ChunkedIntDeque deque = new ChunkedIntDeque(4, 1);
+    assert deque.isEmpty();
+    for (int i = 1; i <= 10; i++) {
+      deque.addLast(i);
+    }
+    deque.addFirst(0);
+    deque.addFirst(-1);
+    System.out.println(deque); /* [-1, 0, 1, 2, ..., 10] */
+    assert deque.size() == 12;
+    assert deque.peekFirst() == -1;
+    assert deque.peekLast() == 10;
+    assert deque.pollLast() == 10;
+    for (int i = -1; i <= 9; i++) {
+      assert deque.dequeue() == i;
+    }
+    assert deque.isEmpty();
+
+    /* Against java.util.ArrayDeque with random operations at both ends */
+    java.util.Random random = new java.util.Random(7);
+    java.util.ArrayDeque<Integer> reference = new java.util.ArrayDeque<>();
+    ChunkedIntDeque tested = new ChunkedIntDeque(8, 2);
+    for (int i = 0; i < 1_000_000; i++) {
+      int op = random.nextInt(4);
+      if (op == 0) {
+        tested.addFirst(i);
+        reference.addFirst(i);
+      } else if (op == 1) {
+        tested.addLast(i);
+        reference.addLast(i);
+      } else if (!reference.isEmpty()) {
+        int expected = op == 2 ? reference.pollFirst() : reference.pollLast();
+        int actual = op == 2 ? tested.pollFirst() : tested.pollLast();
+        assert expected == actual;
+      }
+      assert tested.size() == reference.size();
+    }
+    tested.clear();
+    assert tested.isEmpty();
+  }
+}
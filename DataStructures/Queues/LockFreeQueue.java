@@ -0,0 +1,192 @@
+package DataStructures.Queues;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Unbounded lock-free FIFO queue for any number of producer and consumer threads (Michael and
+ * Scott, 1996).
+ *
+ * <p>Like {@link LinkedQueue} it keeps a dummy node in front of the elements, but {@code head},
+ * {@code tail} and every {@code next} link are updated with compare-and-set. An enqueue links the
+ * new node after the last one and then swings {@code tail}; a thread that finds {@code tail}
+ * lagging behind helps move it forward instead of waiting, so no thread can block the others.
+ *
+ * <p>https://www.cs.rochester.edu/u/scott/papers/1996_PODC_queues.pdf
+ *
+ * @param <E> the type of elements held in this queue
+ */
+public class LockFreeQueue<E> {
+
+  private static final class Node<E> {
+    volatile E item;
+    volatile Node<E> next;
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<Node, Node> NEXT =
+        AtomicReferenceFieldUpdater.newUpdater(Node.class, Node.class, "next");
+
+    Node(E item) {
+      this.item = item;
+    }
+
+    boolean casNext(Node<E> expected, Node<E> update) {
+      return NEXT.compareAndSet(this, expected, update);
+    }
+  }
+
+  private final AtomicReference<Node<E>> head;
+  private final AtomicReference<Node<E>> tail;
+
+  /** Init with a dummy node as both head and tail */
+  public LockFreeQueue() {
+    Node<E> dummy = new Node<>(null);
+    head = new AtomicReference<>(dummy);
+    tail = new AtomicReference<>(dummy);
+  }
+
+  /**
+   * Add element to rear of queue
+   *
+   * @param item insert value, not null
+   */
+  public void offer(E item) {
+    if (item == null) {
+      throw new NullPointerException();
+    }
+    Node<E> node = new Node<>(item);
+    while (true) {
+      Node<E> last = tail.get();
+      Node<E> next = last.next;
+      if (last != tail.get()) {
+        continue;
+      }
+      if (next == null) {
+        if (last.casNext(null, node)) {
+          tail.compareAndSet(last, node);
+          return;
+        }
+      } else {
+        tail.compareAndSet(last, next); // help a stalled enqueue
+      }
+    }
+  }
+
+  /**
+   * Remove element at the front of queue
+   *
+   * @return element at the front of queue, or <tt>null</tt> if it is empty
+   */
+  public E poll() {
+    while (true) {
+      Node<E> first = head.get();
+      Node<E> last = tail.get();
+      Node<E> next = first.next;
+      if (first != head.get()) {
+        continue;
+      }
+      if (next == null) {
+        return null;
+      }
+      if (first == last) {
+        tail.compareAndSet(last, next); // tail is behind, help it first
+        continue;
+      }
+      if (head.compareAndSet(first, next)) {
+        // next becomes the new dummy node, drop its reference to the returned item
+        E item = next.item;
+        next.item = null;
+        return item;
+      }
+    }
+  }
+
+  /** @return element at the front of queue without removing it, or <tt>null</tt> if empty */
+  public E peek() {
+    while (true) {
+      Node<E> first = head.get();
+      Node<E> next = first.next;
+      if (next == null) {
+        return null;
+      }
+      E item = next.item;
+      if (item != null && first == head.get()) {
+        return item;
+      }
+    }
+  }
+
+  public boolean isEmpty() {
+    return head.get().next == null;
+  }
+
+  /**
+   * Counts the elements by walking the queue, O(n) and only a snapshot under concurrent use.
+   *
+   * @return size of queue
+   */
+  public int size() {
+    int count = 0;
+    for (Node<E> node = head.get().next; node != null; node = node.next) {
+      if (node.item != null) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /* Driver Code */
+  public static void main(String[] args) throws InterruptedException {
+    LockFreeQueue<Integer> queue = new LockFreeQueue<>();
+    assert queue.isEmpty();
+    assert queue.poll() == null;
+    queue.offer(1);
+    queue.offer(2);
+    queue.offer(3);
+    assert queue.size() == 3;
+    assert queue.peek() == 1;
+    assert queue.poll() == 1;
+    assert queue.poll() == 2;
+    assert queue.poll() == 3;
+    assert queue.isEmpty();
+
+    /* Several producers and consumers, every element must be consumed exactly once */
+    final int threads = 4;
+    final int perProducer = 200_000;
+    LockFreeQueue<Integer> shared = new LockFreeQueue<>();
+    java.util.concurrent.atomic.AtomicLong sum = new java.util.concurrent.atomic.AtomicLong();
+    java.util.concurrent.atomic.AtomicInteger consumed =
+        new java.util.concurrent.atomic.AtomicInteger();
+    Thread[] workers = new Thread[2 * threads];
+    for (int i = 0; i < threads; i++) {
+      workers[i] =
+          new Thread(
+              () -> {
+                for (int v = 1; v <= perProducer; v++) {
+                  shared.offer(v);
+                }
+              });
+      workers[threads + i] =
+          new Thread(
+              () -> {
+                while (consumed.get() < threads * perProducer) {
+                  Integer v = shared.poll();
+                  if (v == null) {
+                    Thread.yield();
+                  } else {
+                    sum.addAndGet(v);
+                    consumed.incrementAndGet();
+                  }
+                }
+              });
+    }
+    for (Thread worker : workers) {
+      worker.start();
+    }
+    for (Thread worker : workers) {
+      worker.join();
+    }
+    assert sum.get() == (long) threads * perProducer * (perProducer + 1) / 2;
+    assert shared.isEmpty();
+  }
+}
@@ -0,0 +1,203 @@
+package DataStructures.Queues;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Sliding-window maximum or minimum over a stream of doubles.
+ *
+ * <p>Recomputing the extremum of the last {@code w} values with a loop like {@code Maths.FindMax}
+ * costs O(w) per value. A monotonic deque keeps only the values that can still become the
+ * extremum of some future window: for a maximum, the values are kept in decreasing order, a new
+ * value evicts every smaller value at the back, and the front is dropped once it leaves the window.
+ * Each value enters and leaves at most once, so the cost is amortized O(1) per value.
+ *
+ * <p>The deque never holds more than {@code window} entries and lives in two preallocated arrays,
+ * so {@link #add(double)} does not allocate. Values are compared with {@code <=} and {@code >=};
+ * NaN is not supported.
+ *
+ * <p>https://en.wikipedia.org/wiki/Monotone_priority_queue
+ */
+public final class MonotonicDeque {
+
+  private final int window;
+  private final boolean max;
+  private final int mask;
+  /** Ring buffer of candidate values and their sequence numbers, from head to tail */
+  private final double[] values;
+  private final long[] sequences;
+  private int head;
+  private int tail;
+  /** Number of values added so far */
+  private long count;
+
+  private MonotonicDeque(int window, boolean max) {
+    if (window < 1) {
+      throw new IllegalArgumentException("window must be positive");
+    }
+    this.window = window;
+    this.max = max;
+    int capacity = Integer.highestOneBit(window);
+    if (capacity < window) {
+      capacity <<= 1;
+    }
+    this.mask = capacity - 1;
+    this.values = new double[capacity];
+    this.sequences = new long[capacity];
+  }
+
+  /** @return a deque tracking the maximum of the last {@code window} values */
+  public static MonotonicDeque max(int window) {
+    return new MonotonicDeque(window, true);
+  }
+
+  /** @return a deque tracking the minimum of the last {@code window} values */
+  public static MonotonicDeque min(int window) {
+    return new MonotonicDeque(window, false);
+  }
+
+  /**
+   * Adds the next value of the stream
+   *
+   * @return the extremum of the last {@code window} values, including this one
+   */
+  public double add(double value) {
+    long sequence = count++;
+    if (head != tail && sequences[head & mask] <= sequence - window) {
+      head++;
+    }
+    while (head != tail && dominated(values[(tail - 1) & mask], value)) {
+      tail--;
+    }
+    values[tail & mask] = value;
+    sequences[tail & mask] = sequence;
+    tail++;
+    return values[head & mask];
+  }
+
+  private boolean dominated(double kept, double value) {
+    return max ? kept <= value : kept >= value;
+  }
+
+  /**
+   * @return the extremum of the last {@code window} values
+   * @throws NoSuchElementException if no value has been added
+   */
+  public double get() {
+    if (head == tail) {
+      throw new NoSuchElementException("no value added");
+    }
+    return values[head & mask];
+  }
+
+  /** @return how many values ago the current extremum was added, 0 being the latest value */
+  public int age() {
+    if (head == tail) {
+      throw new NoSuchElementException("no value added");
+    }
+    return (int) (count - 1 - sequences[head & mask]);
+  }
+
+  /** @return number of values added since creation or the last {@link #clear()} */
+  public long count() {
+    return count;
+  }
+
+  public int window() {
+    return window;
+  }
+
+  /** @return number of candidates kept, at most {@link #window()} */
+  public int size() {
+    return tail - head;
+  }
+
+  public void clear() {
+    head = tail = 0;
+    count = 0;
+  }
+
+  /** @return the maximum of every window of {@code window} consecutive values */
+  public static double[] slidingMax(double[] values, int window) {
+    double[] out = new double[Math.max(0, values.length - window + 1)];
+    slide(values, window, true, out);
+    return out;
+  }
+
+  /** @return the minimum of every window of {@code window} consecutive values */
+  public static double[] slidingMin(double[] values, int window) {
+    double[] out = new double[Math.max(0, values.length - window + 1)];
+    slide(values, window, false, out);
+    return out;
+  }
+
+  /**
+   * Writes the maximum of every full window into {@code out}, which needs {@code values.length -
+   * window + 1} elements
+   */
+  public static void slidingMax(double[] values, int window, double[] out) {
+    slide(values, window, true, out);
+  }
+
+  /**
+   * Writes the minimum of every full window into {@code out}, which needs {@code values.length -
+   * window + 1} elements
+   */
+  public static void slidingMin(double[] values, int window, double[] out) {
+    slide(values, window, false, out);
+  }
+
+  private static void slide(double[] values, int window, boolean max, double[] out) {
+    MonotonicDeque deque = new MonotonicDeque(window, max);
+    if (out.length < values.length - window + 1) {
+      throw new IllegalArgumentException("output array too small");
+    }
+    for (int i = 0; i < values.length; i++) {
+      double extremum = deque.add(values[i]);
+      if (i >= window - 1) {
+        out[i - window + 1] = extremum;
+      }
+    }
+  }
+
+  /* Driver Code */
+  public static void main(String[] args) {
+    double[] values = {1, 3, -1, -3, 5, 3, 6, 7};
+    assert java.util.Arrays.equals(slidingMax(values, 3), new double[] {3, 3, 5, 5, 6, 7});
+    assert java.util.Arrays.equals(slidingMin(values, 3), new double[] {-1, -3, -3, -3, 3, 3});
+    assert slidingMax(values, 9).length == 0;
+
+    MonotonicDeque deque = max(3);
+    assert deque.add(4) == 4 && deque.add(2) == 4 && deque.add(1) == 4;
+    assert deque.age() == 2 && deque.size() == 3;
+    assert deque.add(0) == 2 && deque.add(3) == 3 && deque.size() == 1;
+
+    /* Against the nested loop on random data */
+    java.util.Random random = new java.util.Random(3);
+    double[] data = new double[200_000];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = random.nextInt(1000);
+    }
+    for (int window : new int[] {1, 2, 7, 64, 1000}) {
+      long start = System.nanoTime();
+      double[] fast = slidingMax(data, window);
+      long fastNanos = System.nanoTime() - start;
+      start = System.nanoTime();
+      for (int i = 0; i < fast.length; i++) {
+        double expected = data[i];
+        for (int j = i + 1; j < i + window; j++) {
+          expected = Math.max(expected, data[j]);
+        }
+        assert fast[i] == expected : "window " + window + " at " + i;
+      }
+      long naiveNanos = System.nanoTime() - start;
+      System.out.println(
+          "window "
+              + window
+              + ": deque "
+              + fastNanos / 1000
+              + " us, nested loop "
+              + naiveNanos / 1000
+              + " us");
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package DataStructures.Queues;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Measures the throughput of the thread-safe queues of this package under contention, from 1 to 64
+ * threads. Every thread repeatedly adds an element and then removes one, so all threads hammer both
+ * ends of the same queue. A {@link LinkedQueue} guarded by {@code synchronized} is the baseline.
+ *
+ * <p>Results depend heavily on the number of cores, run with {@code java -ea} to also check that no
+ * element is lost.
+ */
+public class QueueContentionBenchmark {
+
+  private static final int OPERATIONS = 1 << 20;
+
+  /** One offer-then-poll pair, returning the polled element */
+  private interface PairOperation {
+    int run(int value) throws InterruptedException;
+  }
+
+  private static double measure(int threads, PairOperation operation)
+      throws InterruptedException {
+    final int perThread = OPERATIONS / threads;
+    CountDownLatch start = new CountDownLatch(1);
+    long[] sums = new long[threads];
+    Thread[] workers = new Thread[threads];
+    for (int t = 0; t < threads; t++) {
+      final int id = t;
+      workers[t] =
+          new Thread(
+              () -> {
+                try {
+                  start.await();
+                  long sum = 0;
+                  for (int i = 1; i <= perThread; i++) {
+                    sum += operation.run(i);
+                  }
+                  sums[id] = sum;
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                }
+              });
+      workers[t].start();
+    }
+    long begin = System.nanoTime();
+    start.countDown();
+    for (Thread worker : workers) {
+      worker.join();
+    }
+    long elapsed = System.nanoTime() - begin;
+    long total = 0;
+    for (long sum : sums) {
+      total += sum;
+    }
+    assert total == (long) threads * perThread * (perThread + 1) / 2 : "elements were lost";
+    return 2.0 * perThread * threads * 1_000_000_000L / elapsed;
+  }
+
+  public static void main(String[] args) throws InterruptedException {
+    System.out.printf(
+        "%8s %16s %16s %16s%n", "threads", "LockFreeQueue", "BoundedBlocking", "synchronized");
+    for (int threads = 1; threads <= 64; threads *= 2) {
+      LockFreeQueue<Integer> lockFree = new LockFreeQueue<>();
+      double lockFreeOps =
+          measure(
+              threads,
+              value -> {
+                lockFree.offer(value);
+                Integer polled;
+                while ((polled = lockFree.poll()) == null) {
+                  Thread.yield();
+                }
+                return polled;
+              });
+
+      BoundedBlockingQueue<Integer> blocking = new BoundedBlockingQueue<>(1024);
+      double blockingOps =
+          measure(
+              threads,
+              value -> {
+                blocking.put(value);
+                return blocking.take();
+              });
+
+      LinkedQueue linked = new LinkedQueue();
+      double synchronizedOps =
+          measure(
+              threads,
+              value -> {
+                synchronized (linked) {
+                  linked.enqueue(value);
+                }
+                while (true) {
+                  synchronized (linked) {
+                    if (!linked.isEmpty()) {
+                      return linked.dequeue();
+                    }
+                  }
+                  Thread.yield();
+                }
+              });
+
+      System.out.printf(
+          "%8d %16.0f %16.0f %16.0f%n", threads, lockFreeOps, blockingOps, synchronizedOps);
+    }
+  }
+}
@@ -0,0 +1,339 @@
+package DataStructures.Queues;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hierarchical timing wheel for scheduling delayed tasks.
+ *
+ * <p>Scheduling a delayed task through a heap (see {@code DataStructures.Heaps.MinHeap} or {@link
+ * PriorityQueues}) costs O(log n) per timer. A timing wheel hashes each timer by its deadline tick
+ * into a bucket instead, so scheduling and cancelling are O(1). The wheel is made of several levels
+ * of {@code wheelSize} buckets each: level 0 covers the next {@code wheelSize} ticks one tick per
+ * bucket, level 1 covers {@code wheelSize^2} ticks with {@code wheelSize} ticks per bucket, and so
+ * on. When the lower level wraps around, the matching bucket of the level above is cascaded down.
+ * Timers further away than the top level can hold are kept in a fallback heap and moved into the
+ * wheel once they come within range.
+ *
+ * <p>The wheel can be driven either one tick at a time with {@link #tick()} or from a clock with
+ * {@link #advanceTo(long)} and {@link System#nanoTime()}. Expired tasks run on the thread that
+ * advances the wheel. This class is not thread-safe.
+ *
+ * <p>https://www.cs.columbia.edu/~nahum/w6998/papers/sosp87-timing-wheels.pdf
+ */
+public class TimingWheel {
+
+  /** Handle to a scheduled task, used to cancel it. */
+  public static final class Timeout {
+    private final TimingWheel wheel;
+    private final Runnable task;
+    private final long deadline;
+    /** Bucket the timeout is linked into, or -1 when it is in the overflow heap or detached. */
+    private int bucket = -1;
+
+    private Timeout prev;
+    private Timeout next;
+    private boolean cancelled;
+    private boolean expired;
+
+    private Timeout(TimingWheel wheel, Runnable task, long deadline) {
+      this.wheel = wheel;
+      this.task = task;
+      this.deadline = deadline;
+    }
+
+    /** @return the tick at which this timeout fires */
+    public long deadline() {
+      return deadline;
+    }
+
+    public boolean isCancelled() {
+      return cancelled;
+    }
+
+    public boolean isExpired() {
+      return expired;
+    }
+
+    /**
+     * Cancels this timeout in O(1). Timeouts still in the overflow heap are only flagged and
+     * dropped when they reach the wheel.
+     *
+     * @return <tt>true</tt> if the timeout was pending and is now cancelled
+     */
+    public boolean cancel() {
+      if (cancelled || expired) {
+        return false;
+      }
+      cancelled = true;
+      wheel.pending--;
+      if (bucket >= 0) {
+        wheel.unlink(this);
+      }
+      return true;
+    }
+  }
+
+  private static final int DEFAULT_WHEEL_SIZE = 256;
+  private static final int DEFAULT_LEVELS = 4;
+
+  private final long tickNanos;
+  private final int wheelBits;
+  private final int mask;
+  private final int levels;
+  /** Heads of the bucket lists, level after level. */
+  private final Timeout[] buckets;
+  /** Timeouts too far away to fit in the wheel, ordered by deadline. */
+  private final PriorityQueue<Timeout> overflow =
+      new PriorityQueue<>((a, b) -> Long.compare(a.deadline, b.deadline));
+
+  private final long startNanos;
+  /** Last tick that has been processed. */
+  private long currentTick;
+  /** Number of timeouts scheduled and neither expired nor cancelled. */
+  private int pending;
+
+  /** Init a wheel with 256 buckets per level, 4 levels and a tick of one millisecond */
+  public TimingWheel() {
+    this(1, TimeUnit.MILLISECONDS, DEFAULT_WHEEL_SIZE, DEFAULT_LEVELS);
+  }
+
+  /**
+   * @param tickDuration duration of one tick
+   * @param unit unit of {@code tickDuration}
+   * @param wheelSize number of buckets per level, must be a power of two
+   * @param levels number of levels in the hierarchy
+   */
+  public TimingWheel(long tickDuration, TimeUnit unit, int wheelSize, int levels) {
+    if (tickDuration <= 0) {
+      throw new IllegalArgumentException("tick duration must be positive");
+    }
+    if (wheelSize < 2 || (wheelSize & (wheelSize - 1)) != 0) {
+      throw new IllegalArgumentException("wheel size must be a power of two");
+    }
+    this.wheelBits = Integer.numberOfTrailingZeros(wheelSize);
+    if (levels < 1 || (long) wheelBits * levels >= 63) {
+      throw new IllegalArgumentException("invalid number of levels");
+    }
+    this.tickNanos = unit.toNanos(tickDuration);
+    this.mask = wheelSize - 1;
+    this.levels = levels;
+    this.buckets = new Timeout[wheelSize * levels];
+    this.startNanos = System.nanoTime();
+  }
+
+  /**
+   * Schedules a task to run after the given delay. The delay is rounded up to whole ticks and is
+   * at least one tick.
+   *
+   * @return handle to cancel the task
+   */
+  public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+    long ticks = (unit.toNanos(delay) + tickNanos - 1) / tickNanos;
+    return scheduleTicks(task, ticks);
+  }
+
+  /**
+   * Schedules a task to run after the given number of ticks (at least one).
+   *
+   * @return handle to cancel the task
+   */
+  public Timeout scheduleTicks(Runnable task, long ticks) {
+    if (task == null) {
+      throw new NullPointerException("task");
+    }
+    Timeout timeout = new Timeout(this, task, currentTick + Math.max(1, ticks));
+    pending++;
+    place(timeout);
+    return timeout;
+  }
+
+  /** @return number of timeouts neither expired nor cancelled yet */
+  public int pending() {
+    return pending;
+  }
+
+  /** @return the last processed tick */
+  public long currentTick() {
+    return currentTick;
+  }
+
+  /**
+   * Processes ticks up to the one the given {@link System#nanoTime()} value falls into.
+   *
+   * @return number of tasks run
+   */
+  public int advanceTo(long nanoTime) {
+    long target = (nanoTime - startNanos) / tickNanos;
+    int fired = 0;
+    while (currentTick < target) {
+      fired += tick();
+    }
+    return fired;
+  }
+
+  /**
+   * Moves the wheel forward by one tick, cascading upper levels and running expired tasks.
+   *
+   * @return number of tasks run
+   */
+  public int tick() {
+    long t = ++currentTick;
+    if ((t & ((1L << (wheelBits * levels)) - 1)) == 0) {
+      refillFromOverflow(t);
+    }
+    // Cascade from the top so timers dropping several levels land in buckets handled below.
+    for (int level = levels - 1; level > 0; level--) {
+      if ((t & ((1L << (wheelBits * level)) - 1)) == 0) {
+        int index = bucketIndex(level, t);
+        Timeout timeout = detach(index);
+        while (timeout != null) {
+          Timeout next = timeout.next;
+          timeout.prev = timeout.next = null;
+          place(timeout);
+          timeout = next;
+        }
+      }
+    }
+    int fired = 0;
+    Timeout timeout = detach(bucketIndex(0, t));
+    while (timeout != null) {
+      Timeout next = timeout.next;
+      timeout.prev = timeout.next = null;
+      // A task that ran earlier in this bucket may have cancelled this one.
+      if (!timeout.cancelled) {
+        timeout.expired = true;
+        pending--;
+        fired++;
+        timeout.task.run();
+      }
+      timeout = next;
+    }
+    return fired;
+  }
+
+  /** Moves the overflow timers that fall into the window starting at tick t into the wheel. */
+  private void refillFromOverflow(long t) {
+    long windowEnd = t + (1L << (wheelBits * levels));
+    while (!overflow.isEmpty() && overflow.peek().deadline < windowEnd) {
+      Timeout timeout = overflow.poll();
+      if (!timeout.cancelled) {
+        place(timeout);
+      }
+    }
+  }
+
+  /**
+   * Puts a timeout in the lowest level whose higher digits agree with the current tick, or in the
+   * overflow heap when even the top level cannot hold it.
+   */
+  private void place(Timeout timeout) {
+    long deadline = timeout.deadline;
+    for (int level = 0; level < levels; level++) {
+      int shift = wheelBits * (level + 1);
+      if ((deadline >>> shift) == (currentTick >>> shift)) {
+        link(timeout, bucketIndex(level, deadline));
+        return;
+      }
+    }
+    timeout.bucket = -1;
+    overflow.add(timeout);
+  }
+
+  private int bucketIndex(int level, long tick) {
+    return (level << wheelBits) | (int) ((tick >>> (wheelBits * level)) & mask);
+  }
+
+  private void link(Timeout timeout, int index) {
+    Timeout head = buckets[index];
+    timeout.bucket = index;
+    timeout.prev = null;
+    timeout.next = head;
+    if (head != null) {
+      head.prev = timeout;
+    }
+    buckets[index] = timeout;
+  }
+
+  private void unlink(Timeout timeout) {
+    if (timeout.prev != null) {
+      timeout.prev.next = timeout.next;
+    } else {
+      buckets[timeout.bucket] = timeout.next;
+    }
+    if (timeout.next != null) {
+      timeout.next.prev = timeout.prev;
+    }
+    timeout.prev = timeout.next = null;
+    timeout.bucket = -1;
+  }
+
+  /** Empties a bucket and returns the former head of its list. */
+  private Timeout detach(int index) {
+    Timeout head = buckets[index];
+    buckets[index] = null;
+    for (Timeout timeout = head; timeout != null; timeout = timeout.next) {
+      timeout.bucket = -1;
+    }
+    return head;
+  }
+
+  /* Driver Code */
+  public static void main(String[] args) {
+    TimingWheel wheel = new TimingWheel(1, TimeUnit.MILLISECONDS, 8, 2);
+    long[] firedAt = new long[6];
+    long[] delays = {1, 7, 8, 63, 64, 500};
+    for (int i = 0; i < delays.length; i++) {
+      final int id = i;
+      wheel.scheduleTicks(() -> firedAt[id] = wheel.currentTick(), delays[i]);
+    }
+    Timeout cancelled =
+        wheel.scheduleTicks(
+            () -> {
+              throw new AssertionError("cancelled timeout fired");
+            },
+            30);
+    Timeout farCancelled =
+        wheel.scheduleTicks(
+            () -> {
+              throw new AssertionError("cancelled timeout fired");
+            },
+            400);
+    assert wheel.pending() == 8;
+    assert cancelled.cancel();
+    assert farCancelled.cancel();
+    assert !cancelled.cancel();
+    assert wheel.pending() == 6;
+
+    for (int i = 0; i < 600; i++) {
+      wheel.tick();
+    }
+    for (int i = 0; i < delays.length; i++) {
+      assert firedAt[i] == delays[i] : "timer " + i + " fired at " + firedAt[i];
+    }
+    assert wheel.pending() == 0;
+
+    /* Every timer must fire exactly on its deadline tick */
+    java.util.Random random = new java.util.Random(42);
+    TimingWheel big = new TimingWheel(1, TimeUnit.MILLISECONDS, 16, 3);
+    int[] count = new int[1];
+    for (int i = 0; i < 100_000; i++) {
+      long delay = 1 + random.nextInt(10_000);
+      long deadline = big.currentTick() + delay;
+      big.scheduleTicks(
+          () -> {
+            assert big.currentTick() == deadline;
+            count[0]++;
+          },
+          delay);
+      if (i % 10 == 0) {
+        big.tick();
+      }
+    }
+    while (big.pending() > 0) {
+      big.tick();
+    }
+    assert count[0] == 100_000;
+    System.out.println("fired " + count[0] + " timers up to tick " + big.currentTick());
+  }
+}
@@ -0,0 +1,134 @@
+package DataStructures.Stacks;
+
+import java.util.Arrays;
+import java.util.EmptyStackException;
+
+/**
+ * Generic stack backed by an array that grows and shrinks with the number of elements.
+ *
+ * <p>The array doubles when it is full and halves when it is only a quarter full. The gap between
+ * the two thresholds (hysteresis) guarantees that alternating push and pop at a boundary never
+ * reallocates on every call, so both operations are amortized O(1).
+ *
+ * @param <E> the type of elements held in this stack
+ */
+public class ArrayStack<E> {
+
+  /** Default initial capacity, the array never shrinks below it. */
+  private static final int DEFAULT_CAPACITY = 8;
+
+  private final int minCapacity;
+  private Object[] elements;
+  private int size;
+
+  /** init Stack with DEFAULT_CAPACITY */
+  public ArrayStack() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /** @param initialCapacity starting and minimum length of the array, at least 1 */
+  public ArrayStack(int initialCapacity) {
+    if (initialCapacity < 1) {
+      throw new IllegalArgumentException("capacity must be positive");
+    }
+    this.minCapacity = initialCapacity;
+    this.elements = new Object[initialCapacity];
+  }
+
+  /**
+   * Adds an element to the top of the stack
+   *
+   * @param value The element added
+   */
+  public void push(E value) {
+    if (size == elements.length) {
+      elements = Arrays.copyOf(elements, elements.length * 2);
+    }
+    elements[size++] = value;
+  }
+
+  /**
+   * Removes the top element of the stack and returns the value you've removed
+   *
+   * @return value popped off the Stack
+   * @throws EmptyStackException if the stack is empty
+   */
+  @SuppressWarnings("unchecked")
+  public E pop() {
+    if (size == 0) {
+      throw new EmptyStackException();
+    }
+    E value = (E) elements[--size];
+    elements[size] = null; // clear to let GC do its work
+    if (size <= elements.length / 4 && elements.length / 2 >= minCapacity) {
+      elements = Arrays.copyOf(elements, elements.length / 2);
+    }
+    return value;
+  }
+
+  /**
+   * Returns the element at the top of the stack
+   *
+   * @return element at the top of the stack
+   * @throws EmptyStackException if the stack is empty
+   */
+  @SuppressWarnings("unchecked")
+  public E peek() {
+    if (size == 0) {
+      throw new EmptyStackException();
+    }
+    return (E) elements[size - 1];
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /** @return the length of the backing array */
+  public int capacity() {
+    return elements.length;
+  }
+
+  /** Deletes everything in the Stack and goes back to the minimum capacity */
+  public void clear() {
+    elements = new Object[minCapacity];
+    size = 0;
+  }
+
+  /** Driver Code */
+  public static void main(String[] args) {
+    ArrayStack<String> stack = new ArrayStack<>(2);
+    assert stack.isEmpty();
+    stack.push("a");
+    stack.push("b");
+    stack.push("c");
+    assert stack.capacity() == 4;
+    assert stack.peek().equals("c");
+    assert stack.pop().equals("c");
+    assert stack.pop().equals("b");
+    assert stack.capacity() == 2; /* shrunk once a quarter full */
+    assert stack.size() == 1;
+
+    /* Push and pop around a boundary must not reallocate each time */
+    ArrayStack<Integer> boundary = new ArrayStack<>(4);
+    for (int i = 0; i < 8; i++) {
+      boundary.push(i);
+    }
+    int capacity = boundary.capacity();
+    for (int i = 0; i < 1000; i++) {
+      boundary.push(i);
+      boundary.pop();
+    }
+    assert boundary.capacity() == capacity * 2 || boundary.capacity() == capacity;
+    try {
+      new ArrayStack<Integer>().pop();
+      assert false;
+    } catch (EmptyStackException e) {
+      /* expected */
+    }
+  }
+}
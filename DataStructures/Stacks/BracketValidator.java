@@ -0,0 +1,406 @@
+package DataStructures.Stacks;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+
+/**
+ * Incremental validator of bracket nesting for inputs too large to hold in memory.
+ *
+ * <p>{@link BalancedBrackets} checks a whole {@code String} with a {@code Stack<Character>}. This
+ * validator is fed the input chunk by chunk instead, from a {@link Reader}, {@link ByteBuffer}s
+ * or char arrays, and keeps its state between chunks, so a chunk may end anywhere, even in the
+ * middle of a quoted string or right after an escape character. Open brackets are remembered as the
+ * index of their pair in a growable {@code byte[]}, one byte per nesting level.
+ *
+ * <p>The bracket pairs, the quote characters and the escape character are configurable. Brackets
+ * inside quoted regions are ignored, and inside a quoted region the escape character makes the next
+ * character literal. Every other character is skipped. Brackets and quotes must be ASCII, which
+ * lets byte input be scanned without decoding: in UTF-8 an ASCII byte never occurs inside a
+ * multi-byte sequence.
+ *
+ * <p>Validation stops at the first error, whose offset from the start of the input is kept. Offsets
+ * count bytes for byte input and chars for char input, so the two should not be mixed in one run.
+ * This class is not thread-safe.
+ */
+public class BracketValidator {
+
+  /** Reason the input was rejected */
+  public enum Error {
+    NONE,
+    /** A closing bracket without a matching open bracket */
+    UNEXPECTED_CLOSE,
+    /** A closing bracket of another pair than the innermost open bracket */
+    MISMATCHED_CLOSE,
+    /** The input ended with brackets left open */
+    UNCLOSED_BRACKET,
+    /** The input ended inside a quoted region */
+    UNTERMINATED_QUOTE
+  }
+
+  private static final int DEFAULT_CAPACITY = 64;
+
+  /* Character classes in the lookup table, pair indices are stored as is */
+  private static final byte OTHER = -1;
+  private static final byte CLOSE = -2;
+  private static final byte QUOTE = -3;
+
+  /** Class of each ASCII character: an opening pair index or one of the constants above */
+  private final byte[] classes = new byte[128];
+  /** Pair index of each closing ASCII character */
+  private final byte[] closes = new byte[128];
+
+  private final int escape;
+
+  /** Pair indices of the open brackets, innermost last */
+  private byte[] stack = new byte[DEFAULT_CAPACITY];
+  private int depth;
+  private int maxDepth;
+
+  /** Quote character of the region being read, or -1 outside quotes */
+  private int quote = -1;
+  private boolean escaped;
+
+  private long offset;
+  private long errorOffset = -1;
+  private Error error = Error.NONE;
+
+  /**
+   * @param pairs opening and closing brackets alternated, e.g. {@code "()[]{}"}
+   * @param quotes characters that open and close a quoted region, e.g. {@code "\"'"}; may be empty
+   * @param escape escape character inside quoted regions, or -1 for none
+   */
+  public BracketValidator(String pairs, String quotes, int escape) {
+    if (pairs.length() % 2 != 0 || pairs.length() / 2 > Byte.MAX_VALUE) {
+      throw new IllegalArgumentException("pairs must hold an even number of characters");
+    }
+    Arrays.fill(classes, OTHER);
+    for (int i = 0; i < pairs.length(); i += 2) {
+      define(pairs.charAt(i), (byte) (i / 2));
+      define(pairs.charAt(i + 1), CLOSE);
+      closes[pairs.charAt(i + 1)] = (byte) (i / 2);
+    }
+    for (int i = 0; i < quotes.length(); i++) {
+      define(quotes.charAt(i), QUOTE);
+    }
+    if (escape >= 128) {
+      throw new IllegalArgumentException("escape must be ASCII");
+    }
+    this.escape = escape;
+  }
+
+  /** Init a validator for (), [] and {} without quoting */
+  public BracketValidator() {
+    this("()[]{}", "", -1);
+  }
+
+  /** @return a validator for the structure of JSON: [] and {}, "strings" with \ escapes */
+  public static BracketValidator json() {
+    return new BracketValidator("[]{}", "\"", '\\');
+  }
+
+  private void define(char c, byte type) {
+    if (c >= 128) {
+      throw new IllegalArgumentException("'" + c + "' is not ASCII");
+    }
+    if (classes[c] != OTHER) {
+      throw new IllegalArgumentException("'" + c + "' is defined twice");
+    }
+    classes[c] = type;
+  }
+
+  /**
+   * Consumes the remaining bytes of a buffer
+   *
+   * @return <tt>false</tt> once an error has been found
+   */
+  public boolean feed(ByteBuffer buffer) {
+    if (error != Error.NONE) {
+      buffer.position(buffer.limit());
+      return false;
+    }
+    if (buffer.hasArray()) {
+      int start = buffer.arrayOffset() + buffer.position();
+      int end = buffer.arrayOffset() + buffer.limit();
+      byte[] array = buffer.array();
+      int i = start;
+      while (i < end && accept(array[i] & 0xFF)) {
+        i++;
+      }
+      buffer.position(buffer.limit());
+      return record(i - start, end - start);
+    }
+    int start = buffer.position();
+    int end = buffer.limit();
+    int i = start;
+    while (i < end && accept(buffer.get(i) & 0xFF)) {
+      i++;
+    }
+    buffer.position(end);
+    return record(i - start, end - start);
+  }
+
+  /**
+   * Consumes {@code length} chars of {@code chars} from {@code from}
+   *
+   * @return <tt>false</tt> once an error has been found
+   */
+  public boolean feed(char[] chars, int from, int length) {
+    if (error != Error.NONE) {
+      return false;
+    }
+    int end = from + length;
+    int i = from;
+    while (i < end && accept(chars[i])) {
+      i++;
+    }
+    return record(i - from, length);
+  }
+
+  /**
+   * Consumes a piece of text
+   *
+   * @return <tt>false</tt> once an error has been found
+   */
+  public boolean feed(CharSequence text) {
+    if (error != Error.NONE) {
+      return false;
+    }
+    int i = 0;
+    while (i < text.length() && accept(text.charAt(i))) {
+      i++;
+    }
+    return record(i, text.length());
+  }
+
+  /** Advances the offset past an accepted prefix of a chunk, which is all of it unless it failed */
+  private boolean record(int accepted, int length) {
+    if (error != Error.NONE) {
+      errorOffset = offset + accepted;
+      offset += length;
+      return false;
+    }
+    offset += length;
+    return true;
+  }
+
+  /** Handles one character, returning <tt>false</tt> when it is an error */
+  private boolean accept(int c) {
+    if (quote >= 0) {
+      if (escaped) {
+        escaped = false;
+      } else if (c == escape) {
+        escaped = true;
+      } else if (c == quote) {
+        quote = -1;
+      }
+      return true;
+    }
+    if (c >= 128) {
+      return true;
+    }
+    byte type = classes[c];
+    if (type >= 0) {
+      push(type);
+    } else if (type == CLOSE) {
+      if (depth == 0) {
+        error = Error.UNEXPECTED_CLOSE;
+        return false;
+      }
+      if (stack[--depth] != closes[c]) {
+        error = Error.MISMATCHED_CLOSE;
+        return false;
+      }
+    } else if (type == QUOTE) {
+      quote = c;
+    }
+    return true;
+  }
+
+  private void push(byte pair) {
+    if (depth == stack.length) {
+      stack = Arrays.copyOf(stack, depth * 2);
+    }
+    stack[depth++] = pair;
+    if (depth > maxDepth) {
+      maxDepth = depth;
+    }
+  }
+
+  /**
+   * Marks the end of the input
+   *
+   * @return <tt>true</tt> if the whole input was properly nested and no quote was left open
+   */
+  public boolean finish() {
+    if (error == Error.NONE && (depth > 0 || quote >= 0)) {
+      error = quote >= 0 ? Error.UNTERMINATED_QUOTE : Error.UNCLOSED_BRACKET;
+      errorOffset = offset;
+    }
+    return error == Error.NONE;
+  }
+
+  /**
+   * Validates everything a reader supplies, reading it in chunks. The reader is not closed.
+   *
+   * @return <tt>true</tt> if the input is valid
+   */
+  public boolean validate(Reader reader) throws IOException {
+    char[] chunk = new char[8192];
+    int n;
+    while ((n = reader.read(chunk)) != -1) {
+      if (!feed(chunk, 0, n)) {
+        return false;
+      }
+    }
+    return finish();
+  }
+
+  /**
+   * Validates everything a channel supplies, reading it through a direct buffer. The channel is not
+   * closed.
+   *
+   * @return <tt>true</tt> if the input is valid
+   */
+  public boolean validate(ReadableByteChannel channel) throws IOException {
+    ByteBuffer chunk = ByteBuffer.allocateDirect(64 * 1024);
+    while (channel.read(chunk) != -1) {
+      chunk.flip();
+      if (!feed(chunk)) {
+        return false;
+      }
+      chunk.clear();
+    }
+    return finish();
+  }
+
+  /** @return the reason of the first error, or {@link Error#NONE} */
+  public Error error() {
+    return error;
+  }
+
+  /** @return offset of the first error, or -1 if no error has been found */
+  public long errorOffset() {
+    return errorOffset;
+  }
+
+  /** @return number of bytes or chars consumed so far */
+  public long offset() {
+    return offset;
+  }
+
+  /** @return number of brackets currently open */
+  public int depth() {
+    return depth;
+  }
+
+  /** @return deepest nesting seen so far */
+  public int maxDepth() {
+    return maxDepth;
+  }
+
+  /** Forgets all state to validate a new input, keeping the configuration */
+  public void reset() {
+    depth = 0;
+    maxDepth = 0;
+    quote = -1;
+    escaped = false;
+    offset = 0;
+    errorOffset = -1;
+    error = Error.NONE;
+  }
+
+  /* Driver Code */
+  public static void main(String[] args) throws IOException {
+    BracketValidator validator = new BracketValidator();
+    assert validator.feed("[()]{}{[()()]()}") && validator.finish();
+
+    validator.reset();
+    assert !validator.feed("[(])");
+    assert validator.error() == Error.MISMATCHED_CLOSE && validator.errorOffset() == 2;
+
+    validator.reset();
+    assert validator.feed("(()") && !validator.finish();
+    assert validator.error() == Error.UNCLOSED_BRACKET && validator.errorOffset() == 3;
+
+    /* Same answers as BalancedBrackets on bracket-only strings */
+    java.util.Random random = new java.util.Random(7);
+    for (int n = 0; n < 10_000; n++) {
+      StringBuilder builder = new StringBuilder();
+      for (int i = random.nextInt(12); i > 0; i--) {
+        builder.append("()[]{}".charAt(random.nextInt(6)));
+      }
+      validator.reset();
+      boolean valid = validator.feed(builder) && validator.finish();
+      assert valid == BalancedBrackets.isBalanced(builder.toString()) : builder;
+    }
+
+    /* Quotes and escapes, split across chunks at every position */
+    String json = "{\"a\": [1, \"]\\\"}\", {\"b\": \"}{\"}], \"c\": \"\\\\\"}";
+    for (int split = 0; split <= json.length(); split++) {
+      BracketValidator parts = json();
+      assert parts.feed(json.substring(0, split));
+      assert parts.feed(json.substring(split)) && parts.finish() : split;
+      assert parts.maxDepth() == 3;
+    }
+    BracketValidator unterminated = json();
+    assert unterminated.feed("[\"]") && !unterminated.finish();
+    assert unterminated.error() == Error.UNTERMINATED_QUOTE;
+
+    /* First error offset is reported in bytes across buffers, later input is ignored */
+    BracketValidator bytes = json();
+    assert bytes.feed(ByteBuffer.wrap("[{\"x\": 1}".getBytes("UTF-8")));
+    assert !bytes.feed(ByteBuffer.wrap(", 2}]]".getBytes("UTF-8")));
+    assert bytes.errorOffset() == 12 && bytes.error() == Error.MISMATCHED_CLOSE;
+    assert !bytes.feed(ByteBuffer.wrap("[]".getBytes("UTF-8"))) && bytes.errorOffset() == 12;
+
+    /* A generated payload, consumed from a Reader without being materialized */
+    final int records = 1_000_000;
+    Reader payload =
+        new Reader() {
+          private final char[] record = "{\"id\": 1, \"tags\": [\"a]\", \"b{\"]}".toCharArray();
+          private int emitted = -1;
+          /* Next character of the current record, -1 for the comma before it */
+          private int position;
+          private boolean closed;
+
+          @Override
+          public int read(char[] buffer, int off, int len) {
+            if (closed) {
+              return -1;
+            }
+            int n = 0;
+            while (n < len && !closed) {
+              if (emitted == -1) {
+                buffer[off + n++] = '[';
+                emitted++;
+              } else if (emitted == records) {
+                buffer[off + n++] = ']';
+                closed = true;
+              } else if (position < 0) {
+                buffer[off + n++] = ',';
+                position++;
+              } else {
+                buffer[off + n++] = record[position++];
+                if (position == record.length) {
+                  emitted++;
+                  position = -1;
+                }
+              }
+            }
+            return n;
+          }
+
+          @Override
+          public void close() {}
+        };
+    BracketValidator streaming = json();
+    long start = System.nanoTime();
+    assert streaming.validate(payload);
+    long elapsed = System.nanoTime() - start;
+    System.out.println(
+        "validated " + streaming.offset() + " chars in " + elapsed / 1_000_000 + " ms");
+  }
+}
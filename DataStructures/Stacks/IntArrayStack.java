@@ -0,0 +1,107 @@
+package DataStructures.Stacks;
+
+import java.util.Arrays;
+import java.util.EmptyStackException;
+
+/**
+ * Primitive {@code int} version of {@link ArrayStack}: doubles when full, halves when a quarter
+ * full, and never boxes its elements. Unlike {@link StackArray} it reports an empty stack with an
+ * exception instead of returning -1, which is a valid element.
+ */
+public class IntArrayStack {
+
+  /** Default initial capacity, the array never shrinks below it. */
+  private static final int DEFAULT_CAPACITY = 8;
+
+  private final int minCapacity;
+  private int[] elements;
+  private int size;
+
+  /** init Stack with DEFAULT_CAPACITY */
+  public IntArrayStack() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /** @param initialCapacity starting and minimum length of the array, at least 1 */
+  public IntArrayStack(int initialCapacity) {
+    if (initialCapacity < 1) {
+      throw new IllegalArgumentException("capacity must be positive");
+    }
+    this.minCapacity = initialCapacity;
+    this.elements = new int[initialCapacity];
+  }
+
+  /**
+   * Adds an element to the top of the stack
+   *
+   * @param value The element added
+   */
+  public void push(int value) {
+    if (size == elements.length) {
+      elements = Arrays.copyOf(elements, elements.length * 2);
+    }
+    elements[size++] = value;
+  }
+
+  /**
+   * Removes the top element of the stack and returns the value you've removed
+   *
+   * @return value popped off the Stack
+   * @throws EmptyStackException if the stack is empty
+   */
+  public int pop() {
+    if (size == 0) {
+      throw new EmptyStackException();
+    }
+    int value = elements[--size];
+    if (size <= elements.length / 4 && elements.length / 2 >= minCapacity) {
+      elements = Arrays.copyOf(elements, elements.length / 2);
+    }
+    return value;
+  }
+
+  /**
+   * Returns the element at the top of the stack
+   *
+   * @return element at the top of the stack
+   * @throws EmptyStackException if the stack is empty
+   */
+  public int peek() {
+    if (size == 0) {
+      throw new EmptyStackException();
+    }
+    return elements[size - 1];
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /** @return the length of the backing array */
+  public int capacity() {
+    return elements.length;
+  }
+
+  /** Deletes everything in the Stack, keeping the current capacity */
+  public void clear() {
+    size = 0;
+  }
+
+  /** Driver Code */
+  public static void main(String[] args) {
+    IntArrayStack stack = new IntArrayStack(2);
+    for (int i = 0; i < 100; i++) {
+      stack.push(i - 50);
+    }
+    assert stack.size() == 100 && stack.capacity() == 128;
+    assert stack.peek() == 49;
+    for (int i = 49; i >= -50; i--) {
+      assert stack.pop() == i;
+    }
+    assert stack.isEmpty() && stack.capacity() == 2;
+  }
+}
@@ -0,0 +1,215 @@
+package DataStructures.Stacks;
+
+import java.util.Arrays;
+import java.util.EmptyStackException;
+
+/**
+ * Stack of int values kept in monotonic order, used to find the nearest greater or smaller
+ * neighbour of every element in O(n).
+ *
+ * <p>In a decreasing stack, pushing a value first pops every value that is not greater than it. The
+ * value left on top is then the nearest previous greater value, and each popped value has just met
+ * its next greater value. Every element is pushed and popped at most once, so a whole array is
+ * processed in O(n) instead of the O(n^2) of comparing every pair.
+ *
+ * <p>The stack holds positions and values in two int arrays that grow by doubling; pushing does not
+ * allocate otherwise. The static methods work on whole arrays and report positions, with -1 where
+ * no such neighbour exists.
+ *
+ * <p>https://en.wikipedia.org/wiki/All_nearest_smaller_values
+ */
+public final class MonotonicStack {
+
+  private static final int DEFAULT_CAPACITY = 16;
+
+  private final boolean decreasing;
+  private int[] values;
+  private int[] positions;
+  private int size;
+  /** Number of values pushed so far, which is also the position of the next one */
+  private int count;
+
+  /**
+   * @param decreasing <tt>true</tt> to keep values decreasing from bottom to top and find greater
+   *     neighbours, <tt>false</tt> to keep them increasing and find smaller ones
+   */
+  public MonotonicStack(boolean decreasing) {
+    this.decreasing = decreasing;
+    this.values = new int[DEFAULT_CAPACITY];
+    this.positions = new int[DEFAULT_CAPACITY];
+  }
+
+  /**
+   * Pushes the next value of the sequence, popping the values it dominates
+   *
+   * @return position of the nearest previous value strictly greater (or smaller) than {@code
+   *     value}, or -1 if there is none
+   */
+  public int push(int value) {
+    while (size > 0 && !dominates(values[size - 1], value)) {
+      size--;
+    }
+    int previous = size > 0 ? positions[size - 1] : -1;
+    if (size == values.length) {
+      values = Arrays.copyOf(values, size * 2);
+      positions = Arrays.copyOf(positions, size * 2);
+    }
+    values[size] = value;
+    positions[size++] = count++;
+    return previous;
+  }
+
+  private boolean dominates(int kept, int value) {
+    return decreasing ? kept > value : kept < value;
+  }
+
+  /**
+   * @return the value on top, which is the latest value pushed
+   * @throws EmptyStackException if nothing has been pushed
+   */
+  public int peek() {
+    if (size == 0) {
+      throw new EmptyStackException();
+    }
+    return values[size - 1];
+  }
+
+  /** @return the value at the bottom, the extremum of everything pushed so far */
+  public int bottom() {
+    if (size == 0) {
+      throw new EmptyStackException();
+    }
+    return values[0];
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public void clear() {
+    size = 0;
+    count = 0;
+  }
+
+  /** @return for every element, the position of the next strictly greater element, or -1 */
+  public static int[] nextGreaterIndex(int[] values) {
+    int[] out = new int[values.length];
+    next(values, true, out);
+    return out;
+  }
+
+  /** @return for every element, the position of the next strictly smaller element, or -1 */
+  public static int[] nextSmallerIndex(int[] values) {
+    int[] out = new int[values.length];
+    next(values, false, out);
+    return out;
+  }
+
+  /** Writes the position of the next strictly greater element of each element into {@code out} */
+  public static void nextGreaterIndex(int[] values, int[] out) {
+    next(values, true, out);
+  }
+
+  /**
+   * @param missing value reported for elements without a greater element after them
+   * @return for every element, the value of the next strictly greater element
+   */
+  public static int[] nextGreaterElement(int[] values, int missing) {
+    int[] out = nextGreaterIndex(values);
+    for (int i = 0; i < out.length; i++) {
+      out[i] = out[i] < 0 ? missing : values[out[i]];
+    }
+    return out;
+  }
+
+  /** @return for every element, the position of the previous strictly greater element, or -1 */
+  public static int[] previousGreaterIndex(int[] values) {
+    MonotonicStack stack = new MonotonicStack(true);
+    int[] out = new int[values.length];
+    for (int i = 0; i < values.length; i++) {
+      out[i] = stack.push(values[i]);
+    }
+    return out;
+  }
+
+  /** @return for every element, the position of the previous strictly smaller element, or -1 */
+  public static int[] previousSmallerIndex(int[] values) {
+    MonotonicStack stack = new MonotonicStack(false);
+    int[] out = new int[values.length];
+    for (int i = 0; i < values.length; i++) {
+      out[i] = stack.push(values[i]);
+    }
+    return out;
+  }
+
+  /** Elements waiting for their answer are popped as soon as one dominating them arrives */
+  private static void next(int[] values, boolean greater, int[] out) {
+    if (out.length < values.length) {
+      throw new IllegalArgumentException("output array too small");
+    }
+    int[] waiting = new int[values.length];
+    int size = 0;
+    for (int i = 0; i < values.length; i++) {
+      int value = values[i];
+      while (size > 0
+          && (greater ? values[waiting[size - 1]] < value : values[waiting[size - 1]] > value)) {
+        out[waiting[--size]] = i;
+      }
+      waiting[size++] = i;
+    }
+    while (size > 0) {
+      out[waiting[--size]] = -1;
+    }
+  }
+
+  /* Driver Code */
+  public static void main(String[] args) {
+    int[] values = {2, 1, 2, 4, 3, 1};
+    assert Arrays.equals(nextGreaterIndex(values), new int[] {3, 2, 3, -1, -1, -1});
+    assert Arrays.equals(nextGreaterElement(values, -1), new int[] {4, 2, 4, -1, -1, -1});
+    assert Arrays.equals(nextSmallerIndex(values), new int[] {1, -1, 5, 4, 5, -1});
+    assert Arrays.equals(previousGreaterIndex(values), new int[] {-1, 0, -1, -1, 3, 4});
+    assert Arrays.equals(previousSmallerIndex(values), new int[] {-1, -1, 1, 2, 2, -1});
+
+    MonotonicStack stack = new MonotonicStack(true);
+    for (int value : values) {
+      stack.push(value);
+    }
+    assert stack.bottom() == 4 && stack.peek() == 1 && stack.size() == 3;
+
+    /* Against the quadratic scan on random data */
+    java.util.Random random = new java.util.Random(11);
+    int[] data = new int[20_000];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = random.nextInt(100);
+    }
+    long start = System.nanoTime();
+    int[] next = nextGreaterIndex(data);
+    int[] previous = previousSmallerIndex(data);
+    long fastNanos = System.nanoTime() - start;
+    start = System.nanoTime();
+    for (int i = 0; i < data.length; i++) {
+      int expected = -1;
+      for (int j = i + 1; j < data.length && expected < 0; j++) {
+        if (data[j] > data[i]) {
+          expected = j;
+        }
+      }
+      assert next[i] == expected : i;
+      expected = -1;
+      for (int j = i - 1; j >= 0 && expected < 0; j--) {
+        if (data[j] < data[i]) {
+          expected = j;
+        }
+      }
+      assert previous[i] == expected : i;
+    }
+    long naiveNanos = System.nanoTime() - start;
+    System.out.println(
+        "stack " + fastNanos / 1000 + " us, quadratic scan " + naiveNanos / 1000 + " us");
+  }
+}
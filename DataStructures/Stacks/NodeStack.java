@@ -26,23 +26,27 @@ public class NodeStack<Item> {
     System.out.println("Testing :");
     System.out.println("x : " + x);
     System.out.println("y : " + y);
+
+    // Each stack has its own contents
+    NodeStack<String> other = new NodeStack<>();
+    other.push("a");
+    assert other.size() == 1 && Stack.size() == 4;
+    assert other.pop().equals("a") && other.isEmpty();
   }
 
   /**
    * Information each node should contain.
    *
    * @value data : information of the value in the node
-   * @value head : the head of the stack
-   * @value next : the next value from this node
-   * @value previous : the last value from this node
-   * @value size : size of the stack
+   * @value head : the head of the stack, only used by the stack object itself
+   * @value previous : the value pushed before this one
+   * @value size : size of the stack, only used by the stack object itself
    */
   private Item data;
 
-  private static NodeStack<?> head;
-  private NodeStack<?> next;
-  private NodeStack<?> previous;
-  private static int size = 0;
+  private NodeStack<Item> head;
+  private NodeStack<Item> previous;
+  private int size = 0;
 
   /** Constructors for the NodeStack. */
   public NodeStack() {}
@@ -57,36 +61,24 @@ public class NodeStack<Item> {
    * @param item : value to be put on the stack.
    */
   public void push(Item item) {
-
     NodeStack<Item> newNs = new NodeStack<Item>(item);
-
-    if (this.isEmpty()) {
-      NodeStack.setHead(new NodeStack<>(item));
-      newNs.setNext(null);
-      newNs.setPrevious(null);
-    } else {
-      newNs.setPrevious(NodeStack.head);
-      NodeStack.head.setNext(newNs);
-      NodeStack.head.setHead(newNs);
-    }
-
-    NodeStack.setSize(NodeStack.getSize() + 1);
+    newNs.previous = this.head;
+    this.head = newNs;
+    this.size++;
   }
 
   /**
    * Value to be taken off the stack.
    *
    * @return item : value that is returned.
+   * @throws java.util.EmptyStackException if the stack is empty
    */
   public Item pop() {
-
-    Item item = (Item) NodeStack.head.getData();
-
-    NodeStack.head.setHead(NodeStack.head.getPrevious());
-    NodeStack.head.setNext(null);
-
-    NodeStack.setSize(NodeStack.getSize() - 1);
-
+    Item item = peek();
+    NodeStack<Item> oldHead = this.head;
+    this.head = oldHead.previous;
+    oldHead.previous = null; // clear to let GC do its work
+    this.size--;
     return item;
   }
 
@@ -94,9 +86,13 @@ public class NodeStack<Item> {
    * Value that is next to be taken off the stack.
    *
    * @return item : the next value that would be popped off the stack.
+   * @throws java.util.EmptyStackException if the stack is empty
    */
   public Item peek() {
-    return (Item) NodeStack.head.getData();
+    if (isEmpty()) {
+      throw new java.util.EmptyStackException();
+    }
+    return this.head.data;
   }
 
   /**
@@ -105,7 +101,7 @@ public class NodeStack<Item> {
    * @return boolean : whether or not the stack has anything in it.
    */
   public boolean isEmpty() {
-    return NodeStack.getSize() == 0;
+    return this.size == 0;
   }
 
   /**
@@ -114,7 +110,7 @@ public class NodeStack<Item> {
    * @return int : number of values in the stack.
    */
   public int size() {
-    return NodeStack.getSize();
+    return this.size;
   }
 
   /**
@@ -123,49 +119,8 @@ public class NodeStack<Item> {
    * <p>x <- head (next out) y z <- tail (first in) . . .
    */
   public void print() {
-    for (NodeStack<?> n = NodeStack.head; n != null; n = n.previous) {
-      System.out.println(n.getData().toString());
+    for (NodeStack<Item> n = this.head; n != null; n = n.previous) {
+      System.out.println(n.data.toString());
     }
   }
-
-  /** Getters and setters (private) */
-  private NodeStack<?> getHead() {
-    return NodeStack.head;
-  }
-
-  private static void setHead(NodeStack<?> ns) {
-    NodeStack.head = ns;
-  }
-
-  private NodeStack<?> getNext() {
-    return next;
-  }
-
-  private void setNext(NodeStack<?> next) {
-    this.next = next;
-  }
-
-  private NodeStack<?> getPrevious() {
-    return previous;
-  }
-
-  private void setPrevious(NodeStack<?> previous) {
-    this.previous = previous;
-  }
-
-  private static int getSize() {
-    return size;
-  }
-
-  private static void setSize(int size) {
-    NodeStack.size = size;
-  }
-
-  private Item getData() {
-    return this.data;
-  }
-
-  private void setData(Item item) {
-    this.data = item;
-  }
 }
@@ -0,0 +1,98 @@
+package DataStructures.Stacks;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Measures the throughput of {@link TreiberStack} against an {@link ArrayStack} guarded by {@code
+ * synchronized}, from 1 to 64 threads. Every thread pushes a value and then pops one, so all
+ * threads contend on the top of the same stack.
+ *
+ * <p>Results depend heavily on the number of cores, run with {@code java -ea} to also check that no
+ * element is lost.
+ */
+public class StackContentionBenchmark {
+
+  private static final int OPERATIONS = 1 << 20;
+
+  /** One push-then-pop pair, returning the popped element */
+  private interface PairOperation {
+    int run(int value);
+  }
+
+  private static double measure(int threads, PairOperation operation)
+      throws InterruptedException {
+    final int perThread = OPERATIONS / threads;
+    CountDownLatch start = new CountDownLatch(1);
+    long[] sums = new long[threads];
+    Thread[] workers = new Thread[threads];
+    for (int t = 0; t < threads; t++) {
+      final int id = t;
+      workers[t] =
+          new Thread(
+              () -> {
+                try {
+                  start.await();
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                  return;
+                }
+                long sum = 0;
+                for (int i = 1; i <= perThread; i++) {
+                  sum += operation.run(i);
+                }
+                sums[id] = sum;
+              });
+      workers[t].start();
+    }
+    long begin = System.nanoTime();
+    start.countDown();
+    for (Thread worker : workers) {
+      worker.join();
+    }
+    long elapsed = System.nanoTime() - begin;
+    long total = 0;
+    for (long sum : sums) {
+      total += sum;
+    }
+    assert total == (long) threads * perThread * (perThread + 1) / 2 : "elements were lost";
+    return 2.0 * perThread * threads * 1_000_000_000L / elapsed;
+  }
+
+  public static void main(String[] args) throws InterruptedException {
+    System.out.printf("%8s %16s %16s%n", "threads", "TreiberStack", "synchronized");
+    for (int threads = 1; threads <= 64; threads *= 2) {
+      TreiberStack<Integer> treiber = new TreiberStack<>();
+      double treiberOps =
+          measure(
+              threads,
+              value -> {
+                treiber.push(value);
+                Integer popped;
+                while ((popped = treiber.pop()) == null) {
+                  Thread.yield();
+                }
+                return popped;
+              });
+
+      ArrayStack<Integer> locked = new ArrayStack<>();
+      double synchronizedOps =
+          measure(
+              threads,
+              value -> {
+                synchronized (locked) {
+                  locked.push(value);
+                }
+                while (true) {
+                  synchronized (locked) {
+                    if (!locked.isEmpty()) {
+                      return locked.pop();
+                    }
+                  }
+                  Thread.yield();
+                }
+              });
+
+      System.out.printf("%8d %16.0f %16.0f%n", threads, treiberOps, synchronizedOps);
+    }
+  }
+}
@@ -0,0 +1,200 @@
+package DataStructures.Stacks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicStampedReference;
+
+/**
+ * Lock-free stack for any number of threads (R. K. Treiber, 1986) with an elimination-backoff
+ * array (Hendler, Shavit and Yerushalmi, 2004).
+ *
+ * <p>The stack is a linked list whose top is swung with compare-and-set. Under contention most of
+ * those CAS fail, so a thread whose CAS failed does not simply retry: it visits a random slot of
+ * the elimination array and waits there briefly. A push and a pop that meet in a slot exchange the
+ * value directly and both return without touching the top at all, which turns contention into
+ * parallelism instead of retries.
+ *
+ * @param <E> the type of elements held in this stack
+ */
+public class TreiberStack<E> {
+
+  private static final class Node<E> {
+    final E value;
+    Node<E> next;
+
+    Node(E value) {
+      this.value = value;
+    }
+  }
+
+  /** Returned by an exchange that found no partner in time */
+  private static final Object TIMEOUT = new Object();
+
+  /**
+   * Slot where two threads swap values (Herlihy and Shavit's LockFreeExchanger). The stamp tells
+   * whether the slot is empty, holds a waiting value, or has been answered.
+   */
+  private static final class Exchanger {
+    static final int EMPTY = 0;
+    static final int WAITING = 1;
+    static final int BUSY = 2;
+
+    private final AtomicStampedReference<Object> slot = new AtomicStampedReference<>(null, EMPTY);
+
+    /** @return the partner's value, or {@link #TIMEOUT} */
+    Object exchange(Object mine, long timeoutNanos) {
+      long deadline = System.nanoTime() + timeoutNanos;
+      int[] stamp = {EMPTY};
+      while (System.nanoTime() < deadline) {
+        Object theirs = slot.get(stamp);
+        switch (stamp[0]) {
+          case EMPTY:
+            if (slot.compareAndSet(theirs, mine, EMPTY, WAITING)) {
+              while (System.nanoTime() < deadline) {
+                theirs = slot.get(stamp);
+                if (stamp[0] == BUSY) {
+                  slot.set(null, EMPTY);
+                  return theirs;
+                }
+                Thread.onSpinWait();
+              }
+              if (slot.compareAndSet(mine, null, WAITING, EMPTY)) {
+                return TIMEOUT;
+              }
+              // a partner answered just before we gave up
+              theirs = slot.getReference();
+              slot.set(null, EMPTY);
+              return theirs;
+            }
+            break;
+          case WAITING:
+            if (slot.compareAndSet(theirs, mine, WAITING, BUSY)) {
+              return theirs;
+            }
+            break;
+          default:
+            break; // two other threads are finishing an exchange
+        }
+      }
+      return TIMEOUT;
+    }
+  }
+
+  private static final long ELIMINATION_TIMEOUT_NANOS = 2_000;
+
+  private final AtomicReference<Node<E>> top = new AtomicReference<>();
+  private final Exchanger[] elimination;
+
+  public TreiberStack() {
+    this(Math.max(1, Math.min(16, Runtime.getRuntime().availableProcessors() / 2)));
+  }
+
+  /** @param eliminationSlots size of the elimination array, about half the number of threads */
+  public TreiberStack(int eliminationSlots) {
+    elimination = new Exchanger[eliminationSlots];
+    for (int i = 0; i < eliminationSlots; i++) {
+      elimination[i] = new Exchanger();
+    }
+  }
+
+  /**
+   * Adds an element to the top of the stack
+   *
+   * @param value The element added, not null
+   */
+  public void push(E value) {
+    if (value == null) {
+      throw new NullPointerException();
+    }
+    Node<E> node = new Node<>(value);
+    while (true) {
+      Node<E> oldTop = top.get();
+      node.next = oldTop;
+      if (top.compareAndSet(oldTop, node)) {
+        return;
+      }
+      // pops offer null, so receiving null means a pop took our value
+      if (visit(value) == null) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Removes the top element of the stack
+   *
+   * @return value popped off the stack, or <tt>null</tt> if it is empty
+   */
+  @SuppressWarnings("unchecked")
+  public E pop() {
+    while (true) {
+      Node<E> oldTop = top.get();
+      if (oldTop == null) {
+        return null;
+      }
+      if (top.compareAndSet(oldTop, oldTop.next)) {
+        return oldTop.value;
+      }
+      Object other = visit(null);
+      if (other != null && other != TIMEOUT) {
+        return (E) other; // eliminated against a push
+      }
+    }
+  }
+
+  /** @return element at the top of the stack, or <tt>null</tt> if it is empty */
+  public E peek() {
+    Node<E> node = top.get();
+    return node == null ? null : node.value;
+  }
+
+  public boolean isEmpty() {
+    return top.get() == null;
+  }
+
+  private Object visit(Object value) {
+    int slot = ThreadLocalRandom.current().nextInt(elimination.length);
+    return elimination[slot].exchange(value, ELIMINATION_TIMEOUT_NANOS);
+  }
+
+  /** Driver Code */
+  public static void main(String[] args) throws InterruptedException {
+    TreiberStack<Integer> stack = new TreiberStack<>();
+    assert stack.isEmpty() && stack.pop() == null;
+    stack.push(1);
+    stack.push(2);
+    assert stack.peek() == 2;
+    assert stack.pop() == 2 && stack.pop() == 1 && stack.pop() == null;
+
+    /* Concurrent push/pop pairs: every pushed value must be popped exactly once */
+    final int threads = 8;
+    final int perThread = 100_000;
+    TreiberStack<Integer> shared = new TreiberStack<>(4);
+    java.util.concurrent.atomic.AtomicLong sum = new java.util.concurrent.atomic.AtomicLong();
+    Thread[] workers = new Thread[threads];
+    for (int t = 0; t < threads; t++) {
+      workers[t] =
+          new Thread(
+              () -> {
+                long local = 0;
+                for (int i = 1; i <= perThread; i++) {
+                  shared.push(i);
+                  Integer popped;
+                  while ((popped = shared.pop()) == null) {
+                    Thread.yield();
+                  }
+                  local += popped;
+                }
+                sum.addAndGet(local);
+              });
+    }
+    for (Thread worker : workers) {
+      worker.start();
+    }
+    for (Thread worker : workers) {
+      worker.join();
+    }
+    assert shared.isEmpty();
+    assert sum.get() == (long) threads * perThread * (perThread + 1) / 2;
+  }
+}
@@ -1,224 +1,482 @@
 package DataStructures.Trees;
 
-public class AVLTree {
-
-  private Node root;
-
-  private class Node {
-    private int key;
-    private int balance;
-    private int height;
-    private Node left, right, parent;
-
-    Node(int k, Node p) {
-      key = k;
-      parent = p;
-    }
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * AVL tree map: the heights of the two subtrees of every node differ by at most one, restored by
+ * rotations after each insertion and removal. Ordered queries, rank/select and range iteration come
+ * from {@link OrderedTreeMap}.
+ *
+ * <p>https://en.wikipedia.org/wiki/AVL_tree
+ */
+public class AVLTree<K, V> extends OrderedTreeMap<K, V> {
+
+  /** Init an empty tree ordered by the natural ordering of the keys */
+  public AVLTree() {}
+
+  /** Init an empty tree ordered by {@code comparator} */
+  public AVLTree(Comparator<? super K> comparator) {
+    super(comparator);
   }
 
-  public boolean insert(int key) {
-    if (root == null) root = new Node(key, null);
-    else {
-      Node n = root;
-      Node parent;
-      while (true) {
-        if (n.key == key) return false;
-
-        parent = n;
-
-        boolean goLeft = n.key > key;
-        n = goLeft ? n.left : n.right;
-
-        if (n == null) {
-          if (goLeft) {
-            parent.left = new Node(key, parent);
-          } else {
-            parent.right = new Node(key, parent);
-          }
-          rebalance(parent);
-          break;
-        }
-      }
-    }
-    return true;
+  @Override
+  protected void afterInsert(Node<K, V> node) {
+    rebalance(node.parent);
   }
 
-  private void delete(Node node) {
-    if (node.left == null && node.right == null) {
-      if (node.parent == null) root = null;
-      else {
-        Node parent = node.parent;
-        if (parent.left == node) {
-          parent.left = null;
-        } else parent.right = null;
-        rebalance(parent);
-      }
-      return;
-    }
-    if (node.left != null) {
-      Node child = node.left;
-      while (child.right != null) child = child.right;
+  @Override
+  protected void removeNode(Node<K, V> node) {
+    if (node.left != null && node.right != null) {
+      /* Move the successor's entry here and remove the successor, which has no left child */
+      Node<K, V> child = minimum(node.right);
       node.key = child.key;
-      delete(child);
-    } else {
-      Node child = node.right;
-      while (child.left != null) child = child.left;
-      node.key = child.key;
-      delete(child);
+      node.value = child.value;
+      node = child;
     }
+    Node<K, V> child = node.left != null ? node.left : node.right;
+    replaceChild(node, child);
+    rebalance(node.parent);
   }
 
-  public void delete(int delKey) {
-    if (root == null) return;
-    Node node = root;
-    Node child = root;
-
-    while (child != null) {
-      node = child;
-      child = delKey >= node.key ? node.right : node.left;
-      if (delKey == node.key) {
-        delete(node);
-        return;
+  /** Fixes heights, sizes and balance from {@code n} up to the root */
+  private void rebalance(Node<K, V> n) {
+    while (n != null) {
+      update(n);
+      int balance = height(n.right) - height(n.left);
+      if (balance == -2) {
+        if (height(n.left.left) >= height(n.left.right)) {
+          n = rotateRight(n);
+        } else {
+          n = rotateLeftThenRight(n);
+        }
+      } else if (balance == 2) {
+        if (height(n.right.right) >= height(n.right.left)) {
+          n = rotateLeft(n);
+        } else {
+          n = rotateRightThenLeft(n);
+        }
       }
+      n = n.parent;
     }
   }
 
-  private void rebalance(Node n) {
-    setBalance(n);
-
-    if (n.balance == -2) {
-      if (height(n.left.left) >= height(n.left.right)) n = rotateRight(n);
-      else n = rotateLeftThenRight(n);
+  private Node<K, V> rotateLeftThenRight(Node<K, V> n) {
+    rotateLeft(n.left);
+    return rotateRight(n);
+  }
 
-    } else if (n.balance == 2) {
-      if (height(n.right.right) >= height(n.right.left)) n = rotateLeft(n);
-      else n = rotateRightThenLeft(n);
-    }
+  private Node<K, V> rotateRightThenLeft(Node<K, V> n) {
+    rotateRight(n.right);
+    return rotateLeft(n);
+  }
 
-    if (n.parent != null) {
-      rebalance(n.parent);
-    } else {
-      root = n;
-    }
+  /** Keeps the height in {@link Node#balance} along with the size */
+  @Override
+  protected void update(Node<K, V> node) {
+    super.update(node);
+    node.balance = 1 + Math.max(height(node.left), height(node.right));
   }
 
-  private Node rotateLeft(Node a) {
+  private static int height(Node<?, ?> n) {
+    return n == null ? -1 : n.balance;
+  }
 
-    Node b = a.right;
-    b.parent = a.parent;
+  /** @return height of the tree, -1 when empty */
+  public int height() {
+    return height(root);
+  }
 
-    a.right = b.left;
+  /**
+   * Join-based union (Blelloch, Ferizovic and Sun): this tree's root splits {@code other} into the
+   * keys before and after it, both halves are merged recursively, in parallel for large trees,
+   * and the results are joined back around the root. It takes O(m log(n / m + 1)) work for trees
+   * of m <= n keys instead of the O(n + m) of merging, and leaves {@code other} empty.
+   *
+   * <p>The merge rewires the nodes of both trees in place. Keys of the two maps that cannot be
+   * compared with each other are detected beforehand from their extremes, leaving both maps as they
+   * were; if a comparison still fails during the merge, both maps are left empty.
+   */
+  @Override
+  public void union(OrderedTreeMap<K, V> other) {
+    setOperation(other, UNION);
+  }
 
-    if (a.right != null) a.right.parent = a;
+  /** Join-based intersection, see {@link #union} */
+  @Override
+  public void intersection(OrderedTreeMap<K, V> other) {
+    setOperation(other, INTERSECTION);
+  }
 
-    b.left = a;
-    a.parent = b;
+  /** Join-based difference, see {@link #union} */
+  @Override
+  public void difference(OrderedTreeMap<K, V> other) {
+    setOperation(other, DIFFERENCE);
+  }
 
-    if (b.parent != null) {
-      if (b.parent.right == a) {
-        b.parent.right = b;
+  private static final int UNION = 0;
+  private static final int INTERSECTION = 1;
+  private static final int DIFFERENCE = 2;
+  /** Operations on fewer nodes run in the current task */
+  private static final int PARALLEL_THRESHOLD = 1 << 12;
+
+  private void setOperation(OrderedTreeMap<K, V> other, int operation) {
+    if (!(other instanceof AVLTree)) {
+      /* Only AVL trees can be joined by height */
+      if (operation == UNION) {
+        super.union(other);
+      } else if (operation == INTERSECTION) {
+        super.intersection(other);
       } else {
-        b.parent.left = b;
+        super.difference(other);
       }
+      return;
     }
-
-    setBalance(a, b);
-
-    return b;
+    checkSameOrder(other);
+    if (root != null && other.root != null) {
+      /* Fails on keys of different types, as in raw maps, before anything is rewired */
+      compare(firstKey(), other.firstKey());
+      compare(other.lastKey(), lastKey());
+    }
+    Node<K, V> merged;
+    try {
+      merged = ForkJoinPool.commonPool().invoke(new SetTask(root, other.root, operation));
+    } catch (RuntimeException | Error e) {
+      /* Half-rewired nodes with stale sizes: neither tree can be trusted anymore */
+      clear();
+      other.clear();
+      throw e;
+    }
+    other.clear();
+    root = merged;
+    modCount++;
   }
 
-  private Node rotateRight(Node a) {
-
-    Node b = a.left;
-    b.parent = a.parent;
-
-    a.left = b.right;
-
-    if (a.left != null) a.left.parent = a;
-
-    b.right = a;
-    a.parent = b;
+  /**
+   * Merges two subtrees by splitting and joining their nodes in place; the roots of the maps are
+   * only replaced once the task has returned
+   */
+  @SuppressWarnings("serial")
+  private final class SetTask extends RecursiveTask<Node<K, V>> {
+    private final Node<K, V> a;
+    private final Node<K, V> b;
+    private final int operation;
+
+    SetTask(Node<K, V> a, Node<K, V> b, int operation) {
+      this.a = a;
+      this.b = b;
+      this.operation = operation;
+    }
 
-    if (b.parent != null) {
-      if (b.parent.right == a) {
-        b.parent.right = b;
+    @Override
+    protected Node<K, V> compute() {
+      if (a == null || b == null) {
+        return operation == UNION ? (a != null ? a : b) : operation == DIFFERENCE ? a : null;
+      }
+      Node<K, V> l1 = detach(a.left);
+      Node<K, V> r1 = detach(a.right);
+      Split split = split(b, a.key);
+      SetTask left = new SetTask(l1, split.left, operation);
+      SetTask right = new SetTask(r1, split.right, operation);
+      Node<K, V> l;
+      Node<K, V> r;
+      if (size(a) + size(b) > PARALLEL_THRESHOLD) {
+        left.fork();
+        r = right.compute();
+        l = left.join();
       } else {
-        b.parent.left = b;
+        l = left.compute();
+        r = right.compute();
       }
+      boolean keep = operation == UNION || (operation == INTERSECTION) == (split.found != null);
+      return keep ? AVLTree.this.join(l, a, r) : join2(l, r);
     }
+  }
 
-    setBalance(a, b);
-
-    return b;
+  /** Keys of a tree before and after a key, and the node of that key if it was there */
+  private final class Split {
+    Node<K, V> left;
+    Node<K, V> found;
+    Node<K, V> right;
   }
 
-  private Node rotateLeftThenRight(Node n) {
-    n.left = rotateLeft(n.left);
-    return rotateRight(n);
+  private static <K, V> Node<K, V> detach(Node<K, V> node) {
+    if (node != null) {
+      node.parent = null;
+    }
+    return node;
   }
 
-  private Node rotateRightThenLeft(Node n) {
-    n.right = rotateRight(n.right);
-    return rotateLeft(n);
+  private Split split(Node<K, V> node, K key) {
+    if (node == null) {
+      return new Split();
+    }
+    Node<K, V> l = detach(node.left);
+    Node<K, V> r = detach(node.right);
+    int cmp = compare(key, node.key);
+    if (cmp == 0) {
+      Split split = new Split();
+      split.left = l;
+      split.found = node;
+      split.right = r;
+      return split;
+    }
+    if (cmp < 0) {
+      Split split = split(l, key);
+      split.right = join(split.right, node, r);
+      return split;
+    }
+    Split split = split(r, key);
+    split.left = join(l, node, split.left);
+    return split;
   }
 
-  private int height(Node n) {
-    if (n == null) return -1;
-    return n.height;
+  /** @return the tree of the keys of {@code l}, then {@code middle}, then those of {@code r} */
+  private Node<K, V> join(Node<K, V> l, Node<K, V> middle, Node<K, V> r) {
+    if (height(l) > height(r) + 1) {
+      return joinRight(l, middle, r);
+    }
+    if (height(r) > height(l) + 1) {
+      return joinLeft(l, middle, r);
+    }
+    return link(l, middle, r);
   }
 
-  private void setBalance(Node... nodes) {
-    for (Node n : nodes) {
-      reheight(n);
-      n.balance = height(n.right) - height(n.left);
+  /** Joins by walking down the right spine of the taller {@code l} */
+  private Node<K, V> joinRight(Node<K, V> l, Node<K, V> middle, Node<K, V> r) {
+    Node<K, V> ll = detach(l.left);
+    Node<K, V> lr = detach(l.right);
+    if (height(lr) <= height(r) + 1) {
+      Node<K, V> joined = link(lr, middle, r);
+      if (height(joined) <= height(ll) + 1) {
+        return link(ll, l, joined);
+      }
+      return rotateLeftDetached(link(ll, l, rotateRightDetached(joined)));
     }
+    Node<K, V> joined = joinRight(lr, middle, r);
+    Node<K, V> result = link(ll, l, joined);
+    return height(joined) <= height(ll) + 1 ? result : rotateLeftDetached(result);
   }
 
-  public void printBalance() {
-    printBalance(root);
+  /** Mirror of {@link #joinRight} */
+  private Node<K, V> joinLeft(Node<K, V> l, Node<K, V> middle, Node<K, V> r) {
+    Node<K, V> rl = detach(r.left);
+    Node<K, V> rr = detach(r.right);
+    if (height(rl) <= height(l) + 1) {
+      Node<K, V> joined = link(l, middle, rl);
+      if (height(joined) <= height(rr) + 1) {
+        return link(joined, r, rr);
+      }
+      return rotateRightDetached(link(rotateLeftDetached(joined), r, rr));
+    }
+    Node<K, V> joined = joinLeft(l, middle, rl);
+    Node<K, V> result = link(joined, r, rr);
+    return height(joined) <= height(rr) + 1 ? result : rotateRightDetached(result);
   }
 
-  private void printBalance(Node n) {
-    if (n != null) {
-      printBalance(n.left);
-      System.out.printf("%s ", n.balance);
-      printBalance(n.right);
+  /** Joins two trees without a middle key, taking the last key of {@code l} as the middle */
+  private Node<K, V> join2(Node<K, V> l, Node<K, V> r) {
+    if (l == null) {
+      return r;
     }
+    Split last = splitLast(l);
+    return join(last.left, last.found, r);
   }
 
-  private void reheight(Node node) {
-    if (node != null) {
-      node.height = 1 + Math.max(height(node.left), height(node.right));
+  private Split splitLast(Node<K, V> node) {
+    Node<K, V> l = detach(node.left);
+    Node<K, V> r = detach(node.right);
+    if (r == null) {
+      Split split = new Split();
+      split.left = l;
+      split.found = node;
+      return split;
     }
+    Split split = splitLast(r);
+    split.left = join(l, node, split.left);
+    return split;
   }
 
-  public boolean search(int key) {
-    Node result = searchHelper(this.root, key);
-    if (result != null) return true;
+  /** Makes {@code middle} the detached root of {@code l} and {@code r} */
+  private Node<K, V> link(Node<K, V> l, Node<K, V> middle, Node<K, V> r) {
+    middle.left = l;
+    middle.right = r;
+    middle.parent = null;
+    if (l != null) {
+      l.parent = middle;
+    }
+    if (r != null) {
+      r.parent = middle;
+    }
+    update(middle);
+    return middle;
+  }
 
-    return false;
+  /* Rotations of detached subtrees, which unlike the inherited ones never touch the root field */
+  private Node<K, V> rotateLeftDetached(Node<K, V> node) {
+    Node<K, V> right = detach(node.right);
+    return link(link(detach(node.left), node, detach(right.left)), right, detach(right.right));
   }
 
-  private Node searchHelper(Node root, int key) {
-    // root is null or key is present at root
-    if (root == null || root.key == key) return root;
+  private Node<K, V> rotateRightDetached(Node<K, V> node) {
+    Node<K, V> left = detach(node.left);
+    return link(detach(left.left), left, link(detach(left.right), node, detach(node.right)));
+  }
 
-    // key is greater than root's key
-    if (root.key > key)
-      return searchHelper(root.left, key); // call the function on the node's left child
+  private void check() {
+    checkStructure(root, null);
+    checkHeights(root);
+  }
 
-    // key is less than root's key then
-    // call the function on the node's right child as it is greater
-    return searchHelper(root.right, key);
+  private int checkHeights(Node<K, V> n) {
+    if (n == null) {
+      return -1;
+    }
+    int left = checkHeights(n.left);
+    int right = checkHeights(n.right);
+    assert Math.abs(left - right) <= 1 : "unbalanced at " + n.key;
+    assert n.balance == 1 + Math.max(left, right) : "bad height at " + n.key;
+    return n.balance;
   }
 
+  /* Driver Code */
   public static void main(String[] args) {
-    AVLTree tree = new AVLTree();
-
-    System.out.println("Inserting values 1 to 10");
-    for (int i = 1; i < 10; i++) tree.insert(i);
+    AVLTree<Integer, String> tree = new AVLTree<>();
+    for (int i = 1; i < 10; i++) {
+      tree.put(i, "v" + i);
+    }
+    assert tree.height() == 3 && tree.size() == 9;
+    assert tree.get(4).equals("v4") && tree.put(4, "four").equals("v4");
+    assert tree.floorKey(0) == null && tree.ceilingKey(0) == 1;
+    assert tree.rank(5) == 4 && tree.select(4).getKey() == 5;
+    tree.remove(4);
+    assert tree.floorKey(4) == 3 && tree.ceilingKey(4) == 5 && tree.rank(5) == 3;
+    StringBuilder keys = new StringBuilder();
+    for (Map.Entry<Integer, String> entry : tree.range(3, 7)) {
+      keys.append(entry.getKey());
+    }
+    assert keys.toString().equals("356");
+    tree.check();
+
+    /* Random operations against TreeMap */
+    java.util.Random random = new java.util.Random(5);
+    AVLTree<Integer, Integer> avl = new AVLTree<>(Comparator.reverseOrder());
+    java.util.TreeMap<Integer, Integer> expected =
+        new java.util.TreeMap<>(Comparator.reverseOrder());
+    for (int op = 0; op < 100_000; op++) {
+      int key = random.nextInt(2_000);
+      if (random.nextInt(3) > 0) {
+        assert java.util.Objects.equals(avl.put(key, op), expected.put(key, op));
+      } else {
+        assert java.util.Objects.equals(avl.remove(key), expected.remove(key));
+      }
+      if (op % 5_000 == 0) {
+        avl.check();
+        assert avl.size() == expected.size();
+        assert java.util.Objects.equals(avl.floorKey(key), expected.floorKey(key));
+        assert java.util.Objects.equals(avl.ceilingKey(key), expected.ceilingKey(key));
+        assert avl.rank(key) == expected.headMap(key).size();
+        if (!expected.isEmpty()) {
+          int index = random.nextInt(expected.size());
+          assert avl.select(index).getKey().equals(expected.keySet().toArray()[index]);
+        }
+      }
+    }
+    avl.check();
+    assert avl.countRange(1_500, 500) == expected.subMap(1_500, 500).size();
+    System.out.println(avl.size() + " keys, median " + avl.percentile(0.5).getKey());
+
+    /* Bulk building, then join-based set operations against TreeSet */
+    for (int n = 0; n < 100; n++) {
+      Integer[] sorted = new Integer[n];
+      for (int i = 0; i < n; i++) {
+        sorted[i] = i;
+      }
+      AVLTree<Integer, Integer> built = new AVLTree<>();
+      built.buildFromSorted(sorted, sorted);
+      built.check();
+      assert built.size() == n && built.height() == 31 - Integer.numberOfLeadingZeros(n);
+    }
+    for (int round = 0; round < 60; round++) {
+      java.util.TreeSet<Integer> left = new java.util.TreeSet<>();
+      java.util.TreeSet<Integer> right = new java.util.TreeSet<>();
+      int bound = 1 + random.nextInt(round < 50 ? 200 : 200_000);
+      int leftSize = random.nextInt(bound);
+      int rightSize = random.nextInt(round % 2 == 0 ? bound : 10);
+      while (left.size() < leftSize / 2) {
+        left.add(random.nextInt(bound));
+      }
+      while (right.size() < rightSize / 2) {
+        right.add(random.nextInt(bound));
+      }
+      for (int operation = UNION; operation <= DIFFERENCE; operation++) {
+        AVLTree<Integer, Integer> a = new AVLTree<>();
+        AVLTree<Integer, Integer> b = new AVLTree<>();
+        a.buildFromSortedParallel(left.toArray(new Integer[0]), null);
+        for (int key : right) {
+          b.put(key, key);
+        }
+        java.util.TreeSet<Integer> expectedKeys = new java.util.TreeSet<>(left);
+        if (operation == UNION) {
+          a.union(b);
+          expectedKeys.addAll(right);
+        } else if (operation == INTERSECTION) {
+          a.intersection(b);
+          expectedKeys.retainAll(right);
+        } else {
+          a.difference(b);
+          expectedKeys.removeAll(right);
+        }
+        a.check();
+        assert b.isEmpty() && a.size() == expectedKeys.size();
+        java.util.Iterator<Integer> inOrder = expectedKeys.iterator();
+        for (Map.Entry<Integer, Integer> entry : a) {
+          assert entry.getKey().equals(inOrder.next());
+          assert entry.getValue() == null || !left.contains(entry.getKey());
+        }
+      }
+    }
 
-    System.out.print("Printing balance: ");
-    tree.printBalance();
+    /* Keys that cannot be compared leave both maps intact, a comparator failing midway empty */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    AVLTree<Object, Object> numbers = (AVLTree) new AVLTree<Integer, Integer>();
+    AVLTree<Object, Object> words = new AVLTree<>();
+    for (int i = 0; i < 100; i++) {
+      numbers.put(i, i);
+      words.put("w" + i, i);
+    }
+    try {
+      numbers.union(words);
+      assert false;
+    } catch (ClassCastException expectedFailure) {
+    }
+    int[] entries = {0, 0};
+    numbers.inOrder(e -> ++entries[0] > 0);
+    words.inOrder(e -> ++entries[1] > 0);
+    assert numbers.size() == 100 && words.size() == 100 && entries[0] == 100 && entries[1] == 100;
+    /* Comparisons left before the comparator fails, -1 for never */
+    int[] budget = {-1};
+    Comparator<Integer> failing =
+        (x, y) -> {
+          if (budget[0] >= 0 && budget[0]-- == 0) {
+            throw new IllegalStateException("comparator failed");
+          }
+          return Integer.compare(x, y);
+        };
+    AVLTree<Integer, Integer> odd = new AVLTree<>(failing);
+    AVLTree<Integer, Integer> even = new AVLTree<>(failing);
+    for (int i = 0; i < 1_000; i++) {
+      odd.put(2 * i + 1, i);
+      even.put(2 * i, i);
+    }
+    budget[0] = 500;
+    try {
+      odd.union(even);
+      assert false;
+    } catch (IllegalStateException expectedFailure) {
+      assert budget[0] == -1 && odd.isEmpty() && even.isEmpty();
+    }
   }
 }
@@ -0,0 +1,1005 @@
+package DataStructures.Trees;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+
+/**
+ * Adaptive radix tree (ART) mapping byte strings to values, after Leis, Kemper and Neumann, "The
+ * Adaptive Radix Tree: ARTful Indexing for Main-Memory Databases" (ICDE 2013).
+ *
+ * <p>A plain trie such as the one {@link TrieImp} used to be gives every node an array of one child
+ * pointer per letter, most of them null. An ART picks the layout of each inner node by its number
+ * of children: Node4 and Node16 keep up to 4 or 16 sorted key bytes next to their children, Node48
+ * maps all 256 byte values to one of 48 child slots, and only Node256 has a slot for every byte.
+ * Nodes grow and shrink between these layouts as children come and go. Chains of single-child
+ * nodes are collapsed into a prefix stored in the next node (path compression), and a key whose
+ * remaining bytes are unique is stored as a leaf right where it branches off (lazy expansion), so
+ * most keys need no inner node of their own.
+ *
+ * <p>Keys are arbitrary byte arrays compared as unsigned bytes, which is the order in which the
+ * iterators return them; a key may be a prefix of another. {@code String} keys are encoded in
+ * UTF-8, which keeps code point order. A {@link Cursor} walks the tree one byte or code point at a
+ * time for searches that build keys incrementally, such as {@code WordBoggle}.
+ *
+ * <p>This class is not thread-safe.
+ *
+ * <p>https://db.in.tum.de/~leis/papers/ART.pdf
+ */
+public class AdaptiveRadixTree<V> {
+
+  private abstract static class Node {}
+
+  private static final class Leaf extends Node {
+    /** The whole key, as leaves may sit above the depth where the key ends */
+    final byte[] key;
+
+    Object value;
+
+    Leaf(byte[] key, Object value) {
+      this.key = key;
+      this.value = value;
+    }
+  }
+
+  private abstract static class Inner extends Node {
+    /** Compressed path: bytes shared by every key below, after the edge leading here */
+    byte[] prefix;
+    /** Key ending right after the prefix, if any */
+    Leaf terminal;
+    /** Number of children */
+    int count;
+
+    Inner(byte[] prefix) {
+      this.prefix = prefix;
+    }
+
+    /** @return the child on edge {@code b} (0 to 255), or null */
+    abstract Node find(int b);
+
+    /** Adds a child on a new edge, returning this node or a larger one holding it */
+    abstract Inner add(int b, Node child);
+
+    /** Replaces the child on an existing edge */
+    abstract void replace(int b, Node child);
+
+    /** Removes the child on an existing edge, returning this node or a smaller one */
+    abstract Inner remove(int b);
+
+    /** @return the first slot at or after {@code slot} holding a child, or -1 */
+    abstract int next(int slot);
+
+    abstract Node childAt(int slot);
+
+    abstract int edgeAt(int slot);
+
+    <T extends Inner> T copyHeader(T to) {
+      to.prefix = prefix;
+      to.terminal = terminal;
+      return to;
+    }
+  }
+
+  /** Node4 and Node16: edge bytes kept sorted in an array next to their children */
+  private abstract static class SortedNode extends Inner {
+    final byte[] keys;
+    final Node[] children;
+
+    SortedNode(byte[] prefix, int capacity) {
+      super(prefix);
+      keys = new byte[capacity];
+      children = new Node[capacity];
+    }
+
+    private int indexOf(int b) {
+      for (int i = 0; i < count; i++) {
+        int key = keys[i] & 0xFF;
+        if (key >= b) {
+          return key == b ? i : -1;
+        }
+      }
+      return -1;
+    }
+
+    @Override
+    Node find(int b) {
+      int i = indexOf(b);
+      return i < 0 ? null : children[i];
+    }
+
+    @Override
+    Inner add(int b, Node child) {
+      if (count == keys.length) {
+        return grow().add(b, child);
+      }
+      int i = count;
+      while (i > 0 && (keys[i - 1] & 0xFF) > b) {
+        keys[i] = keys[i - 1];
+        children[i] = children[i - 1];
+        i--;
+      }
+      keys[i] = (byte) b;
+      children[i] = child;
+      count++;
+      return this;
+    }
+
+    abstract Inner grow();
+
+    @Override
+    void replace(int b, Node child) {
+      children[indexOf(b)] = child;
+    }
+
+    @Override
+    Inner remove(int b) {
+      int i = indexOf(b);
+      System.arraycopy(keys, i + 1, keys, i, count - i - 1);
+      System.arraycopy(children, i + 1, children, i, count - i - 1);
+      children[--count] = null;
+      return this;
+    }
+
+    @Override
+    int next(int slot) {
+      return slot < count ? slot : -1;
+    }
+
+    @Override
+    Node childAt(int slot) {
+      return children[slot];
+    }
+
+    @Override
+    int edgeAt(int slot) {
+      return keys[slot] & 0xFF;
+    }
+  }
+
+  private static final class Node4 extends SortedNode {
+    Node4(byte[] prefix) {
+      super(prefix, 4);
+    }
+
+    @Override
+    Inner grow() {
+      Node16 node = copyHeader(new Node16(prefix));
+      System.arraycopy(keys, 0, node.keys, 0, count);
+      System.arraycopy(children, 0, node.children, 0, count);
+      node.count = count;
+      return node;
+    }
+  }
+
+  private static final class Node16 extends SortedNode {
+    Node16(byte[] prefix) {
+      super(prefix, 16);
+    }
+
+    @Override
+    Inner grow() {
+      Node48 node = copyHeader(new Node48(prefix));
+      for (int i = 0; i < count; i++) {
+        node.add(keys[i] & 0xFF, children[i]);
+      }
+      return node;
+    }
+
+    @Override
+    Inner remove(int b) {
+      super.remove(b);
+      if (count > 3) {
+        return this;
+      }
+      Node4 node = copyHeader(new Node4(prefix));
+      System.arraycopy(keys, 0, node.keys, 0, count);
+      System.arraycopy(children, 0, node.children, 0, count);
+      node.count = count;
+      return node;
+    }
+  }
+
+  /** 256 one-byte indexes into 48 child slots, 0 meaning no child */
+  private static final class Node48 extends Inner {
+    final byte[] index = new byte[256];
+    final Node[] children = new Node[48];
+
+    Node48(byte[] prefix) {
+      super(prefix);
+    }
+
+    @Override
+    Node find(int b) {
+      int slot = index[b];
+      return slot == 0 ? null : children[slot - 1];
+    }
+
+    @Override
+    Inner add(int b, Node child) {
+      if (count == children.length) {
+        Node256 node = copyHeader(new Node256(prefix));
+        for (int i = 0; i < 256; i++) {
+          if (index[i] != 0) {
+            node.add(i, children[index[i] - 1]);
+          }
+        }
+        return node.add(b, child);
+      }
+      int slot = 0;
+      while (children[slot] != null) {
+        slot++;
+      }
+      children[slot] = child;
+      index[b] = (byte) (slot + 1);
+      count++;
+      return this;
+    }
+
+    @Override
+    void replace(int b, Node child) {
+      children[index[b] - 1] = child;
+    }
+
+    @Override
+    Inner remove(int b) {
+      children[index[b] - 1] = null;
+      index[b] = 0;
+      count--;
+      if (count > 12) {
+        return this;
+      }
+      Node16 node = copyHeader(new Node16(prefix));
+      for (int i = 0; i < 256; i++) {
+        if (index[i] != 0) {
+          node.add(i, children[index[i] - 1]);
+        }
+      }
+      return node;
+    }
+
+    @Override
+    int next(int slot) {
+      for (; slot < 256; slot++) {
+        if (index[slot] != 0) {
+          return slot;
+        }
+      }
+      return -1;
+    }
+
+    @Override
+    Node childAt(int slot) {
+      return children[index[slot] - 1];
+    }
+
+    @Override
+    int edgeAt(int slot) {
+      return slot;
+    }
+  }
+
+  private static final class Node256 extends Inner {
+    final Node[] children = new Node[256];
+
+    Node256(byte[] prefix) {
+      super(prefix);
+    }
+
+    @Override
+    Node find(int b) {
+      return children[b];
+    }
+
+    @Override
+    Inner add(int b, Node child) {
+      children[b] = child;
+      count++;
+      return this;
+    }
+
+    @Override
+    void replace(int b, Node child) {
+      children[b] = child;
+    }
+
+    @Override
+    Inner remove(int b) {
+      children[b] = null;
+      count--;
+      if (count > 37) {
+        return this;
+      }
+      Node48 node = copyHeader(new Node48(prefix));
+      for (int i = 0; i < 256; i++) {
+        if (children[i] != null) {
+          node.add(i, children[i]);
+        }
+      }
+      return node;
+    }
+
+    @Override
+    int next(int slot) {
+      for (; slot < 256; slot++) {
+        if (children[slot] != null) {
+          return slot;
+        }
+      }
+      return -1;
+    }
+
+    @Override
+    Node childAt(int slot) {
+      return children[slot];
+    }
+
+    @Override
+    int edgeAt(int slot) {
+      return slot;
+    }
+  }
+
+  private static final byte[] EMPTY = new byte[0];
+
+  private Node root;
+  private int size;
+
+  /* Results passed up from the recursive put and remove */
+  private Object oldValue;
+  private boolean changed;
+
+  private static byte[] bytes(String key) {
+    return key.getBytes(StandardCharsets.UTF_8);
+  }
+
+  /** @return the value of {@code key}, or {@code null} if it is absent */
+  public V get(byte[] key) {
+    Leaf leaf = findLeaf(key);
+    return leaf == null ? null : value(leaf);
+  }
+
+  public V get(String key) {
+    return get(bytes(key));
+  }
+
+  public boolean containsKey(byte[] key) {
+    return findLeaf(key) != null;
+  }
+
+  public boolean containsKey(String key) {
+    return containsKey(bytes(key));
+  }
+
+  @SuppressWarnings("unchecked")
+  private V value(Leaf leaf) {
+    return (V) leaf.value;
+  }
+
+  private Leaf findLeaf(byte[] key) {
+    Node node = root;
+    int depth = 0;
+    while (node instanceof Inner) {
+      Inner inner = (Inner) node;
+      if (matchPrefix(inner, key, depth) < inner.prefix.length) {
+        return null;
+      }
+      depth += inner.prefix.length;
+      if (depth == key.length) {
+        return inner.terminal;
+      }
+      node = inner.find(key[depth++] & 0xFF);
+    }
+    return node != null && Arrays.equals(((Leaf) node).key, key) ? (Leaf) node : null;
+  }
+
+  /** @return number of bytes of the prefix of {@code inner} matched by {@code key} at depth */
+  private static int matchPrefix(Inner inner, byte[] key, int depth) {
+    byte[] prefix = inner.prefix;
+    int max = Math.min(prefix.length, key.length - depth);
+    int i = 0;
+    while (i < max && prefix[i] == key[depth + i]) {
+      i++;
+    }
+    return i;
+  }
+
+  /**
+   * Maps {@code key} to {@code value}. The tree keeps a reference to the key array, which must not
+   * be modified afterwards.
+   *
+   * @return the previous value of {@code key}, or {@code null} if it was absent
+   */
+  public V put(byte[] key, V value) {
+    changed = false;
+    root = insert(root, key, 0, value);
+    if (changed) {
+      size++;
+    }
+    @SuppressWarnings("unchecked")
+    V previous = (V) oldValue;
+    oldValue = null;
+    return previous;
+  }
+
+  public V put(String key, V value) {
+    return put(bytes(key), value);
+  }
+
+  /** @return the node to store in place of {@code node} */
+  private Node insert(Node node, byte[] key, int depth, Object value) {
+    if (node == null) {
+      changed = true;
+      return new Leaf(key, value);
+    }
+    if (node instanceof Leaf) {
+      Leaf leaf = (Leaf) node;
+      if (Arrays.equals(leaf.key, key)) {
+        oldValue = leaf.value;
+        leaf.value = value;
+        return leaf;
+      }
+      /* Lazy expansion ends here: both keys hang below a new node holding their common part */
+      int common = 0;
+      int max = Math.min(leaf.key.length, key.length) - depth;
+      while (common < max && leaf.key[depth + common] == key[depth + common]) {
+        common++;
+      }
+      Inner inner = new Node4(Arrays.copyOfRange(key, depth, depth + common));
+      inner = attach(inner, leaf, depth + common);
+      changed = true;
+      return attach(inner, new Leaf(key, value), depth + common);
+    }
+    Inner inner = (Inner) node;
+    int matched = matchPrefix(inner, key, depth);
+    if (matched < inner.prefix.length) {
+      /* The key leaves the compressed path: split it at the first differing byte */
+      Inner parent = new Node4(Arrays.copyOf(inner.prefix, matched));
+      int edge = inner.prefix[matched] & 0xFF;
+      inner.prefix = Arrays.copyOfRange(inner.prefix, matched + 1, inner.prefix.length);
+      parent.add(edge, inner);
+      changed = true;
+      return attach(parent, new Leaf(key, value), depth + matched);
+    }
+    depth += inner.prefix.length;
+    if (depth == key.length) {
+      if (inner.terminal != null) {
+        oldValue = inner.terminal.value;
+        inner.terminal.value = value;
+      } else {
+        inner.terminal = new Leaf(key, value);
+        changed = true;
+      }
+      return inner;
+    }
+    int b = key[depth] & 0xFF;
+    Node child = inner.find(b);
+    if (child == null) {
+      changed = true;
+      return inner.add(b, new Leaf(key, value));
+    }
+    Node replacement = insert(child, key, depth + 1, value);
+    if (replacement != child) {
+      inner.replace(b, replacement);
+    }
+    return inner;
+  }
+
+  /** Puts {@code leaf} below {@code inner}, whose prefix ends at {@code depth} */
+  private static Inner attach(Inner inner, Leaf leaf, int depth) {
+    if (leaf.key.length == depth) {
+      inner.terminal = leaf;
+      return inner;
+    }
+    return inner.add(leaf.key[depth] & 0xFF, leaf);
+  }
+
+  /**
+   * Removes {@code key}
+   *
+   * @return the value it had, or {@code null} if it was absent
+   */
+  public V remove(byte[] key) {
+    changed = false;
+    root = delete(root, key, 0);
+    if (!changed) {
+      return null;
+    }
+    size--;
+    @SuppressWarnings("unchecked")
+    V previous = (V) oldValue;
+    oldValue = null;
+    return previous;
+  }
+
+  public V remove(String key) {
+    return remove(bytes(key));
+  }
+
+  private Node delete(Node node, byte[] key, int depth) {
+    if (node == null) {
+      return null;
+    }
+    if (node instanceof Leaf) {
+      if (!Arrays.equals(((Leaf) node).key, key)) {
+        return node;
+      }
+      oldValue = ((Leaf) node).value;
+      changed = true;
+      return null;
+    }
+    Inner inner = (Inner) node;
+    if (matchPrefix(inner, key, depth) < inner.prefix.length) {
+      return inner;
+    }
+    depth += inner.prefix.length;
+    if (depth == key.length) {
+      if (inner.terminal == null) {
+        return inner;
+      }
+      oldValue = inner.terminal.value;
+      changed = true;
+      inner.terminal = null;
+      return compact(inner);
+    }
+    int b = key[depth] & 0xFF;
+    Node child = inner.find(b);
+    if (child == null) {
+      return inner;
+    }
+    Node replacement = delete(child, key, depth + 1);
+    if (replacement == child) {
+      return inner;
+    }
+    if (replacement == null) {
+      inner = inner.remove(b);
+    } else {
+      inner.replace(b, replacement);
+    }
+    return compact(inner);
+  }
+
+  /** Removes inner nodes left with a single entry, keeping paths compressed */
+  private static Node compact(Inner inner) {
+    if (inner.count == 0) {
+      return inner.terminal;
+    }
+    if (inner.count > 1 || inner.terminal != null) {
+      return inner;
+    }
+    int slot = inner.next(0);
+    Node child = inner.childAt(slot);
+    if (child instanceof Inner) {
+      Inner only = (Inner) child;
+      byte[] merged = Arrays.copyOf(inner.prefix, inner.prefix.length + 1 + only.prefix.length);
+      merged[inner.prefix.length] = (byte) inner.edgeAt(slot);
+      System.arraycopy(only.prefix, 0, merged, inner.prefix.length + 1, only.prefix.length);
+      only.prefix = merged;
+    }
+    return child;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public void clear() {
+    root = null;
+    size = 0;
+  }
+
+  /** @return <tt>true</tt> if some key starts with {@code prefix} */
+  public boolean hasPrefix(String prefix) {
+    return subtree(bytes(prefix)) != null;
+  }
+
+  /** @return the smallest subtree holding every key that starts with {@code prefix}, or null */
+  private Node subtree(byte[] prefix) {
+    Node node = root;
+    int depth = 0;
+    while (node instanceof Inner) {
+      Inner inner = (Inner) node;
+      int matched = matchPrefix(inner, prefix, depth);
+      if (depth + matched == prefix.length) {
+        return inner;
+      }
+      if (matched < inner.prefix.length) {
+        return null;
+      }
+      depth += matched;
+      node = inner.find(prefix[depth++] & 0xFF);
+    }
+    if (node == null) {
+      return null;
+    }
+    byte[] key = ((Leaf) node).key;
+    if (key.length < prefix.length) {
+      return null;
+    }
+    for (int i = depth; i < prefix.length; i++) {
+      if (key[i] != prefix[i]) {
+        return null;
+      }
+    }
+    return node;
+  }
+
+  /** Calls {@code action} with every entry whose key starts with {@code prefix}, in key order */
+  public void forEachWithPrefix(byte[] prefix, BiConsumer<byte[], ? super V> action) {
+    Iterator<Map.Entry<byte[], V>> it = new PrefixIterator(subtree(prefix));
+    while (it.hasNext()) {
+      Map.Entry<byte[], V> entry = it.next();
+      action.accept(entry.getKey(), entry.getValue());
+    }
+  }
+
+  /** @return a lazy iterator over the entries whose key starts with {@code prefix}, in key order */
+  public Iterator<Map.Entry<byte[], V>> prefixIterator(byte[] prefix) {
+    return new PrefixIterator(subtree(prefix));
+  }
+
+  /** @return the keys that start with {@code prefix}, decoded from UTF-8, read lazily */
+  public Iterable<String> keysWithPrefix(String prefix) {
+    byte[] bytes = bytes(prefix);
+    return () ->
+        new Iterator<String>() {
+          private final Iterator<Map.Entry<byte[], V>> entries = prefixIterator(bytes);
+
+          @Override
+          public boolean hasNext() {
+            return entries.hasNext();
+          }
+
+          @Override
+          public String next() {
+            return new String(entries.next().getKey(), StandardCharsets.UTF_8);
+          }
+        };
+  }
+
+  /** Depth-first walk, each inner node yielding its terminal key before its children */
+  private final class PrefixIterator implements Iterator<Map.Entry<byte[], V>> {
+    private Inner[] nodes = new Inner[16];
+    /** Next slot to visit in each node on the stack, -1 while its terminal is pending */
+    private int[] slots = new int[16];
+
+    private int depth;
+    private Leaf next;
+
+    PrefixIterator(Node start) {
+      descend(start);
+    }
+
+    /** Sets next to the first leaf at or below {@code node} */
+    private void descend(Node node) {
+      next = null;
+      while (node != null) {
+        if (node instanceof Leaf) {
+          next = (Leaf) node;
+          return;
+        }
+        if (depth == nodes.length) {
+          nodes = Arrays.copyOf(nodes, depth * 2);
+          slots = Arrays.copyOf(slots, depth * 2);
+        }
+        Inner inner = (Inner) node;
+        nodes[depth] = inner;
+        slots[depth++] = 0;
+        if (inner.terminal != null) {
+          next = inner.terminal;
+          return;
+        }
+        node = nextChild();
+      }
+    }
+
+    /** Moves to the next child of the node on top of the stack, popping finished nodes */
+    private Node nextChild() {
+      while (depth > 0) {
+        Inner top = nodes[depth - 1];
+        int slot = top.next(slots[depth - 1]);
+        if (slot >= 0) {
+          slots[depth - 1] = slot + 1;
+          return top.childAt(slot);
+        }
+        nodes[--depth] = null;
+      }
+      return null;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public Map.Entry<byte[], V> next() {
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      Leaf current = next;
+      descend(nextChild());
+      return new AbstractMap.SimpleImmutableEntry<>(current.key, value(current));
+    }
+  }
+
+  /** @return a cursor at the empty key */
+  public Cursor cursor() {
+    return new Cursor();
+  }
+
+  /**
+   * Walks down the tree one step at a time and back up, without allocating once its stack has
+   * grown. A step is one byte or the UTF-8 bytes of one code point.
+   */
+  public final class Cursor {
+    /* Stack of states before each step: node, depth where the node starts, depth reached */
+    private Node[] nodes = new Node[16];
+    private int[] nodeDepths = new int[16];
+    private int[] depths = new int[16];
+    private int steps;
+
+    private Node node = root;
+    private int nodeDepth;
+    private int depth;
+
+    private Cursor() {}
+
+    /**
+     * Appends a byte to the current key
+     *
+     * @return <tt>false</tt>, leaving the cursor unchanged, if no key starts with the result
+     */
+    public boolean push(byte b) {
+      save();
+      if (advance(b)) {
+        return true;
+      }
+      pop();
+      return false;
+    }
+
+    /**
+     * Appends the UTF-8 encoding of a code point to the current key as one step
+     *
+     * @return <tt>false</tt>, leaving the cursor unchanged, if no key starts with the result
+     */
+    public boolean pushCodePoint(int codePoint) {
+      save();
+      boolean found;
+      if (codePoint < 0x80) {
+        found = advance((byte) codePoint);
+      } else if (codePoint < 0x800) {
+        found =
+            advance((byte) (0xC0 | codePoint >> 6)) && advance((byte) (0x80 | codePoint & 0x3F));
+      } else if (codePoint < 0x10000) {
+        found =
+            advance((byte) (0xE0 | codePoint >> 12))
+                && advance((byte) (0x80 | codePoint >> 6 & 0x3F))
+                && advance((byte) (0x80 | codePoint & 0x3F));
+      } else {
+        found =
+            advance((byte) (0xF0 | codePoint >> 18))
+                && advance((byte) (0x80 | codePoint >> 12 & 0x3F))
+                && advance((byte) (0x80 | codePoint >> 6 & 0x3F))
+                && advance((byte) (0x80 | codePoint & 0x3F));
+      }
+      if (!found) {
+        pop();
+      }
+      return found;
+    }
+
+    /** Undoes the last successful push */
+    public void pop() {
+      if (steps == 0) {
+        throw new IllegalStateException("cursor is at the empty key");
+      }
+      steps--;
+      node = nodes[steps];
+      nodes[steps] = null;
+      nodeDepth = nodeDepths[steps];
+      depth = depths[steps];
+    }
+
+    private void save() {
+      if (steps == nodes.length) {
+        nodes = Arrays.copyOf(nodes, steps * 2);
+        nodeDepths = Arrays.copyOf(nodeDepths, steps * 2);
+        depths = Arrays.copyOf(depths, steps * 2);
+      }
+      nodes[steps] = node;
+      nodeDepths[steps] = nodeDepth;
+      depths[steps++] = depth;
+    }
+
+    private boolean advance(byte b) {
+      if (node instanceof Leaf) {
+        byte[] key = ((Leaf) node).key;
+        if (depth < key.length && key[depth] == b) {
+          depth++;
+          return true;
+        }
+        return false;
+      }
+      if (node == null) {
+        return false;
+      }
+      Inner inner = (Inner) node;
+      int consumed = depth - nodeDepth;
+      if (consumed < inner.prefix.length) {
+        if (inner.prefix[consumed] != b) {
+          return false;
+        }
+        depth++;
+        return true;
+      }
+      Node child = inner.find(b & 0xFF);
+      if (child == null) {
+        return false;
+      }
+      node = child;
+      nodeDepth = ++depth;
+      return true;
+    }
+
+    private Leaf leaf() {
+      if (node instanceof Leaf) {
+        Leaf leaf = (Leaf) node;
+        return leaf.key.length == depth ? leaf : null;
+      }
+      if (node == null) {
+        return null;
+      }
+      Inner inner = (Inner) node;
+      return depth - nodeDepth == inner.prefix.length ? inner.terminal : null;
+    }
+
+    /** @return <tt>true</tt> if the bytes pushed so far form a key of the tree */
+    public boolean isKey() {
+      return leaf() != null;
+    }
+
+    /** @return the value of the current key, or {@code null} if it is not a key */
+    public V value() {
+      Leaf leaf = leaf();
+      return leaf == null ? null : AdaptiveRadixTree.this.value(leaf);
+    }
+
+    /** @return number of bytes pushed */
+    public int length() {
+      return depth;
+    }
+  }
+
+  /** Counts inner nodes by layout, to show how the tree adapts */
+  private int[] census() {
+    int[] counts = new int[5];
+    census(root, counts);
+    return counts;
+  }
+
+  private static void census(Node node, int[] counts) {
+    if (node == null) {
+      return;
+    }
+    if (node instanceof Leaf) {
+      counts[4]++;
+      return;
+    }
+    Inner inner = (Inner) node;
+    if (inner instanceof Node4) {
+      counts[0]++;
+    } else if (inner instanceof Node16) {
+      counts[1]++;
+    } else {
+      counts[inner instanceof Node48 ? 2 : 3]++;
+    }
+    if (inner.terminal != null) {
+      counts[4]++;
+    }
+    for (int slot = inner.next(0); slot >= 0; slot = inner.next(slot + 1)) {
+      census(inner.childAt(slot), counts);
+    }
+  }
+
+  /* Driver Code */
+  public static void main(String[] args) {
+    AdaptiveRadixTree<Integer> tree = new AdaptiveRadixTree<>();
+    String[] words = {
+      "romane", "romanus", "romulus", "rubens", "ruber", "rubicon", "rubicundus"
+    };
+    for (int i = 0; i < words.length; i++) {
+      assert tree.put(words[i], i) == null;
+    }
+    assert tree.put("rom", 100) == null && tree.put("", -1) == null && tree.size() == 9;
+    assert tree.get("romanus") == 1 && tree.get("roman") == null && tree.get("rom") == 100;
+    assert tree.put("rubens", 33) == 3 && tree.get("rubens") == 33;
+    assert tree.hasPrefix("rub") && !tree.hasPrefix("rubx") && tree.hasPrefix("rubicu");
+    StringBuilder found = new StringBuilder();
+    for (String key : tree.keysWithPrefix("rom")) {
+      found.append(key).append(' ');
+    }
+    assert found.toString().equals("rom romane romanus romulus ");
+    assert tree.remove("rom") == 100 && tree.remove("rom") == null && tree.remove("") == -1;
+    assert tree.remove("romulus") == 2 && tree.get("romane") == 0 && tree.size() == 6;
+
+    /* Non-ASCII keys, walked code point by code point */
+    tree.put("naïve", 7);
+    tree.put("日本語", 8);
+    AdaptiveRadixTree<Integer>.Cursor cursor = tree.cursor();
+    for (int c : "日本語".codePoints().toArray()) {
+      assert cursor.pushCodePoint(c);
+    }
+    assert cursor.isKey() && cursor.value() == 8 && cursor.length() == 9;
+    cursor.pop();
+    assert !cursor.isKey() && !cursor.pushCodePoint('x') && cursor.pushCodePoint('語');
+
+    /* Random operations against TreeMap, with short keys over a few byte values */
+    java.util.Random random = new java.util.Random(21);
+    AdaptiveRadixTree<Integer> art = new AdaptiveRadixTree<>();
+    java.util.TreeMap<String, Integer> expected = new java.util.TreeMap<>();
+    for (int op = 0; op < 200_000; op++) {
+      char[] key = new char[random.nextInt(6)];
+      for (int i = 0; i < key.length; i++) {
+        key[i] = (char) ((op & 1) == 0 ? 'a' + random.nextInt(3) : 32 + random.nextInt(90));
+      }
+      String s = new String(key);
+      if (random.nextInt(3) > 0) {
+        assert java.util.Objects.equals(art.put(s, op), expected.put(s, op)) : s;
+      } else {
+        assert java.util.Objects.equals(art.remove(s), expected.remove(s)) : s;
+      }
+    }
+    assert art.size() == expected.size();
+    java.util.Iterator<String> keys = art.keysWithPrefix("").iterator();
+    for (String key : expected.keySet()) {
+      assert keys.next().equals(key);
+    }
+    assert !keys.hasNext();
+    for (String key : new java.util.ArrayList<>(expected.keySet())) {
+      assert art.remove(key).equals(expected.remove(key));
+    }
+    assert art.isEmpty() && art.root == null;
+
+    /* Heap used by a dictionary of random words, against the 26-way trie layout */
+    final int n = 300_000;
+    String[] dictionary = new String[n];
+    for (int i = 0; i < n; i++) {
+      char[] word = new char[4 + random.nextInt(8)];
+      for (int j = 0; j < word.length; j++) {
+        word[j] = (char) ('a' + random.nextInt(26));
+      }
+      dictionary[i] = new String(word);
+    }
+    Runtime runtime = Runtime.getRuntime();
+    System.gc();
+    long before = runtime.totalMemory() - runtime.freeMemory();
+    AdaptiveRadixTree<Boolean> compact = new AdaptiveRadixTree<>();
+    for (String word : dictionary) {
+      compact.put(word, Boolean.TRUE);
+    }
+    System.gc();
+    long artBytes = runtime.totalMemory() - runtime.freeMemory() - before;
+    int[] layouts = compact.census();
+    System.out.printf(
+        "%d words: ~%d MB, Node4 %d, Node16 %d, Node48 %d, Node256 %d, leaves %d%n",
+        compact.size(),
+        artBytes >> 20,
+        layouts[0],
+        layouts[1],
+        layouts[2],
+        layouts[3],
+        layouts[4]);
+    for (String word : dictionary) {
+      assert compact.containsKey(word);
+    }
+  }
+}
@@ -0,0 +1,736 @@
+package DataStructures.Trees;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * In-memory B+ tree mapping primitive {@code long} keys to values.
+ *
+ * <p>{@link AVLTree}, {@link RedBlackBST} and the BST classes store one key per node, so a lookup
+ * follows about log2(n) pointers, each one likely a cache miss on a large tree. A B+ tree stores up
+ * to {@code fanout} keys per node in a sorted {@code long[]} that is binary searched, so with a
+ * fanout of 64 a lookup touches about log64(n) nodes: four levels hold 16 million keys. All values
+ * live in the leaves, which are linked to their neighbours, so a range scan finds its first key and
+ * then reads the leaves sequentially without going back up the tree.
+ *
+ * <p>Nodes other than the root are kept at least half full: inserting into a full node splits it,
+ * and removing from a node at the minimum borrows a key from a sibling or merges with it. {@link
+ * #bulkLoad} builds a tree from sorted keys bottom-up in O(n), with packed leaves.
+ *
+ * <p>This class is not thread-safe.
+ *
+ * <p>https://en.wikipedia.org/wiki/B%2B_tree
+ */
+public class BPlusTree<V> {
+
+  private static final int DEFAULT_FANOUT = 64;
+  private static final int MIN_FANOUT = 4;
+
+  private abstract static class Node {
+    /** Sorted keys; one slot more than the maximum so a node can overflow before it splits */
+    final long[] keys;
+    /** Number of keys */
+    int size;
+
+    Node(int capacity) {
+      keys = new long[capacity];
+    }
+  }
+
+  private static final class Leaf extends Node {
+    final Object[] values;
+    Leaf prev;
+    Leaf next;
+
+    Leaf(int fanout) {
+      super(fanout + 1);
+      values = new Object[fanout + 1];
+    }
+  }
+
+  /** keys[i] is the smallest key that can be found under children[i + 1] */
+  private static final class Inner extends Node {
+    final Node[] children;
+
+    Inner(int fanout) {
+      super(fanout);
+      children = new Node[fanout + 1];
+    }
+  }
+
+  /** Maximum number of keys in a leaf and of children in an inner node */
+  private final int fanout;
+
+  private Node root;
+  /** Leftmost and rightmost leaves */
+  private Leaf head;
+  private Leaf tail;
+  private int size;
+  private int modCount;
+
+  /* Results passed up from the recursive insert and delete */
+  private long splitKey;
+  private Object oldValue;
+  private boolean changed;
+
+  /** Init an empty tree with a fanout of 64 */
+  public BPlusTree() {
+    this(DEFAULT_FANOUT);
+  }
+
+  /** @param fanout maximum number of keys in a leaf and of children in an inner node */
+  public BPlusTree(int fanout) {
+    if (fanout < MIN_FANOUT) {
+      throw new IllegalArgumentException("fanout must be at least " + MIN_FANOUT);
+    }
+    this.fanout = fanout;
+    this.head = this.tail = new Leaf(fanout);
+    this.root = head;
+  }
+
+  /**
+   * Builds a tree from strictly increasing keys in O(n). Leaves are filled completely, which
+   * suits read-mostly indexes; later inserts split them as usual.
+   *
+   * @param keys keys in strictly increasing order
+   * @param values value of each key, or {@code null} to map every key to {@code null}
+   * @param fanout maximum number of keys in a leaf and of children in an inner node
+   */
+  public static <V> BPlusTree<V> bulkLoad(long[] keys, V[] values, int fanout) {
+    if (values != null && values.length != keys.length) {
+      throw new IllegalArgumentException("keys and values differ in length");
+    }
+    for (int i = 1; i < keys.length; i++) {
+      if (keys[i] <= keys[i - 1]) {
+        throw new IllegalArgumentException("keys are not strictly increasing at " + i);
+      }
+    }
+    BPlusTree<V> tree = new BPlusTree<>(fanout);
+    int n = keys.length;
+    if (n == 0) {
+      return tree;
+    }
+    /* Spreading keys evenly keeps every leaf at least half full */
+    int leafCount = (n + fanout - 1) / fanout;
+    Node[] level = new Node[leafCount];
+    long[] firstKeys = new long[leafCount];
+    Leaf previous = null;
+    int from = 0;
+    for (int l = 0; l < leafCount; l++) {
+      int to = (int) ((long) n * (l + 1) / leafCount);
+      Leaf leaf = new Leaf(fanout);
+      System.arraycopy(keys, from, leaf.keys, 0, to - from);
+      if (values != null) {
+        System.arraycopy(values, from, leaf.values, 0, to - from);
+      }
+      leaf.size = to - from;
+      leaf.prev = previous;
+      if (previous != null) {
+        previous.next = leaf;
+      } else {
+        tree.head = leaf;
+      }
+      previous = leaf;
+      level[l] = leaf;
+      firstKeys[l] = keys[from];
+      from = to;
+    }
+    tree.tail = previous;
+    /* Build each level above in place, node p only reads entries at positions >= p */
+    int count = leafCount;
+    while (count > 1) {
+      int parents = (count + fanout - 1) / fanout;
+      int start = 0;
+      for (int p = 0; p < parents; p++) {
+        int end = (int) ((long) count * (p + 1) / parents);
+        Inner inner = new Inner(fanout);
+        for (int c = start; c < end; c++) {
+          inner.children[c - start] = level[c];
+          if (c > start) {
+            inner.keys[c - start - 1] = firstKeys[c];
+          }
+        }
+        inner.size = end - start - 1;
+        level[p] = inner;
+        firstKeys[p] = firstKeys[start];
+        start = end;
+      }
+      count = parents;
+    }
+    tree.root = level[0];
+    tree.size = n;
+    return tree;
+  }
+
+  /** @return the value of {@code key}, or {@code null} if it is absent */
+  @SuppressWarnings("unchecked")
+  public V get(long key) {
+    Leaf leaf = findLeaf(key);
+    int i = Arrays.binarySearch(leaf.keys, 0, leaf.size, key);
+    return i >= 0 ? (V) leaf.values[i] : null;
+  }
+
+  public boolean containsKey(long key) {
+    Leaf leaf = findLeaf(key);
+    return Arrays.binarySearch(leaf.keys, 0, leaf.size, key) >= 0;
+  }
+
+  /**
+   * Maps {@code key} to {@code value}
+   *
+   * @return the previous value of {@code key}, or {@code null} if it was absent
+   */
+  @SuppressWarnings("unchecked")
+  public V put(long key, V value) {
+    Node sibling = insert(root, key, value);
+    if (sibling != null) {
+      Inner newRoot = new Inner(fanout);
+      newRoot.keys[0] = splitKey;
+      newRoot.children[0] = root;
+      newRoot.children[1] = sibling;
+      newRoot.size = 1;
+      root = newRoot;
+    }
+    if (changed) {
+      size++;
+      modCount++;
+    }
+    V previous = (V) oldValue;
+    oldValue = null;
+    return previous;
+  }
+
+  /**
+   * Removes {@code key}
+   *
+   * @return the value it had, or {@code null} if it was absent
+   */
+  @SuppressWarnings("unchecked")
+  public V remove(long key) {
+    changed = false;
+    delete(root, key);
+    if (!changed) {
+      return null;
+    }
+    size--;
+    modCount++;
+    if (root instanceof Inner && root.size == 0) {
+      root = ((Inner) root).children[0];
+    }
+    V previous = (V) oldValue;
+    oldValue = null;
+    return previous;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /** @return number of levels, 1 for a tree that is a single leaf */
+  public int height() {
+    int height = 1;
+    for (Node node = root; node instanceof Inner; node = ((Inner) node).children[0]) {
+      height++;
+    }
+    return height;
+  }
+
+  /** @throws NoSuchElementException if the tree is empty */
+  public long firstKey() {
+    if (size == 0) {
+      throw new NoSuchElementException("tree is empty");
+    }
+    return head.keys[0];
+  }
+
+  /** @throws NoSuchElementException if the tree is empty */
+  public long lastKey() {
+    if (size == 0) {
+      throw new NoSuchElementException("tree is empty");
+    }
+    return tail.keys[tail.size - 1];
+  }
+
+  /**
+   * Calls {@code action} with every entry whose key is in {@code [from, to)}, in key order
+   *
+   * @return number of entries visited
+   */
+  @SuppressWarnings("unchecked")
+  public int scan(long from, long to, ObjLongConsumer<? super V> action) {
+    Leaf leaf = findLeaf(from);
+    int i = lowerBound(leaf, from);
+    int count = 0;
+    while (leaf != null) {
+      for (; i < leaf.size; i++) {
+        long key = leaf.keys[i];
+        if (key >= to) {
+          return count;
+        }
+        action.accept((V) leaf.values[i], key);
+        count++;
+      }
+      leaf = leaf.next;
+      i = 0;
+    }
+    return count;
+  }
+
+  /** @return a cursor before the first entry */
+  public Cursor cursor() {
+    return new Cursor().seekFirst();
+  }
+
+  /** @return a cursor before the first entry whose key is at least {@code from} */
+  public Cursor cursor(long from) {
+    return new Cursor().seek(from);
+  }
+
+  /**
+   * Position in the leaf chain. A cursor can be moved with {@link #seek(long)} and reused for any
+   * number of scans without allocating.
+   *
+   * <pre>
+   * for (Cursor c = tree.cursor(from); c.next() &amp;&amp; c.key() &lt; to; ) { ... c.value() ... }
+   * </pre>
+   */
+  public final class Cursor {
+    private Leaf leaf;
+    private int index;
+    private long key;
+    private Object value;
+    private int expectedModCount;
+
+    private Cursor() {}
+
+    /** Moves before the first entry */
+    public Cursor seekFirst() {
+      leaf = head;
+      index = 0;
+      expectedModCount = modCount;
+      return this;
+    }
+
+    /** Moves before the first entry whose key is at least {@code from} */
+    public Cursor seek(long from) {
+      leaf = findLeaf(from);
+      index = lowerBound(leaf, from);
+      expectedModCount = modCount;
+      return this;
+    }
+
+    /**
+     * Moves to the next entry
+     *
+     * @return <tt>false</tt> if there is none
+     * @throws ConcurrentModificationException if keys were added or removed since the last seek
+     */
+    public boolean next() {
+      if (expectedModCount != modCount) {
+        throw new ConcurrentModificationException();
+      }
+      while (leaf != null && index >= leaf.size) {
+        leaf = leaf.next;
+        index = 0;
+      }
+      if (leaf == null) {
+        return false;
+      }
+      key = leaf.keys[index];
+      value = leaf.values[index++];
+      return true;
+    }
+
+    /** @return key of the current entry */
+    public long key() {
+      return key;
+    }
+
+    /** @return value of the current entry */
+    @SuppressWarnings("unchecked")
+    public V value() {
+      return (V) value;
+    }
+  }
+
+  private Leaf findLeaf(long key) {
+    Node node = root;
+    while (node instanceof Inner) {
+      Inner inner = (Inner) node;
+      node = inner.children[childIndex(inner, key)];
+    }
+    return (Leaf) node;
+  }
+
+  /** @return index of the child of {@code inner} that may hold {@code key} */
+  private static int childIndex(Inner inner, long key) {
+    int low = 0;
+    int high = inner.size;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (inner.keys[mid] <= key) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /** @return index of the first key of {@code leaf} not less than {@code key} */
+  private static int lowerBound(Leaf leaf, long key) {
+    int i = Arrays.binarySearch(leaf.keys, 0, leaf.size, key);
+    return i >= 0 ? i : -i - 1;
+  }
+
+  /** Minimum number of keys of a node other than the root */
+  private int minKeys(Node node) {
+    return node instanceof Leaf ? fanout / 2 : fanout / 2 - 1;
+  }
+
+  /** @return the new right sibling if {@code node} was split, with its first key in splitKey */
+  private Node insert(Node node, long key, Object value) {
+    if (node instanceof Leaf) {
+      Leaf leaf = (Leaf) node;
+      int i = Arrays.binarySearch(leaf.keys, 0, leaf.size, key);
+      if (i >= 0) {
+        oldValue = leaf.values[i];
+        leaf.values[i] = value;
+        changed = false;
+        return null;
+      }
+      i = -i - 1;
+      System.arraycopy(leaf.keys, i, leaf.keys, i + 1, leaf.size - i);
+      System.arraycopy(leaf.values, i, leaf.values, i + 1, leaf.size - i);
+      leaf.keys[i] = key;
+      leaf.values[i] = value;
+      leaf.size++;
+      oldValue = null;
+      changed = true;
+      return leaf.size > fanout ? splitLeaf(leaf) : null;
+    }
+    Inner inner = (Inner) node;
+    int c = childIndex(inner, key);
+    Node sibling = insert(inner.children[c], key, value);
+    if (sibling == null) {
+      return null;
+    }
+    System.arraycopy(inner.keys, c, inner.keys, c + 1, inner.size - c);
+    System.arraycopy(inner.children, c + 1, inner.children, c + 2, inner.size - c);
+    inner.keys[c] = splitKey;
+    inner.children[c + 1] = sibling;
+    inner.size++;
+    return inner.size >= fanout ? splitInner(inner) : null;
+  }
+
+  private Leaf splitLeaf(Leaf leaf) {
+    Leaf right = new Leaf(fanout);
+    int leftSize = (leaf.size + 1) / 2;
+    int rightSize = leaf.size - leftSize;
+    System.arraycopy(leaf.keys, leftSize, right.keys, 0, rightSize);
+    System.arraycopy(leaf.values, leftSize, right.values, 0, rightSize);
+    Arrays.fill(leaf.values, leftSize, leaf.size, null);
+    leaf.size = leftSize;
+    right.size = rightSize;
+    right.next = leaf.next;
+    if (right.next != null) {
+      right.next.prev = right;
+    } else {
+      tail = right;
+    }
+    right.prev = leaf;
+    leaf.next = right;
+    splitKey = right.keys[0];
+    return right;
+  }
+
+  /** The middle key moves up to the parent rather than being copied as in a leaf split */
+  private Inner splitInner(Inner inner) {
+    Inner right = new Inner(fanout);
+    int leftChildren = (inner.size + 2) / 2;
+    int rightChildren = inner.size + 1 - leftChildren;
+    splitKey = inner.keys[leftChildren - 1];
+    System.arraycopy(inner.keys, leftChildren, right.keys, 0, rightChildren - 1);
+    System.arraycopy(inner.children, leftChildren, right.children, 0, rightChildren);
+    Arrays.fill(inner.children, leftChildren, inner.size + 1, null);
+    right.size = rightChildren - 1;
+    inner.size = leftChildren - 1;
+    return right;
+  }
+
+  private void delete(Node node, long key) {
+    if (node instanceof Leaf) {
+      Leaf leaf = (Leaf) node;
+      int i = Arrays.binarySearch(leaf.keys, 0, leaf.size, key);
+      if (i < 0) {
+        return;
+      }
+      oldValue = leaf.values[i];
+      System.arraycopy(leaf.keys, i + 1, leaf.keys, i, leaf.size - i - 1);
+      System.arraycopy(leaf.values, i + 1, leaf.values, i, leaf.size - i - 1);
+      leaf.values[--leaf.size] = null;
+      changed = true;
+      return;
+    }
+    Inner inner = (Inner) node;
+    int c = childIndex(inner, key);
+    Node child = inner.children[c];
+    delete(child, key);
+    if (changed && child.size < minKeys(child)) {
+      fixUnderflow(inner, c);
+    }
+  }
+
+  /** Refills the child {@code c} of {@code parent} from a sibling, or merges it with one */
+  private void fixUnderflow(Inner parent, int c) {
+    if (c > 0 && parent.children[c - 1].size > minKeys(parent.children[c - 1])) {
+      borrowFromLeft(parent, c);
+    } else if (c < parent.size && parent.children[c + 1].size > minKeys(parent.children[c + 1])) {
+      borrowFromRight(parent, c);
+    } else if (c > 0) {
+      merge(parent, c - 1);
+    } else {
+      merge(parent, c);
+    }
+  }
+
+  private void borrowFromLeft(Inner parent, int c) {
+    Node child = parent.children[c];
+    Node left = parent.children[c - 1];
+    System.arraycopy(child.keys, 0, child.keys, 1, child.size);
+    if (child instanceof Leaf) {
+      Leaf leaf = (Leaf) child;
+      Leaf from = (Leaf) left;
+      System.arraycopy(leaf.values, 0, leaf.values, 1, leaf.size);
+      leaf.keys[0] = from.keys[from.size - 1];
+      leaf.values[0] = from.values[from.size - 1];
+      from.values[from.size - 1] = null;
+      parent.keys[c - 1] = leaf.keys[0];
+    } else {
+      Inner inner = (Inner) child;
+      Inner from = (Inner) left;
+      System.arraycopy(inner.children, 0, inner.children, 1, inner.size + 1);
+      inner.keys[0] = parent.keys[c - 1];
+      inner.children[0] = from.children[from.size];
+      from.children[from.size] = null;
+      parent.keys[c - 1] = from.keys[from.size - 1];
+    }
+    left.size--;
+    child.size++;
+  }
+
+  private void borrowFromRight(Inner parent, int c) {
+    Node child = parent.children[c];
+    Node right = parent.children[c + 1];
+    if (child instanceof Leaf) {
+      Leaf leaf = (Leaf) child;
+      Leaf from = (Leaf) right;
+      leaf.keys[leaf.size] = from.keys[0];
+      leaf.values[leaf.size] = from.values[0];
+      System.arraycopy(from.values, 1, from.values, 0, from.size - 1);
+      from.values[from.size - 1] = null;
+      System.arraycopy(from.keys, 1, from.keys, 0, from.size - 1);
+      parent.keys[c] = from.keys[0];
+    } else {
+      Inner inner = (Inner) child;
+      Inner from = (Inner) right;
+      inner.keys[inner.size] = parent.keys[c];
+      inner.children[inner.size + 1] = from.children[0];
+      parent.keys[c] = from.keys[0];
+      System.arraycopy(from.keys, 1, from.keys, 0, from.size - 1);
+      System.arraycopy(from.children, 1, from.children, 0, from.size);
+      from.children[from.size] = null;
+    }
+    right.size--;
+    child.size++;
+  }
+
+  /** Moves the child {@code i + 1} of {@code parent} into the child {@code i} */
+  private void merge(Inner parent, int i) {
+    Node left = parent.children[i];
+    Node right = parent.children[i + 1];
+    if (left instanceof Leaf) {
+      Leaf into = (Leaf) left;
+      Leaf from = (Leaf) right;
+      System.arraycopy(from.keys, 0, into.keys, into.size, from.size);
+      System.arraycopy(from.values, 0, into.values, into.size, from.size);
+      into.size += from.size;
+      into.next = from.next;
+      if (into.next != null) {
+        into.next.prev = into;
+      } else {
+        tail = into;
+      }
+    } else {
+      Inner into = (Inner) left;
+      Inner from = (Inner) right;
+      into.keys[into.size] = parent.keys[i];
+      System.arraycopy(from.keys, 0, into.keys, into.size + 1, from.size);
+      System.arraycopy(from.children, 0, into.children, into.size + 1, from.size + 1);
+      into.size += from.size + 1;
+    }
+    System.arraycopy(parent.keys, i + 1, parent.keys, i, parent.size - i - 1);
+    System.arraycopy(parent.children, i + 2, parent.children, i + 1, parent.size - i - 1);
+    parent.children[parent.size] = null;
+    parent.size--;
+  }
+
+  /** Checks ordering, fill and leaf links, returning the number of keys */
+  private int check() {
+    int keys = check(root, Long.MIN_VALUE, Long.MAX_VALUE, true, height());
+    int linked = 0;
+    Leaf previous = null;
+    for (Leaf leaf = head; leaf != null; leaf = leaf.next) {
+      assert leaf.prev == previous;
+      if (previous != null && previous.size > 0) {
+        assert previous.keys[previous.size - 1] < leaf.keys[0];
+      }
+      linked += leaf.size;
+      previous = leaf;
+    }
+    assert previous == tail && linked == keys && keys == size;
+    return keys;
+  }
+
+  private int check(Node node, long low, long high, boolean isRoot, int depth) {
+    assert isRoot || node.size >= minKeys(node) : "underfull node";
+    for (int i = 0; i < node.size; i++) {
+      assert node.keys[i] >= low && node.keys[i] < high;
+      assert i == 0 || node.keys[i - 1] < node.keys[i];
+    }
+    if (node instanceof Leaf) {
+      assert depth == 1 : "leaves at different depths";
+      return node.size;
+    }
+    Inner inner = (Inner) node;
+    assert inner.size >= 1 && inner.size < fanout;
+    int keys = 0;
+    for (int i = 0; i <= inner.size; i++) {
+      long childLow = i == 0 ? low : inner.keys[i - 1];
+      long childHigh = i == inner.size ? high : inner.keys[i];
+      keys += check(inner.children[i], childLow, childHigh, false, depth - 1);
+    }
+    return keys;
+  }
+
+  /* Driver Code */
+  public static void main(String[] args) {
+    java.util.Random random = new java.util.Random(17);
+
+    /* Random operations against TreeMap, with a small fanout to exercise splits and merges */
+    for (int fanout : new int[] {4, 5, 64}) {
+      BPlusTree<Long> tree = new BPlusTree<>(fanout);
+      java.util.TreeMap<Long, Long> expected = new java.util.TreeMap<>();
+      for (int op = 0; op < 200_000; op++) {
+        long key = random.nextInt(5_000);
+        if (random.nextInt(3) > 0) {
+          assert java.util.Objects.equals(tree.put(key, (long) op), expected.put(key, (long) op));
+        } else {
+          assert java.util.Objects.equals(tree.remove(key), expected.remove(key));
+        }
+        if (op % 10_000 == 0) {
+          assert tree.check() == expected.size();
+        }
+      }
+      assert tree.check() == expected.size();
+      assert tree.firstKey() == expected.firstKey() && tree.lastKey() == expected.lastKey();
+      long[] visited = new long[1];
+      int count =
+          tree.scan(
+              1_000,
+              2_000,
+              (value, key) -> {
+                assert value.equals(expected.get(key));
+                visited[0] += key;
+              });
+      assert count == expected.subMap(1_000L, 2_000L).size();
+      assert visited[0]
+          == expected.subMap(1_000L, 2_000L).keySet().stream().mapToLong(k -> k).sum();
+      for (long key : new java.util.ArrayList<>(expected.keySet())) {
+        assert tree.remove(key).equals(expected.remove(key));
+      }
+      assert tree.check() == 0 && tree.height() == 1;
+    }
+
+    /* Bulk load, then keep updating the packed tree */
+    final int n = 1_000_000;
+    long[] keys = new long[n];
+    Long[] values = new Long[n];
+    for (int i = 0; i < n; i++) {
+      keys[i] = 3L * i;
+      values[i] = keys[i];
+    }
+    BPlusTree<Long> tree = bulkLoad(keys, values, DEFAULT_FANOUT);
+    assert tree.check() == n && tree.height() == 4;
+    for (int i = 0; i < 1000; i++) {
+      tree.put(3L * random.nextInt(n) + 1, null);
+      tree.remove(3L * random.nextInt(n));
+    }
+    tree.check();
+
+    long sum = 0;
+    BPlusTree<Long>.Cursor cursor = tree.cursor(300);
+    for (int i = 0; i < 5 && cursor.next(); i++) {
+      sum += cursor.key();
+    }
+    assert sum > 0;
+
+    /* Point lookups and range scans against TreeMap */
+    BPlusTree<Long> packed = bulkLoad(keys, values, DEFAULT_FANOUT);
+    java.util.TreeMap<Long, Long> map = new java.util.TreeMap<>();
+    for (int i = 0; i < n; i++) {
+      map.put(keys[i], values[i]);
+    }
+    long[] probes = new long[n];
+    for (int i = 0; i < n; i++) {
+      probes[i] = 3L * random.nextInt(n);
+    }
+    long start = System.nanoTime();
+    for (long probe : probes) {
+      sum += packed.get(probe);
+    }
+    long treeNanos = System.nanoTime() - start;
+    start = System.nanoTime();
+    for (long probe : probes) {
+      sum += map.get(probe);
+    }
+    long mapNanos = System.nanoTime() - start;
+    System.out.println(
+        "1M lookups: B+ tree "
+            + treeNanos / 1_000_000
+            + " ms, TreeMap "
+            + mapNanos / 1_000_000
+            + " ms");
+
+    start = System.nanoTime();
+    for (int i = 0; i < 1000; i++) {
+      long from = probes[i];
+      for (BPlusTree<Long>.Cursor c = packed.cursor(from); c.next() && c.key() < from + 3000; ) {
+        sum += c.value();
+      }
+    }
+    treeNanos = System.nanoTime() - start;
+    start = System.nanoTime();
+    for (int i = 0; i < 1000; i++) {
+      long from = probes[i];
+      for (Long value : map.subMap(from, from + 3000).values()) {
+        sum += value;
+      }
+    }
+    mapNanos = System.nanoTime() - start;
+    System.out.println(
+        "1000 scans of 1000 keys: B+ tree "
+            + treeNanos / 1_000_000
+            + " ms, TreeMap "
+            + mapNanos / 1_000_000
+            + " ms (checksum "
+            + sum
+            + ")");
+  }
+}
@@ -9,12 +9,17 @@
  *
  * @author [Lakhan Nad](https://github.com/Lakhan-Nad)
  */
-import java.util.Stack;
+import DataStructures.Trees.BinaryTreeWalker;
+import java.util.function.IntPredicate;
 
 public class BSTIterative {
   /** Reference for the node of BST. */
   private Node root;
 
+  /** Walks the tree, reusing its stack between traversals */
+  private final BinaryTreeWalker<Node> walker =
+      new BinaryTreeWalker<>(node -> node.left, node -> node.right);
+
   /** Default Constructor Initializes the root of BST with null. */
   BSTIterative() {
     root = null;
@@ -40,6 +45,16 @@ public class BSTIterative {
        3 9 30 40
     */
     tree.inorder();
+    StringBuilder values = new StringBuilder();
+    assert tree.morrisInorder(v -> values.append(v).append(' ') != null);
+    assert values.toString().equals("3 9 30 40 ");
+    int[] last = {0};
+    assert !tree.levelorder(v -> (last[0] = v) != 9) && last[0] == 9;
+    assert tree.inorder(v -> v > 0) && !tree.postorder(v -> v < 40);
+    tree.buildFromSorted(new int[] {1, 2, 3, 4, 5, 6, 7});
+    StringBuilder levels = new StringBuilder();
+    tree.levelorder(v -> levels.append(v) != null);
+    assert levels.toString().equals("4261357");
   }
 
   /**
@@ -171,6 +186,33 @@ public class BSTIterative {
     }
   }
 
+  /**
+   * Replaces the content of the BST by the given values in O(n). Adding sorted values one by one
+   * costs O(n^2) and degenerates the tree into a list; here the middle value becomes the root and
+   * each half is built the same way, so the tree is balanced. The recursion is only O(log n) deep.
+   *
+   * @param sorted the values in strictly increasing order
+   */
+  public void buildFromSorted(int[] sorted) {
+    for (int i = 1; i < sorted.length; i++) {
+      if (sorted[i - 1] >= sorted[i]) {
+        throw new IllegalArgumentException("values are not strictly increasing at " + i);
+      }
+    }
+    this.root = build(sorted, 0, sorted.length);
+  }
+
+  private static Node build(int[] sorted, int from, int to) {
+    if (from == to) {
+      return null;
+    }
+    int mid = (from + to - 1) >>> 1;
+    Node node = new Node(sorted[mid]);
+    node.left = build(sorted, from, mid);
+    node.right = build(sorted, mid + 1, to);
+    return node;
+  }
+
   /** A method for inorder traversal of BST. */
   public void inorder() {
     if (this.root == null) {
@@ -178,17 +220,7 @@ public class BSTIterative {
       return;
     }
     System.out.println("Inorder traversal of this tree is:");
-    Stack<Node> st = new Stack<Node>();
-    Node cur = this.root;
-    while (cur != null || !st.empty()) {
-      while (cur != null) {
-        st.push(cur);
-        cur = cur.left;
-      }
-      cur = st.pop();
-      System.out.print(cur.data + " ");
-      cur = cur.right;
-    }
+    inorder(BSTIterative::print);
     System.out.println(); // for next line
   }
 
@@ -199,26 +231,7 @@ public class BSTIterative {
       return;
     }
     System.out.println("Postorder traversal of this tree is:");
-    Stack<Node> st = new Stack<Node>();
-    Node cur = this.root, temp2;
-    while (cur != null || !st.empty()) {
-      if (cur != null) {
-        st.push(cur);
-        cur = cur.left;
-      } else {
-        temp2 = st.peek();
-        if (temp2.right != null) {
-          cur = temp2.right;
-        } else {
-          st.pop();
-          while (!st.empty() && st.peek().right == temp2) {
-            System.out.print(temp2.data + " ");
-            temp2 = st.pop();
-          }
-          System.out.print(temp2.data + " ");
-        }
-      }
-    }
+    postorder(BSTIterative::print);
     System.out.println(); // for next line
   }
 
@@ -229,22 +242,67 @@ public class BSTIterative {
       return;
     }
     System.out.println("Preorder traversal of this tree is:");
-    Stack<Node> st = new Stack<Node>();
-    st.push(this.root);
-    Node temp;
-    while (!st.empty()) {
-      temp = st.pop();
-      System.out.print(temp.data + " ");
-      if (temp.right != null) {
-        st.push(temp.right);
-      }
-      if (temp.left != null) {
-        st.push(temp.left);
-      }
-    }
+    preorder(BSTIterative::print);
     System.out.println(); // for next line
   }
 
+  private static boolean print(int data) {
+    System.out.print(data + " ");
+    return true;
+  }
+
+  /**
+   * Visits the values in increasing order, with an explicit stack reused between traversals.
+   *
+   * @param visitor returns false to stop the traversal
+   * @return true if every value was visited
+   */
+  public boolean inorder(IntPredicate visitor) {
+    return walker.inOrder(root, node -> visitor.test(node.data));
+  }
+
+  /**
+   * Visits each value before the values of its subtrees.
+   *
+   * @param visitor returns false to stop the traversal
+   * @return true if every value was visited
+   */
+  public boolean preorder(IntPredicate visitor) {
+    return walker.preOrder(root, node -> visitor.test(node.data));
+  }
+
+  /**
+   * Visits each value after the values of its subtrees.
+   *
+   * @param visitor returns false to stop the traversal
+   * @return true if every value was visited
+   */
+  public boolean postorder(IntPredicate visitor) {
+    return walker.postOrder(root, node -> visitor.test(node.data));
+  }
+
+  /**
+   * Visits the values level by level.
+   *
+   * @param visitor returns false to stop the traversal
+   * @return true if every value was visited
+   */
+  public boolean levelorder(IntPredicate visitor) {
+    return walker.levelOrder(root, node -> visitor.test(node.data));
+  }
+
+  /**
+   * Visits the values in increasing order in O(1) extra space (Morris traversal). The right links
+   * of the tree are temporarily rewired and restored before returning.
+   *
+   * @param visitor returns false to stop the traversal
+   * @return true if every value was visited
+   */
+  public boolean morrisInorder(IntPredicate visitor) {
+    return walker.morrisInOrder(
+        root, (node, right) -> node.right = right, node -> visitor.test(node.data));
+  }
+
   /**
    * A method to check if given data exists in out Binary Search Tree.
    *
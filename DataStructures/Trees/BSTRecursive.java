@@ -1,3 +1,6 @@
+import DataStructures.Trees.BinaryTreeWalker;
+import java.util.function.IntPredicate;
+
 /**
  *
  *
@@ -17,6 +20,10 @@ public class BSTRecursive {
   /** only data member is root of BST */
   private Node root;
 
+  /** Walks the tree without recursion, reusing its stack */
+  private final BinaryTreeWalker<Node> walker =
+      new BinaryTreeWalker<>(node -> node.left, node -> node.right);
+
   /** Constructor use to initialize node as null */
   BSTRecursive() {
     root = null;
@@ -101,57 +108,36 @@ public class BSTRecursive {
   }
 
   /**
-   * Recursively print Preorder traversal of the BST
+   * Print Preorder traversal of the BST. The traversals use an explicit stack rather than
+   * recursion, so they also work on trees degenerated into long chains by sorted insertions.
    *
    * @param node the root node
    */
   private void preOrder(Node node) {
-    if (node == null) {
-      return;
-    }
-    System.out.print(node.data + " ");
-    if (node.left != null) {
-      preOrder(node.left);
-    }
-    if (node.right != null) {
-      preOrder(node.right);
-    }
+    walker.preOrder(node, BSTRecursive::print);
   }
 
   /**
-   * Recursively print Postorder travesal of BST.
+   * Print Postorder travesal of BST.
    *
    * @param node the root node
    */
   private void postOrder(Node node) {
-    if (node == null) {
-      return;
-    }
-    if (node.left != null) {
-      postOrder(node.left);
-    }
-    if (node.right != null) {
-      postOrder(node.right);
-    }
-    System.out.print(node.data + " ");
+    walker.postOrder(node, BSTRecursive::print);
   }
 
   /**
-   * Recursively print Inorder traversal of BST.
+   * Print Inorder traversal of BST.
    *
    * @param node the root node
    */
   private void inOrder(Node node) {
-    if (node == null) {
-      return;
-    }
-    if (node.left != null) {
-      inOrder(node.left);
-    }
+    walker.inOrder(node, BSTRecursive::print);
+  }
+
+  private static boolean print(Node node) {
     System.out.print(node.data + " ");
-    if (node.right != null) {
-      inOrder(node.right);
-    }
+    return true;
   }
 
   /**
@@ -212,6 +198,46 @@ public class BSTRecursive {
     System.out.println(); // for next li
   }
 
+  /**
+   * Visits the values in increasing order.
+   *
+   * @param visitor returns false to stop the traversal
+   * @return true if every value was visited
+   */
+  public boolean inorder(IntPredicate visitor) {
+    return walker.inOrder(root, node -> visitor.test(node.data));
+  }
+
+  /**
+   * Visits each value before the values of its subtrees.
+   *
+   * @param visitor returns false to stop the traversal
+   * @return true if every value was visited
+   */
+  public boolean preorder(IntPredicate visitor) {
+    return walker.preOrder(root, node -> visitor.test(node.data));
+  }
+
+  /**
+   * Visits each value after the values of its subtrees.
+   *
+   * @param visitor returns false to stop the traversal
+   * @return true if every value was visited
+   */
+  public boolean postorder(IntPredicate visitor) {
+    return walker.postOrder(root, node -> visitor.test(node.data));
+  }
+
+  /**
+   * Visits the values level by level.
+   *
+   * @param visitor returns false to stop the traversal
+   * @return true if every value was visited
+   */
+  public boolean levelorder(IntPredicate visitor) {
+    return walker.levelOrder(root, node -> visitor.test(node.data));
+  }
+
   /**
    * To check if given value is present in tree or not.
    *
@@ -44,6 +44,9 @@ public class BinaryTree {
 
   /** The root of the Binary Tree */
   private Node root;
+  /** Walks the tree for the traversals, reusing its stack */
+  private final BinaryTreeWalker<Node> walker =
+      new BinaryTreeWalker<>(node -> node.left, node -> node.right);
 
   /** Constructor */
   public BinaryTree() {
@@ -218,17 +221,73 @@ public class BinaryTree {
     return root;
   }
 
+  /**
+   * Returns the walker over the nodes of this tree. It keeps its stack from one traversal to the
+   * next, so reusing it saves allocations, and it never recurses, so degenerate trees do not
+   * overflow the stack.
+   *
+   * @return the walker of this tree, shared by its traversals
+   */
+  public BinaryTreeWalker<Node> walker() {
+    return walker;
+  }
+
+  /**
+   * Visits leftChild - root - rightChild until the visitor returns false
+   *
+   * @param localRoot The local root of the binary tree
+   * @param visitor Receives the nodes
+   * @return true if every node was visited
+   */
+  public boolean inOrder(Node localRoot, BinaryTreeWalker.Visitor<? super Node> visitor) {
+    return walker.inOrder(localRoot, visitor);
+  }
+
+  /**
+   * Visits root - leftChild - rightChild until the visitor returns false
+   *
+   * @param localRoot The local root of the binary tree
+   * @param visitor Receives the nodes
+   * @return true if every node was visited
+   */
+  public boolean preOrder(Node localRoot, BinaryTreeWalker.Visitor<? super Node> visitor) {
+    return walker.preOrder(localRoot, visitor);
+  }
+
+  /**
+   * Visits leftChild - rightChild - root until the visitor returns false
+   *
+   * @param localRoot The local root of the binary tree
+   * @param visitor Receives the nodes
+   * @return true if every node was visited
+   */
+  public boolean postOrder(Node localRoot, BinaryTreeWalker.Visitor<? super Node> visitor) {
+    return walker.postOrder(localRoot, visitor);
+  }
+
+  /**
+   * Visits the nodes level by level until the visitor returns false
+   *
+   * @param localRoot The local root of the binary tree
+   * @param visitor Receives the nodes
+   * @return true if every node was visited
+   */
+  public boolean levelOrder(Node localRoot, BinaryTreeWalker.Visitor<? super Node> visitor) {
+    return walker.levelOrder(localRoot, visitor);
+  }
+
+  private static boolean print(Node node) {
+    System.out.print(node.data + " ");
+    return true;
+  }
+
   /**
    * Prints leftChild - root - rightChild
    *
    * @param localRoot The local root of the binary tree
    */
   public void inOrder(Node localRoot) {
-    if (localRoot != null) {
-      inOrder(localRoot.left);
-      System.out.print(localRoot.data + " ");
-      inOrder(localRoot.right);
-    }
+    inOrder(localRoot, BinaryTree::print);
   }
 
   /**
@@ -237,23 +296,15 @@ public class BinaryTree {
    * @param localRoot The local root of the binary tree
    */
   public void preOrder(Node localRoot) {
-    if (localRoot != null) {
-      System.out.print(localRoot.data + " ");
-      preOrder(localRoot.left);
-      preOrder(localRoot.right);
-    }
+    preOrder(localRoot, BinaryTree::print);
   }
 
   /**
-   * Prints rightChild - leftChild - root
+   * Prints leftChild - rightChild - root
    *
    * @param localRoot The local root of the binary tree
    */
   public void postOrder(Node localRoot) {
-    if (localRoot != null) {
-      postOrder(localRoot.left);
-      postOrder(localRoot.right);
-      System.out.print(localRoot.data + " ");
-    }
+    postOrder(localRoot, BinaryTree::print);
   }
 }
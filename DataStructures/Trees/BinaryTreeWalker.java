@@ -0,0 +1,545 @@
+package DataStructures.Trees;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Pre-order, in-order, post-order and level-order traversals of any binary tree, without
+ * recursion, so that degenerate trees millions of levels deep do not overflow the call stack.
+ *
+ * <p>The walker only needs functions giving the children of a node. Depth-first traversals use an
+ * explicit stack and level order a circular queue, both arrays kept by the walker and reused from
+ * one traversal to the next, so a warmed-up walker does not allocate. When the nodes also know
+ * their parent, {@link #withParents} gives a walker that needs no stack at all: it climbs back up
+ * the parent links instead, and its depth-first traversals keep no state, so they can run
+ * concurrently on a tree that no one modifies. {@link #morrisInOrder} is an O(1) space in-order
+ * traversal for trees without parent links, which temporarily threads right links to successors
+ * and restores them.
+ *
+ * <p>Every traversal reports the nodes to a {@link Visitor}, which returns <tt>false</tt> to stop
+ * it. Apart from those, walkers are not thread-safe; use one per thread.
+ *
+ * <p>https://en.wikipedia.org/wiki/Tree_traversal
+ */
+public final class BinaryTreeWalker<N> {
+
+  /** Receives the nodes of a traversal */
+  @FunctionalInterface
+  public interface Visitor<N> {
+    /** @return <tt>false</tt> to stop the traversal */
+    boolean visit(N node);
+  }
+
+  private static final int DEFAULT_CAPACITY = 64;
+
+  private final UnaryOperator<N> left;
+  private final UnaryOperator<N> right;
+  private final UnaryOperator<N> parent;
+  /**
+   * Stack of the depth-first traversals, or circular queue of the level-order one. Walkers with
+   * parent links only allocate it for level order.
+   */
+  private Object[] nodes;
+
+  /**
+   * @param left gives the left child of a node, or null
+   * @param right gives the right child of a node, or null
+   */
+  public BinaryTreeWalker(UnaryOperator<N> left, UnaryOperator<N> right) {
+    this(left, right, null);
+  }
+
+  private BinaryTreeWalker(
+      UnaryOperator<N> left, UnaryOperator<N> right, UnaryOperator<N> parent) {
+    this.left = left;
+    this.right = right;
+    this.parent = parent;
+    this.nodes = parent == null ? new Object[DEFAULT_CAPACITY] : null;
+  }
+
+  /**
+   * Walker whose depth-first traversals climb back through parent links instead of keeping a stack
+   *
+   * @param parent gives the parent of a node, or null for the root of the whole tree
+   */
+  public static <N> BinaryTreeWalker<N> withParents(
+      UnaryOperator<N> left, UnaryOperator<N> right, UnaryOperator<N> parent) {
+    return new BinaryTreeWalker<>(left, right, parent);
+  }
+
+  /**
+   * Visits {@code root}, then its left subtree, then its right subtree
+   *
+   * @return <tt>true</tt> if every node was visited, <tt>false</tt> if the visitor stopped
+   */
+  public boolean preOrder(N root, Visitor<? super N> visitor) {
+    if (root == null) {
+      return true;
+    }
+    if (parent != null) {
+      return preOrderByParents(root, visitor);
+    }
+    int top = 0;
+    nodes[top++] = root;
+    while (top > 0) {
+      N node = pop(--top);
+      if (!visitor.visit(node)) {
+        return abort(top);
+      }
+      N r = right.apply(node);
+      if (r != null) {
+        top = push(top, r);
+      }
+      N l = left.apply(node);
+      if (l != null) {
+        top = push(top, l);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Visits the left subtree of {@code root}, then {@code root}, then its right subtree
+   *
+   * @return <tt>true</tt> if every node was visited, <tt>false</tt> if the visitor stopped
+   */
+  public boolean inOrder(N root, Visitor<? super N> visitor) {
+    if (root == null) {
+      return true;
+    }
+    if (parent != null) {
+      return inOrderByParents(root, visitor);
+    }
+    int top = 0;
+    N node = root;
+    while (node != null || top > 0) {
+      for (; node != null; node = left.apply(node)) {
+        top = push(top, node);
+      }
+      node = pop(--top);
+      if (!visitor.visit(node)) {
+        return abort(top);
+      }
+      node = right.apply(node);
+    }
+    return true;
+  }
+
+  /**
+   * Visits the left subtree of {@code root}, then its right subtree, then {@code root}
+   *
+   * @return <tt>true</tt> if every node was visited, <tt>false</tt> if the visitor stopped
+   */
+  public boolean postOrder(N root, Visitor<? super N> visitor) {
+    if (root == null) {
+      return true;
+    }
+    if (parent != null) {
+      return postOrderByParents(root, visitor);
+    }
+    int top = 0;
+    N node = root;
+    N last = null;
+    while (node != null || top > 0) {
+      if (node != null) {
+        top = push(top, node);
+        node = left.apply(node);
+        continue;
+      }
+      @SuppressWarnings("unchecked")
+      N peek = (N) nodes[top - 1];
+      N r = right.apply(peek);
+      if (r != null && r != last) {
+        node = r;
+      } else {
+        if (!visitor.visit(peek)) {
+          return abort(top);
+        }
+        last = pop(--top);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Visits the nodes level by level from {@code root}, each level from left to right. The queue
+   * holds at most two levels.
+   *
+   * @return <tt>true</tt> if every node was visited, <tt>false</tt> if the visitor stopped
+   */
+  public boolean levelOrder(N root, Visitor<? super N> visitor) {
+    if (root == null) {
+      return true;
+    }
+    if (nodes == null) {
+      nodes = new Object[DEFAULT_CAPACITY];
+    }
+    int head = 0;
+    int count = 1;
+    nodes[0] = root;
+    while (count > 0) {
+      @SuppressWarnings("unchecked")
+      N node = (N) nodes[head];
+      nodes[head] = null;
+      head = (head + 1) & (nodes.length - 1);
+      count--;
+      if (!visitor.visit(node)) {
+        for (; count > 0; count--, head = (head + 1) & (nodes.length - 1)) {
+          nodes[head] = null;
+        }
+        return false;
+      }
+      N l = left.apply(node);
+      if (l != null) {
+        head = enqueue(head, count++, l);
+      }
+      N r = right.apply(node);
+      if (r != null) {
+        head = enqueue(head, count++, r);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Morris in-order traversal in O(1) extra space and O(n) time. While it runs, the right link of
+   * the in-order predecessor of each node on the current path points back to that node; every
+   * link is restored before returning, even when the visitor stops, which then costs finishing
+   * the walk without visiting. The tree must not be read by anyone else meanwhile.
+   *
+   * @param setRight sets the right child of a node
+   * @return <tt>true</tt> if every node was visited, <tt>false</tt> if the visitor stopped
+   */
+  public boolean morrisInOrder(N root, BiConsumer<N, N> setRight, Visitor<? super N> visitor) {
+    boolean visiting = true;
+    N node = root;
+    while (node != null) {
+      N l = left.apply(node);
+      if (l != null) {
+        N predecessor = l;
+        for (N r = right.apply(predecessor); r != null && r != node; r = right.apply(r)) {
+          predecessor = r;
+        }
+        if (right.apply(predecessor) == null) {
+          setRight.accept(predecessor, node);
+          node = l;
+          continue;
+        }
+        setRight.accept(predecessor, null);
+      }
+      if (visiting && !visitor.visit(node)) {
+        visiting = false;
+      }
+      node = right.apply(node);
+    }
+    return visiting;
+  }
+
+  /** @return the number of levels below and including {@code root} */
+  public int height(N root) {
+    int[] height = {0};
+    int[] level = {0};
+    int[] remaining = {root == null ? 0 : 1};
+    int[] next = {0};
+    levelOrder(
+        root,
+        node -> {
+          next[0] += (left.apply(node) != null ? 1 : 0) + (right.apply(node) != null ? 1 : 0);
+          if (--remaining[0] == 0) {
+            height[0] = ++level[0];
+            remaining[0] = next[0];
+            next[0] = 0;
+          }
+          return true;
+        });
+    return height[0];
+  }
+
+  /** @return the number of nodes below and including {@code root} */
+  public int size(N root) {
+    int[] size = {0};
+    preOrder(
+        root,
+        node -> {
+          size[0]++;
+          return true;
+        });
+    return size[0];
+  }
+
+  private boolean preOrderByParents(N root, Visitor<? super N> visitor) {
+    N node = root;
+    while (true) {
+      if (!visitor.visit(node)) {
+        return false;
+      }
+      N next = left.apply(node);
+      if (next == null) {
+        next = right.apply(node);
+      }
+      if (next != null) {
+        node = next;
+        continue;
+      }
+      /* Climb to the first ancestor whose right subtree is still to be visited */
+      while (true) {
+        if (node == root) {
+          return true;
+        }
+        N p = parent.apply(node);
+        N r = right.apply(p);
+        if (node != r && r != null) {
+          node = r;
+          break;
+        }
+        node = p;
+      }
+    }
+  }
+
+  private boolean inOrderByParents(N root, Visitor<? super N> visitor) {
+    N node = leftmost(root);
+    while (true) {
+      if (!visitor.visit(node)) {
+        return false;
+      }
+      N r = right.apply(node);
+      if (r != null) {
+        node = leftmost(r);
+        continue;
+      }
+      /* Climb to the first ancestor reached from its left subtree */
+      while (true) {
+        if (node == root) {
+          return true;
+        }
+        N p = parent.apply(node);
+        if (left.apply(p) == node) {
+          node = p;
+          break;
+        }
+        node = p;
+      }
+    }
+  }
+
+  private boolean postOrderByParents(N root, Visitor<? super N> visitor) {
+    N node = firstInPostOrder(root);
+    while (true) {
+      if (!visitor.visit(node)) {
+        return false;
+      }
+      if (node == root) {
+        return true;
+      }
+      N p = parent.apply(node);
+      N r = right.apply(p);
+      node = node != r && r != null ? firstInPostOrder(r) : p;
+    }
+  }
+
+  private N leftmost(N node) {
+    for (N l = left.apply(node); l != null; l = left.apply(node)) {
+      node = l;
+    }
+    return node;
+  }
+
+  private N firstInPostOrder(N node) {
+    while (true) {
+      N next = left.apply(node);
+      if (next == null) {
+        next = right.apply(node);
+      }
+      if (next == null) {
+        return node;
+      }
+      node = next;
+    }
+  }
+
+  private int push(int top, N node) {
+    if (top == nodes.length) {
+      nodes = Arrays.copyOf(nodes, nodes.length * 2);
+    }
+    nodes[top] = node;
+    return top + 1;
+  }
+
+  @SuppressWarnings("unchecked")
+  private N pop(int top) {
+    N node = (N) nodes[top];
+    nodes[top] = null;
+    return node;
+  }
+
+  /** Drops the references left on the stack by a stopped traversal */
+  private boolean abort(int top) {
+    Arrays.fill(nodes, 0, top, null);
+    return false;
+  }
+
+  /** Appends to the queue, growing it if needed, and returns the possibly moved head */
+  private int enqueue(int head, int count, N node) {
+    int capacity = nodes.length;
+    if (count == capacity) {
+      Object[] grown = new Object[capacity * 2];
+      System.arraycopy(nodes, head, grown, 0, capacity - head);
+      System.arraycopy(nodes, 0, grown, capacity - head, head);
+      nodes = grown;
+      head = 0;
+    }
+    nodes[(head + count) & (nodes.length - 1)] = node;
+    return head;
+  }
+
+  /* Integer search tree for the driver */
+  private static final class IntNode {
+    IntNode left, right;
+    final int data;
+
+    IntNode(int data) {
+      this.data = data;
+    }
+
+    void insert(int value) {
+      IntNode node = this;
+      while (true) {
+        if (value < node.data) {
+          if (node.left == null) {
+            node.left = new IntNode(value);
+            return;
+          }
+          node = node.left;
+        } else {
+          if (node.right == null) {
+            node.right = new IntNode(value);
+            return;
+          }
+          node = node.right;
+        }
+      }
+    }
+  }
+
+  /* Driver Code */
+  public static void main(String[] args) {
+    /*
+     *        5
+     *      /   \
+     *     3     7
+     *    / \   / \
+     *   2   4 6   8
+     */
+    IntNode root = new IntNode(5);
+    for (int value : new int[] {3, 2, 7, 4, 6, 8}) {
+      root.insert(value);
+    }
+    BinaryTreeWalker<IntNode> walker = new BinaryTreeWalker<>(n -> n.left, n -> n.right);
+    assert collect(walker, "pre", root).equals("5 3 2 4 7 6 8 ");
+    assert collect(walker, "in", root).equals("2 3 4 5 6 7 8 ");
+    assert collect(walker, "post", root).equals("2 4 3 6 8 7 5 ");
+    assert collect(walker, "level", root).equals("5 3 7 2 4 6 8 ");
+    assert collect(walker, "morris", root).equals("2 3 4 5 6 7 8 ");
+    assert walker.height(root) == 3 && walker.size(root) == 7;
+
+    /* Early termination, and Morris leaves the links as they were */
+    int[] seen = {0};
+    assert !walker.morrisInOrder(root, (n, r) -> n.right = r, n -> ++seen[0] < 3);
+    assert seen[0] == 3 && collect(walker, "in", root).equals("2 3 4 5 6 7 8 ");
+    seen[0] = 0;
+    assert !walker.levelOrder(root, n -> ++seen[0] < 4) && seen[0] == 4;
+
+    /* Parent links: the same orders without a stack, also on a subtree */
+    RedBlackBST<Integer, Integer> map = new RedBlackBST<>();
+    java.util.Random random = new java.util.Random(48);
+    for (int i = 0; i < 1_000; i++) {
+      map.put(random.nextInt(100_000), i);
+    }
+    BinaryTreeWalker<OrderedTreeMap.Node<Integer, Integer>> stacked =
+        new BinaryTreeWalker<>(n -> n.left, n -> n.right);
+    BinaryTreeWalker<OrderedTreeMap.Node<Integer, Integer>> linked =
+        withParents(n -> n.left, n -> n.right, n -> n.parent);
+    java.util.List<OrderedTreeMap.Node<Integer, Integer>> subtrees =
+        java.util.Arrays.asList(map.root, map.root.left.right);
+    for (OrderedTreeMap.Node<Integer, Integer> subtree : subtrees) {
+      for (int order = 0; order < 3; order++) {
+        StringBuilder byStack = new StringBuilder();
+        StringBuilder byParents = new StringBuilder();
+        Visitor<OrderedTreeMap.Node<Integer, Integer>> toStack =
+            n -> byStack.append(n.key).append(' ') != null;
+        Visitor<OrderedTreeMap.Node<Integer, Integer>> toParents =
+            n -> byParents.append(n.key).append(' ') != null;
+        if (order == 0) {
+          stacked.preOrder(subtree, toStack);
+          linked.preOrder(subtree, toParents);
+        } else if (order == 1) {
+          stacked.inOrder(subtree, toStack);
+          linked.inOrder(subtree, toParents);
+        } else {
+          stacked.postOrder(subtree, toStack);
+          linked.postOrder(subtree, toParents);
+        }
+        assert byStack.length() > 0 && byStack.toString().equals(byParents.toString());
+      }
+    }
+    int[] count = {0};
+    assert map.inOrder(e -> ++count[0] > 0) && count[0] == map.size();
+    assert !map.postOrder(e -> false);
+
+    /* A degenerate tree a million levels deep */
+    IntNode chain = new IntNode(0);
+    IntNode tail = chain;
+    for (int i = 1; i < 1_000_000; i++) {
+      tail.right = new IntNode(i);
+      tail = tail.right;
+    }
+    long[] sum = {0};
+    for (String order : new String[] {"pre", "in", "post", "level", "morris"}) {
+      sum[0] = 0;
+      long start = System.nanoTime();
+      walk(
+          walker,
+          order,
+          chain,
+          n -> {
+            sum[0] += n.data;
+            return true;
+          });
+      assert sum[0] == 999_999L * 1_000_000 / 2;
+      System.out.println(
+          order + " order of a 1M-deep chain in " + (System.nanoTime() - start) / 1_000 + " us");
+    }
+    assert walker.height(chain) == 1_000_000;
+  }
+
+  private static boolean walk(
+      BinaryTreeWalker<IntNode> walker, String order, IntNode root, Visitor<IntNode> visitor) {
+    switch (order) {
+      case "pre":
+        return walker.preOrder(root, visitor);
+      case "in":
+        return walker.inOrder(root, visitor);
+      case "post":
+        return walker.postOrder(root, visitor);
+      case "level":
+        return walker.levelOrder(root, visitor);
+      default:
+        return walker.morrisInOrder(root, (n, r) -> n.right = r, visitor);
+    }
+  }
+
+  private static String collect(BinaryTreeWalker<IntNode> walker, String order, IntNode root) {
+    StringBuilder out = new StringBuilder();
+    walk(
+        walker,
+        order,
+        root,
+        n -> {
+          out.append(n.data).append(' ');
+          return true;
+        });
+    return out.toString();
+  }
+}
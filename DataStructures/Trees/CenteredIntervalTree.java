@@ -0,0 +1,308 @@
+package DataStructures.Trees;
+
+import java.util.Arrays;
+
+/**
+ * Static centered interval tree over half-open intervals {@code [start, end)}, built once and
+ * queried in O(log n + k) for k results.
+ *
+ * <p>Every node has a center point and holds the intervals containing it, twice: sorted by start
+ * and sorted by end. The intervals entirely before the center go to the left subtree and those
+ * entirely after it to the right one. For a point before the center, the intervals of the node
+ * containing it are a prefix of the ones sorted by start, so a query scans only what it reports
+ * before moving left; symmetrically with the ends after the center. Centers are medians of the
+ * starts, so every node holds at least one interval and the depth is O(log n).
+ *
+ * <p>Unlike {@link IntervalTree} the set cannot change, but the whole tree is a handful of flat
+ * arrays of ints and longs, which makes it compact and fast to scan. Queries do not allocate and
+ * the tree can be shared between threads.
+ *
+ * <p>https://en.wikipedia.org/wiki/Interval_tree#Centered_interval_tree
+ */
+public class CenteredIntervalTree<V> {
+
+  private final long[] starts;
+  private final long[] ends;
+  private final V[] values;
+
+  /* Nodes, with -1 for a missing child */
+  private final long[] center;
+  private final int[] left;
+  private final int[] right;
+  /* Intervals of node i are byStart[first[i] .. first[i + 1]) and likewise in byEnd */
+  private final int[] first;
+  private final int[] byStart;
+  private final int[] byEnd;
+  private int nodes;
+  private final int root;
+
+  /**
+   * @param starts starts of the intervals
+   * @param ends ends of the intervals, each after its start
+   * @param values value of each interval, reported with it
+   */
+  public CenteredIntervalTree(long[] starts, long[] ends, V[] values) {
+    int n = starts.length;
+    if (ends.length != n || values.length != n) {
+      throw new IllegalArgumentException("starts, ends and values differ in length");
+    }
+    for (int i = 0; i < n; i++) {
+      if (starts[i] >= ends[i]) {
+        throw new IllegalArgumentException(
+            "empty interval [" + starts[i] + ", " + ends[i] + ") at " + i);
+      }
+    }
+    this.starts = starts.clone();
+    this.ends = ends.clone();
+    this.values = values.clone();
+    this.center = new long[n];
+    this.left = new int[n];
+    this.right = new int[n];
+    this.first = new int[n + 1];
+    this.byStart = new int[n];
+    this.byEnd = new int[n];
+    int[] ids = new int[n];
+    for (int i = 0; i < n; i++) {
+      ids[i] = i;
+    }
+    this.root = build(ids, 0, n, new long[n], new Integer[n]);
+    first[nodes] = n;
+  }
+
+  public int size() {
+    return starts.length;
+  }
+
+  /** Builds the node for {@code ids[from, to)}, which it reorders, and returns its index */
+  private int build(int[] ids, int from, int to, long[] sorted, Integer[] boxed) {
+    if (from == to) {
+      return -1;
+    }
+    int count = to - from;
+    for (int i = 0; i < count; i++) {
+      sorted[i] = starts[ids[from + i]];
+    }
+    Arrays.sort(sorted, 0, count);
+    /* The lower median start: its interval contains it, so this node holds at least one interval,
+    and each side gets at most half of the intervals. A median of all the endpoints can fall
+    between intervals and leave the node empty. */
+    long mid = sorted[(count - 1) / 2];
+    /* Three-way partition: before the center, containing it, after it */
+    int lt = from;
+    int gt = to;
+    for (int i = from; i < gt; ) {
+      int id = ids[i];
+      if (ends[id] <= mid) {
+        ids[i++] = ids[lt];
+        ids[lt++] = id;
+      } else if (starts[id] > mid) {
+        ids[i] = ids[--gt];
+        ids[gt] = id;
+      } else {
+        i++;
+      }
+    }
+    int node = nodes++;
+    int offset = first[node];
+    int size = gt - lt;
+    center[node] = mid;
+    for (int i = 0; i < size; i++) {
+      boxed[i] = ids[lt + i];
+    }
+    Arrays.sort(boxed, 0, size, (a, b) -> Long.compare(starts[a], starts[b]));
+    for (int i = 0; i < size; i++) {
+      byStart[offset + i] = boxed[i];
+    }
+    Arrays.sort(boxed, 0, size, (a, b) -> Long.compare(ends[b], ends[a]));
+    for (int i = 0; i < size; i++) {
+      byEnd[offset + i] = boxed[i];
+    }
+    first[node + 1] = offset + size;
+    left[node] = build(ids, from, lt, sorted, boxed);
+    right[node] = build(ids, gt, to, sorted, boxed);
+    return node;
+  }
+
+  /**
+   * Reports the intervals containing {@code point}
+   *
+   * @return the number of intervals reported
+   */
+  public int forEachContaining(long point, IntervalTree.IntervalVisitor<? super V> visitor) {
+    int count = 0;
+    int node = root;
+    while (node >= 0) {
+      int to = first[node + 1];
+      if (point < center[node]) {
+        for (int i = first[node]; i < to && starts[byStart[i]] <= point; i++) {
+          count++;
+          if (!report(byStart[i], visitor)) {
+            return count;
+          }
+        }
+        node = left[node];
+      } else {
+        for (int i = first[node]; i < to && ends[byEnd[i]] > point; i++) {
+          count++;
+          if (!report(byEnd[i], visitor)) {
+            return count;
+          }
+        }
+        node = right[node];
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Reports the intervals overlapping {@code [from, to)}
+   *
+   * @return the number of intervals reported
+   */
+  public int forEachOverlapping(
+      long from, long to, IntervalTree.IntervalVisitor<? super V> visitor) {
+    if (from >= to) {
+      return 0;
+    }
+    int count = search(root, from, to, visitor, 0);
+    return count < 0 ? ~count : count;
+  }
+
+  /** @return the number of intervals overlapping {@code [from, to)} */
+  public int countOverlapping(long from, long to) {
+    return forEachOverlapping(from, to, (start, end, value) -> true);
+  }
+
+  /** @return the running count, complemented once the visitor has stopped the search */
+  private int search(
+      int node, long from, long to, IntervalTree.IntervalVisitor<? super V> visitor, int count) {
+    /* The recursion only branches when the range contains the center, its depth is O(log n) */
+    while (node >= 0) {
+      int end = first[node + 1];
+      long c = center[node];
+      if (to <= c) {
+        for (int i = first[node]; i < end && starts[byStart[i]] < to; i++) {
+          count++;
+          if (!report(byStart[i], visitor)) {
+            return ~count;
+          }
+        }
+        node = left[node];
+      } else if (from > c) {
+        for (int i = first[node]; i < end && ends[byEnd[i]] > from; i++) {
+          count++;
+          if (!report(byEnd[i], visitor)) {
+            return ~count;
+          }
+        }
+        node = right[node];
+      } else {
+        for (int i = first[node]; i < end; i++) {
+          count++;
+          if (!report(byStart[i], visitor)) {
+            return ~count;
+          }
+        }
+        count = search(left[node], from, to, visitor, count);
+        if (count < 0) {
+          return count;
+        }
+        node = right[node];
+      }
+    }
+    return count;
+  }
+
+  private boolean report(int id, IntervalTree.IntervalVisitor<? super V> visitor) {
+    return visitor.visit(starts[id], ends[id], values[id]);
+  }
+
+  /* Driver Code */
+  public static void main(String[] args) {
+    CenteredIntervalTree<String> day =
+        new CenteredIntervalTree<>(
+            new long[] {9, 10, 13, 15, 8},
+            new long[] {11, 12, 15, 17, 18},
+            new String[] {"standup", "review", "lunch", "planning", "on call"});
+    assert day.countOverlapping(11, 13) == 2 && day.countOverlapping(15, 16) == 2;
+    assert day.countOverlapping(18, 20) == 0 && day.countOverlapping(0, 100) == 5;
+    StringBuilder at10 = new StringBuilder();
+    day.forEachContaining(
+        10,
+        (start, end, name) -> {
+          at10.append(name).append(' ');
+          return true;
+        });
+    assert at10.length() == "standup review on call ".length();
+    assert day.forEachOverlapping(0, 100, (start, end, name) -> false) == 1;
+
+    /* Disjoint bookings, where no point is shared by two intervals */
+    CenteredIntervalTree<String> two =
+        new CenteredIntervalTree<>(new long[] {0, 2}, new long[] {1, 3}, new String[] {"a", "b"});
+    assert two.countOverlapping(0, 3) == 2 && two.countOverlapping(1, 2) == 0;
+    int slots = 1_000;
+    long[] opens = new long[slots];
+    long[] closes = new long[slots];
+    Integer[] slot = new Integer[slots];
+    for (int i = 0; i < slots; i++) {
+      opens[i] = 10L * i;
+      closes[i] = 10L * i + 5;
+      slot[i] = i;
+    }
+    CenteredIntervalTree<Integer> bookings = new CenteredIntervalTree<>(opens, closes, slot);
+    for (long point = -5; point < 10L * slots + 5; point++) {
+      int[] hit = {-1};
+      int found =
+          bookings.forEachContaining(
+              point,
+              (start, end, id) -> {
+                hit[0] = id;
+                return true;
+              });
+      assert found == (point >= 0 && point < 10L * slots && point % 10 < 5 ? 1 : 0);
+      assert found == 0 || hit[0] == point / 10;
+    }
+    assert bookings.countOverlapping(5, 10) == 0 && bookings.countOverlapping(4, 21) == 3;
+
+    /* Against the dynamic interval tree */
+    java.util.Random random = new java.util.Random(48);
+    int n = 20_000;
+    long[] starts = new long[n];
+    long[] ends = new long[n];
+    Integer[] ids = new Integer[n];
+    IntervalTree<Integer> dynamic = new IntervalTree<>();
+    for (int i = 0; i < n; i++) {
+      starts[i] = i * 50L + random.nextInt(50);
+      ends[i] = starts[i] + 1 + random.nextInt(random.nextInt(10) == 0 ? 100_000 : 1_000);
+      ids[i] = i;
+      dynamic.put(starts[i], ends[i], i);
+    }
+    CenteredIntervalTree<Integer> fixed = new CenteredIntervalTree<>(starts, ends, ids);
+    for (int q = 0; q < 2_000; q++) {
+      long from = random.nextInt(1_000_000);
+      long to = from + 1 + random.nextInt(2_000);
+      assert fixed.countOverlapping(from, to) == dynamic.countOverlapping(from, to);
+      long[] sum = new long[2];
+      fixed.forEachContaining(
+          from,
+          (start, end, id) -> {
+            assert start <= from && from < end;
+            sum[0]++;
+            return true;
+          });
+      assert sum[0] == dynamic.forEachContaining(from, (s, e, id) -> true);
+    }
+
+    long begin = System.nanoTime();
+    long total = 0;
+    for (int q = 0; q < 1_000_000; q++) {
+      total += fixed.forEachContaining(random.nextInt(1_000_000), (start, end, id) -> true);
+    }
+    System.out.println(
+        "1M stabbing queries in "
+            + (System.nanoTime() - begin) / 1_000_000
+            + " ms, "
+            + total
+            + " hits");
+  }
+}
@@ -0,0 +1,153 @@
+package DataStructures.Trees;
+
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Measures the throughput of {@link LockFreeBST} against {@link ConcurrentSkipListMap} and a
+ * {@link RedBlackBST} guarded by {@code synchronized}, from 1 to 64 threads. Every thread runs the
+ * same read-mostly mix on random keys of a prefilled map: 80% lookups, 10% puts, 10% removals.
+ *
+ * <p>Results depend heavily on the number of cores.
+ */
+public class ConcurrentTreeBenchmark {
+
+  private static final int OPERATIONS = 1 << 21;
+  private static final int KEY_RANGE = 1 << 16;
+
+  /** The three operations of the mix on one map */
+  private interface MapOperations {
+    Integer get(Integer key);
+
+    void put(Integer key, Integer value);
+
+    void remove(Integer key);
+  }
+
+  private static double measure(int threads, MapOperations map) throws InterruptedException {
+    java.util.Random random = new java.util.Random(1);
+    for (int i = 0; i < KEY_RANGE / 2; i++) {
+      int key = random.nextInt(KEY_RANGE);
+      map.put(key, key);
+    }
+    final int perThread = OPERATIONS / threads;
+    CountDownLatch start = new CountDownLatch(1);
+    Thread[] workers = new Thread[threads];
+    for (int t = 0; t < threads; t++) {
+      final int seed = t + 1;
+      workers[t] =
+          new Thread(
+              () -> {
+                try {
+                  start.await();
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                  return;
+                }
+                int x = seed * 0x9E3779B9;
+                for (int i = 0; i < perThread; i++) {
+                  /* xorshift, to keep a shared Random out of the measurement */
+                  x ^= x << 13;
+                  x ^= x >>> 17;
+                  x ^= x << 5;
+                  Integer key = (x >>> 8) & (KEY_RANGE - 1);
+                  int dice = x & 0xFF;
+                  if (dice < 26) {
+                    map.put(key, key);
+                  } else if (dice < 52) {
+                    map.remove(key);
+                  } else {
+                    Integer value = map.get(key);
+                    assert value == null || value.equals(key);
+                  }
+                }
+              });
+      workers[t].start();
+    }
+    long begin = System.nanoTime();
+    start.countDown();
+    for (Thread worker : workers) {
+      worker.join();
+    }
+    long elapsed = System.nanoTime() - begin;
+    return (double) perThread * threads * 1_000_000_000L / elapsed;
+  }
+
+  public static void main(String[] args) throws InterruptedException {
+    System.out.printf(
+        "%8s %16s %22s %16s%n", "threads", "LockFreeBST", "ConcurrentSkipListMap", "synchronized");
+    for (int threads = 1; threads <= 64; threads *= 2) {
+      LockFreeBST<Integer, Integer> tree = new LockFreeBST<>();
+      double treeOps =
+          measure(
+              threads,
+              new MapOperations() {
+                @Override
+                public Integer get(Integer key) {
+                  return tree.get(key);
+                }
+
+                @Override
+                public void put(Integer key, Integer value) {
+                  tree.put(key, value);
+                }
+
+                @Override
+                public void remove(Integer key) {
+                  tree.remove(key);
+                }
+              });
+
+      ConcurrentSkipListMap<Integer, Integer> skipList = new ConcurrentSkipListMap<>();
+      double skipListOps =
+          measure(
+              threads,
+              new MapOperations() {
+                @Override
+                public Integer get(Integer key) {
+                  return skipList.get(key);
+                }
+
+                @Override
+                public void put(Integer key, Integer value) {
+                  skipList.put(key, value);
+                }
+
+                @Override
+                public void remove(Integer key) {
+                  skipList.remove(key);
+                }
+              });
+
+      RedBlackBST<Integer, Integer> locked = new RedBlackBST<>();
+      double synchronizedOps =
+          measure(
+              threads,
+              new MapOperations() {
+                @Override
+                public Integer get(Integer key) {
+                  synchronized (locked) {
+                    return locked.get(key);
+                  }
+                }
+
+                @Override
+                public void put(Integer key, Integer value) {
+                  synchronized (locked) {
+                    locked.put(key, value);
+                  }
+                }
+
+                @Override
+                public void remove(Integer key) {
+                  synchronized (locked) {
+                    locked.remove(key);
+                  }
+                }
+              });
+
+      System.out.printf(
+          "%8d %16.0f %22.0f %16.0f%n", threads, treeOps, skipListOps, synchronizedOps);
+    }
+  }
+}
@@ -0,0 +1,482 @@
+package DataStructures.Trees;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable trie encoded in two int arrays, {@code base} and {@code check}, after Aoe, "An
+ * Efficient Digital Search Algorithm by Using a Double-Array Structure" (1989).
+ *
+ * <p>Each trie node is a slot index. The child of node {@code s} for the byte {@code b} is the slot
+ * {@code t = base[s] + b + 1}, and it exists when {@code check[t] == s}; code 0 is the end-of-key
+ * child, whose {@code base} holds the id of the key. A lookup is therefore one addition and one
+ * comparison per byte, with no pointers and no allocation, and the whole trie is three flat int
+ * arrays. Building places the children of every node so that their slots are free, which takes some
+ * time once; the result is read-only.
+ *
+ * <p>Keys are byte strings (strings are encoded in UTF-8) and get ids from 0 to {@code size() - 1}
+ * in unsigned lexicographic order, so the keys sharing a prefix have consecutive ids and can be
+ * enumerated without a traversal. Ids index caller-side arrays of values. Because {@code check}
+ * holds the parent of every node, a key can be rebuilt from its id.
+ *
+ * <p>{@link #writeTo(Path)} stores the arrays in a file that {@link #map(Path)} memory-maps, so a
+ * large dictionary is usable right away without being read or parsed.
+ *
+ * <p>https://linux.thai.net/~thep/datrie/datrie.html
+ */
+public final class DoubleArrayTrie {
+
+  private static final int MAGIC = 0x44415452; // "DATR"
+  private static final int VERSION = 1;
+  private static final int HEADER_BYTES = 16;
+  private static final int ROOT = 0;
+  /** Codes 0 (end of key) to 256 (byte 255) */
+  private static final int CODES = 257;
+
+  private final IntBuffer base;
+  private final IntBuffer check;
+  /** End-of-key slot of each id, used to rebuild keys */
+  private final IntBuffer terminals;
+
+  private final int length;
+
+  private DoubleArrayTrie(IntBuffer base, IntBuffer check, IntBuffer terminals) {
+    this.base = base;
+    this.check = check;
+    this.terminals = terminals;
+    this.length = check.limit();
+  }
+
+  /** @return a trie of the given strings, in any order and possibly repeated */
+  public static DoubleArrayTrie build(Collection<String> keys) {
+    byte[][] bytes = new byte[keys.size()][];
+    int n = 0;
+    for (String key : keys) {
+      bytes[n++] = key.getBytes(StandardCharsets.UTF_8);
+    }
+    Arrays.sort(bytes, Arrays::compareUnsigned);
+    int distinct = 0;
+    for (int i = 0; i < n; i++) {
+      if (distinct == 0 || !Arrays.equals(bytes[distinct - 1], bytes[i])) {
+        bytes[distinct++] = bytes[i];
+      }
+    }
+    return build(Arrays.copyOf(bytes, distinct));
+  }
+
+  /** @param keys byte strings in strictly increasing unsigned order; key i gets id i */
+  public static DoubleArrayTrie build(byte[][] keys) {
+    for (int i = 1; i < keys.length; i++) {
+      if (Arrays.compareUnsigned(keys[i - 1], keys[i]) >= 0) {
+        throw new IllegalArgumentException("keys are not strictly increasing at " + i);
+      }
+    }
+    return new Builder(keys).build();
+  }
+
+  /** Places the children of each node at the first base where all their slots are free */
+  private static final class Builder {
+    private final byte[][] keys;
+    private int[] base = new int[1024];
+    private int[] check = new int[1024];
+    private final int[] terminals;
+    /** Every slot below is used */
+    private int firstFree = 1;
+    /** One past the last slot used */
+    private int used = 1;
+    /** Codes of the children of the node being placed */
+    private final int[] codes = new int[CODES];
+
+    Builder(byte[][] keys) {
+      this.keys = keys;
+      this.terminals = new int[keys.length];
+      Arrays.fill(check, -1);
+      check[ROOT] = ROOT;
+    }
+
+    DoubleArrayTrie build() {
+      if (keys.length > 0) {
+        place(ROOT, 0, keys.length, 0);
+      }
+      return new DoubleArrayTrie(
+          IntBuffer.wrap(Arrays.copyOf(base, used)),
+          IntBuffer.wrap(Arrays.copyOf(check, used)),
+          IntBuffer.wrap(terminals));
+    }
+
+    /** Places the children of node {@code s}, which holds keys[from, to) sharing depth bytes */
+    private void place(int s, int from, int to, int depth) {
+      int count = 0;
+      for (int i = from; i < to; ) {
+        int code = code(keys[i], depth);
+        codes[count++] = code;
+        do {
+          i++;
+        } while (i < to && code(keys[i], depth) == code);
+      }
+      int b = findBase(count);
+      base[s] = b;
+      for (int c = 0; c < count; c++) {
+        check[b + codes[c]] = s;
+      }
+      used = Math.max(used, b + codes[count - 1] + 1);
+      /* codes is overwritten by the recursion, so walk the groups again */
+      for (int i = from; i < to; ) {
+        int code = code(keys[i], depth);
+        int end = i + 1;
+        while (end < to && code(keys[end], depth) == code) {
+          end++;
+        }
+        int t = b + code;
+        if (code == 0) {
+          base[t] = -(i + 1);
+          terminals[i] = t;
+        } else {
+          place(t, i, end, depth + 1);
+        }
+        i = end;
+      }
+    }
+
+    private static int code(byte[] key, int depth) {
+      return depth == key.length ? 0 : (key[depth] & 0xFF) + 1;
+    }
+
+    private int findBase(int count) {
+      while (firstFree < check.length && check[firstFree] >= 0) {
+        firstFree++;
+      }
+      for (int b = Math.max(1, firstFree - codes[0]); ; b++) {
+        ensure(b + codes[count - 1] + 1);
+        boolean free = true;
+        for (int c = 0; c < count && free; c++) {
+          free = check[b + codes[c]] < 0;
+        }
+        if (free) {
+          return b;
+        }
+      }
+    }
+
+    private void ensure(int capacity) {
+      if (capacity > check.length) {
+        int grown = Math.max(capacity, check.length * 2);
+        base = Arrays.copyOf(base, grown);
+        int old = check.length;
+        check = Arrays.copyOf(check, grown);
+        Arrays.fill(check, old, grown, -1);
+      }
+    }
+  }
+
+  /** @return number of keys */
+  public int size() {
+    return terminals.limit();
+  }
+
+  /**
+   * @return the root, or -1 for an empty trie, whose root has no base and would seem to be its own
+   *     child
+   */
+  private int start() {
+    return size() == 0 ? -1 : ROOT;
+  }
+
+  /** @return the child of {@code s} for {@code code}, or -1 */
+  private int child(int s, int code) {
+    int t = base.get(s) + code;
+    return t < length && check.get(t) == s ? t : -1;
+  }
+
+  /** @return the node reached by {@code key[from, to)}, or -1 */
+  private int walk(byte[] key, int from, int to) {
+    int s = start();
+    for (int i = from; i < to && s >= 0; i++) {
+      s = child(s, (key[i] & 0xFF) + 1);
+    }
+    return s;
+  }
+
+  /** @return the node reached by the UTF-8 encoding of {@code key}, or -1 */
+  private int walk(CharSequence key) {
+    int s = start();
+    for (int i = 0; i < key.length() && s >= 0; i++) {
+      int cp = Character.codePointAt(key, i);
+      if (cp >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+        i++;
+      }
+      if (cp < 0x80) {
+        s = child(s, cp + 1);
+      } else if (cp < 0x800) {
+        s = step(step(s, 0xC0 | cp >> 6), 0x80 | cp & 0x3F);
+      } else if (cp < 0x10000) {
+        s = step(step(step(s, 0xE0 | cp >> 12), 0x80 | cp >> 6 & 0x3F), 0x80 | cp & 0x3F);
+      } else {
+        s = step(step(s, 0xF0 | cp >> 18), 0x80 | cp >> 12 & 0x3F);
+        s = step(step(s, 0x80 | cp >> 6 & 0x3F), 0x80 | cp & 0x3F);
+      }
+    }
+    return s;
+  }
+
+  private int step(int s, int b) {
+    return s < 0 ? -1 : child(s, b + 1);
+  }
+
+  /** @return id of the key ending at node {@code s}, or -1 */
+  private int idAt(int s) {
+    if (s < 0) {
+      return -1;
+    }
+    int t = child(s, 0);
+    return t < 0 ? -1 : -base.get(t) - 1;
+  }
+
+  /** @return id of {@code key}, or -1 if it is absent */
+  public int get(byte[] key) {
+    return idAt(walk(key, 0, key.length));
+  }
+
+  /** @return id of {@code key[from, to)}, or -1 if it is absent */
+  public int get(byte[] key, int from, int to) {
+    return idAt(walk(key, from, to));
+  }
+
+  /** @return id of {@code key}, encoded in UTF-8 on the fly, or -1 if it is absent */
+  public int get(CharSequence key) {
+    return idAt(walk(key));
+  }
+
+  public boolean contains(CharSequence key) {
+    return get(key) >= 0;
+  }
+
+  /** @return id of the first key starting with {@code prefix}, or -1 if there is none */
+  public int firstWithPrefix(CharSequence prefix) {
+    int s = walk(prefix);
+    return s < 0 ? -1 : edgeId(s, true);
+  }
+
+  /** @return number of keys starting with {@code prefix}; their ids follow the first one */
+  public int countWithPrefix(CharSequence prefix) {
+    int s = walk(prefix);
+    return s < 0 ? 0 : edgeId(s, false) - edgeId(s, true) + 1;
+  }
+
+  /** Calls {@code action} with the id of every key starting with {@code prefix}, in order */
+  public void forEachWithPrefix(CharSequence prefix, IntConsumer action) {
+    int s = walk(prefix);
+    if (s >= 0) {
+      for (int id = edgeId(s, true), last = edgeId(s, false); id <= last; id++) {
+        action.accept(id);
+      }
+    }
+  }
+
+  /** @return id of the smallest or largest key below node {@code s} */
+  private int edgeId(int s, boolean smallest) {
+    while (true) {
+      int b = base.get(s);
+      if (b < 0) {
+        return -b - 1;
+      }
+      for (int code = smallest ? 0 : CODES - 1; ; code += smallest ? 1 : -1) {
+        int t = b + code;
+        if (t < length && check.get(t) == s) {
+          s = t;
+          break;
+        }
+      }
+    }
+  }
+
+  /** @return length in bytes of the key with the given id */
+  public int keyLength(int id) {
+    int length = 0;
+    for (int s = check.get(terminals.get(id)); s != ROOT; s = check.get(s)) {
+      length++;
+    }
+    return length;
+  }
+
+  /**
+   * Writes the key with the given id into {@code buffer}
+   *
+   * @return length of the key, or {@code -length} if {@code buffer} is too short
+   */
+  public int keyAt(int id, byte[] buffer) {
+    int length = keyLength(id);
+    if (length > buffer.length) {
+      return -length;
+    }
+    int i = length;
+    for (int s = check.get(terminals.get(id)); s != ROOT; ) {
+      int parent = check.get(s);
+      buffer[--i] = (byte) (s - base.get(parent) - 1);
+      s = parent;
+    }
+    return length;
+  }
+
+  /** @return the key with the given id, decoded from UTF-8 */
+  public String keyAt(int id) {
+    byte[] buffer = new byte[keyLength(id)];
+    keyAt(id, buffer);
+    return new String(buffer, StandardCharsets.UTF_8);
+  }
+
+  /** @return size in bytes of the encoded arrays, which is also the file size without header */
+  public long sizeInBytes() {
+    return 4L * (2L * length + size());
+  }
+
+  /** Writes the trie to a file readable by {@link #map(Path)} */
+  public void writeTo(Path path) throws IOException {
+    try (FileChannel channel =
+        FileChannel.open(
+            path,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE)) {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+      header.putInt(MAGIC).putInt(VERSION).putInt(length).putInt(size()).flip();
+      writeFully(channel, header);
+      ByteBuffer chunk = ByteBuffer.allocate(1 << 16);
+      for (IntBuffer array : new IntBuffer[] {base, check, terminals}) {
+        for (int i = 0; i < array.limit(); i++) {
+          if (!chunk.hasRemaining()) {
+            chunk.flip();
+            writeFully(channel, chunk);
+            chunk.clear();
+          }
+          chunk.putInt(array.get(i));
+        }
+      }
+      chunk.flip();
+      writeFully(channel, chunk);
+    }
+  }
+
+  private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+
+  /**
+   * Memory-maps a file written by {@link #writeTo(Path)}. Nothing is copied: pages are loaded by
+   * the operating system as lookups touch them, and the mapping outlives the closed channel.
+   */
+  public static DoubleArrayTrie map(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      return wrap(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
+  /** Reads a trie from a buffer holding the contents of a file written by {@link #writeTo} */
+  public static DoubleArrayTrie wrap(ByteBuffer buffer) {
+    if (buffer.remaining() < HEADER_BYTES || buffer.getInt(buffer.position()) != MAGIC) {
+      throw new IllegalArgumentException("not a double-array trie");
+    }
+    int at = buffer.position();
+    if (buffer.getInt(at + 4) != VERSION) {
+      throw new IllegalArgumentException("unsupported version " + buffer.getInt(at + 4));
+    }
+    int length = buffer.getInt(at + 8);
+    int keys = buffer.getInt(at + 12);
+    if (buffer.remaining() != HEADER_BYTES + 4L * (2L * length + keys)) {
+      throw new IllegalArgumentException("truncated trie");
+    }
+    return new DoubleArrayTrie(
+        slice(buffer, at + HEADER_BYTES, length),
+        slice(buffer, at + HEADER_BYTES + 4 * length, length),
+        slice(buffer, at + HEADER_BYTES + 8 * length, keys));
+  }
+
+  private static IntBuffer slice(ByteBuffer buffer, int offset, int ints) {
+    ByteBuffer view = buffer.duplicate();
+    view.limit(offset + 4 * ints).position(offset);
+    return view.slice().asIntBuffer();
+  }
+
+  /* Driver Code */
+  public static void main(String[] args) throws IOException {
+    java.util.List<String> words =
+        Arrays.asList("", "tea", "ten", "to", "in", "inn", "i", "ted", "tea", "日本", "日本語");
+    DoubleArrayTrie trie = build(words);
+    assert trie.size() == 10;
+    assert trie.get("") == 0 && trie.get("i") == 1 && trie.get("in") == 2;
+    assert trie.get("inn") == 3 && trie.get("tea") == 4;
+    assert trie.get("te") == -1 && trie.get("tex") == -1 && trie.get("teas") == -1;
+    assert trie.keyAt(trie.get("ted")).equals("ted") && trie.keyAt(9).equals("日本語");
+    assert trie.firstWithPrefix("te") == trie.get("tea") && trie.countWithPrefix("te") == 3;
+    assert trie.countWithPrefix("日") == 2 && trie.countWithPrefix("x") == 0;
+    assert trie.countWithPrefix("") == 10;
+    StringBuilder found = new StringBuilder();
+    trie.forEachWithPrefix("in", id -> found.append(trie.keyAt(id)).append(' '));
+    assert found.toString().equals("in inn ");
+
+    DoubleArrayTrie empty = build(java.util.Collections.<String>emptyList());
+    assert empty.size() == 0 && empty.get("") == -1 && empty.get("a") == -1;
+    assert empty.countWithPrefix("") == 0 && empty.firstWithPrefix("") == -1;
+    empty.forEachWithPrefix(
+        "",
+        id -> {
+          throw new AssertionError("empty trie has no keys");
+        });
+
+    /* A larger dictionary against a TreeSet */
+    java.util.Random random = new java.util.Random(8);
+    java.util.TreeSet<String> expected = new java.util.TreeSet<>();
+    while (expected.size() < 500_000) {
+      char[] word = new char[3 + random.nextInt(10)];
+      for (int i = 0; i < word.length; i++) {
+        word[i] = (char) ('a' + random.nextInt(26));
+      }
+      expected.add(new String(word));
+    }
+    long start = System.nanoTime();
+    DoubleArrayTrie dictionary = build(expected);
+    long buildMillis = (System.nanoTime() - start) / 1_000_000;
+
+    Path file = java.nio.file.Files.createTempFile("dictionary", ".datrie");
+    try {
+      dictionary.writeTo(file);
+      start = System.nanoTime();
+      DoubleArrayTrie mapped = map(file);
+      long mapMicros = (System.nanoTime() - start) / 1000;
+
+      int id = 0;
+      byte[] buffer = new byte[16];
+      for (String word : expected) {
+        assert mapped.get(word) == id;
+        int length = mapped.keyAt(id, buffer);
+        assert new String(buffer, 0, length, StandardCharsets.UTF_8).equals(word);
+        id++;
+      }
+      for (String prefix : new String[] {"a", "qu", "zzz", "abc"}) {
+        String end = prefix + Character.MAX_VALUE;
+        assert mapped.countWithPrefix(prefix) == expected.subSet(prefix, end).size();
+      }
+      System.out.println(
+          expected.size()
+              + " keys: built in "
+              + buildMillis
+              + " ms, "
+              + dictionary.sizeInBytes() / 1024
+              + " KiB, mapped in "
+              + mapMicros
+              + " us");
+    } finally {
+      java.nio.file.Files.deleteIfExists(file);
+    }
+  }
+}
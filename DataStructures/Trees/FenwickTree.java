@@ -0,0 +1,136 @@
+package DataStructures.Trees;
+
+/**
+ * Fenwick tree, or binary indexed tree, over {@code long} values: point updates and prefix sums
+ * in O(log n) in a single {@code long[n + 1]}.
+ *
+ * <p>Slot {@code i} (1-based) holds the sum of the {@code i & -i} values ending at position i. A
+ * prefix sum adds the slots found by repeatedly clearing the lowest set bit of the end position, an
+ * update adds to the slots found by repeatedly adding it. It uses half the memory of a sum {@link
+ * SegmentTree} and its loops are shorter, but it only supports invertible operations such as sums.
+ *
+ * <p>https://en.wikipedia.org/wiki/Fenwick_tree
+ */
+public class FenwickTree {
+
+  private final int n;
+  private final long[] tree;
+
+  /** Init a tree of {@code n} zeros */
+  public FenwickTree(int n) {
+    this.n = n;
+    this.tree = new long[n + 1];
+  }
+
+  /** Init a tree of the given values in O(n) */
+  public FenwickTree(long[] values) {
+    this(values.length);
+    for (int i = 1; i <= n; i++) {
+      tree[i] += values[i - 1];
+      int parent = i + (i & -i);
+      if (parent <= n) {
+        tree[parent] += tree[i];
+      }
+    }
+  }
+
+  public int size() {
+    return n;
+  }
+
+  /** Adds {@code delta} to the value at {@code index} */
+  public void add(int index, long delta) {
+    if (index < 0 || index >= n) {
+      throw new IndexOutOfBoundsException("index: " + index + ", size: " + n);
+    }
+    for (int i = index + 1; i <= n; i += i & -i) {
+      tree[i] += delta;
+    }
+  }
+
+  /** @return sum of the values in {@code [0, end)} */
+  public long prefixSum(int end) {
+    if (end < 0 || end > n) {
+      throw new IndexOutOfBoundsException("end: " + end + ", size: " + n);
+    }
+    long sum = 0;
+    for (int i = end; i > 0; i -= i & -i) {
+      sum += tree[i];
+    }
+    return sum;
+  }
+
+  /** @return sum of the values in {@code [from, to)} */
+  public long sum(int from, int to) {
+    return prefixSum(to) - prefixSum(from);
+  }
+
+  public long get(int index) {
+    return sum(index, index + 1);
+  }
+
+  public void set(int index, long value) {
+    add(index, value - get(index));
+  }
+
+  /**
+   * Finds where the running sum reaches a target, e.g. the bucket of a percentile in a histogram.
+   * Values must not be negative.
+   *
+   * @return the smallest {@code end} with {@code prefixSum(end) >= target}, or {@code n + 1} if
+   *     even the total is smaller
+   */
+  public int lowerBound(long target) {
+    if (target <= 0) {
+      return 0;
+    }
+    int position = 0;
+    for (int step = Integer.highestOneBit(Math.max(1, n)); step > 0; step >>= 1) {
+      int next = position + step;
+      if (next <= n && tree[next] < target) {
+        position = next;
+        target -= tree[next];
+      }
+    }
+    return position + 1;
+  }
+
+  /* Driver Code */
+  public static void main(String[] args) {
+    FenwickTree tree = new FenwickTree(new long[] {3, 2, -1, 6, 5, 4, -3, 3, 7, 2, 3});
+    assert tree.prefixSum(11) == 31 && tree.prefixSum(0) == 0 && tree.sum(3, 7) == 12;
+    tree.add(3, 4);
+    assert tree.sum(3, 7) == 16 && tree.get(3) == 10;
+    tree.set(3, 6);
+    assert tree.sum(0, 4) == 10;
+
+    /* Percentile of a latency histogram: bucket where half of the samples are reached */
+    FenwickTree histogram = new FenwickTree(100);
+    for (int ms = 0; ms < 100; ms++) {
+      histogram.add(ms, ms < 50 ? 1 : 3);
+    }
+    assert histogram.lowerBound(100) == 67 && histogram.prefixSum(67) >= 100;
+    assert histogram.prefixSum(66) < 100 && histogram.lowerBound(1_000) == 101;
+
+    /* Against brute force */
+    java.util.Random random = new java.util.Random(2);
+    long[] data = new long[777];
+    FenwickTree fenwick = new FenwickTree(data.length);
+    for (int q = 0; q < 20_000; q++) {
+      int i = random.nextInt(data.length);
+      long delta = random.nextInt(100);
+      data[i] += delta;
+      fenwick.add(i, delta);
+      int from = random.nextInt(data.length);
+      int to = from + random.nextInt(data.length - from + 1);
+      long expected = 0;
+      for (int j = from; j < to; j++) {
+        expected += data[j];
+      }
+      assert fenwick.sum(from, to) == expected;
+    }
+    long target = fenwick.prefixSum(data.length) / 2;
+    int end = fenwick.lowerBound(target);
+    assert fenwick.prefixSum(end) >= target && fenwick.prefixSum(end - 1) < target;
+  }
+}
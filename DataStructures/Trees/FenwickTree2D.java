@@ -0,0 +1,97 @@
+package DataStructures.Trees;
+
+/**
+ * Two-dimensional {@link FenwickTree}: point updates and sums over rectangles of a {@code rows x
+ * columns} grid in O(log rows * log columns), in one flat {@code long[]}.
+ *
+ * <p>https://en.wikipedia.org/wiki/Fenwick_tree
+ */
+public class FenwickTree2D {
+
+  private final int rows;
+  private final int columns;
+  /** (rows + 1) x (columns + 1) slots, row by row */
+  private final long[] tree;
+
+  public FenwickTree2D(int rows, int columns) {
+    this.rows = rows;
+    this.columns = columns;
+    this.tree = new long[(rows + 1) * (columns + 1)];
+  }
+
+  public int rows() {
+    return rows;
+  }
+
+  public int columns() {
+    return columns;
+  }
+
+  /** Adds {@code delta} to the cell at {@code (row, column)} */
+  public void add(int row, int column, long delta) {
+    if (row < 0 || row >= rows || column < 0 || column >= columns) {
+      throw new IndexOutOfBoundsException("(" + row + ", " + column + ")");
+    }
+    for (int i = row + 1; i <= rows; i += i & -i) {
+      int offset = i * (columns + 1);
+      for (int j = column + 1; j <= columns; j += j & -j) {
+        tree[offset + j] += delta;
+      }
+    }
+  }
+
+  /** @return sum of the cells in rows {@code [0, rowEnd)} and columns {@code [0, columnEnd)} */
+  public long prefixSum(int rowEnd, int columnEnd) {
+    if (rowEnd < 0 || rowEnd > rows || columnEnd < 0 || columnEnd > columns) {
+      throw new IndexOutOfBoundsException("(" + rowEnd + ", " + columnEnd + ")");
+    }
+    long sum = 0;
+    for (int i = rowEnd; i > 0; i -= i & -i) {
+      int offset = i * (columns + 1);
+      for (int j = columnEnd; j > 0; j -= j & -j) {
+        sum += tree[offset + j];
+      }
+    }
+    return sum;
+  }
+
+  /** @return sum of the cells in rows {@code [rowFrom, rowTo)}, columns {@code [colFrom, colTo)} */
+  public long sum(int rowFrom, int colFrom, int rowTo, int colTo) {
+    return prefixSum(rowTo, colTo)
+        - prefixSum(rowFrom, colTo)
+        - prefixSum(rowTo, colFrom)
+        + prefixSum(rowFrom, colFrom);
+  }
+
+  /* Driver Code */
+  public static void main(String[] args) {
+    FenwickTree2D grid = new FenwickTree2D(3, 4);
+    grid.add(0, 0, 1);
+    grid.add(1, 2, 5);
+    grid.add(2, 3, 7);
+    assert grid.prefixSum(3, 4) == 13 && grid.sum(1, 1, 3, 4) == 12 && grid.sum(0, 1, 2, 3) == 5;
+
+    /* Against brute force */
+    java.util.Random random = new java.util.Random(12);
+    long[][] cells = new long[37][23];
+    FenwickTree2D tree = new FenwickTree2D(37, 23);
+    for (int q = 0; q < 5_000; q++) {
+      int r = random.nextInt(37);
+      int c = random.nextInt(23);
+      long delta = random.nextInt(21) - 10;
+      cells[r][c] += delta;
+      tree.add(r, c, delta);
+      int r1 = random.nextInt(38);
+      int r2 = r1 + random.nextInt(38 - r1);
+      int c1 = random.nextInt(24);
+      int c2 = c1 + random.nextInt(24 - c1);
+      long expected = 0;
+      for (int i = r1; i < r2; i++) {
+        for (int j = c1; j < c2; j++) {
+          expected += cells[i][j];
+        }
+      }
+      assert tree.sum(r1, c1, r2, c2) == expected;
+    }
+  }
+}
@@ -1,8 +1,10 @@
 package DataStructures.Trees;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Arrays;
 import java.util.Scanner;
+import java.util.function.IntPredicate;
 
 /**
  * A generic tree is a tree which can have as many children as it can be It might be possible that
@@ -20,6 +22,11 @@ public class GenericTree {
 
   private Node root;
   private int size;
+  /* Stack of the depth-first walks, with the index of the next child of each node */
+  private Node[] stack = new Node[16];
+  private int[] nextChild = new int[16];
+  /* Queue of the level-order walks, empty between walks */
+  private final ArrayDeque<Node> queue = new ArrayDeque<>();
 
   public GenericTree() { // Constructor
     Scanner scn = new Scanner(System.in);
@@ -155,40 +162,145 @@ public class GenericTree {
 
   /** Function to print generic tree in pre-order */
   public void preordercall() {
-    preorder(root);
+    preorder(GenericTree::print);
     System.out.println(".");
   }
 
-  private void preorder(Node node) {
-    System.out.print(node.data + " ");
-    for (int i = 0; i < node.child.size(); i++) preorder(node.child.get(i));
-  }
-
   /** Function to print generic tree in post-order */
   public void postordercall() {
-    postorder(root);
+    postorder(GenericTree::print);
     System.out.println(".");
   }
 
-  private void postorder(Node node) {
-    for (int i = 0; i < node.child.size(); i++) postorder(node.child.get(i));
-    System.out.print(node.data + " ");
-  }
-
   /** Function to print generic tree in level-order */
   public void levelorder() {
-    LinkedList<Node> q = new LinkedList<>();
-    q.addLast(root);
-    while (!q.isEmpty()) {
-      int k = q.getFirst().data;
-      System.out.print(k + " ");
-
-      for (int i = 0; i < q.getFirst().child.size(); i++) {
-        q.addLast(q.getFirst().child.get(i));
+    levelorder(GenericTree::print);
+    System.out.println(".");
+  }
+
+  private static boolean print(int data) {
+    System.out.print(data + " ");
+    return true;
+  }
+
+  /**
+   * Visits every node before its children, until the visitor returns false
+   *
+   * @return true if every node was visited
+   */
+  public boolean preorder(IntPredicate visitor) {
+    return walk(visitor, true);
+  }
+
+  /**
+   * Visits every node after its children, until the visitor returns false
+   *
+   * @return true if every node was visited
+   */
+  public boolean postorder(IntPredicate visitor) {
+    return walk(visitor, false);
+  }
+
+  /**
+   * Depth-first walk with an explicit stack of nodes and of the index of their next child, kept
+   * between walks, so that very deep trees do not overflow the call stack.
+   */
+  private boolean walk(IntPredicate visitor, boolean pre) {
+    if (root == null) {
+      return true;
+    }
+    if (pre && !visitor.test(root.data)) {
+      return false;
+    }
+    int top = push(0, root);
+    while (top > 0) {
+      Node node = stack[top - 1];
+      int next = nextChild[top - 1];
+      if (next < node.child.size()) {
+        nextChild[top - 1]++;
+        Node child = node.child.get(next);
+        if (pre && !visitor.test(child.data)) {
+          Arrays.fill(stack, 0, top, null);
+          return false;
+        }
+        top = push(top, child);
+      } else {
+        stack[--top] = null;
+        if (!pre && !visitor.test(node.data)) {
+          Arrays.fill(stack, 0, top, null);
+          return false;
+        }
       }
-      q.removeFirst();
     }
-    System.out.println(".");
+    return true;
+  }
+
+  private int push(int top, Node node) {
+    if (top == stack.length) {
+      stack = Arrays.copyOf(stack, 2 * top);
+      nextChild = Arrays.copyOf(nextChild, 2 * top);
+    }
+    stack[top] = node;
+    nextChild[top] = 0;
+    return top + 1;
+  }
+
+  /**
+   * Visits the nodes level by level, until the visitor returns false
+   *
+   * @return true if every node was visited
+   */
+  public boolean levelorder(IntPredicate visitor) {
+    if (root != null) {
+      queue.addLast(root);
+    }
+    while (!queue.isEmpty()) {
+      Node node = queue.removeFirst();
+      if (!visitor.test(node.data)) {
+        queue.clear();
+        return false;
+      }
+      queue.addAll(node.child);
+    }
+    return true;
+  }
+
+  /**
+   * Numbers the nodes in level order, the root being 0, to analyse the tree with {@link
+   * TreeAnalytics}
+   *
+   * @return the parent of each node, -1 for the root
+   */
+  public int[] parentArray() {
+    ArrayList<Node> nodes = levelOrderNodes();
+    int[] parents = new int[nodes.size()];
+    parents[0] = -1;
+    int next = 1;
+    for (int i = 0; i < nodes.size(); i++) {
+      for (int j = 0; j < nodes.get(i).child.size(); j++) {
+        parents[next++] = i;
+      }
+    }
+    return parents;
+  }
+
+  /** @return the data of each node, numbered as in {@link #parentArray()} */
+  public long[] dataArray() {
+    ArrayList<Node> nodes = levelOrderNodes();
+    long[] data = new long[nodes.size()];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = nodes.get(i).data;
+    }
+    return data;
+  }
+
+  private ArrayList<Node> levelOrderNodes() {
+    ArrayList<Node> nodes = new ArrayList<>();
+    nodes.add(root);
+    for (int i = 0; i < nodes.size(); i++) {
+      nodes.addAll(nodes.get(i).child);
+    }
+    return nodes;
   }
 
   /** Function to remove all leaves of generic tree */
@@ -0,0 +1,262 @@
+package DataStructures.Trees;
+
+/**
+ * Interval tree: a {@link RedBlackBST} keyed by half-open intervals {@code [start, end)} and
+ * augmented with the largest end of each subtree, answering "which intervals contain this point"
+ * and "which intervals overlap this range" in O(log n + k) for k results.
+ *
+ * <p>Intervals are ordered by start, then by end. Every node also keeps the largest end found in
+ * its subtree, recomputed by {@link #update} whenever a rotation or a removal changes the subtree,
+ * so a query skips any subtree whose largest end is not after the start of the query, and stops
+ * going right as soon as starts reach its end. Results are reported to an {@link IntervalVisitor}
+ * instead of being collected in a list, and the visitor can stop the query early.
+ *
+ * <p>The tree is a map: each interval has one value, and putting the same interval again replaces
+ * it. Keep a collection as the value to store several values under one interval. See {@link
+ * CenteredIntervalTree} for a static set of intervals.
+ *
+ * <p>https://en.wikipedia.org/wiki/Interval_tree#Augmented_tree
+ */
+public class IntervalTree<V> extends RedBlackBST<IntervalTree.Interval, V> {
+
+  /** Half-open interval {@code [start, end)}, ordered by start then end */
+  public static final class Interval implements Comparable<Interval> {
+    public final long start;
+    public final long end;
+
+    public Interval(long start, long end) {
+      if (start >= end) {
+        throw new IllegalArgumentException("empty interval [" + start + ", " + end + ")");
+      }
+      this.start = start;
+      this.end = end;
+    }
+
+    public boolean contains(long point) {
+      return start <= point && point < end;
+    }
+
+    /** @return <tt>true</tt> if this interval and {@code [from, to)} share a point */
+    public boolean overlaps(long from, long to) {
+      return start < to && from < end;
+    }
+
+    @Override
+    public int compareTo(Interval other) {
+      int cmp = Long.compare(start, other.start);
+      return cmp != 0 ? cmp : Long.compare(end, other.end);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Interval)) {
+        return false;
+      }
+      Interval other = (Interval) o;
+      return start == other.start && end == other.end;
+    }
+
+    @Override
+    public int hashCode() {
+      return Long.hashCode(start) * 31 + Long.hashCode(end);
+    }
+
+    @Override
+    public String toString() {
+      return "[" + start + ", " + end + ")";
+    }
+  }
+
+  /** Receives the intervals found by a query */
+  @FunctionalInterface
+  public interface IntervalVisitor<V> {
+    /** @return <tt>false</tt> to stop the query */
+    boolean visit(long start, long end, V value);
+  }
+
+  public V put(long start, long end, V value) {
+    return put(new Interval(start, end), value);
+  }
+
+  public V get(long start, long end) {
+    return start < end ? get(new Interval(start, end)) : null;
+  }
+
+  public V remove(long start, long end) {
+    return start < end ? remove(new Interval(start, end)) : null;
+  }
+
+  @Override
+  protected void update(Node<Interval, V> node) {
+    super.update(node);
+    long max = node.key.end;
+    if (node.left != null) {
+      max = Math.max(max, node.left.augment);
+    }
+    if (node.right != null) {
+      max = Math.max(max, node.right.augment);
+    }
+    node.augment = max;
+  }
+
+  @Override
+  protected void afterInsert(Node<Interval, V> node) {
+    long end = node.key.end;
+    node.augment = end;
+    for (Node<Interval, V> p = node.parent; p != null && p.augment < end; p = p.parent) {
+      p.augment = end;
+    }
+    super.afterInsert(node);
+  }
+
+  /** @return <tt>true</tt> if some interval overlaps {@code [from, to)}, in O(log n) */
+  public boolean overlapsAny(long from, long to) {
+    Node<Interval, V> node = root;
+    while (node != null) {
+      if (node.key.overlaps(from, to)) {
+        return true;
+      }
+      node = node.left != null && node.left.augment > from ? node.left : node.right;
+    }
+    return false;
+  }
+
+  /**
+   * Reports the intervals containing {@code point} in increasing order
+   *
+   * @return the number of intervals reported
+   */
+  public int forEachContaining(long point, IntervalVisitor<? super V> visitor) {
+    return forEachOverlapping(point, point + 1, visitor);
+  }
+
+  /**
+   * Reports the intervals overlapping {@code [from, to)} in increasing order
+   *
+   * @return the number of intervals reported
+   */
+  public int forEachOverlapping(long from, long to, IntervalVisitor<? super V> visitor) {
+    int[] count = {0};
+    if (from < to) {
+      search(root, from, to, visitor, count);
+    }
+    return count[0];
+  }
+
+  /** @return the number of intervals overlapping {@code [from, to)} */
+  public int countOverlapping(long from, long to) {
+    return forEachOverlapping(from, to, (start, end, value) -> true);
+  }
+
+  /** @return <tt>false</tt> if the visitor stopped the search */
+  private boolean search(
+      Node<Interval, V> node,
+      long from,
+      long to,
+      IntervalVisitor<? super V> visitor,
+      int[] count) {
+    /* The depth of the recursion is bounded by the height of the tree */
+    while (node != null && node.augment > from) {
+      if (!search(node.left, from, to, visitor, count)) {
+        return false;
+      }
+      if (node.key.start >= to) {
+        return true;
+      }
+      if (node.key.end > from) {
+        count[0]++;
+        if (!visitor.visit(node.key.start, node.key.end, node.value)) {
+          return false;
+        }
+      }
+      node = node.right;
+    }
+    return true;
+  }
+
+  private long checkAugment(Node<Interval, V> node) {
+    if (node == null) {
+      return Long.MIN_VALUE;
+    }
+    long max = Math.max(node.key.end, Math.max(checkAugment(node.left), checkAugment(node.right)));
+    assert node.augment == max : "bad largest end at " + node.key;
+    return max;
+  }
+
+  /* Driver Code */
+  public static void main(String[] args) {
+    IntervalTree<String> bookings = new IntervalTree<>();
+    bookings.put(9, 11, "standup");
+    bookings.put(10, 12, "review");
+    bookings.put(13, 15, "lunch");
+    bookings.put(15, 17, "planning");
+    bookings.put(8, 18, "on call");
+    assert bookings.overlapsAny(11, 12) && bookings.countOverlapping(11, 13) == 2;
+    assert bookings.countOverlapping(15, 16) == 2 && !bookings.overlapsAny(18, 20);
+    StringBuilder at10 = new StringBuilder();
+    bookings.forEachContaining(
+        10,
+        (start, end, name) -> {
+          at10.append(name).append(' ');
+          return true;
+        });
+    assert at10.toString().equals("on call standup review ");
+    int[] seen = {0};
+    assert bookings.forEachOverlapping(0, 100, (start, end, name) -> ++seen[0] < 2) == 2;
+    assert bookings.remove(8, 18).equals("on call") && bookings.countOverlapping(11, 13) == 1;
+    bookings.checkAugment(bookings.root);
+
+    /* Random operations against brute force */
+    java.util.Random random = new java.util.Random(47);
+    IntervalTree<Integer> tree = new IntervalTree<>();
+    java.util.Map<Interval, Integer> expected = new java.util.HashMap<>();
+    for (int op = 0; op < 50_000; op++) {
+      long start = random.nextInt(10_000);
+      long end = start + 1 + random.nextInt(200);
+      if (random.nextInt(3) > 0) {
+        assert java.util.Objects.equals(
+            tree.put(start, end, op), expected.put(new Interval(start, end), op));
+      } else {
+        Interval victim = tree.isEmpty() ? null : tree.select(random.nextInt(tree.size())).getKey();
+        if (victim != null) {
+          assert tree.remove(victim).equals(expected.remove(victim));
+        }
+      }
+      if (op % 1_000 == 0) {
+        tree.checkStructure(tree.root, null);
+        tree.checkAugment(tree.root);
+        long from = random.nextInt(10_000);
+        long to = from + 1 + random.nextInt(300);
+        int brute = 0;
+        for (Interval interval : expected.keySet()) {
+          if (interval.overlaps(from, to)) {
+            brute++;
+          }
+        }
+        assert tree.countOverlapping(from, to) == brute;
+        assert tree.overlapsAny(from, to) == (brute > 0);
+      }
+    }
+
+    /* Overlap checks against a large calendar */
+    IntervalTree<Void> calendar = new IntervalTree<>();
+    for (int i = 0; i < 1_000_000; i++) {
+      long start = (long) random.nextInt(1 << 30);
+      calendar.put(start, start + 1 + random.nextInt(3_600), null);
+    }
+    long begin = System.nanoTime();
+    int hits = 0;
+    for (int q = 0; q < 1_000_000; q++) {
+      long start = random.nextInt(1 << 30);
+      if (calendar.overlapsAny(start, start + 900)) {
+        hits++;
+      }
+    }
+    System.out.println(
+        "1M overlap checks in "
+            + (System.nanoTime() - begin) / 1_000_000
+            + " ms, "
+            + hits
+            + " conflicts");
+  }
+}
@@ -0,0 +1,262 @@
+package DataStructures.Trees;
+
+import java.util.Arrays;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Segment tree over {@code long} values supporting both range queries and "add {@code delta} to
+ * every value in a range" updates in O(log n).
+ *
+ * <p>An update does not visit every leaf of its range: it changes the O(log n) nodes covering the
+ * range and leaves a pending delta in each of them, pushed down to the children only when a later
+ * operation needs to look below (lazy propagation). The tree is a power-of-two sized {@code long[]}
+ * walked iteratively from the leaves, as in {@link SegmentTree}, with a second array of pending
+ * deltas; no operation allocates.
+ *
+ * <p>How a pending delta changes the aggregate of a node depends on the operation, so it is given
+ * as an {@link AddMapping}: the sum of a node of width w grows by {@code w * delta}, its min or max
+ * by {@code delta}.
+ *
+ * <p>https://cp-algorithms.com/data_structures/segment_tree.html#range-updates-lazy-propagation
+ */
+public class LazySegmentTree {
+
+  /** Effect of adding {@code delta} to each of the {@code width} values under a node */
+  @FunctionalInterface
+  public interface AddMapping {
+    long apply(long aggregate, long delta, int width);
+  }
+
+  private final int n;
+  private final int log;
+  private final int size;
+  private final long[] tree;
+  /** Delta still to be added to the children of each inner node */
+  private final long[] pending;
+  /** Number of real (not padding) values under each node */
+  private final int[] width;
+
+  private final LongBinaryOperator op;
+  private final long identity;
+  private final AddMapping mapping;
+
+  /**
+   * @param values initial values, copied
+   * @param op associative operation
+   * @param identity identity of {@code op}
+   * @param mapping effect of a range addition on the aggregate of a node
+   */
+  public LazySegmentTree(
+      long[] values, LongBinaryOperator op, long identity, AddMapping mapping) {
+    this.n = values.length;
+    int log = 0;
+    while ((1 << log) < n) {
+      log++;
+    }
+    this.log = log;
+    this.size = 1 << log;
+    this.tree = new long[2 * size];
+    this.pending = new long[size];
+    this.width = new int[2 * size];
+    this.op = op;
+    this.identity = identity;
+    this.mapping = mapping;
+    Arrays.fill(tree, identity);
+    System.arraycopy(values, 0, tree, size, n);
+    Arrays.fill(width, size, size + n, 1);
+    for (int i = size - 1; i > 0; i--) {
+      width[i] = width[2 * i] + width[2 * i + 1];
+      pull(i);
+    }
+  }
+
+  /** Range sums with range additions */
+  public static LazySegmentTree sum(long[] values) {
+    return new LazySegmentTree(values, Long::sum, 0, (sum, delta, w) -> sum + delta * w);
+  }
+
+  /** Range minimums with range additions */
+  public static LazySegmentTree min(long[] values) {
+    return new LazySegmentTree(
+        values, Math::min, Long.MAX_VALUE, (min, delta, w) -> w == 0 ? min : min + delta);
+  }
+
+  /** Range maximums with range additions */
+  public static LazySegmentTree max(long[] values) {
+    return new LazySegmentTree(
+        values, Math::max, Long.MIN_VALUE, (max, delta, w) -> w == 0 ? max : max + delta);
+  }
+
+  public int size() {
+    return n;
+  }
+
+  private void pull(int k) {
+    tree[k] = op.applyAsLong(tree[2 * k], tree[2 * k + 1]);
+  }
+
+  private void applyTo(int k, long delta) {
+    tree[k] = mapping.apply(tree[k], delta, width[k]);
+    if (k < size) {
+      pending[k] += delta;
+    }
+  }
+
+  private void push(int k) {
+    if (pending[k] != 0) {
+      applyTo(2 * k, pending[k]);
+      applyTo(2 * k + 1, pending[k]);
+      pending[k] = 0;
+    }
+  }
+
+  /** Pushes pending deltas down the paths to the leaves {@code l} and {@code r - 1} */
+  private void pushBoundaries(int l, int r) {
+    for (int i = log; i >= 1; i--) {
+      if (((l >> i) << i) != l) {
+        push(l >> i);
+      }
+      if (((r >> i) << i) != r) {
+        push((r - 1) >> i);
+      }
+    }
+  }
+
+  /** @return the operation folded over {@code [from, to)}, the identity for an empty range */
+  public long query(int from, int to) {
+    checkRange(from, to);
+    if (from == to) {
+      return identity;
+    }
+    int l = from + size;
+    int r = to + size;
+    pushBoundaries(l, r);
+    long left = identity;
+    long right = identity;
+    for (; l < r; l >>= 1, r >>= 1) {
+      if ((l & 1) == 1) {
+        left = op.applyAsLong(left, tree[l++]);
+      }
+      if ((r & 1) == 1) {
+        right = op.applyAsLong(tree[--r], right);
+      }
+    }
+    return op.applyAsLong(left, right);
+  }
+
+  public long get(int index) {
+    return query(index, index + 1);
+  }
+
+  /** Adds {@code delta} to every value in {@code [from, to)} */
+  public void add(int from, int to, long delta) {
+    checkRange(from, to);
+    if (from == to) {
+      return;
+    }
+    int l = from + size;
+    int r = to + size;
+    pushBoundaries(l, r);
+    for (int l2 = l, r2 = r; l2 < r2; l2 >>= 1, r2 >>= 1) {
+      if ((l2 & 1) == 1) {
+        applyTo(l2++, delta);
+      }
+      if ((r2 & 1) == 1) {
+        applyTo(--r2, delta);
+      }
+    }
+    for (int i = 1; i <= log; i++) {
+      if (((l >> i) << i) != l) {
+        pull(l >> i);
+      }
+      if (((r >> i) << i) != r) {
+        pull((r - 1) >> i);
+      }
+    }
+  }
+
+  /** Sets the value at {@code index} */
+  public void set(int index, long value) {
+    checkRange(index, index + 1);
+    int k = index + size;
+    for (int i = log; i >= 1; i--) {
+      push(k >> i);
+    }
+    tree[k] = value;
+    for (int i = 1; i <= log; i++) {
+      pull(k >> i);
+    }
+  }
+
+  private void checkRange(int from, int to) {
+    if (from < 0 || to > n || from > to) {
+      throw new IndexOutOfBoundsException("[" + from + ", " + to + ") of " + n);
+    }
+  }
+
+  /* Driver Code */
+  public static void main(String[] args) {
+    LazySegmentTree sums = sum(new long[] {1, 2, 3, 4, 5});
+    sums.add(1, 4, 10);
+    assert sums.query(0, 5) == 45 && sums.query(0, 2) == 13 && sums.get(3) == 14;
+    sums.set(3, 0);
+    assert sums.query(2, 5) == 18;
+
+    /* Against brute force, with sizes that are not powers of two */
+    java.util.Random random = new java.util.Random(6);
+    for (int n : new int[] {1, 7, 100, 1000}) {
+      long[] data = new long[n];
+      for (int i = 0; i < n; i++) {
+        data[i] = random.nextInt(100);
+      }
+      LazySegmentTree sum = sum(data);
+      LazySegmentTree min = min(data);
+      LazySegmentTree max = max(data);
+      for (int q = 0; q < 5_000; q++) {
+        int from = random.nextInt(n);
+        int to = from + 1 + random.nextInt(n - from);
+        if (random.nextBoolean()) {
+          long delta = random.nextInt(201) - 100;
+          sum.add(from, to, delta);
+          min.add(from, to, delta);
+          max.add(from, to, delta);
+          for (int i = from; i < to; i++) {
+            data[i] += delta;
+          }
+        } else {
+          long s = 0;
+          long lo = Long.MAX_VALUE;
+          long hi = Long.MIN_VALUE;
+          for (int i = from; i < to; i++) {
+            s += data[i];
+            lo = Math.min(lo, data[i]);
+            hi = Math.max(hi, data[i]);
+          }
+          assert sum.query(from, to) == s && min.query(from, to) == lo;
+          assert max.query(from, to) == hi;
+        }
+      }
+    }
+
+    /* Range additions and sums over a long series */
+    final int n = 1 << 20;
+    LazySegmentTree series = sum(new long[n]);
+    long start = System.nanoTime();
+    long checksum = 0;
+    for (int q = 0; q < 1_000_000; q++) {
+      int from = random.nextInt(n);
+      int to = from + random.nextInt(n - from + 1);
+      if ((q & 1) == 0) {
+        series.add(from, to, 1);
+      } else {
+        checksum += series.query(from, to);
+      }
+    }
+    System.out.println(
+        "1M operations on 2^20 values in "
+            + (System.nanoTime() - start) / 1_000_000
+            + " ms (checksum "
+            + checksum
+            + ")");
+  }
+}
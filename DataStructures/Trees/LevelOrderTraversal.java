@@ -14,36 +14,35 @@ public class LevelOrderTraversal {
 
   // Root of the Binary Tree
   Node root;
+  // Reused from one traversal to the next
+  private final BinaryTreeWalker<Node> walker =
+      new BinaryTreeWalker<>(node -> node.left, node -> node.right);
 
   public LevelOrderTraversal(Node root) {
     this.root = root;
   }
 
-  /* function to print level order traversal of tree*/
+  /* function to print level order traversal of tree, with the explicit queue of the walker
+  instead of printing each level recursively, which costs O(n * height) and overflows the stack
+  on degenerate trees */
   void printLevelOrder() {
-    int h = height(root);
-    int i;
-    for (i = 1; i <= h; i++) printGivenLevel(root, i);
+    walker.levelOrder(
+        root,
+        node -> {
+          System.out.print(node.data + " ");
+          return true;
+        });
+  }
+
+  /* The walker of this tree, reused across its traversals */
+  BinaryTreeWalker<Node> walker() {
+    return walker;
   }
 
   /* Compute the "height" of a tree -- the number of
   nodes along the longest path from the root node
   down to the farthest leaf node.*/
   int height(Node root) {
-    if (root == null) return 0;
-    else {
-      /** Return the height of larger subtree */
-      return Math.max(height(root.left), height(root.right)) + 1;
-    }
-  }
-
-  /* Print nodes at the given level */
-  void printGivenLevel(Node root, int level) {
-    if (root == null) return;
-    if (level == 1) System.out.print(root.data + " ");
-    else if (level > 1) {
-      printGivenLevel(root.left, level - 1);
-      printGivenLevel(root.right, level - 1);
-    }
+    return walker.height(root);
   }
 }
@@ -0,0 +1,514 @@
+package DataStructures.Trees;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Lock-free external binary search tree map after Ellen, Fatourou, Ruppert and van Breugel,
+ * "Non-blocking Binary Search Trees" (PODC 2010).
+ *
+ * <p>Entries live in immutable leaves; internal nodes only route searches. An insertion replaces a
+ * leaf by a new internal node with two leaves, a removal replaces the parent of a leaf by the
+ * leaf's sibling. Both are done by one compare-and-set on a child pointer, guarded by flags set
+ * with compare-and-set on the {@code update} field of the nodes involved: a pending operation
+ * stores a descriptor there, and any thread that runs into it helps finish that operation before
+ * retrying its own, so no thread ever waits on another. Replacing the value of a key swaps its leaf
+ * for a new one the same way as an insertion.
+ *
+ * <p>{@link #get}, {@link #put}, {@link #putIfAbsent} and {@link #remove} are linearizable. {@link
+ * #range} and {@link #iterator} are weakly consistent like those of {@link
+ * java.util.concurrent.ConcurrentSkipListMap}: they never throw {@link
+ * java.util.ConcurrentModificationException}, return keys in increasing order, and reflect some of
+ * the changes made while they run. {@link #size()} traverses the tree. Null keys and values are
+ * not allowed.
+ *
+ * <p>The tree is not rebalanced: the expected depth is O(log n) for keys inserted in random order,
+ * but keys inserted in sorted order make it a list. Prefer it for hashed or random keys.
+ *
+ * <p>https://doi.org/10.1145/1835698.1835736
+ */
+public class LockFreeBST<K extends Comparable<? super K>, V>
+    implements Iterable<Map.Entry<K, V>> {
+
+  /* States of the update field */
+  private static final int CLEAN = 0;
+  private static final int IFLAG = 1;
+  private static final int DFLAG = 2;
+  private static final int MARK = 3;
+
+  /* Kinds of keys: real keys, then the keys of the two sentinels, greater than every real key */
+  private static final int FINITE = 0;
+  private static final int INFINITY_1 = 1;
+  private static final int INFINITY_2 = 2;
+
+  private abstract static class Node<K, V> {
+    final K key;
+    /** FINITE for real keys, or which of the two infinite sentinel keys this node has */
+    final int infinity;
+
+    Node(K key, int infinity) {
+      this.key = key;
+      this.infinity = infinity;
+    }
+  }
+
+  private static final class Leaf<K, V> extends Node<K, V> implements Map.Entry<K, V> {
+    final V value;
+
+    Leaf(K key, int infinity, V value) {
+      super(key, infinity);
+      this.value = value;
+    }
+
+    @Override
+    public K getKey() {
+      return key;
+    }
+
+    @Override
+    public V getValue() {
+      return value;
+    }
+
+    /** Leaves are immutable, use {@link LockFreeBST#put} */
+    @Override
+    public V setValue(V value) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String toString() {
+      return key + "=" + value;
+    }
+  }
+
+  private static final class Internal<K, V> extends Node<K, V> {
+    volatile Node<K, V> left;
+    volatile Node<K, V> right;
+    volatile Update update;
+
+    Internal(K key, int infinity, Node<K, V> left, Node<K, V> right) {
+      super(key, infinity);
+      this.left = left;
+      this.right = right;
+      this.update = CLEAN_UPDATE;
+    }
+  }
+
+  /** Immutable state and descriptor pair, replaced as a whole with compare-and-set */
+  private static final class Update {
+    final int state;
+    final Object info;
+
+    Update(int state, Object info) {
+      this.state = state;
+      this.info = info;
+    }
+  }
+
+  private static final Update CLEAN_UPDATE = new Update(CLEAN, null);
+
+  /** Pending insertion: replace leaf {@code l} under {@code p} by {@code replacement} */
+  private static final class InsertInfo<K, V> {
+    final Internal<K, V> p;
+    final Leaf<K, V> l;
+    final Node<K, V> replacement;
+
+    InsertInfo(Internal<K, V> p, Leaf<K, V> l, Node<K, V> replacement) {
+      this.p = p;
+      this.l = l;
+      this.replacement = replacement;
+    }
+  }
+
+  /** Pending removal of leaf {@code l}, whose parent {@code p} is replaced under {@code gp} */
+  private static final class DeleteInfo<K, V> {
+    final Internal<K, V> gp;
+    final Internal<K, V> p;
+    final Leaf<K, V> l;
+    final Update pupdate;
+
+    DeleteInfo(Internal<K, V> gp, Internal<K, V> p, Leaf<K, V> l, Update pupdate) {
+      this.gp = gp;
+      this.p = p;
+      this.l = l;
+      this.pupdate = pupdate;
+    }
+  }
+
+  @SuppressWarnings("rawtypes")
+  private static final AtomicReferenceFieldUpdater<Internal, Node> LEFT =
+      AtomicReferenceFieldUpdater.newUpdater(Internal.class, Node.class, "left");
+
+  @SuppressWarnings("rawtypes")
+  private static final AtomicReferenceFieldUpdater<Internal, Node> RIGHT =
+      AtomicReferenceFieldUpdater.newUpdater(Internal.class, Node.class, "right");
+
+  @SuppressWarnings("rawtypes")
+  private static final AtomicReferenceFieldUpdater<Internal, Update> UPDATE =
+      AtomicReferenceFieldUpdater.newUpdater(Internal.class, Update.class, "update");
+
+  private final Internal<K, V> root =
+      new Internal<>(
+          null, INFINITY_2, new Leaf<>(null, INFINITY_1, null), new Leaf<>(null, INFINITY_2, null));
+
+  /** Result of a search: the leaf reached, its parent and grandparent with their updates */
+  private static final class Search<K, V> {
+    Internal<K, V> gp;
+    Internal<K, V> p;
+    Leaf<K, V> l;
+    Update pupdate;
+    Update gpupdate;
+  }
+
+  /** @return negative, zero or positive as the real key {@code key} is below, at or above node */
+  private static <K extends Comparable<? super K>> int compare(K key, Node<K, ?> node) {
+    return node.infinity != FINITE ? -1 : key.compareTo(node.key);
+  }
+
+  /** @return <tt>true</tt> if {@code a} belongs to the left of {@code b} */
+  private static <K extends Comparable<? super K>> boolean less(Node<K, ?> a, Node<K, ?> b) {
+    if (a.infinity != FINITE || b.infinity != FINITE) {
+      return a.infinity < b.infinity;
+    }
+    return a.key.compareTo(b.key) < 0;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Search<K, V> search(K key, Search<K, V> s) {
+    Internal<K, V> gp = null;
+    Internal<K, V> p = null;
+    Update gpupdate = null;
+    Update pupdate = null;
+    Node<K, V> l = root;
+    while (l instanceof Internal) {
+      gp = p;
+      p = (Internal<K, V>) l;
+      gpupdate = pupdate;
+      pupdate = p.update;
+      l = compare(key, p) < 0 ? p.left : p.right;
+    }
+    s.gp = gp;
+    s.p = p;
+    s.l = (Leaf<K, V>) l;
+    s.pupdate = pupdate;
+    s.gpupdate = gpupdate;
+    return s;
+  }
+
+  /** @return the value of {@code key}, or {@code null} if it is absent */
+  @SuppressWarnings("unchecked")
+  public V get(K key) {
+    Node<K, V> node = root;
+    while (node instanceof Internal) {
+      Internal<K, V> internal = (Internal<K, V>) node;
+      node = compare(key, internal) < 0 ? internal.left : internal.right;
+    }
+    return compare(key, node) == 0 ? ((Leaf<K, V>) node).value : null;
+  }
+
+  public boolean containsKey(K key) {
+    return get(key) != null;
+  }
+
+  /**
+   * Maps {@code key} to {@code value}
+   *
+   * @return the previous value of {@code key}, or {@code null} if it was absent
+   */
+  public V put(K key, V value) {
+    return insert(key, value, true);
+  }
+
+  /**
+   * Maps {@code key} to {@code value} unless it already has a value
+   *
+   * @return the current value of {@code key}, or {@code null} if {@code value} was added
+   */
+  public V putIfAbsent(K key, V value) {
+    return insert(key, value, false);
+  }
+
+  private V insert(K key, V value, boolean replace) {
+    if (key == null || value == null) {
+      throw new NullPointerException();
+    }
+    Search<K, V> s = new Search<>();
+    Leaf<K, V> leaf = new Leaf<>(key, FINITE, value);
+    while (true) {
+      search(key, s);
+      Leaf<K, V> l = s.l;
+      boolean present = compare(key, l) == 0;
+      if (present && !replace) {
+        return l.value;
+      }
+      if (s.pupdate.state != CLEAN) {
+        help(s.pupdate);
+        continue;
+      }
+      Node<K, V> replacement;
+      if (present) {
+        replacement = leaf;
+      } else {
+        /* l is copied so that no node is ever linked twice, which rules out ABA on child CAS */
+        Leaf<K, V> sibling = new Leaf<>(l.key, l.infinity, l.value);
+        replacement =
+            less(leaf, l)
+                ? new Internal<>(l.key, l.infinity, leaf, sibling)
+                : new Internal<>(key, FINITE, sibling, leaf);
+      }
+      InsertInfo<K, V> op = new InsertInfo<>(s.p, l, replacement);
+      if (UPDATE.compareAndSet(s.p, s.pupdate, new Update(IFLAG, op))) {
+        helpInsert(op);
+        return present ? l.value : null;
+      }
+      help(s.p.update);
+    }
+  }
+
+  /**
+   * Removes {@code key}
+   *
+   * @return the value it had, or {@code null} if it was absent
+   */
+  public V remove(K key) {
+    Search<K, V> s = new Search<>();
+    while (true) {
+      search(key, s);
+      if (compare(key, s.l) != 0) {
+        return null;
+      }
+      if (s.gpupdate.state != CLEAN) {
+        help(s.gpupdate);
+      } else if (s.pupdate.state != CLEAN) {
+        help(s.pupdate);
+      } else {
+        DeleteInfo<K, V> op = new DeleteInfo<>(s.gp, s.p, s.l, s.pupdate);
+        if (UPDATE.compareAndSet(s.gp, s.gpupdate, new Update(DFLAG, op))) {
+          if (helpDelete(op)) {
+            return s.l.value;
+          }
+        } else {
+          help(s.gp.update);
+        }
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void help(Update update) {
+    switch (update.state) {
+      case IFLAG:
+        helpInsert((InsertInfo<K, V>) update.info);
+        break;
+      case MARK:
+        helpMarked((DeleteInfo<K, V>) update.info);
+        break;
+      case DFLAG:
+        helpDelete((DeleteInfo<K, V>) update.info);
+        break;
+      default:
+        break;
+    }
+  }
+
+  private void helpInsert(InsertInfo<K, V> op) {
+    casChild(op.p, op.l, op.replacement);
+    Update current = op.p.update;
+    if (current.state == IFLAG && current.info == op) {
+      UPDATE.compareAndSet(op.p, current, new Update(CLEAN, op));
+    }
+  }
+
+  /** @return <tt>true</tt> if the removal took place, <tt>false</tt> if it has to be retried */
+  private boolean helpDelete(DeleteInfo<K, V> op) {
+    Update mark = new Update(MARK, op);
+    UPDATE.compareAndSet(op.p, op.pupdate, mark);
+    Update current = op.p.update;
+    if (current.state == MARK && current.info == op) {
+      helpMarked(op);
+      return true;
+    }
+    /* Another operation got p first: back off, unflagging the grandparent */
+    help(current);
+    Update flag = op.gp.update;
+    if (flag.state == DFLAG && flag.info == op) {
+      UPDATE.compareAndSet(op.gp, flag, new Update(CLEAN, op));
+    }
+    return false;
+  }
+
+  private void helpMarked(DeleteInfo<K, V> op) {
+    Node<K, V> other = op.p.right == op.l ? op.p.left : op.p.right;
+    casChild(op.gp, op.p, other);
+    Update current = op.gp.update;
+    if (current.state == DFLAG && current.info == op) {
+      UPDATE.compareAndSet(op.gp, current, new Update(CLEAN, op));
+    }
+  }
+
+  private void casChild(Internal<K, V> parent, Node<K, V> old, Node<K, V> replacement) {
+    if (less(replacement, parent)) {
+      LEFT.compareAndSet(parent, old, replacement);
+    } else {
+      RIGHT.compareAndSet(parent, old, replacement);
+    }
+  }
+
+  /** @return number of entries, counted by a weakly consistent traversal */
+  public int size() {
+    int size = 0;
+    for (Iterator<Map.Entry<K, V>> it = iterator(); it.hasNext(); it.next()) {
+      size++;
+    }
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return !iterator().hasNext();
+  }
+
+  /** @return a weakly consistent iterator over all entries in key order */
+  @Override
+  public Iterator<Map.Entry<K, V>> iterator() {
+    return new RangeIterator(null, null);
+  }
+
+  /**
+   * @param from lower bound, inclusive, or {@code null} for none
+   * @param to upper bound, exclusive, or {@code null} for none
+   * @return the entries with keys in {@code [from, to)}, read lazily and weakly consistent
+   */
+  public Iterable<Map.Entry<K, V>> range(K from, K to) {
+    return () -> new RangeIterator(from, to);
+  }
+
+  /** Depth-first walk that skips subtrees outside the range */
+  private final class RangeIterator implements Iterator<Map.Entry<K, V>> {
+    private final K from;
+    private final K to;
+    private final ArrayDeque<Node<K, V>> stack = new ArrayDeque<>();
+    private Leaf<K, V> next;
+    /** Last key returned, keys not above it are skipped to keep the order strict */
+    private K last;
+
+    RangeIterator(K from, K to) {
+      this.from = from;
+      this.to = to;
+      stack.push(root);
+      advance();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void advance() {
+      next = null;
+      while (!stack.isEmpty()) {
+        Node<K, V> node = stack.pop();
+        if (node instanceof Leaf) {
+          if (node.infinity != FINITE || (to != null && node.key.compareTo(to) >= 0)) {
+            stack.clear();
+            return;
+          }
+          if ((from == null || node.key.compareTo(from) >= 0)
+              && (last == null || node.key.compareTo(last) > 0)) {
+            next = (Leaf<K, V>) node;
+            last = node.key;
+            return;
+          }
+          continue;
+        }
+        Internal<K, V> internal = (Internal<K, V>) node;
+        /* Keys on the right are at least the routing key, keys on the left are below it */
+        Node<K, V> left = internal.left;
+        Node<K, V> right = internal.right;
+        if (to == null || compare(to, internal) > 0) {
+          stack.push(right);
+        }
+        if (from == null || compare(from, internal) < 0) {
+          stack.push(left);
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public Map.Entry<K, V> next() {
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      Leaf<K, V> current = next;
+      advance();
+      return current;
+    }
+  }
+
+  /* Driver Code */
+  public static void main(String[] args) throws InterruptedException {
+    LockFreeBST<Integer, String> tree = new LockFreeBST<>();
+    assert tree.isEmpty() && tree.get(1) == null;
+    for (int key : new int[] {5, 2, 8, 1, 9, 3}) {
+      assert tree.put(key, "v" + key) == null;
+    }
+    assert tree.put(8, "eight").equals("v8") && tree.get(8).equals("eight");
+    assert tree.putIfAbsent(8, "x").equals("eight") && tree.putIfAbsent(4, "v4") == null;
+    assert tree.remove(2).equals("v2") && tree.remove(2) == null && tree.size() == 6;
+    StringBuilder keys = new StringBuilder();
+    for (Map.Entry<Integer, String> entry : tree.range(3, 9)) {
+      keys.append(entry.getKey());
+    }
+    assert keys.toString().equals("3458");
+
+    /* Threads own disjoint key stripes, so the final content is known */
+    final int threads = 8;
+    final int keysPerThread = 20_000;
+    LockFreeBST<Integer, Integer> shared = new LockFreeBST<>();
+    Thread[] workers = new Thread[threads];
+    for (int t = 0; t < threads; t++) {
+      final int id = t;
+      workers[t] =
+          new Thread(
+              () -> {
+                java.util.Random random = new java.util.Random(id);
+                for (int i = 0; i < keysPerThread; i++) {
+                  int key = random.nextInt(keysPerThread) * threads + id;
+                  if (random.nextBoolean()) {
+                    shared.put(key, key);
+                  } else {
+                    shared.remove(key);
+                  }
+                }
+                /* Leave exactly the even multiples of this stripe */
+                for (int i = 0; i < keysPerThread; i++) {
+                  int key = i * threads + id;
+                  if (i % 2 == 0) {
+                    shared.put(key, key);
+                  } else {
+                    shared.remove(key);
+                  }
+                }
+              });
+      workers[t].start();
+    }
+    for (Thread worker : workers) {
+      worker.join();
+    }
+    int count = 0;
+    Integer previous = null;
+    for (Map.Entry<Integer, Integer> entry : shared) {
+      int key = entry.getKey();
+      assert (key / threads) % 2 == 0 && entry.getValue() == key;
+      assert previous == null || previous < key;
+      previous = key;
+      count++;
+    }
+    assert count == threads * keysPerThread / 2 : count;
+    System.out.println(count + " keys after concurrent updates");
+  }
+}
@@ -0,0 +1,729 @@
+package DataStructures.Trees;
+
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Common part of the balanced binary search tree maps {@link AVLTree} and {@link RedBlackBST}.
+ *
+ * <p>Nodes keep a parent pointer and the size of their subtree. The parent pointers let iterators
+ * move to the in-order successor in amortized O(1) without a stack, so range iterators are lazy
+ * and use constant memory. The subtree sizes make {@link #rank(Object)} and {@link #select(int)}
+ * O(log n): the rank of a key is the number of nodes passed on the left while searching for it.
+ * Subclasses only decide how to rebalance after an insertion or a removal; rotations here keep the
+ * sizes up to date.
+ *
+ * <p>Keys are ordered by a {@link Comparator} or by their natural ordering. This class is not
+ * thread-safe, and its iterators fail fast when the tree is modified during an iteration.
+ *
+ * <p>https://en.wikipedia.org/wiki/Order_statistic_tree
+ */
+public abstract class OrderedTreeMap<K, V> implements Iterable<Map.Entry<K, V>> {
+
+  /** Tree node, returned to callers as a map entry */
+  protected static final class Node<K, V> implements Map.Entry<K, V> {
+    K key;
+    V value;
+    Node<K, V> left;
+    Node<K, V> right;
+    Node<K, V> parent;
+    /** Number of nodes in the subtree rooted here */
+    int size = 1;
+    /** Balancing information of the subclass: the height in an AVL tree, the color in a RB tree */
+    int balance;
+    /** Extra subtree aggregate of subclasses overriding {@link #update}, e.g. the largest end */
+    long augment;
+
+    Node(K key, V value, Node<K, V> parent) {
+      this.key = key;
+      this.value = value;
+      this.parent = parent;
+    }
+
+    @Override
+    public K getKey() {
+      return key;
+    }
+
+    @Override
+    public V getValue() {
+      return value;
+    }
+
+    @Override
+    public V setValue(V value) {
+      V old = this.value;
+      this.value = value;
+      return old;
+    }
+
+    @Override
+    public String toString() {
+      return key + "=" + value;
+    }
+  }
+
+  protected Node<K, V> root;
+  protected int modCount;
+  private final Comparator<? super K> comparator;
+  /** Walks the nodes through their parent links, without a stack nor any state of its own */
+  private final BinaryTreeWalker<Node<K, V>> walker =
+      BinaryTreeWalker.withParents(n -> n.left, n -> n.right, n -> n.parent);
+
+  /** Init an empty map ordered by the natural ordering of the keys */
+  protected OrderedTreeMap() {
+    this(null);
+  }
+
+  /** Init an empty map ordered by {@code comparator} */
+  protected OrderedTreeMap(Comparator<? super K> comparator) {
+    this.comparator = comparator;
+  }
+
+  @SuppressWarnings("unchecked")
+  protected final int compare(K a, K b) {
+    return comparator != null ? comparator.compare(a, b) : ((Comparable<? super K>) a).compareTo(b);
+  }
+
+  /**
+   * Maps {@code key} to {@code value}
+   *
+   * @return the previous value of {@code key}, or {@code null} if it was absent
+   */
+  public V put(K key, V value) {
+    if (key == null) {
+      throw new NullPointerException("key");
+    }
+    Node<K, V> parent = null;
+    Node<K, V> node = root;
+    int cmp = 0;
+    while (node != null) {
+      parent = node;
+      cmp = compare(key, node.key);
+      if (cmp == 0) {
+        return node.setValue(value);
+      }
+      node = cmp < 0 ? node.left : node.right;
+    }
+    Node<K, V> added = new Node<>(key, value, parent);
+    if (parent == null) {
+      root = added;
+    } else if (cmp < 0) {
+      parent.left = added;
+    } else {
+      parent.right = added;
+    }
+    for (Node<K, V> p = parent; p != null; p = p.parent) {
+      p.size++;
+    }
+    modCount++;
+    afterInsert(added);
+    return null;
+  }
+
+  /**
+   * Removes {@code key}
+   *
+   * @return the value it had, or {@code null} if it was absent
+   */
+  public V remove(K key) {
+    Node<K, V> node = findNode(key);
+    if (node == null) {
+      return null;
+    }
+    V value = node.value;
+    modCount++;
+    removeNode(node);
+    return value;
+  }
+
+  /**
+   * Replaces the contents of the map by the given entries in O(n), without any comparison beyond
+   * checking the order and without rebalancing: the middle key becomes the root and each half is
+   * built the same way, which gives a tree balanced by size.
+   *
+   * @param keys keys in strictly increasing order
+   * @param values value of each key, or {@code null} for all-null values
+   * @throws IllegalArgumentException if the keys are not strictly increasing
+   */
+  public void buildFromSorted(K[] keys, V[] values) {
+    checkLengths(keys, values);
+    root = build(keys, values, 0, keys.length, 0, maxDepth(keys.length));
+    modCount++;
+  }
+
+  /**
+   * Same as {@link #buildFromSorted} with the two halves of large subtrees built in parallel by the
+   * common fork/join pool.
+   */
+  public void buildFromSortedParallel(K[] keys, V[] values) {
+    checkLengths(keys, values);
+    root =
+        ForkJoinPool.commonPool()
+            .invoke(new BuildTask(keys, values, 0, keys.length, 0, maxDepth(keys.length)));
+    modCount++;
+  }
+
+  private static void checkLengths(Object[] keys, Object[] values) {
+    if (values != null && values.length != keys.length) {
+      throw new IllegalArgumentException("keys and values differ in length");
+    }
+  }
+
+  /** @return depth of the deepest nodes of a tree of {@code n} nodes balanced by size */
+  private static int maxDepth(int n) {
+    return 31 - Integer.numberOfLeadingZeros(Math.max(1, n));
+  }
+
+  /** Subtrees with more keys are split between fork/join tasks */
+  private static final int PARALLEL_THRESHOLD = 1 << 13;
+
+  @SuppressWarnings("serial")
+  private final class BuildTask extends RecursiveTask<Node<K, V>> {
+    private final K[] keys;
+    private final V[] values;
+    private final int from;
+    private final int to;
+    private final int depth;
+    private final int maxDepth;
+
+    BuildTask(K[] keys, V[] values, int from, int to, int depth, int maxDepth) {
+      this.keys = keys;
+      this.values = values;
+      this.from = from;
+      this.to = to;
+      this.depth = depth;
+      this.maxDepth = maxDepth;
+    }
+
+    @Override
+    protected Node<K, V> compute() {
+      if (to - from <= PARALLEL_THRESHOLD) {
+        return build(keys, values, from, to, depth, maxDepth);
+      }
+      int mid = (from + to - 1) >>> 1;
+      BuildTask left = new BuildTask(keys, values, from, mid, depth + 1, maxDepth);
+      left.fork();
+      Node<K, V> right = new BuildTask(keys, values, mid + 1, to, depth + 1, maxDepth).compute();
+      return link(keys, values, from, to, mid, left.join(), right, depth, maxDepth);
+    }
+  }
+
+  /** Builds the subtree of {@code keys[from, to)}, whose root is at {@code depth} */
+  private Node<K, V> build(K[] keys, V[] values, int from, int to, int depth, int maxDepth) {
+    if (from == to) {
+      return null;
+    }
+    int mid = (from + to - 1) >>> 1;
+    Node<K, V> left = build(keys, values, from, mid, depth + 1, maxDepth);
+    Node<K, V> right = build(keys, values, mid + 1, to, depth + 1, maxDepth);
+    return link(keys, values, from, to, mid, left, right, depth, maxDepth);
+  }
+
+  private Node<K, V> link(
+      K[] keys,
+      V[] values,
+      int from,
+      int to,
+      int mid,
+      Node<K, V> left,
+      Node<K, V> right,
+      int depth,
+      int maxDepth) {
+    K key = keys[mid];
+    if (key == null) {
+      throw new NullPointerException("key");
+    }
+    /* Every adjacent pair is the middle key and one of its neighbours in some subtree */
+    if ((mid > from && compare(keys[mid - 1], key) >= 0)
+        || (mid + 1 < to && compare(key, keys[mid + 1]) >= 0)) {
+      throw new IllegalArgumentException("keys are not strictly increasing at " + mid);
+    }
+    Node<K, V> node = new Node<>(key, values == null ? null : values[mid], null);
+    node.left = left;
+    node.right = right;
+    if (left != null) {
+      left.parent = node;
+    }
+    if (right != null) {
+      right.parent = node;
+    }
+    update(node);
+    afterBuild(node, depth, maxDepth);
+    return node;
+  }
+
+  /**
+   * Sets the balancing information of a node built by {@link #buildFromSorted}, after its children
+   * and {@link #update}. All nodes are at most {@code maxDepth} deep, and all null links are at
+   * least {@code maxDepth - 1} deep.
+   */
+  protected void afterBuild(Node<K, V> node, int depth, int maxDepth) {}
+
+  /**
+   * Keeps in this map the entries whose key is in this map or in {@code other}, with the value of
+   * this map for keys in both, and leaves {@code other} empty. The default merges the two entry
+   * sequences and rebuilds the tree in O(n + m).
+   */
+  public void union(OrderedTreeMap<K, V> other) {
+    merge(other, true, true, true);
+  }
+
+  /**
+   * Keeps in this map only the entries whose key is also in {@code other}, and leaves {@code other}
+   * empty.
+   */
+  public void intersection(OrderedTreeMap<K, V> other) {
+    merge(other, false, true, false);
+  }
+
+  /** Removes from this map the keys of {@code other}, and leaves {@code other} empty. */
+  public void difference(OrderedTreeMap<K, V> other) {
+    merge(other, true, false, false);
+  }
+
+  /** Checks that {@code other} orders its keys with the same comparator */
+  protected final void checkSameOrder(OrderedTreeMap<K, ?> other) {
+    if (other == this) {
+      throw new IllegalArgumentException("a map cannot be merged with itself");
+    }
+    if (!Objects.equals(comparator, other.comparator)) {
+      throw new IllegalArgumentException("maps are not ordered by the same comparator");
+    }
+  }
+
+  /** Merges the sorted entries, keeping those only here, in both, only in {@code other} */
+  @SuppressWarnings("unchecked")
+  private void merge(
+      OrderedTreeMap<K, V> other, boolean onlyHere, boolean both, boolean onlyThere) {
+    checkSameOrder(other);
+    int capacity = (onlyHere ? size() : 0) + (onlyThere ? other.size() : 0);
+    if (!onlyHere && !onlyThere) {
+      capacity = Math.min(size(), other.size());
+    }
+    Object[] keys = new Object[capacity];
+    Object[] values = new Object[capacity];
+    int count = 0;
+    Node<K, V> a = root == null ? null : minimum(root);
+    Node<K, V> b = other.root == null ? null : minimum(other.root);
+    while (a != null || b != null) {
+      int cmp = a == null ? 1 : b == null ? -1 : compare(a.key, b.key);
+      Node<K, V> kept = null;
+      if (cmp < 0) {
+        kept = onlyHere ? a : null;
+        a = successor(a);
+      } else if (cmp > 0) {
+        kept = onlyThere ? b : null;
+        b = successor(b);
+      } else {
+        kept = both ? a : null;
+        a = successor(a);
+        b = successor(b);
+      }
+      if (kept != null) {
+        keys[count] = kept.key;
+        values[count++] = kept.value;
+      }
+    }
+    other.clear();
+    root = build((K[]) keys, (V[]) values, 0, count, 0, maxDepth(count));
+    modCount++;
+  }
+
+  /** Restores the balance after {@code node} has been linked as a leaf */
+  protected abstract void afterInsert(Node<K, V> node);
+
+  /** Unlinks {@code node} and restores the balance, keeping the subtree sizes right */
+  protected abstract void removeNode(Node<K, V> node);
+
+  /** Recomputes the information {@code node} keeps about its subtree from its children */
+  protected void update(Node<K, V> node) {
+    node.size = 1 + size(node.left) + size(node.right);
+  }
+
+  /** Calls {@link #update} from {@code node} up to the root */
+  protected final void updateToRoot(Node<K, V> node) {
+    for (; node != null; node = node.parent) {
+      update(node);
+    }
+  }
+
+  /** @return the new root of the rotated subtree, the former right child of {@code node} */
+  protected final Node<K, V> rotateLeft(Node<K, V> node) {
+    Node<K, V> right = node.right;
+    node.right = right.left;
+    if (right.left != null) {
+      right.left.parent = node;
+    }
+    replaceChild(node, right);
+    right.left = node;
+    node.parent = right;
+    update(node);
+    update(right);
+    return right;
+  }
+
+  /** @return the new root of the rotated subtree, the former left child of {@code node} */
+  protected final Node<K, V> rotateRight(Node<K, V> node) {
+    Node<K, V> left = node.left;
+    node.left = left.right;
+    if (left.right != null) {
+      left.right.parent = node;
+    }
+    replaceChild(node, left);
+    left.right = node;
+    node.parent = left;
+    update(node);
+    update(left);
+    return left;
+  }
+
+  /** Puts {@code with}, possibly null, in the place of {@code target} under its parent */
+  protected final void replaceChild(Node<K, V> target, Node<K, V> with) {
+    Node<K, V> parent = target.parent;
+    if (parent == null) {
+      root = with;
+    } else if (parent.left == target) {
+      parent.left = with;
+    } else {
+      parent.right = with;
+    }
+    if (with != null) {
+      with.parent = parent;
+    }
+  }
+
+  protected static int size(Node<?, ?> node) {
+    return node == null ? 0 : node.size;
+  }
+
+  protected static <K, V> Node<K, V> minimum(Node<K, V> node) {
+    while (node.left != null) {
+      node = node.left;
+    }
+    return node;
+  }
+
+  protected static <K, V> Node<K, V> maximum(Node<K, V> node) {
+    while (node.right != null) {
+      node = node.right;
+    }
+    return node;
+  }
+
+  protected static <K, V> Node<K, V> successor(Node<K, V> node) {
+    if (node.right != null) {
+      return minimum(node.right);
+    }
+    Node<K, V> parent = node.parent;
+    while (parent != null && node == parent.right) {
+      node = parent;
+      parent = parent.parent;
+    }
+    return parent;
+  }
+
+  protected static <K, V> Node<K, V> predecessor(Node<K, V> node) {
+    if (node.left != null) {
+      return maximum(node.left);
+    }
+    Node<K, V> parent = node.parent;
+    while (parent != null && node == parent.left) {
+      node = parent;
+      parent = parent.parent;
+    }
+    return parent;
+  }
+
+  protected final Node<K, V> findNode(K key) {
+    Node<K, V> node = root;
+    while (node != null) {
+      int cmp = compare(key, node.key);
+      if (cmp == 0) {
+        return node;
+      }
+      node = cmp < 0 ? node.left : node.right;
+    }
+    return null;
+  }
+
+  /** @return the value of {@code key}, or {@code null} if it is absent */
+  public V get(K key) {
+    Node<K, V> node = findNode(key);
+    return node == null ? null : node.value;
+  }
+
+  public boolean containsKey(K key) {
+    return findNode(key) != null;
+  }
+
+  public int size() {
+    return size(root);
+  }
+
+  public boolean isEmpty() {
+    return root == null;
+  }
+
+  public void clear() {
+    root = null;
+    modCount++;
+  }
+
+  /** @throws NoSuchElementException if the map is empty */
+  public K firstKey() {
+    return key(root == null ? null : minimum(root));
+  }
+
+  /** @throws NoSuchElementException if the map is empty */
+  public K lastKey() {
+    return key(root == null ? null : maximum(root));
+  }
+
+  private static <K> K key(Node<K, ?> node) {
+    if (node == null) {
+      throw new NoSuchElementException();
+    }
+    return node.key;
+  }
+
+  /** @return the entry with the greatest key less than or equal to {@code key}, or null */
+  public Map.Entry<K, V> floorEntry(K key) {
+    return bound(key, true, true);
+  }
+
+  /** @return the entry with the least key greater than or equal to {@code key}, or null */
+  public Map.Entry<K, V> ceilingEntry(K key) {
+    return bound(key, false, true);
+  }
+
+  /** @return the entry with the greatest key strictly less than {@code key}, or null */
+  public Map.Entry<K, V> lowerEntry(K key) {
+    return bound(key, true, false);
+  }
+
+  /** @return the entry with the least key strictly greater than {@code key}, or null */
+  public Map.Entry<K, V> higherEntry(K key) {
+    return bound(key, false, false);
+  }
+
+  /** @return the greatest key less than or equal to {@code key}, or null */
+  public K floorKey(K key) {
+    Node<K, V> node = bound(key, true, true);
+    return node == null ? null : node.key;
+  }
+
+  /** @return the least key greater than or equal to {@code key}, or null */
+  public K ceilingKey(K key) {
+    Node<K, V> node = bound(key, false, true);
+    return node == null ? null : node.key;
+  }
+
+  /** Closest node below ({@code below}) or above {@code key}, equal to it if {@code inclusive} */
+  private Node<K, V> bound(K key, boolean below, boolean inclusive) {
+    Node<K, V> node = root;
+    Node<K, V> best = null;
+    while (node != null) {
+      int cmp = compare(key, node.key);
+      if (cmp == 0 && inclusive) {
+        return node;
+      }
+      if (below ? cmp > 0 : cmp >= 0) {
+        if (below) {
+          best = node;
+        }
+        node = node.right;
+      } else {
+        if (!below) {
+          best = node;
+        }
+        node = node.left;
+      }
+    }
+    return best;
+  }
+
+  /** @return number of keys strictly less than {@code key}, whether or not it is present */
+  public int rank(K key) {
+    int rank = 0;
+    Node<K, V> node = root;
+    while (node != null) {
+      int cmp = compare(key, node.key);
+      if (cmp <= 0) {
+        if (cmp == 0) {
+          return rank + size(node.left);
+        }
+        node = node.left;
+      } else {
+        rank += size(node.left) + 1;
+        node = node.right;
+      }
+    }
+    return rank;
+  }
+
+  /**
+   * @param index position in key order, from 0
+   * @return the entry with exactly {@code index} smaller keys
+   * @throws IndexOutOfBoundsException if {@code index} is not in {@code [0, size())}
+   */
+  public Map.Entry<K, V> select(int index) {
+    if (index < 0 || index >= size()) {
+      throw new IndexOutOfBoundsException("index: " + index + ", size: " + size());
+    }
+    Node<K, V> node = root;
+    while (true) {
+      int leftSize = size(node.left);
+      if (index < leftSize) {
+        node = node.left;
+      } else if (index > leftSize) {
+        index -= leftSize + 1;
+        node = node.right;
+      } else {
+        return node;
+      }
+    }
+  }
+
+  /**
+   * @param fraction a number in {@code [0, 1]}, e.g. 0.99 for the 99th percentile
+   * @return the entry below which {@code fraction} of the other entries lie (nearest rank)
+   */
+  public Map.Entry<K, V> percentile(double fraction) {
+    if (!(fraction >= 0 && fraction <= 1)) {
+      throw new IllegalArgumentException("fraction must be in [0, 1]");
+    }
+    return select((int) Math.round(fraction * (size() - 1)));
+  }
+
+  /** @return number of keys in {@code [from, to)} */
+  public int countRange(K from, K to) {
+    return Math.max(0, rank(to) - rank(from));
+  }
+
+  /**
+   * Visits the entries in key order, in O(1) space
+   *
+   * @return <tt>true</tt> if every entry was visited, <tt>false</tt> if the visitor stopped
+   */
+  public boolean inOrder(BinaryTreeWalker.Visitor<? super Map.Entry<K, V>> visitor) {
+    return walker.inOrder(root, visitor);
+  }
+
+  /** Visits each node before its subtrees, in O(1) space, e.g. to copy the tree's shape */
+  public boolean preOrder(BinaryTreeWalker.Visitor<? super Map.Entry<K, V>> visitor) {
+    return walker.preOrder(root, visitor);
+  }
+
+  /** Visits each node after its subtrees, in O(1) space */
+  public boolean postOrder(BinaryTreeWalker.Visitor<? super Map.Entry<K, V>> visitor) {
+    return walker.postOrder(root, visitor);
+  }
+
+  /** Visits the nodes level by level from the root, with a queue as wide as two levels */
+  public boolean levelOrder(BinaryTreeWalker.Visitor<? super Map.Entry<K, V>> visitor) {
+    BinaryTreeWalker<Node<K, V>> queued = new BinaryTreeWalker<>(n -> n.left, n -> n.right);
+    return queued.levelOrder(root, visitor);
+  }
+
+  /** @return a lazy iterator over all entries in key order */
+  @Override
+  public Iterator<Map.Entry<K, V>> iterator() {
+    return new RangeIterator(root == null ? null : minimum(root), null, false);
+  }
+
+  /** @return the entries with keys in {@code [from, to)}, in key order, read lazily */
+  public Iterable<Map.Entry<K, V>> range(K from, K to) {
+    return range(from, true, to, false);
+  }
+
+  /**
+   * @param from lower bound, or {@code null} for none
+   * @param to upper bound, or {@code null} for none
+   * @return the entries between the bounds in key order, read lazily from the tree
+   */
+  public Iterable<Map.Entry<K, V>> range(
+      K from, boolean fromInclusive, K to, boolean toInclusive) {
+    return () -> {
+      Node<K, V> first;
+      if (from == null) {
+        first = root == null ? null : minimum(root);
+      } else {
+        first = bound(from, false, fromInclusive);
+      }
+      return new RangeIterator(first, to, toInclusive);
+    };
+  }
+
+  /** Walks successors from a first node until a bound, without any stack */
+  private final class RangeIterator implements Iterator<Map.Entry<K, V>> {
+    private Node<K, V> next;
+    private final K to;
+    private final boolean toInclusive;
+    private final int expectedModCount = modCount;
+
+    RangeIterator(Node<K, V> first, K to, boolean toInclusive) {
+      this.to = to;
+      this.toInclusive = toInclusive;
+      this.next = first != null && inRange(first) ? first : null;
+    }
+
+    private boolean inRange(Node<K, V> node) {
+      if (to == null) {
+        return true;
+      }
+      int cmp = compare(node.key, to);
+      return cmp < 0 || (cmp == 0 && toInclusive);
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public Map.Entry<K, V> next() {
+      if (modCount != expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      Node<K, V> current = next;
+      Node<K, V> following = successor(current);
+      next = following != null && inRange(following) ? following : null;
+      return current;
+    }
+  }
+
+  /** Checks ordering, parent links and sizes, returning the number of nodes */
+  protected int checkStructure(Node<K, V> node, Node<K, V> parent) {
+    if (node == null) {
+      return 0;
+    }
+    assert node.parent == parent : "bad parent link at " + node.key;
+    assert node.left == null || compare(node.left.key, node.key) < 0;
+    assert node.right == null || compare(node.right.key, node.key) > 0;
+    int size = 1 + checkStructure(node.left, node) + checkStructure(node.right, node);
+    assert node.size == size : "bad size at " + node.key;
+    return size;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder("{");
+    for (Map.Entry<K, V> entry : this) {
+      if (builder.length() > 1) {
+        builder.append(", ");
+      }
+      builder.append(entry);
+    }
+    return builder.append('}').toString();
+  }
+}
@@ -1,331 +1,292 @@
-package DataStructures.Trees;
-
-import java.util.Scanner;
-
-/** @author jack870131 */
-public class RedBlackBST {
-
-  private final int R = 0;
-  private final int B = 1;
-
-  private class Node {
-
-    int key = -1, color = B;
-    Node left = nil, right = nil, p = nil;
-
-    Node(int key) {
-      this.key = key;
-    }
-  }
-
-  private final Node nil = new Node(-1);
-  private Node root = nil;
-
-  public void printTree(Node node) {
-    if (node == nil) {
-      return;
-    }
-    printTree(node.left);
-    System.out.print(
-        ((node.color == R) ? " R " : " B ") + "Key: " + node.key + " Parent: " + node.p.key + "\n");
-    printTree(node.right);
-  }
-
-  public void printTreepre(Node node) {
-    if (node == nil) {
-      return;
-    }
-    System.out.print(
-        ((node.color == R) ? " R " : " B ") + "Key: " + node.key + " Parent: " + node.p.key + "\n");
-    printTree(node.left);
-    printTree(node.right);
-  }
-
-  private Node findNode(Node findNode, Node node) {
-    if (root == nil) {
-      return null;
-    }
-    if (findNode.key < node.key) {
-      if (node.left != nil) {
-        return findNode(findNode, node.left);
-      }
-    } else if (findNode.key > node.key) {
-      if (node.right != nil) {
-        return findNode(findNode, node.right);
-      }
-    } else if (findNode.key == node.key) {
-      return node;
-    }
-    return null;
-  }
-
-  private void insert(Node node) {
-    Node temp = root;
-    if (root == nil) {
-      root = node;
-      node.color = B;
-      node.p = nil;
-    } else {
-      node.color = R;
-      while (true) {
-        if (node.key < temp.key) {
-          if (temp.left == nil) {
-            temp.left = node;
-            node.p = temp;
-            break;
-          } else {
-            temp = temp.left;
-          }
-        } else if (node.key >= temp.key) {
-          if (temp.right == nil) {
-            temp.right = node;
-            node.p = temp;
-            break;
-          } else {
-            temp = temp.right;
-          }
-        }
-      }
-      fixTree(node);
-    }
-  }
-
-  private void fixTree(Node node) {
-    while (node.p.color == R) {
-      Node y = nil;
-      if (node.p == node.p.p.left) {
-        y = node.p.p.right;
-
-        if (y != nil && y.color == R) {
-          node.p.color = B;
-          y.color = B;
-          node.p.p.color = R;
-          node = node.p.p;
-          continue;
-        }
-        if (node == node.p.right) {
-          node = node.p;
-          rotateLeft(node);
-        }
-        node.p.color = B;
-        node.p.p.color = R;
-        rotateRight(node.p.p);
-      } else {
-        y = node.p.p.left;
-        if (y != nil && y.color == R) {
-          node.p.color = B;
-          y.color = B;
-          node.p.p.color = R;
-          node = node.p.p;
-          continue;
-        }
-        if (node == node.p.left) {
-          node = node.p;
-          rotateRight(node);
-        }
-        node.p.color = B;
-        node.p.p.color = R;
-        rotateLeft(node.p.p);
-      }
-    }
-    root.color = B;
-  }
-
-  void rotateLeft(Node node) {
-    if (node.p != nil) {
-      if (node == node.p.left) {
-        node.p.left = node.right;
-      } else {
-        node.p.right = node.right;
-      }
-      node.right.p = node.p;
-      node.p = node.right;
-      if (node.right.left != nil) {
-        node.right.left.p = node;
-      }
-      node.right = node.right.left;
-      node.p.left = node;
-    } else {
-      Node right = root.right;
-      root.right = right.left;
-      right.left.p = root;
-      root.p = right;
-      right.left = root;
-      right.p = nil;
-      root = right;
-    }
-  }
-
-  void rotateRight(Node node) {
-    if (node.p != nil) {
-      if (node == node.p.left) {
-        node.p.left = node.left;
-      } else {
-        node.p.right = node.left;
-      }
-
-      node.left.p = node.p;
-      node.p = node.left;
-      if (node.left.right != nil) {
-        node.left.right.p = node;
-      }
-      node.left = node.left.right;
-      node.p.right = node;
-    } else {
-      Node left = root.left;
-      root.left = root.left.right;
-      left.right.p = root;
-      root.p = left;
-      left.right = root;
-      left.p = nil;
-      root = left;
-    }
-  }
-
-  void transplant(Node target, Node with) {
-    if (target.p == nil) {
-      root = with;
-    } else if (target == target.p.left) {
-      target.p.left = with;
-    } else target.p.right = with;
-    with.p = target.p;
-  }
-
-  Node treeMinimum(Node subTreeRoot) {
-    while (subTreeRoot.left != nil) {
-      subTreeRoot = subTreeRoot.left;
-    }
-    return subTreeRoot;
-  }
-
-  boolean delete(Node z) {
-    if ((z = findNode(z, root)) == null) return false;
-    Node x;
-    Node y = z;
-    int yorigcolor = y.color;
-
-    if (z.left == nil) {
-      x = z.right;
-      transplant(z, z.right);
-    } else if (z.right == nil) {
-      x = z.left;
-      transplant(z, z.left);
-    } else {
-      y = treeMinimum(z.right);
-      yorigcolor = y.color;
-      x = y.right;
-      if (y.p == z) x.p = y;
-      else {
-        transplant(y, y.right);
-        y.right = z.right;
-        y.right.p = y;
-      }
-      transplant(z, y);
-      y.left = z.left;
-      y.left.p = y;
-      y.color = z.color;
-    }
-    if (yorigcolor == B) deleteFixup(x);
-    return true;
-  }
-
-  void deleteFixup(Node x) {
-    while (x != root && x.color == B) {
-      if (x == x.p.left) {
-        Node w = x.p.right;
-        if (w.color == R) {
-          w.color = B;
-          x.p.color = R;
-          rotateLeft(x.p);
-          w = x.p.right;
-        }
-        if (w.left.color == B && w.right.color == B) {
-          w.color = R;
-          x = x.p;
-          continue;
-        } else if (w.right.color == B) {
-          w.left.color = B;
-          w.color = R;
-          rotateRight(w);
-          w = x.p.right;
-        }
-        if (w.right.color == R) {
-          w.color = x.p.color;
-          x.p.color = B;
-          w.right.color = B;
-          rotateLeft(x.p);
-          x = root;
-        }
-      } else {
-        Node w = x.p.left;
-        if (w.color == R) {
-          w.color = B;
-          x.p.color = R;
-          rotateRight(x.p);
-          w = x.p.left;
-        }
-        if (w.right.color == B && w.left.color == B) {
-          w.color = R;
-          x = x.p;
-          continue;
-        } else if (w.left.color == B) {
-          w.right.color = B;
-          w.color = R;
-          rotateLeft(w);
-          w = x.p.left;
-        }
-        if (w.left.color == R) {
-          w.color = x.p.color;
-          x.p.color = B;
-          w.left.color = B;
-          rotateRight(x.p);
-          x = root;
-        }
-      }
-    }
-    x.color = B;
-  }
-
-  public void insertDemo() {
-    Scanner scan = new Scanner(System.in);
-    while (true) {
-      System.out.println("Add items");
-
-      int item;
-      Node node;
-
-      item = scan.nextInt();
-      while (item != -999) {
-        node = new Node(item);
-        insert(node);
-        item = scan.nextInt();
-      }
-      printTree(root);
-      System.out.println("Pre order");
-      printTreepre(root);
-      break;
-    }
-    scan.close();
-  }
-
-  public void deleteDemo() {
-    Scanner scan = new Scanner(System.in);
-    System.out.println("Delete items");
-    int item;
-    Node node;
-    item = scan.nextInt();
-    node = new Node(item);
-    System.out.print("Deleting item " + item);
-    if (delete(node)) {
-      System.out.print(": deleted!");
-    } else {
-      System.out.print(": does not exist!");
-    }
-
-    System.out.println();
-    printTree(root);
-    System.out.println("Pre order");
-    printTreepre(root);
-    scan.close();
-  }
-}
+package DataStructures.Trees;
+
+import java.util.Comparator;
+import java.util.Map;
+
+/**
+ * Red-black tree map, rebalanced as in Introduction to Algorithms (CLRS) with null leaves in place
+ * of the sentinel. Ordered queries, rank/select and range iteration come from {@link
+ * OrderedTreeMap}.
+ *
+ * <p>https://en.wikipedia.org/wiki/Red%E2%80%93black_tree
+ *
+ * @author jack870131
+ */
+public class RedBlackBST<K, V> extends OrderedTreeMap<K, V> {
+
+  /* Colors kept in Node.balance; new nodes start red */
+  private static final int R = 0;
+  private static final int B = 1;
+
+  /** Init an empty tree ordered by the natural ordering of the keys */
+  public RedBlackBST() {}
+
+  /** Init an empty tree ordered by {@code comparator} */
+  public RedBlackBST(Comparator<? super K> comparator) {
+    super(comparator);
+  }
+
+  private static boolean isRed(Node<?, ?> node) {
+    return node != null && node.balance == R;
+  }
+
+  private static boolean isBlack(Node<?, ?> node) {
+    return node == null || node.balance == B;
+  }
+
+  @Override
+  protected void afterInsert(Node<K, V> node) {
+    node.balance = R;
+    while (isRed(node.parent)) {
+      Node<K, V> parent = node.parent;
+      Node<K, V> grand = parent.parent;
+      if (parent == grand.left) {
+        Node<K, V> uncle = grand.right;
+        if (isRed(uncle)) {
+          parent.balance = B;
+          uncle.balance = B;
+          grand.balance = R;
+          node = grand;
+          continue;
+        }
+        if (node == parent.right) {
+          node = parent;
+          rotateLeft(node);
+          parent = node.parent;
+        }
+        parent.balance = B;
+        grand.balance = R;
+        rotateRight(grand);
+      } else {
+        Node<K, V> uncle = grand.left;
+        if (isRed(uncle)) {
+          parent.balance = B;
+          uncle.balance = B;
+          grand.balance = R;
+          node = grand;
+          continue;
+        }
+        if (node == parent.left) {
+          node = parent;
+          rotateRight(node);
+          parent = node.parent;
+        }
+        parent.balance = B;
+        grand.balance = R;
+        rotateLeft(grand);
+      }
+    }
+    root.balance = B;
+  }
+
+  @Override
+  protected void removeNode(Node<K, V> z) {
+    Node<K, V> y = z;
+    int yOriginalColor = y.balance;
+    Node<K, V> x;
+    /* Parent of x, tracked separately as x may be null */
+    Node<K, V> xParent;
+    if (z.left == null) {
+      x = z.right;
+      xParent = z.parent;
+      replaceChild(z, z.right);
+    } else if (z.right == null) {
+      x = z.left;
+      xParent = z.parent;
+      replaceChild(z, z.left);
+    } else {
+      y = minimum(z.right);
+      yOriginalColor = y.balance;
+      x = y.right;
+      if (y.parent == z) {
+        xParent = y;
+      } else {
+        xParent = y.parent;
+        replaceChild(y, y.right);
+        y.right = z.right;
+        y.right.parent = y;
+      }
+      replaceChild(z, y);
+      y.left = z.left;
+      y.left.parent = y;
+      y.balance = z.balance;
+    }
+    updateToRoot(xParent);
+    if (yOriginalColor == B) {
+      deleteFixup(x, xParent);
+    }
+  }
+
+  private void deleteFixup(Node<K, V> x, Node<K, V> parent) {
+    while (x != root && isBlack(x)) {
+      if (x == parent.left) {
+        Node<K, V> w = parent.right;
+        if (isRed(w)) {
+          w.balance = B;
+          parent.balance = R;
+          rotateLeft(parent);
+          w = parent.right;
+        }
+        if (isBlack(w.left) && isBlack(w.right)) {
+          w.balance = R;
+          x = parent;
+          parent = x.parent;
+          continue;
+        }
+        if (isBlack(w.right)) {
+          w.left.balance = B;
+          w.balance = R;
+          rotateRight(w);
+          w = parent.right;
+        }
+        w.balance = parent.balance;
+        parent.balance = B;
+        w.right.balance = B;
+        rotateLeft(parent);
+        x = root;
+      } else {
+        Node<K, V> w = parent.left;
+        if (isRed(w)) {
+          w.balance = B;
+          parent.balance = R;
+          rotateRight(parent);
+          w = parent.left;
+        }
+        if (isBlack(w.right) && isBlack(w.left)) {
+          w.balance = R;
+          x = parent;
+          parent = x.parent;
+          continue;
+        }
+        if (isBlack(w.left)) {
+          w.right.balance = B;
+          w.balance = R;
+          rotateLeft(w);
+          w = parent.left;
+        }
+        w.balance = parent.balance;
+        parent.balance = B;
+        w.left.balance = B;
+        rotateRight(parent);
+        x = root;
+      }
+    }
+    if (x != null) {
+      x.balance = B;
+    }
+  }
+
+  /** Colors the deepest level of a tree built from sorted keys red, and the rest black */
+  @Override
+  protected void afterBuild(Node<K, V> node, int depth, int maxDepth) {
+    node.balance = depth == maxDepth && depth > 0 ? R : B;
+  }
+
+  private void check() {
+    checkStructure(root, null);
+    assert isBlack(root);
+    blackHeight(root);
+  }
+
+  private int blackHeight(Node<K, V> node) {
+    if (node == null) {
+      return 1;
+    }
+    assert !(isRed(node) && (isRed(node.left) || isRed(node.right))) : "red-red at " + node.key;
+    int left = blackHeight(node.left);
+    assert left == blackHeight(node.right) : "black heights differ at " + node.key;
+    return left + (isBlack(node) ? 1 : 0);
+  }
+
+  /* Driver Code */
+  public static void main(String[] args) {
+    RedBlackBST<String, Integer> tree = new RedBlackBST<>();
+    for (String word : "the quick brown fox jumps over the lazy dog".split(" ")) {
+      Integer count = tree.get(word);
+      tree.put(word, count == null ? 1 : count + 1);
+    }
+    assert tree.size() == 8 && tree.get("the") == 2;
+    assert tree.firstKey().equals("brown") && tree.lastKey().equals("the");
+    assert tree.floorKey("m").equals("lazy") && tree.ceilingKey("m").equals("over");
+    assert tree.lowerEntry("fox").getKey().equals("dog");
+    assert tree.higherEntry("fox").getKey().equals("jumps");
+    assert tree.rank("over") == 5 && tree.select(5).getKey().equals("over");
+    StringBuilder words = new StringBuilder();
+    for (Map.Entry<String, Integer> entry : tree.range("dog", true, "over", true)) {
+      words.append(entry.getKey()).append(' ');
+    }
+    assert words.toString().equals("dog fox jumps lazy over ");
+    assert tree.remove("fox") == 1 && tree.get("fox") == null && tree.rank("over") == 4;
+    tree.check();
+
+    /* Random operations against TreeMap */
+    java.util.Random random = new java.util.Random(9);
+    RedBlackBST<Integer, Integer> rb = new RedBlackBST<>();
+    java.util.TreeMap<Integer, Integer> expected = new java.util.TreeMap<>();
+    for (int op = 0; op < 100_000; op++) {
+      int key = random.nextInt(2_000);
+      if (random.nextInt(3) > 0) {
+        assert java.util.Objects.equals(rb.put(key, op), expected.put(key, op));
+      } else {
+        assert java.util.Objects.equals(rb.remove(key), expected.remove(key));
+      }
+      if (op % 5_000 == 0) {
+        rb.check();
+        assert rb.size() == expected.size();
+        assert java.util.Objects.equals(rb.floorKey(key), expected.floorKey(key));
+        assert java.util.Objects.equals(rb.ceilingKey(key), expected.ceilingKey(key));
+        assert rb.rank(key) == expected.headMap(key).size();
+      }
+    }
+    rb.check();
+    java.util.Iterator<Map.Entry<Integer, Integer>> it = rb.range(500, 1_500).iterator();
+    for (Map.Entry<Integer, Integer> entry : expected.subMap(500, 1_500).entrySet()) {
+      assert it.next().getKey().equals(entry.getKey());
+    }
+    assert !it.hasNext();
+
+    /* Percentiles over live data */
+    RedBlackBST<Double, Void> latencies = new RedBlackBST<>();
+    for (int i = 1; i <= 1000; i++) {
+      latencies.put((double) i, null);
+    }
+    assert latencies.percentile(0.5).getKey() == 501.0;
+    assert latencies.percentile(0.99).getKey() == 990.0;
+    System.out.println("p50 " + latencies.percentile(0.5).getKey());
+
+    /* Bulk building from sorted keys, of every shape of tree */
+    for (int n = 0; n < 300; n++) {
+      Integer[] sorted = new Integer[n];
+      for (int i = 0; i < n; i++) {
+        sorted[i] = 2 * i;
+      }
+      RedBlackBST<Integer, Integer> built = new RedBlackBST<>();
+      built.buildFromSorted(sorted, sorted);
+      built.check();
+      assert built.size() == n && (n == 0 || built.get(2 * (n - 1)) == 2 * (n - 1));
+      built.put(-1, -1);
+      built.remove(0);
+      built.check();
+    }
+    RedBlackBST<Integer, Integer> evens = new RedBlackBST<>();
+    RedBlackBST<Integer, Integer> odds = new RedBlackBST<>();
+    Integer[] keys = new Integer[1 << 17];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = 2 * i;
+    }
+    evens.buildFromSortedParallel(keys, null);
+    evens.check();
+    for (int i = 0; i < 1_000; i++) {
+      odds.put(2 * i + 1, i);
+    }
+    evens.union(odds);
+    evens.check();
+    assert evens.size() == keys.length + 1_000 && odds.isEmpty() && evens.get(7) == 3;
+    try {
+      evens.buildFromSorted(new Integer[] {1, 3, 2}, null);
+      assert false;
+    } catch (IllegalArgumentException expectedFailure) {
+      assert evens.size() == keys.length + 1_000;
+    }
+  }
+}
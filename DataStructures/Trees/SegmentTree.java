@@ -0,0 +1,145 @@
+package DataStructures.Trees;
+
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Iterative, array-backed segment tree over {@code long} values for any associative operation with
+ * an identity: sum, min, max, gcd, bitwise and/or/xor, and so on.
+ *
+ * <p>The n values are the leaves {@code tree[n..2n)} and every node {@code i < n} holds {@code
+ * op(tree[2i], tree[2i + 1])}. A point update rewrites the leaf and its O(log n) ancestors; a range
+ * query walks up from both ends of the range at once, combining the nodes that are fully inside
+ * it. Both are loops over one {@code long[2n]}, with no recursion and no allocation, and the
+ * operation does not need to be commutative as the left and right parts are combined separately.
+ *
+ * <p>For updates to whole ranges, see {@link LazySegmentTree}.
+ *
+ * <p>https://codeforces.com/blog/entry/18051
+ */
+public class SegmentTree {
+
+  private final int n;
+  private final long[] tree;
+  private final LongBinaryOperator op;
+  private final long identity;
+
+  /**
+   * @param values initial values, copied
+   * @param op associative operation
+   * @param identity value {@code e} with {@code op(e, x) == op(x, e) == x}
+   */
+  public SegmentTree(long[] values, LongBinaryOperator op, long identity) {
+    this.n = values.length;
+    this.tree = new long[2 * Math.max(1, n)];
+    this.op = op;
+    this.identity = identity;
+    java.util.Arrays.fill(tree, identity);
+    System.arraycopy(values, 0, tree, n, n);
+    for (int i = n - 1; i > 0; i--) {
+      tree[i] = op.applyAsLong(tree[2 * i], tree[2 * i + 1]);
+    }
+  }
+
+  public static SegmentTree sum(long[] values) {
+    return new SegmentTree(values, Long::sum, 0);
+  }
+
+  public static SegmentTree min(long[] values) {
+    return new SegmentTree(values, Math::min, Long.MAX_VALUE);
+  }
+
+  public static SegmentTree max(long[] values) {
+    return new SegmentTree(values, Math::max, Long.MIN_VALUE);
+  }
+
+  public int size() {
+    return n;
+  }
+
+  public long get(int index) {
+    checkIndex(index);
+    return tree[n + index];
+  }
+
+  /** Sets the value at {@code index} in O(log n) */
+  public void set(int index, long value) {
+    checkIndex(index);
+    int i = n + index;
+    tree[i] = value;
+    for (i >>= 1; i > 0; i >>= 1) {
+      tree[i] = op.applyAsLong(tree[2 * i], tree[2 * i + 1]);
+    }
+  }
+
+  /** Replaces the value at {@code index} by {@code op(value at index, delta)} */
+  public void update(int index, long delta) {
+    set(index, op.applyAsLong(get(index), delta));
+  }
+
+  /** @return the operation folded over {@code [from, to)}, the identity for an empty range */
+  public long query(int from, int to) {
+    if (from < 0 || to > n || from > to) {
+      throw new IndexOutOfBoundsException("[" + from + ", " + to + ") of " + n);
+    }
+    long left = identity;
+    long right = identity;
+    for (int l = from + n, r = to + n; l < r; l >>= 1, r >>= 1) {
+      if ((l & 1) == 1) {
+        left = op.applyAsLong(left, tree[l++]);
+      }
+      if ((r & 1) == 1) {
+        right = op.applyAsLong(tree[--r], right);
+      }
+    }
+    return op.applyAsLong(left, right);
+  }
+
+  /** @return the operation folded over all values */
+  public long all() {
+    return n == 0 ? identity : query(0, n);
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= n) {
+      throw new IndexOutOfBoundsException("index: " + index + ", size: " + n);
+    }
+  }
+
+  /* Driver Code */
+  public static void main(String[] args) {
+    long[] values = {5, 3, 8, 6, 1, 4, 7, 2};
+    SegmentTree sums = sum(values);
+    SegmentTree mins = min(values);
+    SegmentTree maxs = max(values);
+    assert sums.query(0, 8) == 36 && sums.query(2, 5) == 15 && sums.query(3, 3) == 0;
+    assert mins.query(0, 4) == 3 && mins.query(3, 8) == 1 && maxs.query(3, 7) == 7;
+    sums.set(4, 10);
+    mins.set(4, 10);
+    assert sums.query(2, 5) == 24 && mins.query(3, 8) == 2;
+
+    /* A non-commutative operation: first non-zero value of the range */
+    SegmentTree firsts = new SegmentTree(new long[] {0, 4, 0, 7, 0}, (a, b) -> a != 0 ? a : b, 0);
+    assert firsts.query(0, 5) == 4 && firsts.query(2, 5) == 7 && firsts.query(4, 5) == 0;
+
+    /* Against brute force on random data of odd length */
+    java.util.Random random = new java.util.Random(4);
+    long[] data = new long[1_001];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = random.nextInt(2_000) - 1_000;
+    }
+    SegmentTree tree = max(data);
+    for (int q = 0; q < 10_000; q++) {
+      int i = random.nextInt(data.length);
+      data[i] = random.nextInt(2_000) - 1_000;
+      tree.set(i, data[i]);
+      int from = random.nextInt(data.length);
+      int to = from + 1 + random.nextInt(data.length - from);
+      long expected = Long.MIN_VALUE;
+      for (int j = from; j < to; j++) {
+        expected = Math.max(expected, data[j]);
+      }
+      assert tree.query(from, to) == expected;
+    }
+    System.out.println("max of all " + tree.all());
+  }
+}
@@ -0,0 +1,172 @@
+package DataStructures.Trees;
+
+import java.util.Arrays;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Two-dimensional {@link SegmentTree}: point updates and queries over rectangles of a {@code rows x
+ * columns} grid in O(log rows * log columns), for operations such as min and max that a {@link
+ * FenwickTree2D} cannot handle.
+ *
+ * <p>It is a segment tree over rows whose nodes are segment trees over columns, all stored in one
+ * flat {@code long[4 * rows * columns]}: row node {@code x} and column node {@code y} are at {@code
+ * x * 2 * columns + y}. Because the results of row nodes and column nodes are combined in a mixed
+ * order, the operation must be commutative as well as associative.
+ *
+ * <p>https://cp-algorithms.com/data_structures/segment_tree.html
+ */
+public class SegmentTree2D {
+
+  private final int rows;
+  private final int columns;
+  private final long[] tree;
+  private final LongBinaryOperator op;
+  private final long identity;
+
+  /**
+   * @param values initial grid, {@code values[row][column]}, copied
+   * @param op associative and commutative operation
+   * @param identity identity of {@code op}
+   */
+  public SegmentTree2D(long[][] values, LongBinaryOperator op, long identity) {
+    this.rows = values.length;
+    this.columns = rows == 0 ? 0 : values[0].length;
+    this.tree = new long[4 * Math.max(1, rows) * Math.max(1, columns)];
+    this.op = op;
+    this.identity = identity;
+    Arrays.fill(tree, identity);
+    int width = 2 * columns;
+    for (int r = 0; r < rows; r++) {
+      System.arraycopy(values[r], 0, tree, (rows + r) * width + columns, columns);
+    }
+    for (int x = 2 * rows - 1; x > 0; x--) {
+      int row = x * width;
+      if (x < rows) {
+        for (int y = columns; y < width; y++) {
+          tree[row + y] = op.applyAsLong(tree[2 * x * width + y], tree[(2 * x + 1) * width + y]);
+        }
+      }
+      for (int y = columns - 1; y > 0; y--) {
+        tree[row + y] = op.applyAsLong(tree[row + 2 * y], tree[row + 2 * y + 1]);
+      }
+    }
+  }
+
+  public static SegmentTree2D min(long[][] values) {
+    return new SegmentTree2D(values, Math::min, Long.MAX_VALUE);
+  }
+
+  public static SegmentTree2D max(long[][] values) {
+    return new SegmentTree2D(values, Math::max, Long.MIN_VALUE);
+  }
+
+  /** Sets the cell at {@code (row, column)} */
+  public void set(int row, int column, long value) {
+    checkCell(row, column);
+    int width = 2 * columns;
+    for (int x = rows + row; x > 0; x >>= 1) {
+      int base = x * width;
+      int y = columns + column;
+      if (x >= rows) {
+        tree[base + y] = value;
+      } else {
+        tree[base + y] = op.applyAsLong(tree[2 * x * width + y], tree[(2 * x + 1) * width + y]);
+      }
+      for (y >>= 1; y > 0; y >>= 1) {
+        tree[base + y] = op.applyAsLong(tree[base + 2 * y], tree[base + 2 * y + 1]);
+      }
+    }
+  }
+
+  public long get(int row, int column) {
+    checkCell(row, column);
+    return tree[(rows + row) * 2 * columns + columns + column];
+  }
+
+  private void checkCell(int row, int column) {
+    if (row < 0 || row >= rows || column < 0 || column >= columns) {
+      throw new IndexOutOfBoundsException("(" + row + ", " + column + ")");
+    }
+  }
+
+  /** @return the operation folded over rows {@code [rowFrom, rowTo)} x {@code [colFrom, colTo)} */
+  public long query(int rowFrom, int colFrom, int rowTo, int colTo) {
+    if (rowFrom < 0 || rowTo > rows || rowFrom > rowTo) {
+      throw new IndexOutOfBoundsException("rows [" + rowFrom + ", " + rowTo + ")");
+    }
+    if (colFrom < 0 || colTo > columns || colFrom > colTo) {
+      throw new IndexOutOfBoundsException("columns [" + colFrom + ", " + colTo + ")");
+    }
+    long result = identity;
+    for (int l = rowFrom + rows, r = rowTo + rows; l < r; l >>= 1, r >>= 1) {
+      if ((l & 1) == 1) {
+        result = op.applyAsLong(result, queryRow(l++, colFrom, colTo));
+      }
+      if ((r & 1) == 1) {
+        result = op.applyAsLong(result, queryRow(--r, colFrom, colTo));
+      }
+    }
+    return result;
+  }
+
+  private long queryRow(int x, int colFrom, int colTo) {
+    int base = x * 2 * columns;
+    long result = identity;
+    for (int l = colFrom + columns, r = colTo + columns; l < r; l >>= 1, r >>= 1) {
+      if ((l & 1) == 1) {
+        result = op.applyAsLong(result, tree[base + l++]);
+      }
+      if ((r & 1) == 1) {
+        result = op.applyAsLong(result, tree[base + --r]);
+      }
+    }
+    return result;
+  }
+
+  /* Driver Code */
+  public static void main(String[] args) {
+    long[][] grid = {
+      {3, 8, 6, 7},
+      {8, 2, 5, 1},
+      {4, 9, 0, 6}
+    };
+    SegmentTree2D max = max(grid);
+    SegmentTree2D min = min(grid);
+    assert max.query(0, 0, 3, 4) == 9 && max.query(0, 0, 2, 2) == 8 && max.query(1, 2, 3, 4) == 6;
+    assert min.query(0, 0, 2, 3) == 2 && min.query(0, 0, 1, 1) == 3;
+    min.set(1, 1, 10);
+    assert min.query(0, 0, 2, 3) == 3 && min.get(1, 1) == 10;
+    try {
+      min.get(2, 4);
+      assert false;
+    } catch (IndexOutOfBoundsException expected) {
+    }
+
+    /* Against brute force with odd sizes */
+    java.util.Random random = new java.util.Random(13);
+    long[][] cells = new long[29][17];
+    for (long[] row : cells) {
+      for (int j = 0; j < row.length; j++) {
+        row[j] = random.nextInt(1000);
+      }
+    }
+    SegmentTree2D tree = max(cells);
+    for (int q = 0; q < 5_000; q++) {
+      int r = random.nextInt(29);
+      int c = random.nextInt(17);
+      cells[r][c] = random.nextInt(1000);
+      tree.set(r, c, cells[r][c]);
+      int r1 = random.nextInt(29);
+      int r2 = r1 + 1 + random.nextInt(29 - r1);
+      int c1 = random.nextInt(17);
+      int c2 = c1 + 1 + random.nextInt(17 - c1);
+      long expected = Long.MIN_VALUE;
+      for (int i = r1; i < r2; i++) {
+        for (int j = c1; j < c2; j++) {
+          expected = Math.max(expected, cells[i][j]);
+        }
+      }
+      assert tree.query(r1, c1, r2, c2) == expected;
+    }
+  }
+}
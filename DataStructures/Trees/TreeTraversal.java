@@ -1,7 +1,5 @@
 package DataStructures.Trees;
 
-import java.util.LinkedList;
-
 /** @author Varun Upadhyay (https://github.com/varunu28) */
 
 // Driver Program
@@ -14,22 +12,24 @@ public class TreeTraversal {
     tree.insert(4);
     tree.insert(6);
     tree.insert(8);
+    // One walker, and one stack, for all the traversals
+    BinaryTreeWalker<Node> walker = Node.walker();
 
     // Prints 5 3 2 4 7 6 8
     System.out.println("Pre order traversal:");
-    tree.printPreOrder();
+    tree.printPreOrder(walker);
     System.out.println();
     // Prints 2 3 4 5 6 7 8
     System.out.println("In order traversal:");
-    tree.printInOrder();
+    tree.printInOrder(walker);
     System.out.println();
     // Prints 2 4 3 6 8 7 5
     System.out.println("Post order traversal:");
-    tree.printPostOrder();
+    tree.printPostOrder(walker);
     System.out.println();
     // Prints 5 3 7 2 4 6 8
     System.out.println("Level order traversal:");
-    tree.printLevelOrder();
+    tree.printLevelOrder(walker);
     System.out.println();
   }
 }
@@ -38,7 +38,8 @@ public class TreeTraversal {
  * The Node class which initializes a Node of a tree Consists of all 4 traversal methods:
  * printInOrder, printPostOrder， printPreOrder & printLevelOrder printInOrder: LEFT -> ROOT -> RIGHT
  * printPreOrder: ROOT -> LEFT -> RIGHT printPostOrder: LEFT -> RIGHT -> ROOT printLevelOrder:
- * Prints by level (starting at root), from left to right.
+ * Prints by level (starting at root), from left to right. All of them walk the tree with a {@link
+ * BinaryTreeWalker}, so that degenerate trees do not overflow the stack.
  */
 class Node {
   Node left, right;
@@ -48,66 +49,50 @@ class Node {
     this.data = data;
   }
 
+  /** Walks down to the free place of {@code value}, without recursion */
   public void insert(int value) {
-    if (value < data) {
-      if (left == null) {
-        left = new Node(value);
-      } else {
-        left.insert(value);
-      }
-    } else {
-      if (right == null) {
-        right = new Node(value);
+    Node node = this;
+    while (true) {
+      if (value < node.data) {
+        if (node.left == null) {
+          node.left = new Node(value);
+          return;
+        }
+        node = node.left;
       } else {
-        right.insert(value);
+        if (node.right == null) {
+          node.right = new Node(value);
+          return;
+        }
+        node = node.right;
       }
     }
   }
 
-  public void printInOrder() {
-    if (left != null) {
-      left.printInOrder();
-    }
-    System.out.print(data + " ");
-    if (right != null) {
-      right.printInOrder();
-    }
+  /** @return a new walker over trees of these nodes, to create once and pass to the traversals */
+  public static BinaryTreeWalker<Node> walker() {
+    return new BinaryTreeWalker<>(n -> n.left, n -> n.right);
   }
 
-  public void printPreOrder() {
-    System.out.print(data + " ");
-    if (left != null) {
-      left.printPreOrder();
-    }
-    if (right != null) {
-      right.printPreOrder();
-    }
+  private static boolean print(Node node) {
+    System.out.print(node.data + " ");
+    return true;
   }
 
-  public void printPostOrder() {
-    if (left != null) {
-      left.printPostOrder();
-    }
-    if (right != null) {
-      right.printPostOrder();
-    }
-    System.out.print(data + " ");
+  public void printInOrder(BinaryTreeWalker<Node> walker) {
+    walker.inOrder(this, Node::print);
   }
 
-  /** O(n) time algorithm. Uses O(n) space to store nodes in a queue to aid in traversal. */
-  public void printLevelOrder() {
-    LinkedList<Node> queue = new LinkedList<>();
-    queue.add(this);
-    while (queue.size() > 0) {
-      Node head = queue.remove();
-      System.out.print(head.data + " ");
-      // Add children of recently-printed node to queue, if they exist.
-      if (head.left != null) {
-        queue.add(head.left);
-      }
-      if (head.right != null) {
-        queue.add(head.right);
-      }
-    }
+  public void printPreOrder(BinaryTreeWalker<Node> walker) {
+    walker.preOrder(this, Node::print);
+  }
+
+  public void printPostOrder(BinaryTreeWalker<Node> walker) {
+    walker.postOrder(this, Node::print);
+  }
+
+  /** O(n) time algorithm. Uses O(width) space to store nodes in a queue to aid in traversal. */
+  public void printLevelOrder(BinaryTreeWalker<Node> walker) {
+    walker.levelOrder(this, Node::print);
   }
 }
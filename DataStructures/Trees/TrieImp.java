@@ -1,7 +1,8 @@
 package DataStructures.Trees;
 
 /**
- * Trie Data structure implementation without any libraries
+ * Trie Data structure implementation, backed by an {@link AdaptiveRadixTree} so that words may
+ * use any characters
  *
  * @author Dheeraj Kumar Barnwal (https://github.com/dheeraj92)
  */
@@ -9,63 +10,29 @@ import java.util.Scanner;
 
 public class TrieImp {
 
-  public class TrieNode {
-    TrieNode[] child;
-    boolean end;
+  /** Words mapped to nothing; the radix tree shares nodes between words with common prefixes */
+  private final AdaptiveRadixTree<Boolean> words = new AdaptiveRadixTree<>();
 
-    public TrieNode() {
-      child = new TrieNode[26];
-      end = false;
-    }
+  public void insert(String word) {
+    words.put(word, Boolean.TRUE);
   }
 
-  private final TrieNode root;
-
-  public TrieImp() {
-    root = new TrieNode();
+  public boolean search(String word) {
+    return words.containsKey(word);
   }
 
-  public void insert(String word) {
-    TrieNode currentNode = root;
-    for (int i = 0; i < word.length(); i++) {
-      TrieNode node = currentNode.child[word.charAt(i) - 'a'];
-      if (node == null) {
-        node = new TrieNode();
-        currentNode.child[word.charAt(i) - 'a'] = node;
-      }
-      currentNode = node;
-    }
-    currentNode.end = true;
+  public boolean delete(String word) {
+    return words.remove(word) != null;
   }
 
-  public boolean search(String word) {
-    TrieNode currentNode = root;
-    for (int i = 0; i < word.length(); i++) {
-      char ch = word.charAt(i);
-      TrieNode node = currentNode.child[ch - 'a'];
-      if (node == null) {
-        return false;
-      }
-      currentNode = node;
-    }
-    return currentNode.end;
+  /** @return <tt>true</tt> if some inserted word starts with {@code prefix} */
+  public boolean startsWith(String prefix) {
+    return words.hasPrefix(prefix);
   }
 
-  public boolean delete(String word) {
-    TrieNode currentNode = root;
-    for (int i = 0; i < word.length(); i++) {
-      char ch = word.charAt(i);
-      TrieNode node = currentNode.child[ch - 'a'];
-      if (node == null) {
-        return false;
-      }
-      currentNode = node;
-    }
-    if (currentNode.end == true) {
-      currentNode.end = false;
-      return true;
-    }
-    return false;
+  /** @return the inserted words starting with {@code prefix}, in lexicographic order */
+  public Iterable<String> wordsWithPrefix(String prefix) {
+    return words.keysWithPrefix(prefix);
   }
 
   public static void sop(String print) {
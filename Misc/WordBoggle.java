@@ -1,3 +1,4 @@
+import DataStructures.Trees.AdaptiveRadixTree;
 import java.util.*;
 
 public class WordBoggle {
@@ -8,13 +9,13 @@ public class WordBoggle {
    * O(nm + ws) space.
    */
   public static List<String> boggleBoard(char[][] board, String[] words) {
-    Trie trie = new Trie();
-    for (String word : words) trie.add(word);
+    AdaptiveRadixTree<String> trie = new AdaptiveRadixTree<>();
+    for (String word : words) trie.put(word, word);
     Set<String> finalWords = new HashSet<>();
-    boolean[][] visited = new boolean[board.length][board.length];
+    boolean[][] visited = new boolean[board.length][board.length == 0 ? 0 : board[0].length];
+    AdaptiveRadixTree<String>.Cursor cursor = trie.cursor();
     for (int i = 0; i < board.length; i++)
-      for (int j = 0; j < board[i].length; j++)
-        explore(i, j, board, trie.root, visited, finalWords);
+      for (int j = 0; j < board[i].length; j++) explore(i, j, board, cursor, visited, finalWords);
     return new ArrayList<>(finalWords);
   }
 
@@ -48,30 +49,31 @@ public class WordBoggle {
               "NOTRE_PEATED",
             })
         .equals(ans));
+    assert boggleBoard(new char[0][], new String[] {"a"}).isEmpty();
   }
 
   public static void explore(
       int i,
       int j,
       char[][] board,
-      TrieNode trieNode,
+      AdaptiveRadixTree<String>.Cursor cursor,
       boolean[][] visited,
       Set<String> finalWords) {
     if (visited[i][j]) return;
 
     char letter = board[i][j];
-    if (!trieNode.children.containsKey(letter)) {
+    if (!cursor.pushCodePoint(letter)) {
       return;
     }
     visited[i][j] = true;
-    trieNode = trieNode.children.get(letter);
-    if (trieNode.children.containsKey('*')) finalWords.add(trieNode.word);
+    if (cursor.isKey()) finalWords.add(cursor.value());
 
     List<Integer[]> neighbors = getNeighbors(i, j, board);
     for (Integer[] neighbor : neighbors)
-      explore(neighbor[0], neighbor[1], board, trieNode, visited, finalWords);
+      explore(neighbor[0], neighbor[1], board, cursor, visited, finalWords);
 
     visited[i][j] = false;
+    cursor.pop();
   }
 
   public static List<Integer[]> getNeighbors(int i, int j, char[][] board) {
@@ -96,35 +98,3 @@ public class WordBoggle {
     return neighbors;
   }
 }
-
-// Trie used to optimize string search
-class TrieNode {
-
-  Map<Character, TrieNode> children = new HashMap<>();
-  String word = "";
-}
-
-class Trie {
-
-  TrieNode root;
-  char endSymbol;
-
-  public Trie() {
-    this.root = new TrieNode();
-    this.endSymbol = '*';
-  }
-
-  public void add(String str) {
-    TrieNode node = this.root;
-    for (int i = 0; i < str.length(); i++) {
-      char letter = str.charAt(i);
-      if (!node.children.containsKey(letter)) {
-        TrieNode newNode = new TrieNode();
-        node.children.put(letter, newNode);
-      }
-      node = node.children.get(letter);
-    }
-    node.children.put(this.endSymbol, null);
-    node.word = str;
-  }
-}